@@ -25,7 +25,6 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.regex.Pattern;
 
 /**
  * A Collection utility class that offers array, list and map conversions from a string.
@@ -60,11 +59,7 @@ public final class CollectionUtilities {
      */
     @NotNull
     public static String[] toArray(@Nullable final String stringArray, @NotNull final String delimiter) {
-        if (StringUtils.isEmpty(stringArray)) {
-            return new String[0];
-        }
-        final String regex = "(?<!\\\\)" + Pattern.quote(delimiter);
-        return stringArray.split(regex);
+        return new DelimitedTokenizer(stringArray, delimiter, true).toArray();
     }
 
     /**
@@ -103,7 +98,7 @@ public final class CollectionUtilities {
     @NotNull
     public static Map<String, String> toMap(@Nullable final String stringMap, @NotNull final String pairDelimiter, @NotNull final String keyValueDelimiter) {
         Map<String, String> theMap = new HashMap<>();
-        for (final String pairStr : toArray(stringMap, pairDelimiter)) {
+        for (final String pairStr : new DelimitedTokenizer(stringMap, pairDelimiter, true)) {
             final String[] arrayPair = toArray(pairStr, keyValueDelimiter);
             if (arrayPair.length != 2 && arrayPair.length != 0) {
                 throw new IllegalArgumentException(pairStr + ExceptionValues.EXCEPTION_DELIMITER + ExceptionValues.INVALID_KEY_VALUE_PAIR);
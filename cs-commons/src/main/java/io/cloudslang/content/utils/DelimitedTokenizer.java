@@ -0,0 +1,185 @@
+/*
+ * (c) Copyright 2017 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cloudslang.content.utils;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Splits a string on a literal delimiter by scanning it with indexOf, optionally ignoring the delimiters escaped with a
+ * backslash. The tokens are the same as the ones returned by String.split: empty tokens are kept, except the ones at the
+ * end of the string, and escape characters are kept in the tokens. Tokens are produced lazily, so a string can be
+ * counted or walked without building an array of all its tokens.
+ */
+public final class DelimitedTokenizer implements Iterable<String> {
+
+    private static final char ESCAPE_CHARACTER = '\\';
+
+    private final String source;
+    private final String delimiter;
+    private final boolean skipEscaped;
+
+    /**
+     * @param source      the string to split, null is handled as an empty string
+     * @param delimiter   the literal delimiter, an empty delimiter splits the string into its characters
+     * @param skipEscaped true to ignore the delimiters preceded by a backslash
+     */
+    public DelimitedTokenizer(@Nullable final String source, @NotNull final String delimiter, final boolean skipEscaped) {
+        this.source = source == null ? "" : source;
+        this.delimiter = delimiter;
+        this.skipEscaped = skipEscaped;
+    }
+
+    /**
+     * @return the number of tokens, without creating them
+     */
+    public int countTokens() {
+        if (source.isEmpty()) {
+            return 0;
+        }
+        int count = 0;
+        int lastNonEmpty = 0;
+        int position = 0;
+        while (true) {
+            final int end = indexOfDelimiter(position);
+            final int tokenEnd = end < 0 ? source.length() : end;
+            count++;
+            if (tokenEnd > position) {
+                lastNonEmpty = count;
+            }
+            if (end < 0) {
+                return lastNonEmpty;
+            }
+            position = end + delimiter.length();
+        }
+    }
+
+    @NotNull
+    public String[] toArray() {
+        final List<String> tokens = new ArrayList<>();
+        for (final String token : this) {
+            tokens.add(token);
+        }
+        return tokens.toArray(new String[tokens.size()]);
+    }
+
+    @NotNull
+    @Override
+    public Iterator<String> iterator() {
+        return new TokenIterator();
+    }
+
+    // an empty delimiter matches between every two characters
+    private int indexOfDelimiter(final int from) {
+        if (delimiter.isEmpty()) {
+            int index = from + 1;
+            while (skipEscaped && index < source.length() && isEscaped(index)) {
+                index++;
+            }
+            return index < source.length() ? index : -1;
+        }
+        int index = source.indexOf(delimiter, from);
+        while (skipEscaped && index > 0 && isEscaped(index)) {
+            index = source.indexOf(delimiter, index + 1);
+        }
+        return index;
+    }
+
+    private boolean isEscaped(final int index) {
+        return source.charAt(index - 1) == ESCAPE_CHARACTER;
+    }
+
+    private final class TokenIterator implements Iterator<String> {
+        // start of the next token to read, -1 once the end of the string was read
+        private int position;
+        // empty tokens read ahead, returned only when a non empty token follows them
+        private int pendingEmpty;
+        private String buffered;
+        private String next;
+
+        private TokenIterator() {
+            position = source.isEmpty() ? -1 : 0;
+            advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public String next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            final String current = next;
+            advance();
+            return current;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        private void advance() {
+            if (pendingEmpty > 0) {
+                pendingEmpty--;
+                next = "";
+                return;
+            }
+            if (buffered != null) {
+                next = buffered;
+                buffered = null;
+                return;
+            }
+            int empty = 0;
+            while (position >= 0) {
+                final String token = readToken();
+                if (!token.isEmpty()) {
+                    if (empty == 0) {
+                        next = token;
+                    } else {
+                        pendingEmpty = empty - 1;
+                        buffered = token;
+                        next = "";
+                    }
+                    return;
+                }
+                empty++;
+            }
+            next = null;
+        }
+
+        @NotNull
+        private String readToken() {
+            final int end = indexOfDelimiter(position);
+            if (end < 0) {
+                final String token = source.substring(position);
+                position = -1;
+                return token;
+            }
+            final String token = source.substring(position, end);
+            position = end + delimiter.length();
+            return token;
+        }
+    }
+}
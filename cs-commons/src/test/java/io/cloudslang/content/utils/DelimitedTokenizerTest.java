@@ -0,0 +1,69 @@
+/*
+ * (c) Copyright 2017 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.cloudslang.content.utils;
+
+import org.junit.Test;
+
+import java.util.Iterator;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class DelimitedTokenizerTest {
+
+    private static final String[] STRINGS = {"a,b,c", "a,,b", ",a,b", "a,b,,", ",,,", ",", "abc", "a\\,b,c", "a\\,,b\\,",
+            "\\,a", "a,\\,", ",,a\\,\\,,,b,,"};
+
+    @Test
+    public void tokensMatchRegexSplit() throws Exception {
+        for (String string : STRINGS) {
+            assertArrayEquals(string, string.split(Pattern.quote(",")), new DelimitedTokenizer(string, ",", false).toArray());
+            assertArrayEquals(string, string.split("(?<!\\\\)" + Pattern.quote(",")), new DelimitedTokenizer(string, ",", true).toArray());
+            assertEquals(string, string.split("(?<!\\\\)" + Pattern.quote(",")).length, new DelimitedTokenizer(string, ",", true).countTokens());
+        }
+    }
+
+    @Test
+    public void multiCharacterAndEmptyDelimiters() throws Exception {
+        assertArrayEquals(new String[]{"a", ",b"}, new DelimitedTokenizer("a,,,b", ",,", true).toArray());
+        assertArrayEquals(new String[]{"a", "b"}, new DelimitedTokenizer("a.*b", ".*", true).toArray());
+        assertArrayEquals("a\\bc".split("(?<!\\\\)"), new DelimitedTokenizer("a\\bc", "", true).toArray());
+        assertArrayEquals(new String[0], new DelimitedTokenizer(null, ",", true).toArray());
+    }
+
+    @Test
+    public void iteratesLazily() throws Exception {
+        final Iterator<String> tokens = new DelimitedTokenizer("a,,b,,", ",", true).iterator();
+        assertEquals("a", tokens.next());
+        assertEquals("", tokens.next());
+        assertEquals("b", tokens.next());
+        assertFalse(tokens.hasNext());
+    }
+
+    @Test
+    public void largeStrings() throws Exception {
+        for (int size : new int[]{10000, 100000, 1000000}) {
+            final StringBuilder string = new StringBuilder();
+            for (int count = 0; count < size; count++) {
+                string.append(count % 5 == 0 ? "\\;" : String.valueOf(count)).append(';');
+            }
+            final String[] expected = string.toString().split("(?<!\\\\);");
+            assertArrayEquals(expected, CollectionUtilities.toArray(string.toString(), ";"));
+            assertEquals(expected.length, new DelimitedTokenizer(string.toString(), ";", true).countTokens());
+        }
+    }
+}
@@ -1,9 +1,7 @@
 
 package io.cloudslang.content.json.actions;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.core.JsonParser;
 import com.hp.oo.sdk.content.annotations.Action;
 import com.hp.oo.sdk.content.annotations.Output;
 import com.hp.oo.sdk.content.annotations.Param;
@@ -13,6 +11,7 @@ import com.hp.oo.sdk.content.plugin.ActionMetadata.ResponseType;
 import io.cloudslang.content.constants.OutputNames;
 import io.cloudslang.content.constants.ResponseNames;
 import io.cloudslang.content.constants.ReturnCodes;
+import io.cloudslang.content.json.services.JsonArrayService;
 import io.cloudslang.content.json.utils.Constants;
 import io.cloudslang.content.utils.StringUtilities;
 
@@ -36,7 +35,10 @@ public class ArraySize {
      * words, it will not expand and count embedded arrays.  Null values are also
      * considered to be an element.
      *
-     * @param array The string representation of a JSON array object.
+     * The array is read as a stream of tokens, so arrays larger than the available memory can be counted.
+     *
+     * @param array       The string representation of a JSON array object, or the path of a file holding it.
+     * @param arraySource The source type of the array. Valid values: arrayString, arrayPath. Default value: arrayString
      * @return a map containing the output of the operation. Keys present in the map are:
      * <p/>
      * <br><br><b>returnResult</b> - This will contain size of the json array given in the input.
@@ -54,28 +56,31 @@ public class ArraySize {
                     @Response(text = ResponseNames.SUCCESS, field = OutputNames.RETURN_CODE, value = ReturnCodes.SUCCESS, matchType = MatchType.COMPARE_EQUAL, responseType = ResponseType.RESOLVED),
                     @Response(text = ResponseNames.FAILURE, field = OutputNames.RETURN_CODE, value = ReturnCodes.FAILURE, matchType = MatchType.COMPARE_EQUAL, responseType = ResponseType.ERROR, isOnFail = true)
             })
-    public Map<String, String> execute(@Param(value = Constants.InputNames.ARRAY, required = true) String array) {
+    public Map<String, String> execute(@Param(value = Constants.InputNames.ARRAY, required = true) String array,
+                                       @Param(value = Constants.InputNames.ARRAY_SOURCE) String arraySource) {
 
         Map<String, String> returnResult = new HashMap<>();
 
         if (StringUtilities.isBlank(array)) {
             return populateResult(returnResult, new Exception(NOT_A_VALID_JSON_ARRAY_MESSAGE));
         }
-        JsonNode jsonNode;
-        try {
-            ObjectMapper mapper = new ObjectMapper();
-            jsonNode = mapper.readTree(array);
+        final JsonArrayService jsonArrayService = new JsonArrayService();
+        final String result;
+        try (JsonParser parser = jsonArrayService.createParser(array, arraySource)) {
+            if (!jsonArrayService.startArray(parser)) {
+                return populateResult(returnResult, new Exception(NOT_A_VALID_JSON_ARRAY_MESSAGE));
+            }
+            result = Long.toString(jsonArrayService.size(parser));
         } catch (IOException exception) {
             final String value = "Invalid jsonObject provided! " + exception.getMessage();
             return populateResult(returnResult, value, exception);
-        }
-        final String result;
-        if (jsonNode instanceof ArrayNode) {
-            final ArrayNode asJsonArray = (ArrayNode) jsonNode;
-            result = Integer.toString(asJsonArray.size());
-        } else {
-            return populateResult(returnResult, new Exception(NOT_A_VALID_JSON_ARRAY_MESSAGE));
+        } catch (IllegalArgumentException exception) {
+            return populateResult(returnResult, exception);
         }
         return populateResult(returnResult, result, null);
     }
+
+    public Map<String, String> execute(String array) {
+        return execute(array, null);
+    }
 }
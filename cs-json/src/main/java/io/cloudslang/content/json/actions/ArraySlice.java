@@ -0,0 +1,95 @@
+package io.cloudslang.content.json.actions;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.hp.oo.sdk.content.annotations.Action;
+import com.hp.oo.sdk.content.annotations.Output;
+import com.hp.oo.sdk.content.annotations.Param;
+import com.hp.oo.sdk.content.annotations.Response;
+import com.hp.oo.sdk.content.plugin.ActionMetadata.MatchType;
+import com.hp.oo.sdk.content.plugin.ActionMetadata.ResponseType;
+import io.cloudslang.content.constants.OutputNames;
+import io.cloudslang.content.constants.ResponseNames;
+import io.cloudslang.content.constants.ReturnCodes;
+import io.cloudslang.content.json.services.JsonArrayService;
+import io.cloudslang.content.json.utils.Constants;
+import io.cloudslang.content.utils.NumberUtilities;
+import io.cloudslang.content.utils.OutputUtilities;
+import io.cloudslang.content.utils.StringUtilities;
+
+import java.io.StringWriter;
+import java.util.Map;
+
+import static io.cloudslang.content.json.utils.JsonExceptionValues.INVALID_INDEX;
+import static io.cloudslang.content.json.utils.JsonExceptionValues.NOT_A_JSON_ARRAY;
+
+public class ArraySlice {
+
+    /**
+     * This operation returns the elements of a JSON array found between two indexes. The array is read as a stream
+     * of tokens and reading stops after the last requested element, so pages can be taken from arrays larger than the
+     * available memory.
+     *
+     * @param array       The string representation of a JSON array object, or the path of a file holding it.
+     * @param arraySource The source type of the array. Valid values: arrayString, arrayPath. Default value: arrayString
+     * @param fromIndex   The index of the first element to return. Default value: 0
+     * @param toIndex     The index after the last element to return. Default value: the size of the array
+     * @param outputFile  The path of the file to write the slice to. When it is provided, returnResult contains
+     *                    the number of elements of the slice instead of the slice itself.
+     * @return a map containing the output of the operation. Keys present in the map are:
+     * <p/>
+     * <br><br><b>returnResult</b> - This will contain the JSON array with the selected elements.
+     * <br><b>exception</b> - In case of success response, this result is empty. In case of failure response,
+     * this result contains the java stack trace of the runtime exception.
+     * <br><br><b>returnCode</b> - The returnCode of the operation: 0 for success, -1 for failure.
+     */
+    @Action(name = "Array Slice",
+            outputs = {
+                    @Output(OutputNames.RETURN_RESULT),
+                    @Output(OutputNames.RETURN_CODE),
+                    @Output(OutputNames.EXCEPTION)
+            },
+            responses = {
+                    @Response(text = ResponseNames.SUCCESS, field = OutputNames.RETURN_CODE, value = ReturnCodes.SUCCESS, matchType = MatchType.COMPARE_EQUAL, responseType = ResponseType.RESOLVED),
+                    @Response(text = ResponseNames.FAILURE, field = OutputNames.RETURN_CODE, value = ReturnCodes.FAILURE, matchType = MatchType.COMPARE_EQUAL, responseType = ResponseType.ERROR, isOnFail = true)
+            })
+    public Map<String, String> execute(@Param(value = Constants.InputNames.ARRAY, required = true) String array,
+                                       @Param(value = Constants.InputNames.ARRAY_SOURCE) String arraySource,
+                                       @Param(value = Constants.InputNames.FROM_INDEX) String fromIndex,
+                                       @Param(value = Constants.InputNames.TO_INDEX) String toIndex,
+                                       @Param(value = Constants.InputNames.OUTPUT_FILE) String outputFile) {
+        if (StringUtilities.isBlank(array)) {
+            return OutputUtilities.getFailureResultsMap(NOT_A_JSON_ARRAY);
+        }
+        if (!isValidIndex(fromIndex)) {
+            return OutputUtilities.getFailureResultsMap(INVALID_INDEX + fromIndex);
+        }
+        if (!isValidIndex(toIndex)) {
+            return OutputUtilities.getFailureResultsMap(INVALID_INDEX + toIndex);
+        }
+
+        final JsonArrayService jsonArrayService = new JsonArrayService();
+        final boolean toFile = !StringUtilities.isBlank(outputFile);
+        final StringWriter writer = new StringWriter();
+        final long size;
+        try (JsonParser parser = jsonArrayService.createParser(array, arraySource);
+             JsonArrayService.ArrayOutput output = toFile ? jsonArrayService.createOutput(outputFile) : jsonArrayService.createOutput(writer)) {
+            final JsonGenerator generator = output.getGenerator();
+            if (!jsonArrayService.startArray(parser)) {
+                return OutputUtilities.getFailureResultsMap(NOT_A_JSON_ARRAY);
+            }
+            generator.writeStartArray();
+            size = jsonArrayService.copyElements(parser, generator,
+                    NumberUtilities.toLong(fromIndex, 0), NumberUtilities.toLong(toIndex, Long.MAX_VALUE));
+            generator.writeEndArray();
+            output.commit();
+        } catch (Exception exception) {
+            return OutputUtilities.getFailureResultsMap(exception);
+        }
+        return OutputUtilities.getSuccessResultsMap(toFile ? Long.toString(size) : writer.toString());
+    }
+
+    private boolean isValidIndex(String index) {
+        return StringUtilities.isBlank(index) || NumberUtilities.isValidLong(index, 0, Long.MAX_VALUE, true, true);
+    }
+}
@@ -7,12 +7,14 @@ import com.hp.oo.sdk.content.annotations.Param;
 import com.hp.oo.sdk.content.annotations.Response;
 import com.hp.oo.sdk.content.plugin.ActionMetadata.MatchType;
 import com.hp.oo.sdk.content.plugin.ActionMetadata.ResponseType;
+import com.jayway.jsonpath.JsonPath;
 import com.jayway.jsonpath.internal.JsonContext;
 import io.cloudslang.content.constants.OutputNames;
 import io.cloudslang.content.constants.ResponseNames;
 import io.cloudslang.content.constants.ReturnCodes;
 import io.cloudslang.content.json.utils.ActionsEnum;
 import io.cloudslang.content.json.utils.Constants;
+import io.cloudslang.content.json.utils.JsonPathCache;
 import io.cloudslang.content.json.utils.JsonUtils;
 
 import java.util.HashMap;
@@ -96,23 +98,24 @@ public class EditJson {
 
     private Object editJson(String jsonPath, String action, String name, Object value, JsonContext jsonContext) {
         ActionsEnum myAction = ActionsEnum.valueOf(action.toLowerCase());
+        JsonPath path = JsonPathCache.getInstance().compile(jsonPath);
         Object json = null;
 
         switch (myAction) {
             case get:
-                json = jsonContext.read(jsonPath);
+                json = jsonContext.read(path);
                 break;
             case insert:
-                json = jsonContext.put(jsonPath, name, value).json();
+                json = jsonContext.put(path, name, value).json();
                 break;
             case add:
-                json = jsonContext.add(jsonPath, value).json();
+                json = jsonContext.add(path, value).json();
                 break;
             case update:
-                json = jsonContext.set(jsonPath, value).json();
+                json = jsonContext.set(path, value).json();
                 break;
             case delete:
-                json = jsonContext.delete(jsonPath).json();
+                json = jsonContext.delete(path).json();
                 break;
         }
         return json;
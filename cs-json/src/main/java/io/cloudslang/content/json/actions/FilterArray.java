@@ -0,0 +1,84 @@
+package io.cloudslang.content.json.actions;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.hp.oo.sdk.content.annotations.Action;
+import com.hp.oo.sdk.content.annotations.Output;
+import com.hp.oo.sdk.content.annotations.Param;
+import com.hp.oo.sdk.content.annotations.Response;
+import com.hp.oo.sdk.content.plugin.ActionMetadata.MatchType;
+import com.hp.oo.sdk.content.plugin.ActionMetadata.ResponseType;
+import io.cloudslang.content.constants.OutputNames;
+import io.cloudslang.content.constants.ResponseNames;
+import io.cloudslang.content.constants.ReturnCodes;
+import io.cloudslang.content.json.services.JsonArrayService;
+import io.cloudslang.content.json.utils.Constants;
+import io.cloudslang.content.utils.OutputUtilities;
+import io.cloudslang.content.utils.StringUtilities;
+
+import java.io.StringWriter;
+import java.util.Map;
+
+import static io.cloudslang.content.json.utils.JsonExceptionValues.INVALID_PREDICATE;
+import static io.cloudslang.content.json.utils.JsonExceptionValues.NOT_A_JSON_ARRAY;
+
+public class FilterArray {
+
+    /**
+     * This operation returns the elements of a JSON array that match a JSON Path filter predicate. The array is read
+     * as a stream of tokens and only one element at a time is held in memory.
+     *
+     * @param array       The string representation of a JSON array object, or the path of a file holding it.
+     * @param arraySource The source type of the array. Valid values: arrayString, arrayPath. Default value: arrayString
+     * @param predicate   The JSON Path filter predicate each element is tested against, with @ standing for the element.
+     *                    Examples: @.price < 10, @.isbn, @ > 5
+     * @param outputFile  The path of the file to write the matching elements to. When it is provided, returnResult
+     *                    contains the number of matching elements instead of the elements themselves.
+     * @return a map containing the output of the operation. Keys present in the map are:
+     * <p/>
+     * <br><br><b>returnResult</b> - This will contain the JSON array with the matching elements.
+     * <br><b>exception</b> - In case of success response, this result is empty. In case of failure response,
+     * this result contains the java stack trace of the runtime exception.
+     * <br><br><b>returnCode</b> - The returnCode of the operation: 0 for success, -1 for failure.
+     */
+    @Action(name = "Filter Array",
+            outputs = {
+                    @Output(OutputNames.RETURN_RESULT),
+                    @Output(OutputNames.RETURN_CODE),
+                    @Output(OutputNames.EXCEPTION)
+            },
+            responses = {
+                    @Response(text = ResponseNames.SUCCESS, field = OutputNames.RETURN_CODE, value = ReturnCodes.SUCCESS, matchType = MatchType.COMPARE_EQUAL, responseType = ResponseType.RESOLVED),
+                    @Response(text = ResponseNames.FAILURE, field = OutputNames.RETURN_CODE, value = ReturnCodes.FAILURE, matchType = MatchType.COMPARE_EQUAL, responseType = ResponseType.ERROR, isOnFail = true)
+            })
+    public Map<String, String> execute(@Param(value = Constants.InputNames.ARRAY, required = true) String array,
+                                       @Param(value = Constants.InputNames.ARRAY_SOURCE) String arraySource,
+                                       @Param(value = Constants.InputNames.PREDICATE, required = true) String predicate,
+                                       @Param(value = Constants.InputNames.OUTPUT_FILE) String outputFile) {
+        if (StringUtilities.isBlank(array)) {
+            return OutputUtilities.getFailureResultsMap(NOT_A_JSON_ARRAY);
+        }
+        if (StringUtilities.isBlank(predicate)) {
+            return OutputUtilities.getFailureResultsMap(INVALID_PREDICATE + predicate);
+        }
+
+        final JsonArrayService jsonArrayService = new JsonArrayService();
+        final boolean toFile = !StringUtilities.isBlank(outputFile);
+        final StringWriter writer = new StringWriter();
+        final long size;
+        try (JsonParser parser = jsonArrayService.createParser(array, arraySource);
+             JsonArrayService.ArrayOutput output = toFile ? jsonArrayService.createOutput(outputFile) : jsonArrayService.createOutput(writer)) {
+            final JsonGenerator generator = output.getGenerator();
+            if (!jsonArrayService.startArray(parser)) {
+                return OutputUtilities.getFailureResultsMap(NOT_A_JSON_ARRAY);
+            }
+            generator.writeStartArray();
+            size = jsonArrayService.copyMatchingElements(parser, generator, predicate);
+            generator.writeEndArray();
+            output.commit();
+        } catch (Exception exception) {
+            return OutputUtilities.getFailureResultsMap(exception);
+        }
+        return OutputUtilities.getSuccessResultsMap(toFile ? Long.toString(size) : writer.toString());
+    }
+}
@@ -3,8 +3,6 @@ package io.cloudslang.content.json.actions;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ArrayNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.hp.oo.sdk.content.annotations.Action;
 import com.hp.oo.sdk.content.annotations.Output;
 import com.hp.oo.sdk.content.annotations.Param;
@@ -15,6 +13,7 @@ import io.cloudslang.content.constants.OutputNames;
 import io.cloudslang.content.constants.ResponseNames;
 import io.cloudslang.content.constants.ReturnCodes;
 import io.cloudslang.content.json.utils.Constants;
+import io.cloudslang.content.json.utils.JsonKeyPath;
 import io.cloudslang.content.utils.StringUtilities;
 
 import java.util.HashMap;
@@ -28,7 +27,7 @@ import static io.cloudslang.content.json.utils.JsonUtils.populateResult;
  */
 public class GetValueFromObject {
 
-    private static final String ESCAPED_SLASH = "\\";
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
 
     /**
      * This operation accepts an object in the JavaScript Object Notation format (JSON) and returns a value for the specified key.
@@ -70,18 +69,16 @@ public class GetValueFromObject {
         }
 
         final JsonNode jsonRoot;
-        ObjectMapper objectMapper = new ObjectMapper();
         try {
-            jsonRoot = objectMapper.readTree(object);
+            jsonRoot = OBJECT_MAPPER.readTree(object);
         } catch (Exception exception) {
             final String value = "Invalid object provided! " + exception.getMessage();
             return populateResult(returnResult, value, exception);
         }
 
-        int startIndex = 0;
         final JsonNode valueFromObject;
         try {
-            valueFromObject = getObject(jsonRoot, key.split(ESCAPED_SLASH + "."), startIndex);
+            valueFromObject = JsonKeyPath.compile(key).navigate(jsonRoot);
         } catch (Exception exception) {
             return populateResult(returnResult, exception);
         }
@@ -92,68 +89,4 @@ public class GetValueFromObject {
         }
 
     }
-
-    private JsonNode getObject(JsonNode jsonObject, String[] keys, int startIndex) throws Exception {
-        if (startIndex >= keys.length) {
-            return jsonObject;
-        }
-        String aKey = keys[startIndex];
-        if (jsonObject instanceof ObjectNode) {
-            //base case
-            if (keys.length == 0)
-                return getValue(jsonObject, aKey);
-                //recursive call
-            else {
-                final ObjectNode newJsonObject;
-                final JsonNode valueFromKey = getValue(jsonObject, aKey);
-                if (valueFromKey instanceof ObjectNode) {
-                    newJsonObject = (ObjectNode) valueFromKey;
-                } else {
-                    return valueFromKey;
-                }
-                return getObject(newJsonObject, keys, ++startIndex);
-            }
-        } else {
-            throw new Exception("The key does not exist in JavaScript object!");
-        }
-    }
-
-    private JsonNode getValue(JsonNode jsonElement, String aKey) throws Exception {
-
-        //non JSON array object
-        if (!aKey.matches(".*" + ESCAPED_SLASH + "[[0-9]+]$")) {
-            if (jsonElement.get(aKey) != null) {
-                return jsonElement.get(aKey);
-            } else
-                throw new Exception("The " + aKey + " key does not exist in JavaScript object!");
-        }
-        //JSON array object
-        else {
-            int startIndex = aKey.indexOf("[");
-            int endIndex = aKey.indexOf("]");
-            String oneKey = aKey.substring(0, startIndex);
-            int index = 0;
-            try {
-                index = Integer.parseInt(aKey.substring(startIndex + 1, endIndex));
-            } catch (NumberFormatException e) {
-                throw new Exception("Invalid index provided: " + index);
-            }
-            JsonNode subObject;
-            subObject = jsonElement.get(oneKey);
-            if (jsonElement.get(oneKey) != null) {
-                if (subObject instanceof ArrayNode) {
-                    final ArrayNode asJsonArray = (ArrayNode) subObject;
-                    if ((index >= asJsonArray.size()) || (index < 0)) {
-                        throw new Exception("The provided " + index + " index is out of range! Provide a valid index value in the provided JSON!");
-                    } else {
-                        return asJsonArray.get(index);
-                    }
-                } else {
-                    throw new Exception("Invalid json array provided: " + subObject.toString() + " ");
-                }
-            } else {
-                throw new Exception("The " + aKey + " key does not exist in JavaScript object!");
-            }
-        }
-    }
 }
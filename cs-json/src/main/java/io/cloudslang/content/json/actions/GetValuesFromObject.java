@@ -0,0 +1,95 @@
+package io.cloudslang.content.json.actions;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.hp.oo.sdk.content.annotations.Action;
+import com.hp.oo.sdk.content.annotations.Output;
+import com.hp.oo.sdk.content.annotations.Param;
+import com.hp.oo.sdk.content.annotations.Response;
+import com.hp.oo.sdk.content.plugin.ActionMetadata.MatchType;
+import com.hp.oo.sdk.content.plugin.ActionMetadata.ResponseType;
+import io.cloudslang.content.constants.OutputNames;
+import io.cloudslang.content.constants.ResponseNames;
+import io.cloudslang.content.constants.ReturnCodes;
+import io.cloudslang.content.json.utils.Constants;
+import io.cloudslang.content.json.utils.JsonKeyPath;
+import io.cloudslang.content.utils.StringUtilities;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static io.cloudslang.content.json.utils.JsonExceptionValues.INVALID_KEYS;
+import static io.cloudslang.content.json.utils.JsonUtils.populateResult;
+
+public class GetValuesFromObject {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    /**
+     * This operation accepts an object in the JavaScript Object Notation format (JSON) and returns the values for
+     * several keys, parsing the object only once.
+     *
+     * @param object The string representation of a JSON object.
+     *               Examples: {"one":1, "two":2}, {"one":{"a":"a","B":"B"}, "two":"two", "three":[1,2,3.4]}
+     * @param keys   A JSON array with the keys in the object to get the values of, using the same syntax as
+     *               Get Value from Object. Example: ["city", "location[0].city"]
+     * @return a map containing the output of the operation. Keys present in the map are:
+     * <p/>
+     * <br><br><b>returnResult</b> - This will contain a JSON object with the value of each key, under the key itself.
+     * <br><b>exception</b> - In case of success response, this result is empty. In case of failure response,
+     * this result contains the java stack trace of the runtime exception.
+     * <br><br><b>returnCode</b> - The returnCode of the operation: 0 for success, -1 for failure.
+     */
+    @Action(name = "Get Values from Object",
+            outputs = {
+                    @Output(OutputNames.RETURN_RESULT),
+                    @Output(OutputNames.RETURN_CODE),
+                    @Output(OutputNames.EXCEPTION)
+            },
+            responses = {
+                    @Response(text = ResponseNames.SUCCESS, field = OutputNames.RETURN_CODE, value = ReturnCodes.SUCCESS, matchType = MatchType.COMPARE_EQUAL, responseType = ResponseType.RESOLVED),
+                    @Response(text = ResponseNames.FAILURE, field = OutputNames.RETURN_CODE, value = ReturnCodes.FAILURE, matchType = MatchType.COMPARE_EQUAL, responseType = ResponseType.ERROR, isOnFail = true)
+            })
+    public Map<String, String> execute(
+            @Param(value = Constants.InputNames.OBJECT, required = true) String object,
+            @Param(value = Constants.InputNames.KEYS, required = true) String keys) {
+
+        Map<String, String> returnResult = new HashMap<>();
+
+        if (StringUtilities.isBlank(object)) {
+            return populateResult(returnResult, new Exception("Empty object provided!"));
+        }
+        final JsonNode keysNode;
+        try {
+            keysNode = OBJECT_MAPPER.readTree(StringUtilities.defaultString(keys));
+        } catch (Exception exception) {
+            return populateResult(returnResult, INVALID_KEYS, exception);
+        }
+        if (keysNode == null || !keysNode.isArray()) {
+            return populateResult(returnResult, new Exception(INVALID_KEYS));
+        }
+
+        final JsonNode jsonRoot;
+        try {
+            jsonRoot = OBJECT_MAPPER.readTree(object);
+        } catch (Exception exception) {
+            final String value = "Invalid object provided! " + exception.getMessage();
+            return populateResult(returnResult, value, exception);
+        }
+
+        final ObjectNode values = OBJECT_MAPPER.createObjectNode();
+        try {
+            for (JsonNode keyNode : keysNode) {
+                if (!keyNode.isTextual()) {
+                    throw new Exception(INVALID_KEYS);
+                }
+                final String key = keyNode.asText();
+                values.set(key, JsonKeyPath.compile(key).navigate(jsonRoot));
+            }
+        } catch (Exception exception) {
+            return populateResult(returnResult, exception);
+        }
+        return populateResult(returnResult, values.toString(), null);
+    }
+}
@@ -0,0 +1,49 @@
+package io.cloudslang.content.json.actions;
+
+import com.hp.oo.sdk.content.annotations.Action;
+import com.hp.oo.sdk.content.annotations.Output;
+import com.hp.oo.sdk.content.annotations.Param;
+import com.hp.oo.sdk.content.annotations.Response;
+import com.hp.oo.sdk.content.plugin.ActionMetadata.MatchType;
+import com.hp.oo.sdk.content.plugin.ActionMetadata.ResponseType;
+import io.cloudslang.content.constants.OutputNames;
+import io.cloudslang.content.constants.ResponseNames;
+import io.cloudslang.content.constants.ReturnCodes;
+import io.cloudslang.content.json.services.JsonService;
+import io.cloudslang.content.json.utils.Constants;
+import io.cloudslang.content.utils.OutputUtilities;
+
+import java.util.Map;
+
+public class JsonPathMultiQuery {
+
+    /**
+     * This operation takes a reference to JSON (in the form of a string) and runs several JSON Path queries on it,
+     * parsing the JSON only once. It returns the results as a JSON Object.
+     *
+     * @param jsonObject The JSON in the form of a string.
+     * @param jsonPaths  A JSON object mapping each result name to the JSON Path query to run.
+     *                   Example: {"name": "$.store.owner.name", "cheapBooks": "$..book[?(@.price<10)]"}
+     * @return           A map which contains a JSON object with the result of each query under its name.
+     *                   A query that matches nothing has a null result.
+     */
+    @Action(name = "JSON Path Multi Query",
+            outputs = {
+                    @Output(OutputNames.RETURN_RESULT),
+                    @Output(OutputNames.RETURN_CODE),
+                    @Output(OutputNames.EXCEPTION)
+            },
+            responses = {
+                    @Response(text = ResponseNames.SUCCESS, field = OutputNames.RETURN_CODE, value = ReturnCodes.SUCCESS, matchType = MatchType.COMPARE_EQUAL, responseType = ResponseType.RESOLVED),
+                    @Response(text = ResponseNames.FAILURE, field = OutputNames.RETURN_CODE, value = ReturnCodes.FAILURE, matchType = MatchType.COMPARE_EQUAL, responseType = ResponseType.ERROR, isOnFail = true)
+            })
+    public Map<String, String> execute(
+            @Param(value = Constants.InputNames.JSON_OBJECT, required = true) String jsonObject,
+            @Param(value = Constants.InputNames.JSON_PATHS, required = true) String jsonPaths) {
+        try {
+            return OutputUtilities.getSuccessResultsMap(JsonService.evaluateJsonPathQueries(jsonObject, jsonPaths).toString());
+        } catch (Exception exception) {
+            return OutputUtilities.getFailureResultsMap(exception);
+        }
+    }
+}
@@ -1,9 +1,8 @@
 
 package io.cloudslang.content.json.actions;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
 import com.hp.oo.sdk.content.annotations.Action;
 import com.hp.oo.sdk.content.annotations.Output;
 import com.hp.oo.sdk.content.annotations.Param;
@@ -13,10 +12,12 @@ import com.hp.oo.sdk.content.plugin.ActionMetadata.ResponseType;
 import io.cloudslang.content.constants.OutputNames;
 import io.cloudslang.content.constants.ResponseNames;
 import io.cloudslang.content.constants.ReturnCodes;
+import io.cloudslang.content.json.services.JsonArrayService;
 import io.cloudslang.content.json.utils.Constants;
 import io.cloudslang.content.utils.StringUtilities;
 
 import java.io.IOException;
+import java.io.StringWriter;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -37,7 +38,7 @@ public class MergeArrays {
     /**
      * This operation merge the contents of two JSON arrays. This operation does not modify either of the input arrays.
      * The result is the contents or array1 and array2, merged into a single array. The merge operation add into the result
-     * the first array and then the second array.
+     * the first array and then the second array. The arrays are copied token by token, without being held in memory.
      *
      * @param array1 The string representation of a JSON array object.
      *               Arrays in JSON are comma separated lists of objects, enclosed in square brackets [ ].
@@ -45,6 +46,9 @@ public class MergeArrays {
      * @param array2 The string representation of a JSON array object.
      *               Arrays in JSON are comma separated lists of objects, enclosed in square brackets [ ].
      *               Examples: [1,2,3] or ["one","two","three"] or [{"one":1, "two":2}, 3, "four"]
+     * @param arraySource The source type of both arrays. Valid values: arrayString, arrayPath. Default value: arrayString
+     * @param outputFile  The path of the file to write the merged array to. When it is provided, returnResult
+     *                    contains the number of elements of the merged array instead of the array itself.
      * @return a map containing the output of the operation. Keys present in the map are:
      * <p/>
      * <br><br><b>returnResult</b> - This will contain the string representation of the new JSON array with the contents
@@ -64,7 +68,9 @@ public class MergeArrays {
                     @Response(text = ResponseNames.FAILURE, field = OutputNames.RETURN_CODE, value = ReturnCodes.FAILURE, matchType = MatchType.COMPARE_EQUAL, responseType = ResponseType.ERROR, isOnFail = true)
             })
     public Map<String, String> execute(@Param(value = Constants.InputNames.ARRAY, required = true) String array1,
-                                       @Param(value = Constants.InputNames.ARRAY, required = true) String array2) {
+                                       @Param(value = Constants.InputNames.ARRAY, required = true) String array2,
+                                       @Param(value = Constants.InputNames.ARRAY_SOURCE) String arraySource,
+                                       @Param(value = Constants.InputNames.OUTPUT_FILE) String outputFile) {
 
         Map<String, String> returnResult = new HashMap<>();
         if (StringUtilities.isBlank(array1)) {
@@ -77,35 +83,55 @@ public class MergeArrays {
             return populateResult(returnResult, new Exception(exceptionValue));
         }
 
-        JsonNode jsonNode1;
-        JsonNode jsonNode2;
-        ObjectMapper mapper = new ObjectMapper();
-        try {
-            jsonNode1 = mapper.readTree(array1);
-        } catch (IOException exception) {
-            final String value = INVALID_JSON_OBJECT_PROVIDED_EXCEPTION_MESSAGE + ARRAY1_MESSAGE + array1;
-            return populateResult(returnResult, value, exception);
-        }
-        try {
-            jsonNode2 = mapper.readTree(array2);
-        } catch (IOException exception) {
-            final String value = INVALID_JSON_OBJECT_PROVIDED_EXCEPTION_MESSAGE + ARRAY2_MESSAGE + array2;
-            return populateResult(returnResult, value, exception);
-        }
-
-        final String result;
-        if (jsonNode1 instanceof ArrayNode && jsonNode2 instanceof ArrayNode) {
-            final ArrayNode asJsonArray1 = (ArrayNode) jsonNode1;
-            final ArrayNode asJsonArray2 = (ArrayNode) jsonNode2;
-            final ArrayNode asJsonArrayResult = new ArrayNode(mapper.getNodeFactory());
+        final JsonArrayService jsonArrayService = new JsonArrayService();
+        final boolean toFile = !StringUtilities.isBlank(outputFile);
+        final StringWriter writer = new StringWriter();
+        long size = 0;
+        try (JsonParser parser1 = jsonArrayService.createParser(array1, arraySource);
+             JsonParser parser2 = jsonArrayService.createParser(array2, arraySource);
+             JsonArrayService.ArrayOutput output = toFile ? jsonArrayService.createOutput(outputFile) : jsonArrayService.createOutput(writer)) {
+            final JsonGenerator generator = output.getGenerator();
+            final boolean isArray1;
+            final boolean isArray2;
+            try {
+                isArray1 = jsonArrayService.startArray(parser1);
+            } catch (IOException exception) {
+                final String value = INVALID_JSON_OBJECT_PROVIDED_EXCEPTION_MESSAGE + ARRAY1_MESSAGE + array1;
+                return populateResult(returnResult, value, exception);
+            }
+            try {
+                isArray2 = jsonArrayService.startArray(parser2);
+            } catch (IOException exception) {
+                final String value = INVALID_JSON_OBJECT_PROVIDED_EXCEPTION_MESSAGE + ARRAY2_MESSAGE + array2;
+                return populateResult(returnResult, value, exception);
+            }
+            if (!isArray1 || !isArray2) {
+                final String result = NOT_A_VALID_JSON_ARRAY_MESSAGE + ARRAY1_MESSAGE + array1 + ARRAY2_MESSAGE + array2;
+                return populateResult(returnResult, new Exception(result));
+            }
 
-            asJsonArrayResult.addAll(asJsonArray1);
-            asJsonArrayResult.addAll(asJsonArray2);
-            result = asJsonArrayResult.toString();
-        } else {
-            result = NOT_A_VALID_JSON_ARRAY_MESSAGE + ARRAY1_MESSAGE + array1 + ARRAY2_MESSAGE + array2;
-            return populateResult(returnResult, new Exception(result));
+            generator.writeStartArray();
+            try {
+                size += jsonArrayService.copyElements(parser1, generator);
+            } catch (IOException exception) {
+                final String value = INVALID_JSON_OBJECT_PROVIDED_EXCEPTION_MESSAGE + ARRAY1_MESSAGE + array1;
+                return populateResult(returnResult, value, exception);
+            }
+            try {
+                size += jsonArrayService.copyElements(parser2, generator);
+            } catch (IOException exception) {
+                final String value = INVALID_JSON_OBJECT_PROVIDED_EXCEPTION_MESSAGE + ARRAY2_MESSAGE + array2;
+                return populateResult(returnResult, value, exception);
+            }
+            generator.writeEndArray();
+            output.commit();
+        } catch (IOException | IllegalArgumentException exception) {
+            return populateResult(returnResult, exception);
         }
-        return populateResult(returnResult, result, null);
+        return populateResult(returnResult, toFile ? Long.toString(size) : writer.toString(), null);
+    }
+
+    public Map<String, String> execute(String array1, String array2) {
+        return execute(array1, array2, null, null);
     }
 }
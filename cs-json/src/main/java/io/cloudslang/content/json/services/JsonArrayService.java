@@ -0,0 +1,216 @@
+package io.cloudslang.content.json.services;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.jayway.jsonpath.Configuration;
+import com.jayway.jsonpath.JsonPath;
+import com.jayway.jsonpath.spi.json.JacksonJsonNodeJsonProvider;
+import io.cloudslang.content.json.utils.JsonPathCache;
+import io.cloudslang.content.utils.StringUtilities;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+import static io.cloudslang.content.json.utils.Constants.ArraySources.ARRAY_PATH;
+import static io.cloudslang.content.json.utils.Constants.ArraySources.ARRAY_STRING;
+import static io.cloudslang.content.json.utils.JsonExceptionValues.INVALID_ARRAY_SOURCE;
+import static io.cloudslang.content.json.utils.JsonExceptionValues.INVALID_PREDICATE;
+
+/**
+ * Array operations that work on the Jackson token stream of the array, so only one element at a time is held
+ * in memory. The arrays can be given as strings or as paths to files, and the results can be written to files.
+ */
+public class JsonArrayService {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final JsonFactory JSON_FACTORY = OBJECT_MAPPER.getFactory();
+    private static final Configuration JACKSON_CONFIGURATION = Configuration.defaultConfiguration()
+            .jsonProvider(new JacksonJsonNodeJsonProvider(OBJECT_MAPPER));
+
+    /**
+     * Creates a parser over the array given as a string or as the path of a file holding it.
+     *
+     * @param array       the array or the path of the file
+     * @param arraySource arrayString or arrayPath, a blank value defaults to arrayString
+     * @return the parser, which the caller has to close
+     */
+    @NotNull
+    public JsonParser createParser(@NotNull final String array, final String arraySource) throws IOException {
+        if (StringUtilities.isBlank(arraySource) || ARRAY_STRING.equalsIgnoreCase(arraySource)) {
+            return JSON_FACTORY.createParser(array);
+        }
+        if (ARRAY_PATH.equalsIgnoreCase(arraySource)) {
+            return JSON_FACTORY.createParser(new File(array));
+        }
+        throw new IllegalArgumentException(arraySource + INVALID_ARRAY_SOURCE);
+    }
+
+    @NotNull
+    public ArrayOutput createOutput(@NotNull final Writer writer) throws IOException {
+        return new ArrayOutput(JSON_FACTORY.createGenerator(writer), null, null);
+    }
+
+    /**
+     * Creates an output to a file. The result is written to a temporary file in the same directory, which
+     * {@link ArrayOutput#commit()} renames to the output file, so a failed operation leaves no truncated file.
+     */
+    @NotNull
+    public ArrayOutput createOutput(@NotNull final String outputFile) throws IOException {
+        final Path target = Paths.get(outputFile).toAbsolutePath();
+        final Path temporary = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+        try {
+            return new ArrayOutput(JSON_FACTORY.createGenerator(temporary.toFile(), JsonEncoding.UTF8), temporary, target);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporary);
+            throw e;
+        }
+    }
+
+    /**
+     * Moves the parser to the first token of the document.
+     *
+     * @return true if the document is an array, false otherwise
+     */
+    public boolean startArray(@NotNull final JsonParser parser) throws IOException {
+        return parser.nextToken() == JsonToken.START_ARRAY;
+    }
+
+    /**
+     * Counts the elements of the array the parser was started on. Nested arrays count as one element.
+     */
+    public long size(@NotNull final JsonParser parser) throws IOException {
+        long size = 0;
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            parser.skipChildren();
+            size++;
+        }
+        return size;
+    }
+
+    /**
+     * Copies all the elements of the array the parser was started on to the generator.
+     *
+     * @return the number of elements copied
+     */
+    public long copyElements(@NotNull final JsonParser parser, @NotNull final JsonGenerator generator) throws IOException {
+        return copyElements(parser, generator, 0, Long.MAX_VALUE);
+    }
+
+    /**
+     * Copies the elements in the [fromIndex, toIndex) range of the array the parser was started on to the generator.
+     * Reading stops as soon as toIndex is reached, so the rest of the array is neither read nor validated.
+     *
+     * @return the number of elements copied
+     */
+    public long copyElements(@NotNull final JsonParser parser, @NotNull final JsonGenerator generator,
+                             final long fromIndex, final long toIndex) throws IOException {
+        long index = 0;
+        while (index < toIndex && parser.nextToken() != JsonToken.END_ARRAY) {
+            if (index >= fromIndex) {
+                generator.copyCurrentStructure(parser);
+            } else {
+                parser.skipChildren();
+            }
+            index++;
+        }
+        return Math.max(0, index - fromIndex);
+    }
+
+    /**
+     * Copies the elements of the array the parser was started on that match the predicate to the generator.
+     *
+     * @param predicate a JsonPath filter expression evaluated against each element, e.g. {@code @.price < 10}
+     * @return the number of elements copied
+     */
+    public long copyMatchingElements(@NotNull final JsonParser parser, @NotNull final JsonGenerator generator,
+                                     @NotNull final String predicate) throws IOException {
+        final JsonPath filter = getValidFilter(predicate);
+        long matched = 0;
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            final JsonNode element = OBJECT_MAPPER.readTree(parser);
+            // the filter selects among the elements of an array, so each element is evaluated on its own in one
+            final ArrayNode candidate = OBJECT_MAPPER.createArrayNode().add(element);
+            final ArrayNode match = filter.read(candidate, JACKSON_CONFIGURATION);
+            if (match.size() > 0) {
+                generator.writeTree(element);
+                matched++;
+            }
+        }
+        return matched;
+    }
+
+    @NotNull
+    private JsonPath getValidFilter(@NotNull final String predicate) {
+        try {
+            return JsonPathCache.getInstance().compile("$[?(" + predicate + ")]");
+        } catch (RuntimeException re) {
+            final IllegalArgumentException iae = new IllegalArgumentException(INVALID_PREDICATE + predicate, re);
+            iae.setStackTrace(re.getStackTrace());
+            throw iae;
+        }
+    }
+
+    /**
+     * The generator of an operation result. Closing an output that was not committed discards its file.
+     */
+    public static class ArrayOutput implements Closeable {
+        private final JsonGenerator generator;
+        private final Path temporary;
+        private final Path target;
+        private boolean committed;
+
+        private ArrayOutput(@NotNull final JsonGenerator generator, final Path temporary, final Path target) {
+            this.generator = generator;
+            this.temporary = temporary;
+            this.target = target;
+        }
+
+        @NotNull
+        public JsonGenerator getGenerator() {
+            return generator;
+        }
+
+        /**
+         * Flushes the result and, for a file output, moves it to the output file.
+         */
+        public void commit() throws IOException {
+            generator.close();
+            if (temporary != null) {
+                try {
+                    Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            committed = true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (committed) {
+                return;
+            }
+            try {
+                generator.close();
+            } finally {
+                if (temporary != null) {
+                    Files.deleteIfExists(temporary);
+                }
+            }
+        }
+    }
+}
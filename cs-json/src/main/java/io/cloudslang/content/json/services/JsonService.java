@@ -1,68 +1,83 @@
 
 package io.cloudslang.content.json.services;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.jayway.jsonpath.Configuration;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.jayway.jsonpath.JsonPath;
+import com.jayway.jsonpath.PathNotFoundException;
 import com.jayway.jsonpath.internal.JsonContext;
-import com.jayway.jsonpath.spi.json.GsonJsonProvider;
-import com.jayway.jsonpath.spi.json.JsonProvider;
 import io.cloudslang.content.json.exceptions.RemoveEmptyElementException;
+import io.cloudslang.content.json.utils.JsonPathCache;
 import io.cloudslang.content.json.utils.JsonUtils;
-import io.cloudslang.content.json.utils.StringUtils;
-import net.minidev.json.JSONArray;
-import net.minidev.json.JSONObject;
-import net.minidev.json.JSONStyle;
+import io.cloudslang.content.utils.StringUtilities;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.io.IOException;
+import java.io.StringWriter;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.Set;
+
+import static io.cloudslang.content.json.utils.JsonExceptionValues.INVALID_JSONOBJECT;
+import static io.cloudslang.content.json.utils.JsonExceptionValues.INVALID_JSONPATHS;
 
 /**
  * Created by Folea Ilie Cristian on 2/3/2016.
  */
 public class JsonService {
 
+    private static final JsonFactory JSON_FACTORY = new JsonFactory()
+            .configure(JsonParser.Feature.ALLOW_SINGLE_QUOTES, true)
+            .configure(JsonParser.Feature.ALLOW_UNQUOTED_FIELD_NAMES, true);
+
+    /**
+     * Removes the members and array elements that are null, empty strings, empty arrays or empty objects.
+     * The input is parsed once and copied token by token to the output, so no tree of the document is built.
+     * A container is dropped only if it is empty in the input; one that becomes empty after its own
+     * elements were removed is kept, as before.
+     *
+     * @param json the json object or array, using either single or double quotes
+     * @return the json without the empty elements, using the same quote character as the input
+     * @throws RemoveEmptyElementException if the json is malformed
+     */
     public String removeEmptyElementsJson(String json) throws RemoveEmptyElementException {
         String normalizedJson = json.trim();
 
         char wrappingQuote = retrieveWrappingQuoteTypeOfJsonMemberNames(normalizedJson);
 
-        Map<String, Object> jsonMap;
-
-        try {
-            parseJsonForInconsistencies(normalizedJson);
-            jsonMap = JsonPath.read(normalizedJson, "$");
-        } catch (com.jayway.jsonpath.InvalidJsonException | com.google.gson.JsonSyntaxException ije) {
-            throw new RemoveEmptyElementException(ije);
+        final StringWriter writer = new StringWriter(normalizedJson.length());
+        try (JsonParser parser = JSON_FACTORY.createParser(normalizedJson);
+             JsonGenerator generator = JSON_FACTORY.createGenerator(writer)) {
+            final JsonToken rootToken = parser.nextToken();
+            if (rootToken != JsonToken.START_OBJECT && rootToken != JsonToken.START_ARRAY) {
+                throw new RemoveEmptyElementException(INVALID_JSONOBJECT);
+            }
+            copyContainerWithoutEmptyElements(parser, generator, rootToken, parser.nextToken());
+            if (parser.nextToken() != null) {
+                throw new RemoveEmptyElementException(INVALID_JSONOBJECT);
+            }
+        } catch (IOException ioe) {
+            throw new RemoveEmptyElementException(ioe);
         }
 
-        removeEmptyElementsFromMap(jsonMap);
-        return generateResultingJsonString(wrappingQuote, jsonMap);
+        return generateResultingJsonString(wrappingQuote, writer.toString());
     }
 
-    private String generateResultingJsonString(char wrappingQuote, Map<String, Object> jsonMap) {
-        JSONObject jsonObject = new JSONObject(jsonMap);
-        String newJson = jsonObject.toJSONString(JSONStyle.LT_COMPRESS);
-
-        if ((!jsonObject.isEmpty()) && (newJson.charAt(1) != wrappingQuote)) {
-            return replaceUnescapedOccurrencesOfCharacterInText(newJson, newJson.charAt(1), wrappingQuote);
+    private String generateResultingJsonString(char wrappingQuote, String newJson) {
+        if (wrappingQuote != '\"') {
+            return replaceUnescapedOccurrencesOfCharacterInText(newJson, '\"', wrappingQuote);
         }
-
         return newJson;
     }
 
-
-    private void parseJsonForInconsistencies(String normalizedJson) {
-        JsonProvider provider = new GsonJsonProvider();
-        Configuration configuration = Configuration.builder().jsonProvider(provider).build();
-        JsonPath.parse(normalizedJson, configuration);       //throws an exception at runtime if the json is malformed
-    }
-
     /**
      * Returns the quote character used for specifying json member names and String values of json members
      *
@@ -80,52 +95,65 @@ public class JsonService {
         return quote;
     }
 
-    private void removeEmptyElementsFromMap(Map<String, Object> json) {
-        Set<Map.Entry<String, Object>> jsonElements = json.entrySet();
-        Iterator<Map.Entry<String, Object>> jsonElementsIterator = jsonElements.iterator();
-        while (jsonElementsIterator.hasNext()) {
-            Map.Entry<String, Object> jsonElement = jsonElementsIterator.next();
-            Object jsonElementValue = jsonElement.getValue();
-            if (StringUtils.isEmpty(jsonElementValue)) {
-                jsonElementsIterator.remove();
-            } else if (jsonElementValue instanceof JSONArray) {
-                if (((JSONArray) jsonElementValue).isEmpty()) {
-                    jsonElementsIterator.remove();
-                } else {
-                    removeEmptyElementFromJsonArray((JSONArray) jsonElementValue);
-                }
-            } else if (jsonElementValue instanceof LinkedHashMap) {
-                if (((LinkedHashMap) jsonElementValue).isEmpty()) {
-                    jsonElementsIterator.remove();
-                } else {
-                    removeEmptyElementsFromMap((Map<String, Object>) jsonElementValue);
-                }
+    /**
+     * Writes the container the parser is positioned in, starting with its first token after the start marker.
+     * The start marker itself is read by the caller, which needs one token of lookahead to tell if the container is empty.
+     */
+    private void copyContainerWithoutEmptyElements(JsonParser parser, JsonGenerator generator,
+                                                   JsonToken startToken, JsonToken firstToken) throws IOException {
+        final boolean isObject = startToken == JsonToken.START_OBJECT;
+        if (isObject) {
+            generator.writeStartObject();
+        } else {
+            generator.writeStartArray();
+        }
+        JsonToken token = firstToken;
+        while (token != JsonToken.END_OBJECT && token != JsonToken.END_ARRAY) {
+            String fieldName = null;
+            if (token == JsonToken.FIELD_NAME) {
+                fieldName = parser.getCurrentName();
+                token = parser.nextToken();
             }
+            copyNonEmptyValue(parser, generator, token, fieldName);
+            token = parser.nextToken();
+        }
+        if (isObject) {
+            generator.writeEndObject();
+        } else {
+            generator.writeEndArray();
         }
     }
 
-    private void removeEmptyElementFromJsonArray(JSONArray jsonArray) {
-
-        Iterator jsonArrayIterator = jsonArray.iterator();
-        while (jsonArrayIterator.hasNext()) {
-            Object jsonArrayElement = jsonArrayIterator.next();
-            if (StringUtils.isEmpty(jsonArrayElement)) {
-                jsonArrayIterator.remove();
-            } else if (jsonArrayElement instanceof JSONArray) {
-                if (((JSONArray) jsonArrayElement).isEmpty()) {
-                    jsonArrayIterator.remove();
-                } else {
-                    removeEmptyElementFromJsonArray((JSONArray) jsonArrayElement);
+    private void copyNonEmptyValue(JsonParser parser, JsonGenerator generator, JsonToken token, String fieldName) throws IOException {
+        switch (token) {
+            case VALUE_NULL:
+                return;
+            case VALUE_STRING:
+                if (parser.getTextLength() == 0) {
+                    return;
                 }
-            } else if (jsonArrayElement instanceof LinkedHashMap) {
-                if (((LinkedHashMap) jsonArrayElement).isEmpty()) {
-                    jsonArrayIterator.remove();
-                } else {
-                    removeEmptyElementsFromMap((LinkedHashMap) jsonArrayElement);
+                writeFieldName(generator, fieldName);
+                generator.writeString(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+                return;
+            case START_OBJECT:
+            case START_ARRAY:
+                final JsonToken firstToken = parser.nextToken();
+                if (firstToken == JsonToken.END_OBJECT || firstToken == JsonToken.END_ARRAY) {
+                    return;
                 }
-            }
+                writeFieldName(generator, fieldName);
+                copyContainerWithoutEmptyElements(parser, generator, token, firstToken);
+                return;
+            default:
+                writeFieldName(generator, fieldName);
+                generator.copyCurrentEvent(parser);
         }
+    }
 
+    private void writeFieldName(JsonGenerator generator, String fieldName) throws IOException {
+        if (fieldName != null) {
+            generator.writeFieldName(fieldName);
+        }
     }
 
     @NotNull
@@ -152,4 +180,57 @@ public class JsonService {
         final JsonPath path = JsonUtils.getValidJsonPath(jsonPath);
         return jsonContext.read(path);
     }
+
+    /**
+     * Evaluates several JsonPath expressions against the same document, which is parsed only once.
+     * An expression that matches nothing yields a null value instead of failing the whole query.
+     *
+     * @param jsonObject the JSON to query
+     * @param jsonPaths  a JSON object mapping each result name to the JsonPath expression to evaluate
+     * @return a JSON object with the same names as jsonPaths, in the same order, holding the query results
+     */
+    @NotNull
+    public static ObjectNode evaluateJsonPathQueries(@Nullable final String jsonObject, @Nullable final String jsonPaths) {
+        final Map<String, JsonPath> compiledPaths = getValidJsonPaths(jsonPaths);
+        final JsonContext jsonContext = JsonUtils.getValidJsonContext(jsonObject);
+        final ObjectMapper objectMapper = new ObjectMapper();
+        final ObjectNode results = JsonNodeFactory.instance.objectNode();
+        for (Map.Entry<String, JsonPath> compiledPath : compiledPaths.entrySet()) {
+            Object result;
+            try {
+                result = jsonContext.read(compiledPath.getValue());
+            } catch (PathNotFoundException pnfe) {
+                result = null;
+            }
+            // functions such as length() return plain java values instead of nodes
+            results.set(compiledPath.getKey(), objectMapper.<JsonNode>valueToTree(result));
+        }
+        return results;
+    }
+
+    @NotNull
+    private static Map<String, JsonPath> getValidJsonPaths(@Nullable final String jsonPaths) {
+        if (StringUtilities.isBlank(jsonPaths)) {
+            throw new IllegalArgumentException(INVALID_JSONPATHS);
+        }
+        final JsonNode jsonPathsNode;
+        try {
+            jsonPathsNode = new ObjectMapper(JSON_FACTORY).readTree(jsonPaths);
+        } catch (IOException | IllegalArgumentException e) {
+            throw JsonUtils.hammerIllegalArgumentExceptionWithMessage(INVALID_JSONPATHS, e);
+        }
+        if (!jsonPathsNode.isObject() || jsonPathsNode.size() == 0) {
+            throw new IllegalArgumentException(INVALID_JSONPATHS);
+        }
+        final Map<String, JsonPath> compiledPaths = new LinkedHashMap<>();
+        final Iterator<Map.Entry<String, JsonNode>> fields = jsonPathsNode.fields();
+        while (fields.hasNext()) {
+            final Map.Entry<String, JsonNode> field = fields.next();
+            if (!field.getValue().isTextual()) {
+                throw new IllegalArgumentException(INVALID_JSONPATHS);
+            }
+            compiledPaths.put(field.getKey(), JsonPathCache.getInstance().compile(field.getValue().asText()));
+        }
+        return compiledPaths;
+    }
 }
@@ -13,12 +13,24 @@ public final class Constants {
         public static final String NEW_PROPERTY_VALUE = "newPropertyValue";
         public static final String OBJECT = "object";
         public static final String KEY = "key";
+        public static final String KEYS = "keys";
         public static final String ARRAY = "array";
         public static final String ACTION = "action";
         public static final String JSON_PATH = "jsonPath";
+        public static final String JSON_PATHS = "jsonPaths";
         public static final String NAME = "name";
         public static final String VALUE = "value";
         public static final String VALIDATE_VALUE = "validateValue";
+        public static final String ARRAY_SOURCE = "arraySource";
+        public static final String FROM_INDEX = "fromIndex";
+        public static final String TO_INDEX = "toIndex";
+        public static final String PREDICATE = "predicate";
+        public static final String OUTPUT_FILE = "outputFile";
+    }
+
+    public static final class ArraySources {
+        public static final String ARRAY_STRING = "arrayString";
+        public static final String ARRAY_PATH = "arrayPath";
     }
 
     static final class EditJsonOperations {
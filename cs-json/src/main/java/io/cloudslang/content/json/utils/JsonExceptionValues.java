@@ -9,4 +9,10 @@ import io.cloudslang.content.constants.ExceptionValues;
 public final class JsonExceptionValues extends ExceptionValues {
     public static final String INVALID_JSONOBJECT = "Invalid jsonObject provided!";
     public static final String INVALID_JSONPATH = "Invalid jsonPath provided!";
+    public static final String INVALID_ARRAY_SOURCE = " is an invalid input value. Valid values are: arrayString and arrayPath";
+    public static final String INVALID_PREDICATE = "Invalid predicate provided! ";
+    public static final String INVALID_INDEX = "The index must be a non negative integer: ";
+    public static final String NOT_A_JSON_ARRAY = "The input value is not a valid JavaScript array!";
+    public static final String INVALID_KEYS = "Invalid keys provided! It must be a JSON array of keys, such as [\"city\", \"location[0].city\"].";
+    public static final String INVALID_JSONPATHS = "Invalid jsonPaths provided! It must be a JSON object that maps each result name to a JsonPath expression.";
 }
@@ -0,0 +1,166 @@
+package io.cloudslang.content.json.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Parsed form of the dotted keys accepted by Get Value from Object, such as {@code location[0].city}.
+ * A key is parsed once and then cached, so looking it up again only walks the tree with direct field and index access.
+ */
+public final class JsonKeyPath {
+
+    private static final int MAX_CACHED_KEYS = 512;
+    private static final char KEY_SEPARATOR = '.';
+    private static final int NO_INDEX = -1;
+    private static final int INVALID_INDEX = -2;
+
+    private static final Map<String, JsonKeyPath> COMPILED_KEYS = new LinkedHashMap<String, JsonKeyPath>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, JsonKeyPath> eldest) {
+            return size() > MAX_CACHED_KEYS;
+        }
+    };
+
+    private final List<Segment> segments;
+
+    private JsonKeyPath(List<Segment> segments) {
+        this.segments = segments;
+    }
+
+    @NotNull
+    public static JsonKeyPath compile(@NotNull final String key) {
+        JsonKeyPath keyPath;
+        synchronized (COMPILED_KEYS) {
+            keyPath = COMPILED_KEYS.get(key);
+        }
+        if (keyPath == null) {
+            keyPath = new JsonKeyPath(parseSegments(key));
+            synchronized (COMPILED_KEYS) {
+                COMPILED_KEYS.put(key, keyPath);
+            }
+        }
+        return keyPath;
+    }
+
+    /**
+     * Returns the value found at this key in the given object. Navigation stops early, returning the value reached
+     * so far, when a segment leads to a value that is not an object.
+     *
+     * @param jsonObject the object to search in
+     * @return the value found at this key
+     * @throws Exception if the key does not exist in the object or an index is not valid
+     */
+    @NotNull
+    public JsonNode navigate(@NotNull final JsonNode jsonObject) throws Exception {
+        JsonNode current = jsonObject;
+        for (Segment segment : segments) {
+            if (!(current instanceof ObjectNode)) {
+                throw new Exception("The key does not exist in JavaScript object!");
+            }
+            current = segment.getValue(current);
+            if (!(current instanceof ObjectNode)) {
+                return current;
+            }
+        }
+        return current;
+    }
+
+    // same splitting as String.split on a dot: a key without dots is kept whole, otherwise trailing empty segments are dropped
+    @NotNull
+    private static List<Segment> parseSegments(@NotNull final String key) {
+        final List<Segment> segments = new ArrayList<>();
+        if (key.indexOf(KEY_SEPARATOR) == -1) {
+            segments.add(parseSegment(key));
+            return Collections.unmodifiableList(segments);
+        }
+        int start = 0;
+        int end;
+        while ((end = key.indexOf(KEY_SEPARATOR, start)) != -1) {
+            segments.add(parseSegment(key.substring(start, end)));
+            start = end + 1;
+        }
+        segments.add(parseSegment(key.substring(start)));
+        int size = segments.size();
+        while (size > 0 && segments.get(size - 1).key.isEmpty()) {
+            segments.remove(--size);
+        }
+        return Collections.unmodifiableList(segments);
+    }
+
+    @NotNull
+    private static Segment parseSegment(@NotNull final String key) {
+        if (!endsWithIndex(key)) {
+            return new Segment(key, key, NO_INDEX, null);
+        }
+        final int startIndex = key.indexOf('[');
+        final int endIndex = key.indexOf(']');
+        final String indexText = endIndex > startIndex ? key.substring(startIndex + 1, endIndex) : key.substring(startIndex);
+        int index;
+        try {
+            index = Integer.parseInt(indexText);
+        } catch (NumberFormatException e) {
+            index = INVALID_INDEX;
+        }
+        return new Segment(key, key.substring(0, startIndex), index, indexText);
+    }
+
+    // a key ending in [digits] refers to an array element
+    private static boolean endsWithIndex(@NotNull final String key) {
+        final int last = key.length() - 1;
+        if (last < 2 || key.charAt(last) != ']') {
+            return false;
+        }
+        int position = last - 1;
+        while (position >= 0 && key.charAt(position) >= '0' && key.charAt(position) <= '9') {
+            position--;
+        }
+        return position >= 0 && position < last - 1 && key.charAt(position) == '[';
+    }
+
+    private static final class Segment {
+        private final String key;
+        private final String name;
+        private final int index;
+        private final String indexText;
+
+        private Segment(String key, String name, int index, String indexText) {
+            this.key = key;
+            this.name = name;
+            this.index = index;
+            this.indexText = indexText;
+        }
+
+        @NotNull
+        private JsonNode getValue(@NotNull final JsonNode jsonElement) throws Exception {
+            if (index == NO_INDEX) {
+                final JsonNode value = jsonElement.get(key);
+                if (value == null) {
+                    throw new Exception("The " + key + " key does not exist in JavaScript object!");
+                }
+                return value;
+            }
+            if (index == INVALID_INDEX) {
+                throw new Exception("Invalid index provided: " + indexText);
+            }
+            final JsonNode subObject = jsonElement.get(name);
+            if (subObject == null) {
+                throw new Exception("The " + key + " key does not exist in JavaScript object!");
+            }
+            if (!(subObject instanceof ArrayNode)) {
+                throw new Exception("Invalid json array provided: " + subObject.toString() + " ");
+            }
+            if (index >= subObject.size()) {
+                throw new Exception("The provided " + index + " index is out of range! Provide a valid index value in the provided JSON!");
+            }
+            return subObject.get(index);
+        }
+    }
+}
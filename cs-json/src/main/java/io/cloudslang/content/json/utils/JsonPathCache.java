@@ -0,0 +1,92 @@
+package io.cloudslang.content.json.utils;
+
+import com.jayway.jsonpath.JsonPath;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded LRU cache of compiled JsonPath expressions, keyed by the expression string.
+ * Compiled JsonPath instances are immutable, so a single instance can be shared between threads.
+ */
+public final class JsonPathCache {
+
+    public static final int DEFAULT_MAX_SIZE = 512;
+
+    private static final JsonPathCache INSTANCE = new JsonPathCache(DEFAULT_MAX_SIZE);
+
+    private final Map<String, JsonPath> compiledPaths;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public JsonPathCache(final int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("The cache size must be a positive number!");
+        }
+        this.compiledPaths = new LinkedHashMap<String, JsonPath>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, JsonPath> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    @NotNull
+    public static JsonPathCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns the compiled form of the given expression, compiling and caching it on the first request.
+     *
+     * @param jsonPath the JsonPath expression
+     * @return the compiled JsonPath
+     * @throws IllegalArgumentException                if the expression is null or empty
+     * @throws com.jayway.jsonpath.InvalidPathException if the expression cannot be compiled
+     */
+    @NotNull
+    public JsonPath compile(final String jsonPath) {
+        if (jsonPath == null) {
+            throw new IllegalArgumentException("path can not be null");
+        }
+        JsonPath compiledPath;
+        synchronized (compiledPaths) {
+            compiledPath = compiledPaths.get(jsonPath);
+        }
+        if (compiledPath != null) {
+            hits.incrementAndGet();
+            return compiledPath;
+        }
+        misses.incrementAndGet();
+        // compiled outside the lock, a concurrent miss on the same expression only costs a duplicate compilation
+        compiledPath = JsonPath.compile(jsonPath);
+        synchronized (compiledPaths) {
+            compiledPaths.put(jsonPath, compiledPath);
+        }
+        return compiledPath;
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public int size() {
+        synchronized (compiledPaths) {
+            return compiledPaths.size();
+        }
+    }
+
+    public void clear() {
+        synchronized (compiledPaths) {
+            compiledPaths.clear();
+        }
+        hits.set(0);
+        misses.set(0);
+    }
+}
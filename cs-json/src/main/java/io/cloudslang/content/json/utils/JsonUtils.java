@@ -91,7 +91,7 @@ public class JsonUtils {
 
     public static JsonPath getValidJsonPath(final String jsonPath) {
         try {
-            return JsonPath.compile(jsonPath);
+            return JsonPathCache.getInstance().compile(jsonPath);
         } catch (IllegalArgumentException iae) {
             throw hammerIllegalArgumentExceptionWithMessage(INVALID_JSONPATH, iae);
         }
@@ -0,0 +1,100 @@
+package io.cloudslang.content.json.actions;
+
+import io.cloudslang.content.constants.OutputNames;
+import io.cloudslang.content.constants.ReturnCodes;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Map;
+
+import static io.cloudslang.content.json.utils.JsonExceptionValues.INVALID_INDEX;
+import static io.cloudslang.content.json.utils.JsonExceptionValues.NOT_A_JSON_ARRAY;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class ArraySliceTest {
+
+    private static final String ARRAY = "[0, {\"one\":[1, 2]}, \"two\", [3], null, 5]";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final ArraySlice arraySlice = new ArraySlice();
+
+    @Test
+    public void testSliceInTheMiddle() {
+        final Map<String, String> result = arraySlice.execute(ARRAY, null, "1", "4", null);
+        assertEquals(ReturnCodes.SUCCESS, result.get(OutputNames.RETURN_CODE));
+        assertEquals("[{\"one\":[1,2]},\"two\",[3]]", result.get(OutputNames.RETURN_RESULT));
+    }
+
+    @Test
+    public void testSliceWithDefaultIndexes() {
+        final Map<String, String> result = arraySlice.execute(ARRAY, "arrayString", "", "", null);
+        assertEquals("[0,{\"one\":[1,2]},\"two\",[3],null,5]", result.get(OutputNames.RETURN_RESULT));
+    }
+
+    @Test
+    public void testSliceOutOfRange() {
+        final Map<String, String> result = arraySlice.execute(ARRAY, null, "10", "20", null);
+        assertEquals(ReturnCodes.SUCCESS, result.get(OutputNames.RETURN_CODE));
+        assertEquals("[]", result.get(OutputNames.RETURN_RESULT));
+    }
+
+    @Test
+    public void testSliceStopsReadingAfterLastElement() {
+        final Map<String, String> result = arraySlice.execute("[1, 2, 3, this is not read", null, "0", "2", null);
+        assertEquals(ReturnCodes.SUCCESS, result.get(OutputNames.RETURN_CODE));
+        assertEquals("[1,2]", result.get(OutputNames.RETURN_RESULT));
+    }
+
+    @Test
+    public void testSliceFromFileToFile() throws Exception {
+        final File input = folder.newFile("input.json");
+        Files.write(input.toPath(), ARRAY.getBytes(StandardCharsets.UTF_8));
+        final File output = new File(folder.getRoot(), "output.json");
+
+        final Map<String, String> result = arraySlice.execute(input.getAbsolutePath(), "arrayPath", "4", null, output.getAbsolutePath());
+        assertEquals(ReturnCodes.SUCCESS, result.get(OutputNames.RETURN_CODE));
+        assertEquals("2", result.get(OutputNames.RETURN_RESULT));
+        assertEquals("[null,5]", new String(Files.readAllBytes(output.toPath()), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testFailedSliceLeavesNoOutputFile() throws Exception {
+        final File input = folder.newFile("input.json");
+        Files.write(input.toPath(), "[1, 2, this is not JSON]".getBytes(StandardCharsets.UTF_8));
+        final File output = new File(folder.getRoot(), "output.json");
+
+        final Map<String, String> result = arraySlice.execute(input.getAbsolutePath(), "arrayPath", null, null, output.getAbsolutePath());
+        assertEquals(ReturnCodes.FAILURE, result.get(OutputNames.RETURN_CODE));
+        assertFalse(output.exists());
+        assertArrayEquals(new String[]{"input.json"}, folder.getRoot().list());
+    }
+
+    @Test
+    public void testInvalidIndex() {
+        final Map<String, String> result = arraySlice.execute(ARRAY, null, "-1", null, null);
+        assertEquals(ReturnCodes.FAILURE, result.get(OutputNames.RETURN_CODE));
+        assertEquals(INVALID_INDEX + "-1", result.get(OutputNames.RETURN_RESULT));
+    }
+
+    @Test
+    public void testNotAnArray() {
+        final Map<String, String> result = arraySlice.execute("{\"one\":1}", null, null, null, null);
+        assertEquals(ReturnCodes.FAILURE, result.get(OutputNames.RETURN_CODE));
+        assertEquals(NOT_A_JSON_ARRAY, result.get(OutputNames.RETURN_RESULT));
+    }
+
+    @Test
+    public void testInvalidArraySource() {
+        final Map<String, String> result = arraySlice.execute(ARRAY, "arrayUrl", null, null, null);
+        assertEquals(ReturnCodes.FAILURE, result.get(OutputNames.RETURN_CODE));
+        assertEquals("arrayUrl is an invalid input value. Valid values are: arrayString and arrayPath", result.get(OutputNames.RETURN_RESULT));
+    }
+}
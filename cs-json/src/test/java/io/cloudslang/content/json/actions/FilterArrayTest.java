@@ -0,0 +1,52 @@
+package io.cloudslang.content.json.actions;
+
+import io.cloudslang.content.constants.OutputNames;
+import io.cloudslang.content.constants.ReturnCodes;
+import org.junit.Test;
+
+import java.util.Map;
+
+import static io.cloudslang.content.json.utils.JsonExceptionValues.NOT_A_JSON_ARRAY;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class FilterArrayTest {
+
+    private static final String BOOKS = "[{\"title\":\"A\",\"price\":8.95},{\"title\":\"B\",\"price\":22.99,\"isbn\":\"0-553\"},{\"title\":\"C\",\"price\":8.99}]";
+
+    private final FilterArray filterArray = new FilterArray();
+
+    @Test
+    public void testFilterObjects() {
+        final Map<String, String> result = filterArray.execute(BOOKS, null, "@.price < 10", null);
+        assertEquals(ReturnCodes.SUCCESS, result.get(OutputNames.RETURN_CODE));
+        assertEquals("[{\"title\":\"A\",\"price\":8.95},{\"title\":\"C\",\"price\":8.99}]", result.get(OutputNames.RETURN_RESULT));
+    }
+
+    @Test
+    public void testFilterByExistingProperty() {
+        final Map<String, String> result = filterArray.execute(BOOKS, null, "@.isbn", null);
+        assertEquals("[{\"title\":\"B\",\"price\":22.99,\"isbn\":\"0-553\"}]", result.get(OutputNames.RETURN_RESULT));
+    }
+
+    @Test
+    public void testFilterWithoutMatches() {
+        final Map<String, String> result = filterArray.execute(BOOKS, null, "@.price > 100", null);
+        assertEquals(ReturnCodes.SUCCESS, result.get(OutputNames.RETURN_CODE));
+        assertEquals("[]", result.get(OutputNames.RETURN_RESULT));
+    }
+
+    @Test
+    public void testInvalidPredicate() {
+        final Map<String, String> result = filterArray.execute(BOOKS, null, "@.price <<", null);
+        assertEquals(ReturnCodes.FAILURE, result.get(OutputNames.RETURN_CODE));
+        assertTrue(result.get(OutputNames.RETURN_RESULT).startsWith("Invalid predicate provided!"));
+    }
+
+    @Test
+    public void testNotAnArray() {
+        final Map<String, String> result = filterArray.execute("{\"one\":1}", null, "@.one", null);
+        assertEquals(ReturnCodes.FAILURE, result.get(OutputNames.RETURN_CODE));
+        assertEquals(NOT_A_JSON_ARRAY, result.get(OutputNames.RETURN_RESULT));
+    }
+}
@@ -0,0 +1,48 @@
+package io.cloudslang.content.json.actions;
+
+import io.cloudslang.content.constants.OutputNames;
+import io.cloudslang.content.constants.ReturnCodes;
+import org.junit.Test;
+
+import java.util.Map;
+
+import static io.cloudslang.content.json.utils.JsonExceptionValues.INVALID_KEYS;
+import static org.junit.Assert.assertEquals;
+
+public class GetValuesFromObjectTest {
+
+    private static final String OBJECT = "{\"city\":\"Palo Alto\", \"location\":[{\"city\":\"Roseville\",\"country\":\"United States\"}," +
+            "{\"city\":\"Cluj\",\"country\":\"Romania\"}], \"state\":{\"name\":\"CA\",\"zip\":[94301, 94302]}}";
+
+    private final GetValuesFromObject getValuesFromObject = new GetValuesFromObject();
+
+    @Test
+    public void testGetSeveralValues() {
+        final Map<String, String> result = getValuesFromObject.execute(OBJECT,
+                "[\"city\", \"location[1].country\", \"state.zip\", \"state\"]");
+        assertEquals(ReturnCodes.SUCCESS, result.get(OutputNames.RETURN_CODE));
+        assertEquals("{\"city\":\"Palo Alto\",\"location[1].country\":\"Romania\",\"state.zip\":[94301,94302]," +
+                "\"state\":{\"name\":\"CA\",\"zip\":[94301,94302]}}", result.get(OutputNames.RETURN_RESULT));
+    }
+
+    @Test
+    public void testMissingKey() {
+        final Map<String, String> result = getValuesFromObject.execute(OBJECT, "[\"city\", \"location[5].city\"]");
+        assertEquals(ReturnCodes.FAILURE, result.get(OutputNames.RETURN_CODE));
+        assertEquals("The provided 5 index is out of range! Provide a valid index value in the provided JSON!",
+                result.get(OutputNames.RETURN_RESULT));
+    }
+
+    @Test
+    public void testInvalidKeys() {
+        Map<String, String> result = getValuesFromObject.execute(OBJECT, "city");
+        assertEquals(ReturnCodes.FAILURE, result.get(OutputNames.RETURN_CODE));
+        assertEquals(INVALID_KEYS, result.get(OutputNames.RETURN_RESULT));
+
+        result = getValuesFromObject.execute(OBJECT, "[1]");
+        assertEquals(INVALID_KEYS, result.get(OutputNames.RETURN_RESULT));
+
+        result = getValuesFromObject.execute(OBJECT, null);
+        assertEquals(INVALID_KEYS, result.get(OutputNames.RETURN_RESULT));
+    }
+}
@@ -0,0 +1,62 @@
+package io.cloudslang.content.json.actions;
+
+import io.cloudslang.content.constants.OutputNames;
+import io.cloudslang.content.constants.ReturnCodes;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Map;
+
+import static io.cloudslang.content.json.utils.JsonExceptionValues.INVALID_JSONOBJECT;
+import static io.cloudslang.content.json.utils.JsonExceptionValues.INVALID_JSONPATHS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+public class JsonPathMultiQueryTest {
+
+    private static final String JSON = "{'store': {'owner': 'John', 'book': [{'title': 'A', 'price': 8.95}, {'title': 'B', 'price': 22.99}]}}";
+
+    private JsonPathMultiQuery jsonPathMultiQuery;
+
+    @Before
+    public void setUp() {
+        jsonPathMultiQuery = new JsonPathMultiQuery();
+    }
+
+    @Test
+    public void executeValid() {
+        final Map<String, String> resultMap = jsonPathMultiQuery.execute(JSON,
+                "{'owner': '$.store.owner', 'cheap': '$..book[?(@.price<10)].title', 'count': '$.store.book.length()'}");
+        assertEquals(ReturnCodes.SUCCESS, resultMap.get(OutputNames.RETURN_CODE));
+        assertEquals("{\"owner\":\"John\",\"cheap\":[\"A\"],\"count\":2}", resultMap.get(OutputNames.RETURN_RESULT));
+    }
+
+    @Test
+    public void executeMissingPathReturnsNull() {
+        final Map<String, String> resultMap = jsonPathMultiQuery.execute(JSON, "{'owner': '$.store.owner', 'missing': '$.store.manager'}");
+        assertEquals(ReturnCodes.SUCCESS, resultMap.get(OutputNames.RETURN_CODE));
+        assertEquals("{\"owner\":\"John\",\"missing\":null}", resultMap.get(OutputNames.RETURN_RESULT));
+    }
+
+    @Test
+    public void executeInvalidJsonObject() {
+        final Map<String, String> resultMap = jsonPathMultiQuery.execute(null, "{'owner': '$.store.owner'}");
+        assertEquals(ReturnCodes.FAILURE, resultMap.get(OutputNames.RETURN_CODE));
+        assertEquals(INVALID_JSONOBJECT, resultMap.get(OutputNames.RETURN_RESULT));
+        assertNotNull(resultMap.get(OutputNames.EXCEPTION));
+    }
+
+    @Test
+    public void executeInvalidJsonPaths() {
+        final Map<String, String> resultMap = jsonPathMultiQuery.execute(JSON, "['$.store.owner']");
+        assertEquals(ReturnCodes.FAILURE, resultMap.get(OutputNames.RETURN_CODE));
+        assertEquals(INVALID_JSONPATHS, resultMap.get(OutputNames.RETURN_RESULT));
+    }
+
+    @Test
+    public void executeNullJsonPaths() {
+        final Map<String, String> resultMap = jsonPathMultiQuery.execute(JSON, null);
+        assertEquals(ReturnCodes.FAILURE, resultMap.get(OutputNames.RETURN_CODE));
+        assertEquals(INVALID_JSONPATHS, resultMap.get(OutputNames.RETURN_RESULT));
+    }
+}
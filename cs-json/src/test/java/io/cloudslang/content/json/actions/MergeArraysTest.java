@@ -1,8 +1,13 @@
 
 package io.cloudslang.content.json.actions;
 
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.Map;
 
 import static junit.framework.Assert.assertEquals;
@@ -17,6 +22,9 @@ public class MergeArraysTest {
     private static final String RETURN_RESULT = "returnResult";
     public static final String RETURN_CODE = "returnCode";
 
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
     private final MergeArrays mergeArrays = new MergeArrays();
 
     @Test
@@ -147,4 +155,19 @@ public class MergeArraysTest {
         assertEquals(result.toString(), returnResult.get(RETURN_RESULT));
         assertEquals("0", returnResult.get(RETURN_CODE));
     }
+
+    @Test
+    public void testMergeFilesToFile() throws Exception {
+        final File array1 = folder.newFile("array1.json");
+        final File array2 = folder.newFile("array2.json");
+        Files.write(array1.toPath(), "[{\"one\":1}, 2]".getBytes(StandardCharsets.UTF_8));
+        Files.write(array2.toPath(), "[\"three\"]".getBytes(StandardCharsets.UTF_8));
+        final File output = new File(folder.getRoot(), "merged.json");
+
+        final Map<String, String> returnResult = mergeArrays.execute(array1.getAbsolutePath(), array2.getAbsolutePath(),
+                "arrayPath", output.getAbsolutePath());
+        assertEquals("0", returnResult.get(RETURN_CODE));
+        assertEquals("3", returnResult.get(RETURN_RESULT));
+        assertEquals("[{\"one\":1},2,\"three\"]", new String(Files.readAllBytes(output.toPath()), StandardCharsets.UTF_8));
+    }
 }
@@ -186,6 +186,41 @@ public class JsonServiceTest {
         assertEquals(expectedJsonStringOutput, actualJsonStringOutput);
     }
 
+    @Test
+    public void givenJsonArrayThenSuccessfullyRemoveEmpty() throws RemoveEmptyElementException {
+        jsonStringInput = "[\"\", null, {}, [], 1.5, {\"expected\":[\"value\", \"\"]}]";
+        expectedJsonStringOutput = "[1.5,{\"expected\":[\"value\"]}]";
+        actualJsonStringOutput = jsonServiceUnderTest.removeEmptyElementsJson(jsonStringInput);
+
+        assertEquals(expectedJsonStringOutput, actualJsonStringOutput);
+    }
+
+    @Test
+    public void givenContainerEmptiedByRemovalThenKeepContainer() throws RemoveEmptyElementException {
+        jsonStringInput = "{'expected':{'remove1':'', 'remove2':null}}";
+        expectedJsonStringOutput = "{'expected':{}}";
+        actualJsonStringOutput = jsonServiceUnderTest.removeEmptyElementsJson(jsonStringInput);
+
+        assertEquals(expectedJsonStringOutput, actualJsonStringOutput);
+    }
+
+    @Test
+    public void givenObjectThenKeepKeyOrderAndUnescapedSlashes() throws RemoveEmptyElementException {
+        jsonStringInput = "{\"zz\":3, \"a\":2, \"removed\":\"\", \"b\":1, \"url\":\"http://x/y\"}";
+        expectedJsonStringOutput = "{\"zz\":3,\"a\":2,\"b\":1,\"url\":\"http://x/y\"}";
+        actualJsonStringOutput = jsonServiceUnderTest.removeEmptyElementsJson(jsonStringInput);
+
+        assertEquals(expectedJsonStringOutput, actualJsonStringOutput);
+    }
+
+    @Test
+    public void givenTrailingContentThenThrowException() throws RemoveEmptyElementException {
+        jsonStringInput = "{\"expected\":\"value\"}{}";
+
+        exception.expect(RemoveEmptyElementException.class);
+        jsonServiceUnderTest.removeEmptyElementsJson(jsonStringInput);
+    }
+
     @Test
     public void evaluateSimpleJsonPathQuery() throws Exception {
         JsonNode jsonNode = JsonService.evaluateJsonPathQuery("{'key1': 'value1','key2': 'value2', 'key3': { 'key31': 'value31'}}", "$.key3.key31");
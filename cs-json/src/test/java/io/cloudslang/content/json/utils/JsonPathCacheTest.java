@@ -0,0 +1,56 @@
+package io.cloudslang.content.json.utils;
+
+import com.jayway.jsonpath.InvalidPathException;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class JsonPathCacheTest {
+
+    private JsonPathCache cache;
+
+    @Before
+    public void setUp() {
+        cache = new JsonPathCache(2);
+    }
+
+    @Test
+    public void compileReturnsCachedInstance() {
+        final JsonPath first = cache.compile("$.store.book[0]");
+        final JsonPath second = cache.compile("$.store.book[0]");
+
+        assertSame(first, second);
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    public void leastRecentlyUsedExpressionIsEvicted() {
+        final JsonPath first = cache.compile("$.a");
+        cache.compile("$.b");
+        cache.compile("$.a");
+        cache.compile("$.c");
+
+        assertEquals(2, cache.size());
+        assertSame(first, cache.compile("$.a"));
+        cache.compile("$.b");
+        assertEquals(4, cache.getMissCount());
+    }
+
+    @Test(expected = InvalidPathException.class)
+    public void invalidExpressionIsNotCached() {
+        try {
+            cache.compile("$.[");
+        } finally {
+            assertEquals(0, cache.size());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nullExpressionIsRejected() {
+        cache.compile(null);
+    }
+}
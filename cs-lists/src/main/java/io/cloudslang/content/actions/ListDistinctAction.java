@@ -0,0 +1,76 @@
+
+package io.cloudslang.content.actions;
+
+import com.hp.oo.sdk.content.annotations.Action;
+import com.hp.oo.sdk.content.annotations.Output;
+import com.hp.oo.sdk.content.annotations.Param;
+import com.hp.oo.sdk.content.annotations.Response;
+import com.hp.oo.sdk.content.plugin.ActionMetadata.MatchType;
+import io.cloudslang.content.utils.Constants;
+import io.cloudslang.content.utils.InputsUtils;
+import io.cloudslang.content.utils.ListProcessor;
+import io.cloudslang.content.utils.ListSetOperations;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static io.cloudslang.content.utils.Constants.OutputNames.RESPONSE;
+import static io.cloudslang.content.utils.Constants.OutputNames.RESULT_TEXT;
+import static io.cloudslang.content.utils.Constants.OutputNames.RETURN_CODE;
+import static io.cloudslang.content.utils.Constants.OutputNames.RETURN_RESULT;
+import static io.cloudslang.content.utils.Constants.ResponseNames.FAILURE;
+import static io.cloudslang.content.utils.Constants.ResponseNames.SUCCESS;
+import static io.cloudslang.content.utils.Constants.ReturnCodes.RETURN_CODE_FAILURE;
+import static io.cloudslang.content.utils.Constants.ReturnCodes.RETURN_CODE_SUCCESS;
+
+public class ListDistinctAction {
+
+    private static final String LIST = "list";
+    private static final String DELIMITER = "delimiter";
+    private static final String IGNORE_CASE = "ignoreCase";
+    private static final String TRIM = "trim";
+
+    /**
+     * This method removes the duplicate elements of a list, in linear time.
+     *
+     * @param list       The list to be processed.
+     * @param delimiter  The delimiter of the list, also used to join the result. Default is a comma.
+     * @param ignoreCase If set to 'true' the elements are compared without case sensitivity. Default is false.
+     * @param trim       If set to 'true' the whitespace around the elements is ignored and removed. Default is false.
+     * @return The elements of the list in the order of their first occurrence, each element once.
+     */
+    @Action(name = "List Distinct",
+            outputs = {
+                    @Output(RESULT_TEXT),
+                    @Output(RESPONSE),
+                    @Output(RETURN_RESULT),
+                    @Output(RETURN_CODE)
+            },
+            responses = {
+                    @Response(text = SUCCESS, field = RETURN_CODE, value = RETURN_CODE_SUCCESS, matchType = MatchType.COMPARE_EQUAL),
+                    @Response(text = FAILURE, field = RETURN_CODE, value = RETURN_CODE_FAILURE, matchType = MatchType.COMPARE_EQUAL, isOnFail = true, isDefault = true)
+            })
+    public Map<String, String> getDistinct(@Param(value = LIST, required = true) String list,
+                                           @Param(value = DELIMITER) String delimiter,
+                                           @Param(value = IGNORE_CASE) String ignoreCase,
+                                           @Param(value = TRIM) String trim) {
+        Map<String, String> result = new HashMap<>();
+        try {
+            delimiter = InputsUtils.getInputDefaultValue(delimiter, Constants.DEFAULT_DELIMITER);
+            ListSetOperations operations = new ListSetOperations(InputsUtils.toBoolean(ignoreCase, false, IGNORE_CASE),
+                    InputsUtils.toBoolean(trim, false, TRIM));
+            String value = StringUtils.join(operations.distinct(ListProcessor.tokenize(list, delimiter)), delimiter);
+            result.put(RESULT_TEXT, value);
+            result.put(RESPONSE, SUCCESS);
+            result.put(RETURN_RESULT, value);
+            result.put(RETURN_CODE, RETURN_CODE_SUCCESS);
+        } catch (Exception e) {
+            result.put(RESULT_TEXT, e.getMessage());
+            result.put(RESPONSE, FAILURE);
+            result.put(RETURN_RESULT, e.getMessage());
+            result.put(RETURN_CODE, RETURN_CODE_FAILURE);
+        }
+        return result;
+    }
+}
@@ -7,6 +7,7 @@ import com.hp.oo.sdk.content.annotations.Param;
 import com.hp.oo.sdk.content.annotations.Response;
 import com.hp.oo.sdk.content.plugin.ActionMetadata.MatchType;
 import io.cloudslang.content.utils.ListProcessor;
+import io.cloudslang.content.utils.ListTokenizer;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -57,15 +58,27 @@ public class ListItemGrabberAction {
                                                 @Param(value = INDEX, required = true) String index) {
         Map<String, String> result = new HashMap<>();
         try {
-            String[] table = ListProcessor.toArray(list, delimiter);
+            ListTokenizer tokens = ListProcessor.tokenize(list, delimiter);
+            int size = tokens.countTokens();
             int resolvedIndex;
             try {
-                resolvedIndex = ListProcessor.getIndex(index, table.length);
+                resolvedIndex = ListProcessor.getIndex(index, size);
             } catch (NumberFormatException e) {
                 throw new NumberFormatException(e.getMessage() + WHILE_PARSING_INDEX);
             }
+            if (resolvedIndex < 0 || resolvedIndex >= size) {
+                throw new ArrayIndexOutOfBoundsException(String.valueOf(resolvedIndex));
+            }
 
-            String value = table[resolvedIndex];
+            // only the elements up to the requested one are split
+            String value = null;
+            int position = 0;
+            for (String token : tokens) {
+                if (position++ == resolvedIndex) {
+                    value = token;
+                    break;
+                }
+            }
             result.put(RESULT_TEXT, value);
             result.put(RESPONSE, SUCCESS);
             result.put(RETURN_RESULT, value);
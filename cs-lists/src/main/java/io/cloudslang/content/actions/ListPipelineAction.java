@@ -0,0 +1,77 @@
+
+package io.cloudslang.content.actions;
+
+import com.hp.oo.sdk.content.annotations.Action;
+import com.hp.oo.sdk.content.annotations.Output;
+import com.hp.oo.sdk.content.annotations.Param;
+import com.hp.oo.sdk.content.annotations.Response;
+import com.hp.oo.sdk.content.plugin.ActionMetadata.MatchType;
+import io.cloudslang.content.utils.Constants;
+import io.cloudslang.content.utils.InputsUtils;
+import io.cloudslang.content.utils.ListPipeline;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static io.cloudslang.content.utils.Constants.OutputNames.RESPONSE;
+import static io.cloudslang.content.utils.Constants.OutputNames.RESULT_TEXT;
+import static io.cloudslang.content.utils.Constants.OutputNames.RETURN_CODE;
+import static io.cloudslang.content.utils.Constants.OutputNames.RETURN_RESULT;
+import static io.cloudslang.content.utils.Constants.ResponseNames.FAILURE;
+import static io.cloudslang.content.utils.Constants.ResponseNames.SUCCESS;
+import static io.cloudslang.content.utils.Constants.ReturnCodes.RETURN_CODE_FAILURE;
+import static io.cloudslang.content.utils.Constants.ReturnCodes.RETURN_CODE_SUCCESS;
+
+public class ListPipelineAction {
+
+    private static final String LIST = "list";
+    private static final String DELIMITER = "delimiter";
+    private static final String PIPELINE = "pipeline";
+    private static final String OUTPUT_DELIMITER = "outputDelimiter";
+
+    /**
+     * This method applies a sequence of transformations to a list, reading the list once and joining the result once.
+     * The steps are separated by ';' and their arguments by ':', a ';' inside an argument is escaped as '\;':
+     * trim, nonEmpty, filter:regex, exclude:regex, prefix:text, suffix:text, slice:start[:end], distinct,
+     * sort[:reverse] and percentTrim:percent.
+     * Example: "trim;nonEmpty;filter:^web;distinct;sort;slice:0:10;suffix:.example.com"
+     *
+     * @param list            The list to be processed.
+     * @param delimiter       The delimiter of the list. Default is a comma.
+     * @param pipeline        The steps to apply, in order.
+     * @param outputDelimiter The delimiter used to join the result. Default is the list delimiter.
+     * @return The transformed list.
+     */
+    @Action(name = "List Pipeline",
+            outputs = {
+                    @Output(RESULT_TEXT),
+                    @Output(RESPONSE),
+                    @Output(RETURN_RESULT),
+                    @Output(RETURN_CODE)
+            },
+            responses = {
+                    @Response(text = SUCCESS, field = RETURN_CODE, value = RETURN_CODE_SUCCESS, matchType = MatchType.COMPARE_EQUAL),
+                    @Response(text = FAILURE, field = RETURN_CODE, value = RETURN_CODE_FAILURE, matchType = MatchType.COMPARE_EQUAL, isOnFail = true, isDefault = true)
+            })
+    public Map<String, String> applyPipeline(@Param(value = LIST, required = true) String list,
+                                             @Param(value = DELIMITER) String delimiter,
+                                             @Param(value = PIPELINE, required = true) String pipeline,
+                                             @Param(value = OUTPUT_DELIMITER) String outputDelimiter) {
+        Map<String, String> result = new HashMap<>();
+        try {
+            delimiter = InputsUtils.getInputDefaultValue(delimiter, Constants.DEFAULT_DELIMITER);
+            outputDelimiter = InputsUtils.getInputDefaultValue(outputDelimiter, delimiter);
+            String value = ListPipeline.compile(pipeline).apply(list, delimiter, outputDelimiter);
+            result.put(RESULT_TEXT, value);
+            result.put(RESPONSE, SUCCESS);
+            result.put(RETURN_RESULT, value);
+            result.put(RETURN_CODE, RETURN_CODE_SUCCESS);
+        } catch (Exception e) {
+            result.put(RESULT_TEXT, e.getMessage());
+            result.put(RESPONSE, FAILURE);
+            result.put(RETURN_RESULT, e.getMessage());
+            result.put(RETURN_CODE, RETURN_CODE_FAILURE);
+        }
+        return result;
+    }
+}
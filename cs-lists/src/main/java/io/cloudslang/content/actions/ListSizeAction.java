@@ -49,10 +49,10 @@ public class ListSizeAction {
                                            @Param(value = DELIMITER, required = true) String delimiter) {
         Map<String, String> result = new HashMap<>();
         try {
-            String[] table = ListProcessor.toArray(list, delimiter);
-            result.put(RESULT_TEXT, String.valueOf(table.length));
+            int size = ListProcessor.size(list, delimiter);
+            result.put(RESULT_TEXT, String.valueOf(size));
             result.put(RESPONSE, Constants.ResponseNames.SUCCESS);
-            result.put(RETURN_RESULT, String.valueOf(table.length));
+            result.put(RETURN_RESULT, String.valueOf(size));
             result.put(RETURN_CODE, RETURN_CODE_SUCCESS);
         } catch (Exception e) {
             result.put(RESULT_TEXT, e.getMessage());
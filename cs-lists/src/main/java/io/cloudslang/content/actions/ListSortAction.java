@@ -6,11 +6,12 @@ import com.hp.oo.sdk.content.annotations.Output;
 import com.hp.oo.sdk.content.annotations.Param;
 import com.hp.oo.sdk.content.annotations.Response;
 import com.hp.oo.sdk.content.plugin.ActionMetadata.MatchType;
-import io.cloudslang.content.utils.ListProcessor;
+import io.cloudslang.content.utils.ListSorter;
 
 import java.util.HashMap;
 import java.util.Map;
 
+import static io.cloudslang.content.utils.Constants.INVALID_COLLATION;
 import static io.cloudslang.content.utils.Constants.OutputNames.RESPONSE;
 import static io.cloudslang.content.utils.Constants.OutputNames.RESULT_TEXT;
 import static io.cloudslang.content.utils.Constants.OutputNames.RETURN_CODE;
@@ -28,6 +29,8 @@ public class ListSortAction {
     private static final String LIST = "list";
     private static final String DELIMITER = "delimiter";
     private static final String REVERSE = "reverse";
+    private static final String COLLATION = "collation";
+    private static final String LOCALE = "locale";
 
     /**
      * This method sorts a list of strings. If the list contains only numerical strings, it is sorted in numerical order.
@@ -36,6 +39,12 @@ public class ListSortAction {
      * @param list      The list to be sorted.
      * @param delimiter The list delimiter.
      * @param reverse   A boolean value for sorting the list in reverse order.
+     * @param collation The order of a list that is not numerical. Valid values: lexicographic, natural, locale.
+     *                  natural compares runs of digits by their numeric value, so item2 is sorted before item10, and
+     *                  locale sorts by the rules of the language given in the locale input.
+     *                  Default value: lexicographic
+     * @param locale    The language tag of the locale used by the locale collation, for example de-DE.
+     *                  Default value: the default locale of the JVM
      * @return The sorted list.
      */
     @Action(name = "List Sort",
@@ -51,11 +60,16 @@ public class ListSortAction {
             })
     public Map<String, String> sortList(@Param(value = LIST, required = true) String list,
                                         @Param(value = DELIMITER, required = true) String delimiter,
-                                        @Param(value = REVERSE) String reverse) {
+                                        @Param(value = REVERSE) String reverse,
+                                        @Param(value = COLLATION) String collation,
+                                        @Param(value = LOCALE) String locale) {
 
         Map<String, String> result = new HashMap<>();
         try {
-            String sortedList = sort(list, Boolean.parseBoolean(reverse), delimiter);
+            if (!ListSorter.isValidCollation(collation)) {
+                throw new IllegalArgumentException(String.format(INVALID_COLLATION, collation));
+            }
+            String sortedList = ListSorter.sort(list, delimiter, Boolean.parseBoolean(reverse), collation, locale);
             result.put(RESULT_TEXT, sortedList);
             result.put(RESPONSE, SUCCESS);
             result.put(RETURN_RESULT, sortedList);
@@ -69,30 +83,7 @@ public class ListSortAction {
         return result;
     }
 
-    private String sort(String list, boolean reverse, String delimiter) {
-        try {
-            int[] unsorted = ListProcessor.toIntArray(list, delimiter);
-            if (reverse) {
-                return ListProcessor.toString(ListProcessor.reverse(ListProcessor.sort(unsorted)), delimiter);
-            } else {
-                return ListProcessor.toString(ListProcessor.sort(unsorted), delimiter);
-            }
-        } catch (NumberFormatException e) {
-            try {
-                double[] unsorted = ListProcessor.toDoubleArray(list, delimiter);
-                if (reverse) {
-                    return ListProcessor.toString(ListProcessor.reverse(ListProcessor.sort(unsorted)), delimiter);
-                } else {
-                    return ListProcessor.toString(ListProcessor.sort(unsorted), delimiter);
-                }
-            } catch (NumberFormatException f) {
-                String[] unsorted = ListProcessor.toArray(list, delimiter);
-                if (reverse) {
-                    return ListProcessor.toString(ListProcessor.reverse(ListProcessor.sort(unsorted)), delimiter);
-                } else {
-                    return ListProcessor.toString(ListProcessor.sort(unsorted), delimiter);
-                }
-            }
-        }
+    public Map<String, String> sortList(String list, String delimiter, String reverse) {
+        return sortList(list, delimiter, reverse, null, null);
     }
 }
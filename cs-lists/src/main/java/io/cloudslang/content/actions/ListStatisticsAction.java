@@ -0,0 +1,150 @@
+
+package io.cloudslang.content.actions;
+
+import com.hp.oo.sdk.content.annotations.Action;
+import com.hp.oo.sdk.content.annotations.Output;
+import com.hp.oo.sdk.content.annotations.Param;
+import com.hp.oo.sdk.content.annotations.Response;
+import com.hp.oo.sdk.content.plugin.ActionMetadata.MatchType;
+import io.cloudslang.content.utils.Constants;
+import io.cloudslang.content.utils.InputsUtils;
+import io.cloudslang.content.utils.ListStatistics;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static io.cloudslang.content.utils.Constants.OutputNames.RESPONSE;
+import static io.cloudslang.content.utils.Constants.OutputNames.RESULT_TEXT;
+import static io.cloudslang.content.utils.Constants.OutputNames.RETURN_CODE;
+import static io.cloudslang.content.utils.Constants.OutputNames.RETURN_RESULT;
+import static io.cloudslang.content.utils.Constants.ResponseNames.FAILURE;
+import static io.cloudslang.content.utils.Constants.ResponseNames.SUCCESS;
+import static io.cloudslang.content.utils.Constants.ReturnCodes.RETURN_CODE_FAILURE;
+import static io.cloudslang.content.utils.Constants.ReturnCodes.RETURN_CODE_SUCCESS;
+
+public class ListStatisticsAction {
+
+    private static final String LIST = "list";
+    private static final String DELIMITER = "delimiter";
+    private static final String FUNCTIONS = "functions";
+    private static final String DEFAULT_FUNCTIONS = "count,min,max,sum,mean,median,stddev";
+    private static final String PERCENTAGE = "pct";
+    private static final String DEFAULT_PERCENTAGE = "10";
+    private static final String STREAMING = "streaming";
+    private static final String SAMPLE_SIZE = "sampleSize";
+    private static final String DEFAULT_SAMPLE_SIZE = "10000";
+    private static final String PAIR_DELIMITER = "pairDelimiter";
+    private static final String DEFAULT_PAIR_DELIMITER = "=";
+    private static final String FUNCTION_SEPARATOR = ",";
+    private static final String PERCENTILE_PREFIX = "p";
+    // integral values below this magnitude are written without a fraction
+    private static final double MAX_INTEGRAL_VALUE = 1e15;
+
+    /**
+     * This method aggregates a list of numbers. The numbers are kept as primitive doubles and the order statistics are
+     * found with quickselect instead of sorting the list.
+     *
+     * @param list          The list of numbers to be aggregated.
+     * @param delimiter     The delimiter of the list, also used to join the result. Default is a comma.
+     * @param functions     The comma separated aggregates to compute: count, min, max, sum, mean, median, stddev
+     *                      (population standard deviation), trimmedMean and percentiles written as p followed by the
+     *                      percent, for example p95 or p99.9. Default is count,min,max,sum,mean,median,stddev.
+     * @param percentage    The percentage of elements trimmed by trimmedMean, half from each end. Default is 10.
+     * @param streaming     If set to 'true' only a random sample of the numbers is kept for the median, percentiles
+     *                      and trimmedMean, which are then estimated; the other aggregates stay exact. Default is false.
+     * @param sampleSize    The size of the sample kept in streaming mode. Default is 10000.
+     * @param pairDelimiter The delimiter between an aggregate and its value. Default is '='.
+     * @return The aggregates in the requested order, for example count=4,min=1,max=7.
+     */
+    @Action(name = "List Statistics",
+            outputs = {
+                    @Output(RESULT_TEXT),
+                    @Output(RESPONSE),
+                    @Output(RETURN_RESULT),
+                    @Output(RETURN_CODE)
+            },
+            responses = {
+                    @Response(text = SUCCESS, field = RETURN_CODE, value = RETURN_CODE_SUCCESS, matchType = MatchType.COMPARE_EQUAL),
+                    @Response(text = FAILURE, field = RETURN_CODE, value = RETURN_CODE_FAILURE, matchType = MatchType.COMPARE_EQUAL, isOnFail = true, isDefault = true)
+            })
+    public Map<String, String> aggregate(@Param(value = LIST, required = true) String list,
+                                         @Param(value = DELIMITER) String delimiter,
+                                         @Param(value = FUNCTIONS) String functions,
+                                         @Param(value = PERCENTAGE) String percentage,
+                                         @Param(value = STREAMING) String streaming,
+                                         @Param(value = SAMPLE_SIZE) String sampleSize,
+                                         @Param(value = PAIR_DELIMITER) String pairDelimiter) {
+        Map<String, String> result = new HashMap<>();
+        try {
+            delimiter = InputsUtils.getInputDefaultValue(delimiter, Constants.DEFAULT_DELIMITER);
+            functions = InputsUtils.getInputDefaultValue(functions, DEFAULT_FUNCTIONS);
+            int pct = Integer.parseInt(InputsUtils.getInputDefaultValue(percentage, DEFAULT_PERCENTAGE));
+            int samples = -1;
+            if (InputsUtils.toBoolean(streaming, false, STREAMING)) {
+                samples = Integer.parseInt(InputsUtils.getInputDefaultValue(sampleSize, DEFAULT_SAMPLE_SIZE));
+                if (samples < 1) {
+                    throw new IllegalArgumentException("Invalid sample size: " + samples);
+                }
+            }
+            pairDelimiter = InputsUtils.getInputDefaultValue(pairDelimiter, DEFAULT_PAIR_DELIMITER);
+
+            ListStatistics statistics = ListStatistics.of(list, delimiter, samples);
+            StringBuilder aggregates = new StringBuilder();
+            for (String function : functions.split(FUNCTION_SEPARATOR)) {
+                function = function.trim();
+                if (aggregates.length() > 0) {
+                    aggregates.append(delimiter);
+                }
+                aggregates.append(function).append(pairDelimiter).append(compute(statistics, function, pct));
+            }
+            String value = aggregates.toString();
+            result.put(RESULT_TEXT, value);
+            result.put(RESPONSE, SUCCESS);
+            result.put(RETURN_RESULT, value);
+            result.put(RETURN_CODE, RETURN_CODE_SUCCESS);
+        } catch (Exception e) {
+            result.put(RESULT_TEXT, e.getMessage());
+            result.put(RESPONSE, FAILURE);
+            result.put(RETURN_RESULT, e.getMessage());
+            result.put(RETURN_CODE, RETURN_CODE_FAILURE);
+        }
+        return result;
+    }
+
+    private static String compute(ListStatistics statistics, String function, int percentage) {
+        switch (function) {
+            case "count":
+                return String.valueOf(statistics.getCount());
+            case "min":
+                return format(statistics.getMin());
+            case "max":
+                return format(statistics.getMax());
+            case "sum":
+                return format(statistics.getSum());
+            case "mean":
+                return format(statistics.getMean());
+            case "median":
+                return format(statistics.getMedian());
+            case "stddev":
+                return format(statistics.getStandardDeviation());
+            case "trimmedMean":
+                return format(statistics.getTrimmedMean(percentage));
+            default:
+                if (function.startsWith(PERCENTILE_PREFIX)) {
+                    try {
+                        return format(statistics.getPercentile(Double.parseDouble(function.substring(PERCENTILE_PREFIX.length()))));
+                    } catch (NumberFormatException e) {
+                        // reported below as an invalid function
+                    }
+                }
+                throw new IllegalArgumentException("Invalid function: " + function);
+        }
+    }
+
+    private static String format(double value) {
+        if (value == Math.rint(value) && Math.abs(value) < MAX_INTEGRAL_VALUE) {
+            return String.valueOf((long) value);
+        }
+        return String.valueOf(value);
+    }
+}
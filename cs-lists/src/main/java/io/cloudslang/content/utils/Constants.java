@@ -11,6 +11,7 @@ public class Constants {
     public static final String TRUE = "true";
     public static final String FALSE = "false";
     public static final String INPUT_NOT_BOOLEAN = "Input %s not a boolean value!";
+    public static final String INVALID_COLLATION = "Invalid collation %s! Valid values are lexicographic, natural and locale.";
 
 
     public static final class OutputNames {
@@ -0,0 +1,423 @@
+
+package io.cloudslang.content.utils;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * A compiled sequence of list transformations, applied in a single pass over the elements of a list.
+ * <p>
+ * A pipeline is written as steps separated by ';', a step and its argument are separated by ':' and a ';' inside an
+ * argument is escaped as '\;'. The supported steps are:
+ * <ul>
+ * <li>trim - removes the whitespace around every element</li>
+ * <li>nonEmpty - drops the empty elements</li>
+ * <li>filter:regex - keeps the elements that contain a match of the regular expression</li>
+ * <li>exclude:regex - drops the elements that contain a match of the regular expression</li>
+ * <li>prefix:text and suffix:text - add a text before or after every element</li>
+ * <li>slice:start[:end] - keeps the elements from the start index up to, but without, the end index</li>
+ * <li>distinct - drops the elements already seen</li>
+ * <li>sort[:reverse] - sorts numerically when all the elements are numbers, alphabetically otherwise</li>
+ * <li>percentTrim:percent - drops the given percent of the elements, half from each end</li>
+ * </ul>
+ * Sort and percentTrim need all of their elements before passing them on, the other steps handle one element at a time,
+ * and a slice stops reading the list once its end index is reached.
+ */
+public class ListPipeline {
+
+    private static final int MAX_CACHED_PIPELINES = 256;
+    private static final char STEP_SEPARATOR = ';';
+    private static final char ESCAPE_CHARACTER = '\\';
+    private static final String ARGUMENT_SEPARATOR = ":";
+    private static final String REVERSE = "reverse";
+
+    private static final Map<String, ListPipeline> COMPILED_PIPELINES = new LinkedHashMap<String, ListPipeline>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, ListPipeline> eldest) {
+            return size() > MAX_CACHED_PIPELINES;
+        }
+    };
+
+    private final List<Step> steps;
+
+    private ListPipeline(List<Step> steps) {
+        this.steps = steps;
+    }
+
+    /**
+     * Returns the compiled form of the pipeline, compiling and caching it on the first request.
+     *
+     * @param pipeline the pipeline steps
+     * @return the compiled pipeline
+     * @throws IllegalArgumentException if a step is not valid
+     */
+    public static ListPipeline compile(String pipeline) {
+        ListPipeline compiled;
+        synchronized (COMPILED_PIPELINES) {
+            compiled = COMPILED_PIPELINES.get(pipeline);
+        }
+        if (compiled == null) {
+            compiled = new ListPipeline(parseSteps(pipeline));
+            synchronized (COMPILED_PIPELINES) {
+                COMPILED_PIPELINES.put(pipeline, compiled);
+            }
+        }
+        return compiled;
+    }
+
+    /**
+     * Applies the pipeline to a list.
+     *
+     * @param list            the list to transform
+     * @param delimiter       the delimiter of the list
+     * @param outputDelimiter the delimiter used to join the result
+     * @return the transformed list
+     */
+    public String apply(String list, String delimiter, String outputDelimiter) {
+        final Sink sink = new Sink(outputDelimiter, list.length());
+        Stage first = sink;
+        for (int index = steps.size() - 1; index >= 0; index--) {
+            first = steps.get(index).newStage(first);
+        }
+        for (String element : ListProcessor.tokenize(list, delimiter)) {
+            if (!first.accept(element)) {
+                break;
+            }
+        }
+        first.finish();
+        return sink.toString();
+    }
+
+    private static List<Step> parseSteps(String pipeline) {
+        final List<Step> steps = new ArrayList<>();
+        final StringBuilder step = new StringBuilder();
+        for (int index = 0; index <= pipeline.length(); index++) {
+            final char character = index < pipeline.length() ? pipeline.charAt(index) : STEP_SEPARATOR;
+            if (character == ESCAPE_CHARACTER && index + 1 < pipeline.length() && pipeline.charAt(index + 1) == STEP_SEPARATOR) {
+                step.append(STEP_SEPARATOR);
+                index++;
+            } else if (character != STEP_SEPARATOR) {
+                step.append(character);
+            } else {
+                if (StringUtils.isNotBlank(step)) {
+                    steps.add(parseStep(step.toString()));
+                }
+                step.setLength(0);
+            }
+        }
+        if (steps.isEmpty()) {
+            throw new IllegalArgumentException("The pipeline must contain at least one step!");
+        }
+        return Collections.unmodifiableList(steps);
+    }
+
+    private static Step parseStep(String definition) {
+        final int separator = definition.indexOf(ARGUMENT_SEPARATOR);
+        final String name = (separator < 0 ? definition : definition.substring(0, separator)).trim();
+        final String argument = separator < 0 ? null : definition.substring(separator + 1);
+        final StepType type = StepType.fromName(name);
+        if (type == null) {
+            throw new IllegalArgumentException("Invalid pipeline step: " + name);
+        }
+        return new Step(type, argument);
+    }
+
+    private enum StepType {
+        TRIM("trim", false), NON_EMPTY("nonEmpty", false), FILTER("filter", true), EXCLUDE("exclude", true),
+        PREFIX("prefix", true), SUFFIX("suffix", true), SLICE("slice", true), DISTINCT("distinct", false),
+        SORT("sort", false), PERCENT_TRIM("percentTrim", true);
+
+        private final String name;
+        private final boolean argumentRequired;
+
+        StepType(String name, boolean argumentRequired) {
+            this.name = name;
+            this.argumentRequired = argumentRequired;
+        }
+
+        private static StepType fromName(String name) {
+            for (StepType type : values()) {
+                if (type.name.equalsIgnoreCase(name)) {
+                    return type;
+                }
+            }
+            return null;
+        }
+    }
+
+    // the immutable, compiled form of a step, a new stage is created from it for every list
+    private static class Step {
+        private final StepType type;
+        private final String argument;
+        private final Pattern pattern;
+        private final int start;
+        private final int end;
+
+        private Step(StepType type, String argument) {
+            if (type.argumentRequired && argument == null) {
+                throw new IllegalArgumentException("The " + type.name + " pipeline step requires an argument!");
+            }
+            this.type = type;
+            this.argument = argument;
+            this.pattern = type == StepType.FILTER || type == StepType.EXCLUDE ? Pattern.compile(argument) : null;
+            if (type == StepType.SLICE) {
+                final String[] bounds = argument.split(ARGUMENT_SEPARATOR, -1);
+                this.start = parseIndex(bounds[0]);
+                this.end = bounds.length > 1 && StringUtils.isNotBlank(bounds[1]) ? parseIndex(bounds[1]) : -1;
+            } else if (type == StepType.PERCENT_TRIM) {
+                this.start = parseIndex(argument);
+                this.end = -1;
+                if (start > 100) {
+                    throw new IllegalArgumentException("Invalid percent: " + start);
+                }
+            } else {
+                this.start = 0;
+                this.end = -1;
+            }
+            if (type == StepType.SORT && argument != null && !REVERSE.equalsIgnoreCase(argument.trim())) {
+                throw new IllegalArgumentException("Invalid sort order: " + argument);
+            }
+        }
+
+        private static int parseIndex(String index) {
+            final int value = Integer.parseInt(index.trim());
+            if (value < 0) {
+                throw new IllegalArgumentException("Invalid pipeline index: " + value);
+            }
+            return value;
+        }
+
+        private Stage newStage(final Stage next) {
+            switch (type) {
+                case TRIM:
+                    return new Stage(next) {
+                        @Override
+                        boolean accept(String element) {
+                            return next.accept(element.trim());
+                        }
+                    };
+                case NON_EMPTY:
+                    return new Stage(next) {
+                        @Override
+                        boolean accept(String element) {
+                            return element.isEmpty() || next.accept(element);
+                        }
+                    };
+                case FILTER:
+                case EXCLUDE:
+                    final boolean keep = type == StepType.FILTER;
+                    return new Stage(next) {
+                        @Override
+                        boolean accept(String element) {
+                            return pattern.matcher(element).find() != keep || next.accept(element);
+                        }
+                    };
+                case PREFIX:
+                    return new Stage(next) {
+                        @Override
+                        boolean accept(String element) {
+                            return next.accept(argument + element);
+                        }
+                    };
+                case SUFFIX:
+                    return new Stage(next) {
+                        @Override
+                        boolean accept(String element) {
+                            return next.accept(element + argument);
+                        }
+                    };
+                case SLICE:
+                    return new SliceStage(next, start, end);
+                case DISTINCT:
+                    return new Stage(next) {
+                        private final Set<String> seen = new HashSet<>();
+
+                        @Override
+                        boolean accept(String element) {
+                            return !seen.add(element) || next.accept(element);
+                        }
+                    };
+                case SORT:
+                    return new SortStage(next, argument != null);
+                default:
+                    return new PercentTrimStage(next, start);
+            }
+        }
+    }
+
+    private abstract static class Stage {
+        final Stage next;
+
+        Stage(Stage next) {
+            this.next = next;
+        }
+
+        /**
+         * @return false when the stage does not need any more elements
+         */
+        abstract boolean accept(String element);
+
+        void finish() {
+            next.finish();
+        }
+    }
+
+    private static class SliceStage extends Stage {
+        private final int start;
+        private final int end;
+        private int index;
+
+        private SliceStage(Stage next, int start, int end) {
+            super(next);
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        boolean accept(String element) {
+            final int current = index++;
+            if (end >= 0 && current >= end) {
+                return false;
+            }
+            if (current < start) {
+                return true;
+            }
+            return next.accept(element) && (end < 0 || index < end);
+        }
+    }
+
+    // buffers the elements, they are passed on once the whole list was read
+    private abstract static class BufferingStage extends Stage {
+        final List<String> elements = new ArrayList<>();
+
+        BufferingStage(Stage next) {
+            super(next);
+        }
+
+        @Override
+        boolean accept(String element) {
+            elements.add(element);
+            return true;
+        }
+
+        void flush(List<String> result) {
+            for (String element : result) {
+                if (!next.accept(element)) {
+                    break;
+                }
+            }
+            next.finish();
+        }
+    }
+
+    private static class SortStage extends BufferingStage {
+        private final boolean reverse;
+
+        private SortStage(Stage next, boolean reverse) {
+            super(next);
+            this.reverse = reverse;
+        }
+
+        @Override
+        void finish() {
+            final double[] numbers = toNumbers(elements);
+            if (numbers != null) {
+                sortByNumbers(numbers);
+            } else {
+                Collections.sort(elements);
+            }
+            if (reverse) {
+                Collections.reverse(elements);
+            }
+            flush(elements);
+        }
+
+        // each element is parsed once, null when one of them is not a number
+        private static double[] toNumbers(List<String> elements) {
+            final double[] numbers = new double[elements.size()];
+            for (int index = 0; index < numbers.length; index++) {
+                final String element = elements.get(index);
+                if (!ListSorter.isDouble(element)) {
+                    return null;
+                }
+                numbers[index] = Double.parseDouble(element);
+            }
+            return numbers;
+        }
+
+        // the elements keep their original text, so the indexes are sorted on the parsed values, in a stable order
+        private void sortByNumbers(final double[] numbers) {
+            final Integer[] order = new Integer[numbers.length];
+            for (int index = 0; index < order.length; index++) {
+                order[index] = index;
+            }
+            Arrays.sort(order, new Comparator<Integer>() {
+                @Override
+                public int compare(Integer first, Integer second) {
+                    return Double.compare(numbers[first], numbers[second]);
+                }
+            });
+            final List<String> sorted = new ArrayList<>(order.length);
+            for (Integer index : order) {
+                sorted.add(elements.get(index));
+            }
+            elements.clear();
+            elements.addAll(sorted);
+        }
+    }
+
+    private static class PercentTrimStage extends BufferingStage {
+        private final int percent;
+
+        private PercentTrimStage(Stage next, int percent) {
+            super(next);
+            this.percent = percent;
+        }
+
+        @Override
+        void finish() {
+            flush(Arrays.asList(ListProcessor.trimPercent(elements.toArray(new String[elements.size()]), percent)));
+        }
+    }
+
+    private static class Sink extends Stage {
+        private final String delimiter;
+        private final StringBuilder out;
+        private boolean empty = true;
+
+        private Sink(String delimiter, int capacity) {
+            super(null);
+            this.delimiter = delimiter;
+            this.out = new StringBuilder(capacity);
+        }
+
+        @Override
+        boolean accept(String element) {
+            if (!empty) {
+                out.append(delimiter);
+            }
+            out.append(element);
+            empty = false;
+            return true;
+        }
+
+        @Override
+        void finish() {
+        }
+
+        @Override
+        public String toString() {
+            return out.toString();
+        }
+    }
+}
@@ -5,13 +5,36 @@ import org.apache.commons.lang3.StringUtils;
 
 import java.lang.reflect.Array;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
 
 public class ListProcessor {
 
     public static String[] toArray(String list, String delimiter) {
-        return toArrayFromNormalized(normalizeString(list, delimiter), normalizeDelimiter(delimiter));
+        return tokenize(list, delimiter).toArray();
+    }
+
+    /**
+     * Returns the elements of the list lazily, in the same way as {@link #toArray(String, String)}.
+     *
+     * @param list      the list to split
+     * @param delimiter the delimiter of the list
+     * @return a tokenizer over the elements of the list
+     */
+    public static ListTokenizer tokenize(String list, String delimiter) {
+        return new ListTokenizer(normalizeString(list, delimiter), normalizeString(delimiter, delimiter));
+    }
+
+    /**
+     * Counts the elements of the list without splitting it.
+     *
+     * @param list      the list to count
+     * @param delimiter the delimiter of the list
+     * @return the number of elements that {@link #toArray(String, String)} would return
+     */
+    public static int size(String list, String delimiter) {
+        return tokenize(list, delimiter).countTokens();
     }
 
     public static int getIndex(String index, int listLength) throws Exception {
@@ -60,19 +83,21 @@ public class ListProcessor {
     }
 
     public static int[] toIntArray(String list, String delimiter) {
-        String[] split = toArray(list, delimiter);
-        int[] ints = new int[split.length];
-        for (int count = 0; count < ints.length; count++) {
-            ints[count] = Integer.parseInt(split[count]);
+        ListTokenizer tokens = tokenize(list, delimiter);
+        int[] ints = new int[tokens.countTokens()];
+        int count = 0;
+        for (String token : tokens) {
+            ints[count++] = Integer.parseInt(token);
         }
         return ints;
     }
 
     public static double[] toDoubleArray(String list, String delimiter) {
-        String[] split = toArray(list, delimiter);
-        double[] dubs = new double[split.length];
-        for (int count = 0; count < dubs.length; count++) {
-            dubs[count] = Double.parseDouble(split[count]);
+        ListTokenizer tokens = tokenize(list, delimiter);
+        double[] dubs = new double[tokens.countTokens()];
+        int count = 0;
+        for (String token : tokens) {
+            dubs[count++] = Double.parseDouble(token);
         }
         return dubs;
     }
@@ -111,51 +136,26 @@ public class ListProcessor {
     }
 
     public static String[] sort(String[] unsorted) {
-        List<String> sorted = new ArrayList<>(unsorted.length);
-        for (int count = 0; count < unsorted.length; count++) {
-            sorted.add(unsorted[count]);
-        }
-        Collections.sort(sorted);
-        return sorted.toArray(new String[unsorted.length]);
+        String[] sorted = unsorted.clone();
+        Arrays.sort(sorted);
+        return sorted;
     }
 
     public static int[] sort(int[] unsorted) {
-        List<Integer> sorted = new ArrayList<>(unsorted.length);
-        for (int count = 0; count < unsorted.length; count++) {
-            sorted.add(unsorted[count]);
-        }
-        Collections.sort(sorted);
-        int[] out = new int[unsorted.length];
-        for (int count = 0; count < out.length; count++) {
-            out[count] = sorted.get(count);
-        }
-        return out;
+        int[] sorted = unsorted.clone();
+        Arrays.sort(sorted);
+        return sorted;
     }
 
     public static double[] sort(double[] unsorted) {
-        List<Double> sorted = new ArrayList<>(unsorted.length);
-        for (int count = 0; count < unsorted.length; count++) {
-            sorted.add(unsorted[count]);
-        }
-        Collections.sort(sorted);
-        double[] out = new double[unsorted.length];
-        for (int count = 0; count < out.length; count++) {
-            out[count] = sorted.get(count);
-        }
-        return out;
+        double[] sorted = unsorted.clone();
+        Arrays.sort(sorted);
+        return sorted;
     }
 
     public static int[] trimPercent(int[] array, int percent) {
-        Integer[] d = new Integer[array.length];
-        for (int count = 0; count < array.length; count++) {
-            d[count] = array[count];
-        }
-        d = trimPercent(Integer.class, d, percent);
-        array = new int[d.length];
-        for (int count = 0; count < array.length; count++) {
-            array[count] = d[count];
-        }
-        return array;
+        int trim = trimCount(array.length, percent);
+        return Arrays.copyOfRange(array, trim, array.length - trim);
     }
 
     public static String[] trimPercent(String[] array, int percent) {
@@ -168,16 +168,8 @@ public class ListProcessor {
     }
 
     public static double[] trimPercent(double[] array, int percent) {
-        Double[] d = new Double[array.length];
-        for (int count = 0; count < array.length; count++) {
-            d[count] = array[count];
-        }
-        d = trimPercent(Double.class, d, percent);
-        array = new double[d.length];
-        for (int count = 0; count < array.length; count++) {
-            array[count] = d[count];
-        }
-        return array;
+        int trim = trimCount(array.length, percent);
+        return Arrays.copyOfRange(array, trim, array.length - trim);
     }
 
     private static String normalizeString(String str, String sep) {
@@ -186,61 +178,20 @@ public class ListProcessor {
         String LITERAL_RETURN = "\\" + "r";
 
         if (sep.contains(LITERAL_TAB)) {
-            str = str.replace(LITERAL_TAB, "\t");
+            str = StringUtils.replace(str, LITERAL_TAB, "\t");
         }
         if (sep.contains(LITERAL_NEW_LINE)) {
-            str = str.replace(LITERAL_NEW_LINE, "\n");
+            str = StringUtils.replace(str, LITERAL_NEW_LINE, "\n");
         }
         if (sep.contains(LITERAL_RETURN)) {
-            str = str.replace(LITERAL_RETURN, "\r");
+            str = StringUtils.replace(str, LITERAL_RETURN, "\r");
         }
         return str;
     }
 
-    private static String normalizeDelimiter(String delim) {
-        delim = normalizeString(delim, delim);
-        delim = regularExpressionReplace(delim, '\\');
-        delim = regularExpressionReplace(delim, '|');
-        delim = regularExpressionReplace(delim, '(');
-        delim = regularExpressionReplace(delim, ')');
-        delim = regularExpressionReplace(delim, '*');
-        delim = regularExpressionReplace(delim, '+');
-        delim = regularExpressionReplace(delim, '.');
-        delim = regularExpressionReplace(delim, '?');
-        delim = regularExpressionReplace(delim, '[');
-        delim = regularExpressionReplace(delim, ']');
-        delim = regularExpressionReplace(delim, '^');
-        delim = regularExpressionReplace(delim, '{');
-        delim = regularExpressionReplace(delim, '}');
-        delim = regularExpressionReplace(delim, '$');
-        return delim;
-    }
-
-    private static String regularExpressionReplace(String delim, char character) {
-        int index;
-        if ((index = delim.indexOf(character)) > -1) {
-            String start = delim.substring(0, index);
-            String end = "";
-            if (index + 1 < delim.length()) {
-                end = delim.substring(index + 1, delim.length());
-            }
-            delim = start + "\\" + character + regularExpressionReplace(end, character);
-
-        }
-        return delim;
-    }
-
     @SuppressWarnings("unchecked")
     private static <T extends Comparable<T>> T[] trimPercent(Class<T> c, T[] array, int percent) {
-        // how many elements do we need to trim?
-        int trim = (int) Math.rint(array.length * ((double) percent / 100));
-
-        // if it is odd make it even;
-        if (trim % 2 != 0)
-            trim--;
-
-        // now divide it by two since that is where we will start in the list...
-        trim /= 2;
+        int trim = trimCount(array.length, percent);
 
         // and we will end that many before the end...
         int total = array.length - trim;
@@ -253,6 +204,21 @@ public class ListProcessor {
         return partial;
     }
 
+    /**
+     * @return the number of elements trimmed from each end of a list of the given length
+     */
+    static int trimCount(int length, int percent) {
+        // how many elements do we need to trim?
+        int trim = (int) Math.rint(length * ((double) percent / 100));
+
+        // if it is odd make it even;
+        if (trim % 2 != 0)
+            trim--;
+
+        // now divide it by two since that is where we will start in the list...
+        return trim / 2;
+    }
+
     private static double roundTo(double value, int decimals) {
         double precision = Math.pow(10, decimals);
         return Math.rint(value * precision) / precision;
@@ -266,14 +232,6 @@ public class ListProcessor {
         return rounded;
     }
 
-    private static String[] toArrayFromNormalized(String list, String delimiter) {
-        if (list.length() == 0) {
-            return new String[0];
-        }
-        return list.split(delimiter);
-    }
-
-
     /**
      * This method check if all elements of an array are null.
      * @param uncontainedArray element in array
@@ -291,25 +249,15 @@ public class ListProcessor {
     }
 
     public static String[] getUncontainedArray(String[] subArray, String[] containerArray, boolean ignoreCase) {
-        String[] uncontainedArray = new String[subArray.length];
-        int index = 0;
-        boolean found = false;
+        ListSetOperations operations = new ListSetOperations(ignoreCase, false);
+        Set<String> containerKeys = operations.toKeySet(Arrays.asList(containerArray));
+        List<String> uncontained = new ArrayList<>();
         for (String subStr : subArray) {
-            for (String contStr : containerArray) {
-                found = elementsAreEqual(subStr, contStr, ignoreCase);
-                if (found) {
-                    break;
-                }
-            }
-            if (!found) {
-                uncontainedArray[index] = subStr;
-                index++;
+            if (!operations.contains(containerKeys, subStr)) {
+                uncontained.add(subStr);
             }
         }
-        String[] newUncontainedArray = new String[index];
-         System.arraycopy(uncontainedArray, 0, newUncontainedArray, 0, index);
-
-        return newUncontainedArray;
+        return uncontained.toArray(new String[uncontained.size()]);
     }
 
     public static boolean elementsAreEqual(String a, String b, boolean ignoreCase) {
@@ -0,0 +1,145 @@
+
+package io.cloudslang.content.utils;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Set operations over delimited lists, in linear time. Every list is read once into a hash set or map keyed on its
+ * elements, optionally trimmed and case folded. Results keep the order in which elements first appear and the
+ * spelling of their first occurrence, and contain every element once.
+ */
+public class ListSetOperations {
+
+    private final boolean ignoreCase;
+    private final boolean trim;
+
+    /**
+     * @param ignoreCase true to compare the elements without case sensitivity, as String.equalsIgnoreCase does
+     * @param trim       true to ignore the whitespace around the elements, the results are trimmed as well
+     */
+    public ListSetOperations(boolean ignoreCase, boolean trim) {
+        this.ignoreCase = ignoreCase;
+        this.trim = trim;
+    }
+
+    /**
+     * @return the elements of the first list that are not in the second one
+     */
+    public List<String> difference(Iterable<String> first, Iterable<String> second) {
+        final Set<String> excluded = toKeySet(second);
+        final Map<String, String> result = new LinkedHashMap<>();
+        for (String element : first) {
+            final String value = value(element);
+            final String key = key(value);
+            if (!excluded.contains(key) && !result.containsKey(key)) {
+                result.put(key, value);
+            }
+        }
+        return new ArrayList<>(result.values());
+    }
+
+    /**
+     * @return the elements of the first list that are also in the second one
+     */
+    public List<String> intersection(Iterable<String> first, Iterable<String> second) {
+        final Set<String> included = toKeySet(second);
+        final Map<String, String> result = new LinkedHashMap<>();
+        for (String element : first) {
+            final String value = value(element);
+            final String key = key(value);
+            if (included.contains(key) && !result.containsKey(key)) {
+                result.put(key, value);
+            }
+        }
+        return new ArrayList<>(result.values());
+    }
+
+    /**
+     * @return the elements of both lists, the ones of the first list first
+     */
+    public List<String> union(Iterable<String> first, Iterable<String> second) {
+        final Map<String, String> result = new LinkedHashMap<>();
+        addDistinct(result, first);
+        addDistinct(result, second);
+        return new ArrayList<>(result.values());
+    }
+
+    /**
+     * @return the elements of the list without duplicates
+     */
+    public List<String> distinct(Iterable<String> list) {
+        final Map<String, String> result = new LinkedHashMap<>();
+        addDistinct(result, list);
+        return new ArrayList<>(result.values());
+    }
+
+    /**
+     * @return the number of occurrences of every element of the list
+     */
+    public Map<String, Integer> counts(Iterable<String> list) {
+        final Map<String, String> values = new LinkedHashMap<>();
+        final Map<String, Integer> keyCounts = new LinkedHashMap<>();
+        for (String element : list) {
+            final String value = value(element);
+            final String key = key(value);
+            final Integer count = keyCounts.get(key);
+            if (count == null) {
+                values.put(key, value);
+                keyCounts.put(key, 1);
+            } else {
+                keyCounts.put(key, count + 1);
+            }
+        }
+        final Map<String, Integer> counts = new LinkedHashMap<>();
+        for (Map.Entry<String, Integer> keyCount : keyCounts.entrySet()) {
+            counts.put(values.get(keyCount.getKey()), keyCount.getValue());
+        }
+        return counts;
+    }
+
+    /**
+     * @return true if the hash set of the container holds the element
+     */
+    public boolean contains(Set<String> containerKeys, String element) {
+        return containerKeys.contains(key(value(element)));
+    }
+
+    public Set<String> toKeySet(Iterable<String> list) {
+        final Set<String> keys = new HashSet<>();
+        for (String element : list) {
+            keys.add(key(value(element)));
+        }
+        return keys;
+    }
+
+    private void addDistinct(Map<String, String> result, Iterable<String> list) {
+        for (String element : list) {
+            final String value = value(element);
+            final String key = key(value);
+            if (!result.containsKey(key)) {
+                result.put(key, value);
+            }
+        }
+    }
+
+    private String value(String element) {
+        return trim ? element.trim() : element;
+    }
+
+    // two strings are equal ignoring case exactly when their characters fold to the same lower case of their upper case
+    private String key(String value) {
+        if (!ignoreCase) {
+            return value;
+        }
+        final char[] folded = new char[value.length()];
+        for (int index = 0; index < folded.length; index++) {
+            folded[index] = Character.toLowerCase(Character.toUpperCase(value.charAt(index)));
+        }
+        return new String(folded);
+    }
+}
@@ -0,0 +1,279 @@
+
+package io.cloudslang.content.utils;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.text.CollationKey;
+import java.text.Collator;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Locale;
+
+/**
+ * Sorts a delimited list. The elements are parsed in a single pass that also infers the type of the list without
+ * relying on exceptions: a list of integers is sorted as an int[] or long[], a list of numbers as a double[] and any
+ * other list as strings, with an optional natural or locale sensitive collation.
+ */
+public class ListSorter {
+
+    public static final String LEXICOGRAPHIC = "lexicographic";
+    public static final String NATURAL = "natural";
+    public static final String LOCALE = "locale";
+
+    // the longest integers that always fit in a long
+    private static final int MAX_LONG_DIGITS = 18;
+    private static final int DECIMALS = 3;
+
+    private static final Comparator<String> NATURAL_ORDER = new NaturalComparator();
+
+    /**
+     * Sorts the list, numerically if all of its elements are numbers and as strings otherwise.
+     *
+     * @param list      the list to sort
+     * @param delimiter the list delimiter, also used to join the sorted list
+     * @param reverse   true to sort in descending order
+     * @param collation the order of a list of strings: lexicographic, natural or locale
+     * @param locale    the language tag of the locale used by the locale collation, the default locale if empty
+     * @return the sorted list
+     */
+    public static String sort(String list, String delimiter, boolean reverse, String collation, String locale) {
+        final ListTokenizer tokens = ListProcessor.tokenize(list, delimiter);
+        final int size = tokens.countTokens();
+        final StringBuilder out = new StringBuilder(list.length() + delimiter.length());
+
+        int[] ints = new int[size];
+        long[] longs = null;
+        double[] doubles = null;
+        int count = 0;
+        for (String token : tokens) {
+            if (doubles == null && isInteger(token)) {
+                final long value = Long.parseLong(token);
+                if (longs == null && (int) value == value) {
+                    ints[count++] = (int) value;
+                    continue;
+                }
+                if (longs == null) {
+                    longs = new long[size];
+                    for (int index = 0; index < count; index++) {
+                        longs[index] = ints[index];
+                    }
+                    ints = null;
+                }
+                longs[count++] = value;
+                continue;
+            }
+            if (doubles == null) {
+                // the integers read so far are parsed again as doubles, which keeps the sign of -0
+                doubles = new double[size];
+                final Iterator<String> previous = tokens.iterator();
+                for (int index = 0; index < count; index++) {
+                    final String integer = previous.next();
+                    if (!isDouble(integer)) {
+                        return appendStrings(out, sortStrings(tokens.toArray(), collation, locale), delimiter, reverse).toString();
+                    }
+                    doubles[index] = Double.parseDouble(integer);
+                }
+                ints = null;
+                longs = null;
+            }
+            if (!isDouble(token)) {
+                return appendStrings(out, sortStrings(tokens.toArray(), collation, locale), delimiter, reverse).toString();
+            }
+            doubles[count++] = Double.parseDouble(token);
+        }
+
+        if (doubles != null) {
+            Arrays.sort(doubles);
+            for (int index = 0; index < size; index++) {
+                appendDelimiter(out, delimiter, index).append(roundTo(doubles[reverse ? size - 1 - index : index]));
+            }
+        } else if (longs != null) {
+            Arrays.sort(longs);
+            for (int index = 0; index < size; index++) {
+                appendDelimiter(out, delimiter, index).append(longs[reverse ? size - 1 - index : index]);
+            }
+        } else {
+            Arrays.sort(ints);
+            for (int index = 0; index < size; index++) {
+                appendDelimiter(out, delimiter, index).append(ints[reverse ? size - 1 - index : index]);
+            }
+        }
+        return out.toString();
+    }
+
+    public static boolean isValidCollation(String collation) {
+        return StringUtils.isEmpty(collation) || LEXICOGRAPHIC.equalsIgnoreCase(collation) ||
+                NATURAL.equalsIgnoreCase(collation) || LOCALE.equalsIgnoreCase(collation);
+    }
+
+    private static String[] sortStrings(String[] strings, String collation, String locale) {
+        if (NATURAL.equalsIgnoreCase(collation)) {
+            Arrays.sort(strings, NATURAL_ORDER);
+        } else if (LOCALE.equalsIgnoreCase(collation)) {
+            // collation keys are computed once per element instead of once per comparison
+            final Collator collator = Collator.getInstance(StringUtils.isEmpty(locale) ? Locale.getDefault() : Locale.forLanguageTag(locale));
+            final CollationKey[] keys = new CollationKey[strings.length];
+            for (int index = 0; index < strings.length; index++) {
+                keys[index] = collator.getCollationKey(strings[index]);
+            }
+            Arrays.sort(keys);
+            for (int index = 0; index < strings.length; index++) {
+                strings[index] = keys[index].getSourceString();
+            }
+        } else {
+            Arrays.sort(strings);
+        }
+        return strings;
+    }
+
+    private static StringBuilder appendStrings(StringBuilder out, String[] strings, String delimiter, boolean reverse) {
+        for (int index = 0; index < strings.length; index++) {
+            appendDelimiter(out, delimiter, index).append(strings[reverse ? strings.length - 1 - index : index]);
+        }
+        return out;
+    }
+
+    private static StringBuilder appendDelimiter(StringBuilder out, String delimiter, int index) {
+        return index == 0 ? out : out.append(delimiter);
+    }
+
+    private static double roundTo(double value) {
+        double precision = Math.pow(10, DECIMALS);
+        return Math.rint(value * precision) / precision;
+    }
+
+    // the same syntax as Integer.parseInt, limited to the values that Long.parseLong accepts
+    private static boolean isInteger(String token) {
+        final int length = token.length();
+        int index = 0;
+        if (length > 0 && (token.charAt(0) == '-' || token.charAt(0) == '+')) {
+            index++;
+        }
+        if (index == length) {
+            return false;
+        }
+        int digits = 0;
+        for (; index < length; index++) {
+            final int digit = Character.digit(token.charAt(index), 10);
+            if (digit < 0) {
+                return false;
+            }
+            if (digit > 0 || digits > 0) {
+                digits++;
+            }
+        }
+        return digits <= MAX_LONG_DIGITS;
+    }
+
+    // decimal numbers are recognized without parsing, the rarer forms accepted by Double.parseDouble (NaN, Infinity
+    // and hexadecimal numbers) all contain one of the letters N, I or X
+    static boolean isDouble(String token) {
+        final String trimmed = token.trim();
+        if (isDecimal(trimmed)) {
+            return true;
+        }
+        if (StringUtils.containsNone(trimmed, 'N', 'I', 'x', 'X')) {
+            return false;
+        }
+        try {
+            Double.parseDouble(trimmed);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    // [+-] digits [. digits] [e [+-] digits] [fFdD], with at least one digit before the exponent
+    private static boolean isDecimal(String token) {
+        final int length = token.length();
+        int index = 0;
+        if (index < length && (token.charAt(index) == '-' || token.charAt(index) == '+')) {
+            index++;
+        }
+        final int integerStart = index;
+        index = skipDigits(token, index);
+        int mantissaDigits = index - integerStart;
+        if (index < length && token.charAt(index) == '.') {
+            final int fractionStart = ++index;
+            index = skipDigits(token, index);
+            mantissaDigits += index - fractionStart;
+        }
+        if (mantissaDigits == 0) {
+            return false;
+        }
+        if (index < length && (token.charAt(index) == 'e' || token.charAt(index) == 'E')) {
+            index++;
+            if (index < length && (token.charAt(index) == '-' || token.charAt(index) == '+')) {
+                index++;
+            }
+            final int exponentStart = index;
+            index = skipDigits(token, index);
+            if (index == exponentStart) {
+                return false;
+            }
+        }
+        if (index < length && "fFdD".indexOf(token.charAt(index)) >= 0) {
+            index++;
+        }
+        return index == length;
+    }
+
+    private static int skipDigits(String token, int index) {
+        while (index < token.length() && token.charAt(index) >= '0' && token.charAt(index) <= '9') {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * Orders strings like file2 before file10: runs of digits are compared by their numeric value, the other
+     * characters one by one. Strings that only differ in leading zeros are ordered lexicographically.
+     */
+    private static class NaturalComparator implements Comparator<String> {
+        @Override
+        public int compare(String first, String second) {
+            int firstIndex = 0;
+            int secondIndex = 0;
+            while (firstIndex < first.length() && secondIndex < second.length()) {
+                final char firstChar = first.charAt(firstIndex);
+                final char secondChar = second.charAt(secondIndex);
+                if (isDigit(firstChar) && isDigit(secondChar)) {
+                    final int firstStart = skipZeros(first, firstIndex);
+                    final int secondStart = skipZeros(second, secondIndex);
+                    firstIndex = skipDigits(first, firstStart);
+                    secondIndex = skipDigits(second, secondStart);
+                    final int lengthDifference = (firstIndex - firstStart) - (secondIndex - secondStart);
+                    if (lengthDifference != 0) {
+                        return lengthDifference;
+                    }
+                    for (int offset = 0; offset < firstIndex - firstStart; offset++) {
+                        final int difference = first.charAt(firstStart + offset) - second.charAt(secondStart + offset);
+                        if (difference != 0) {
+                            return difference;
+                        }
+                    }
+                } else {
+                    if (firstChar != secondChar) {
+                        return firstChar - secondChar;
+                    }
+                    firstIndex++;
+                    secondIndex++;
+                }
+            }
+            final int remaining = (first.length() - firstIndex) - (second.length() - secondIndex);
+            return remaining != 0 ? remaining : first.compareTo(second);
+        }
+
+        private static boolean isDigit(char character) {
+            return character >= '0' && character <= '9';
+        }
+
+        private static int skipZeros(String string, int index) {
+            while (index < string.length() && string.charAt(index) == '0') {
+                index++;
+            }
+            return index;
+        }
+    }
+}
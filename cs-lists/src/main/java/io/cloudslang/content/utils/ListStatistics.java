@@ -0,0 +1,232 @@
+
+package io.cloudslang.content.utils;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Aggregates a list of numbers into primitive doubles, without boxing them.
+ * <p>
+ * The count, minimum, maximum, sum, mean and standard deviation are computed while the numbers are added. Order
+ * statistics (median, percentiles and the trimmed mean) are found with quickselect, which partially orders the kept
+ * numbers in linear time instead of sorting them. In streaming mode only a uniform random sample of a fixed size is
+ * kept, so the memory used does not depend on the size of the list; order statistics are then estimated from the
+ * sample, while the other aggregates stay exact.
+ */
+public class ListStatistics {
+
+    // a fixed seed makes the estimates of a streamed list repeatable
+    private static final long SAMPLE_SEED = 0x5DEECE66DL;
+    private static final int INITIAL_SAMPLE_CAPACITY = 1024;
+
+    private final int sampleSize;
+    private final Random random;
+    private double[] values;
+    private int size;
+
+    private long count;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+    private double sum;
+    private double mean;
+    // sum of the squared differences from the mean, updated with Welford's method
+    private double squaredDifferences;
+
+    /**
+     * @param sampleSize the number of values kept for the order statistics, or a negative number to keep all of them
+     * @param capacity   the expected number of values
+     */
+    public ListStatistics(int sampleSize, int capacity) {
+        this.sampleSize = sampleSize;
+        this.random = sampleSize < 0 ? null : new Random(SAMPLE_SEED);
+        this.values = new double[Math.max(sampleSize < 0 ? capacity : Math.min(capacity, sampleSize), 1)];
+    }
+
+    /**
+     * Reads the numbers of a list.
+     *
+     * @param list       the list of numbers
+     * @param delimiter  the delimiter of the list
+     * @param sampleSize the number of values kept for the order statistics, or a negative number to keep all of them
+     * @return the statistics of the list
+     * @throws NumberFormatException if an element is not a number
+     */
+    public static ListStatistics of(String list, String delimiter, int sampleSize) {
+        final ListTokenizer tokens = ListProcessor.tokenize(list, delimiter);
+        // counting the elements first avoids growing the array, a sample grows as it fills up instead
+        final ListStatistics statistics = new ListStatistics(sampleSize, sampleSize < 0 ? tokens.countTokens() : INITIAL_SAMPLE_CAPACITY);
+        for (String token : tokens) {
+            statistics.add(Double.parseDouble(token));
+        }
+        return statistics;
+    }
+
+    public void add(double value) {
+        if (Double.isNaN(value)) {
+            throw new IllegalArgumentException("NaN is not a valid value!");
+        }
+        count++;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        sum += value;
+        final double difference = value - mean;
+        mean += difference / count;
+        squaredDifferences += difference * (value - mean);
+
+        if (sampleSize < 0 || size < sampleSize) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, values.length * 2);
+            }
+            values[size++] = value;
+        } else {
+            // reservoir sampling: the value replaces a kept one with probability sampleSize / count
+            final long index = (long) (random.nextDouble() * count);
+            if (index < sampleSize) {
+                values[(int) index] = value;
+            }
+        }
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMin() {
+        checkNotEmpty();
+        return min;
+    }
+
+    public double getMax() {
+        checkNotEmpty();
+        return max;
+    }
+
+    public double getSum() {
+        return sum;
+    }
+
+    public double getMean() {
+        checkNotEmpty();
+        return mean;
+    }
+
+    /**
+     * @return the population standard deviation
+     */
+    public double getStandardDeviation() {
+        checkNotEmpty();
+        return Math.sqrt(squaredDifferences / count);
+    }
+
+    /**
+     * @return true if the order statistics are exact, false if they are estimated from a sample
+     */
+    public boolean isExact() {
+        return size == count;
+    }
+
+    public double getMedian() {
+        return getPercentile(50);
+    }
+
+    /**
+     * Returns a percentile, interpolated linearly between the two closest ranks.
+     *
+     * @param percent the percentile, between 0 and 100
+     * @return the value below which the given percent of the values fall
+     */
+    public double getPercentile(double percent) {
+        checkNotEmpty();
+        if (!(percent >= 0 && percent <= 100)) {
+            throw new IllegalArgumentException("Invalid percentile: " + percent);
+        }
+        final double rank = percent / 100 * (size - 1);
+        final int lower = (int) Math.floor(rank);
+        final double lowerValue = select(values, 0, size, lower);
+        if (rank == lower) {
+            return lowerValue;
+        }
+        // after the selection the next value in order is the smallest of the ones that follow
+        double upperValue = values[lower + 1];
+        for (int index = lower + 2; index < size; index++) {
+            upperValue = Math.min(upperValue, values[index]);
+        }
+        return lowerValue + (rank - lower) * (upperValue - lowerValue);
+    }
+
+    /**
+     * Returns the mean of the values left after trimming the given percent of them, as
+     * {@link ListProcessor#trimPercent(double[], int)} does.
+     *
+     * @param percent the percent of values to trim, half of them from each end
+     * @return the trimmed mean
+     */
+    public double getTrimmedMean(int percent) {
+        checkNotEmpty();
+        if (percent < 0 || percent > 100) {
+            throw new IllegalArgumentException("Invalid percent: " + percent);
+        }
+        final int trim = ListProcessor.trimCount(size, percent);
+        final int end = size - trim;
+        if (end <= trim) {
+            throw new IllegalArgumentException("No values are left after trimming " + percent + " percent!");
+        }
+        if (trim > 0) {
+            select(values, 0, size, trim);
+            select(values, trim, size, end - 1);
+        }
+        double trimmedSum = 0;
+        for (int index = trim; index < end; index++) {
+            trimmedSum += values[index];
+        }
+        return trimmedSum / (end - trim);
+    }
+
+    private void checkNotEmpty() {
+        if (count == 0) {
+            throw new IllegalArgumentException("The list is empty!");
+        }
+    }
+
+    /**
+     * Moves the value of the given rank within values[from, to) to the index of that rank, the smaller values before
+     * it and the larger ones after it.
+     *
+     * @return the value of the given rank
+     */
+    static double select(double[] values, int from, int to, int rank) {
+        int left = from;
+        int right = to - 1;
+        while (right > left) {
+            final double pivot = medianOfThree(values[left], values[(left + right) >>> 1], values[right]);
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (values[i] < pivot) {
+                    i++;
+                }
+                while (values[j] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    final double swap = values[i];
+                    values[i++] = values[j];
+                    values[j--] = swap;
+                }
+            }
+            if (rank <= j) {
+                right = j;
+            } else if (rank >= i) {
+                left = i;
+            } else {
+                // the values between j and i are all equal to the pivot
+                break;
+            }
+        }
+        return values[rank];
+    }
+
+    private static double medianOfThree(double first, double second, double third) {
+        return Math.max(Math.min(first, second), Math.min(Math.max(first, second), third));
+    }
+}
@@ -0,0 +1,144 @@
+
+package io.cloudslang.content.utils;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Splits a list on a literal delimiter by scanning it with indexOf.
+ * The elements are the same as the ones returned by String.split on the quoted delimiter: empty elements are kept,
+ * except the ones at the end of the list, and an empty delimiter splits the list into its characters. Elements are
+ * produced lazily, so a list can be counted or walked without building an array of all its elements.
+ */
+public class ListTokenizer implements Iterable<String> {
+
+    private final String list;
+    private final String delimiter;
+
+    public ListTokenizer(String list, String delimiter) {
+        this.list = list == null ? "" : list;
+        this.delimiter = delimiter == null ? "" : delimiter;
+    }
+
+    /**
+     * @return the number of elements in the list, without creating them
+     */
+    public int countTokens() {
+        if (list.isEmpty()) {
+            return 0;
+        }
+        int count = 0;
+        int lastNonEmpty = 0;
+        int position = 0;
+        while (true) {
+            final int end = indexOfDelimiter(position);
+            final int tokenEnd = end < 0 ? list.length() : end;
+            count++;
+            if (tokenEnd > position) {
+                lastNonEmpty = count;
+            }
+            if (end < 0) {
+                return lastNonEmpty;
+            }
+            position = end + delimiter.length();
+        }
+    }
+
+    public String[] toArray() {
+        final List<String> tokens = new ArrayList<>();
+        for (String token : this) {
+            tokens.add(token);
+        }
+        return tokens.toArray(new String[tokens.size()]);
+    }
+
+    // an empty delimiter matches between every two characters
+    private int indexOfDelimiter(int from) {
+        if (delimiter.isEmpty()) {
+            return from + 1 < list.length() ? from + 1 : -1;
+        }
+        return list.indexOf(delimiter, from);
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+        return new TokenIterator();
+    }
+
+    private class TokenIterator implements Iterator<String> {
+        // start of the next element to read, -1 once the end of the list was read
+        private int position;
+        // empty elements read ahead, returned only when a non empty element follows them
+        private int pendingEmpty;
+        private String buffered;
+        private String next;
+
+        private TokenIterator() {
+            position = list.isEmpty() ? -1 : 0;
+            advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public String next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            final String current = next;
+            advance();
+            return current;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        private void advance() {
+            if (pendingEmpty > 0) {
+                pendingEmpty--;
+                next = "";
+                return;
+            }
+            if (buffered != null) {
+                next = buffered;
+                buffered = null;
+                return;
+            }
+            int empty = 0;
+            while (position >= 0) {
+                final String token = readToken();
+                if (!token.isEmpty()) {
+                    if (empty == 0) {
+                        next = token;
+                    } else {
+                        pendingEmpty = empty - 1;
+                        buffered = token;
+                        next = "";
+                    }
+                    return;
+                }
+                empty++;
+            }
+            next = null;
+        }
+
+        private String readToken() {
+            final int end = indexOfDelimiter(position);
+            if (end < 0) {
+                final String token = list.substring(position);
+                position = -1;
+                return token;
+            }
+            final String token = list.substring(position, end);
+            position = end + delimiter.length();
+            return token;
+        }
+    }
+}
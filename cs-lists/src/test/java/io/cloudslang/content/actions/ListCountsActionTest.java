@@ -0,0 +1,24 @@
+
+package io.cloudslang.content.actions;
+
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+public class ListCountsActionTest {
+
+    @Test
+    public void testCounts() {
+        Map<String, String> result = new ListCountsAction().countElements("b,a,b,c,b", "", ",", "", "");
+        assertEquals("success", result.get("response"));
+        assertEquals("b=3,a=1,c=1", result.get("result"));
+    }
+
+    @Test
+    public void testCountsIgnoreCaseAndTrim() {
+        Map<String, String> result = new ListCountsAction().countElements("A| a |b", ":", "|", "true", "true");
+        assertEquals("A:2|b:1", result.get("result"));
+    }
+}
@@ -0,0 +1,42 @@
+
+package io.cloudslang.content.actions;
+
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+public class ListDifferenceActionTest {
+
+    @Test
+    public void testDifference() {
+        Map<String, String> result = new ListDifferenceAction().getDifference("a,b,c,b,d", "c,a", ",", "", "");
+        assertEquals("success", result.get("response"));
+        assertEquals("b,d", result.get("result"));
+    }
+
+    @Test
+    public void testDifferenceIgnoreCaseAndTrim() {
+        Map<String, String> result = new ListDifferenceAction().getDifference("Alpha, beta ,Gamma", "ALPHA,gamma ", ",", "true", "true");
+        assertEquals("beta", result.get("result"));
+    }
+
+    @Test
+    public void testDifferenceLargeLists() {
+        StringBuilder first = new StringBuilder();
+        StringBuilder second = new StringBuilder();
+        for (int count = 0; count < 100000; count++) {
+            first.append(count).append(',');
+            second.append(count + 1).append(',');
+        }
+        Map<String, String> result = new ListDifferenceAction().getDifference(first.toString(), second.toString(), ",", "", "");
+        assertEquals("0", result.get("result"));
+    }
+
+    @Test
+    public void testDifferenceInvalidIgnoreCase() {
+        Map<String, String> result = new ListDifferenceAction().getDifference("a", "b", ",", "maybe", "");
+        assertEquals("failure", result.get("response"));
+    }
+}
@@ -0,0 +1,24 @@
+
+package io.cloudslang.content.actions;
+
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+public class ListDistinctActionTest {
+
+    @Test
+    public void testDistinct() {
+        Map<String, String> result = new ListDistinctAction().getDistinct("b,a,b,c,a", ",", "", "");
+        assertEquals("success", result.get("response"));
+        assertEquals("b,a,c", result.get("result"));
+    }
+
+    @Test
+    public void testDistinctIgnoreCase() {
+        Map<String, String> result = new ListDistinctAction().getDistinct("Straße,STRASSE,straße", ",", "true", "");
+        assertEquals("Straße,STRASSE", result.get("result"));
+    }
+}
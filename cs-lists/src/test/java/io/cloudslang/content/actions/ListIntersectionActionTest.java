@@ -0,0 +1,24 @@
+
+package io.cloudslang.content.actions;
+
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+public class ListIntersectionActionTest {
+
+    @Test
+    public void testIntersection() {
+        Map<String, String> result = new ListIntersectionAction().getIntersection("a,b,c,b,d", "d,b,x", ",", "", "");
+        assertEquals("success", result.get("response"));
+        assertEquals("b,d", result.get("result"));
+    }
+
+    @Test
+    public void testIntersectionIgnoreCase() {
+        Map<String, String> result = new ListIntersectionAction().getIntersection("Alpha;beta", "ALPHA;Gamma", ";", "true", "false");
+        assertEquals("Alpha", result.get("result"));
+    }
+}
@@ -17,4 +17,11 @@ public class ListItemGrabberActionTest {
         assertEquals("success", result.get("response"));
         assertEquals("Ion", result.get("result"));
     }
+
+    @Test
+    public void testIndexOutOfRangeReportsTheIndex() {
+        Map<String, String> result = new ListItemGrabberAction().grabItemFromList(LIST, ",", "7");
+        assertEquals("failure", result.get("response"));
+        assertEquals("7", result.get("returnResult"));
+    }
 }
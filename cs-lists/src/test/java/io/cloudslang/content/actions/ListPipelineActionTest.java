@@ -0,0 +1,53 @@
+package io.cloudslang.content.actions;
+
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+public class ListPipelineActionTest {
+
+    @Test
+    public void testTrimFilterAndMap() {
+        Map<String, String> result = new ListPipelineAction().applyPipeline(" web1 , db1,web2 ,, web1", ",",
+                "trim;nonEmpty;filter:^web;distinct;prefix:host-;suffix:.local", "");
+        assertEquals("success", result.get("response"));
+        assertEquals("host-web1.local,host-web2.local", result.get("result"));
+    }
+
+    @Test
+    public void testSortSliceAndOutputDelimiter() {
+        Map<String, String> result = new ListPipelineAction().applyPipeline("10,9,100,1,5", ",", "sort:reverse;slice:1:3", " ");
+        assertEquals("10 9", result.get("result"));
+        result = new ListPipelineAction().applyPipeline("b,c,a,d", ",", "slice:1;sort", "");
+        assertEquals("a,c,d", result.get("result"));
+    }
+
+    @Test
+    public void testNumericSortKeepsElementsAsWritten() {
+        Map<String, String> result = new ListPipelineAction().applyPipeline("1.0,-2.5,1,1e1,+3", ",", "sort", "");
+        assertEquals("-2.5,1.0,1,+3,1e1", result.get("result"));
+    }
+
+    @Test
+    public void testPercentTrim() {
+        Map<String, String> result = new ListPipelineAction().applyPipeline("5,1,4,2,3,6,8,7,9,10", ",", "sort;percentTrim:20", "");
+        assertEquals("2,3,4,5,6,7,8,9", result.get("result"));
+    }
+
+    @Test
+    public void testExcludeWithEscapedSeparator() {
+        Map<String, String> result = new ListPipelineAction().applyPipeline("a;b|c|a", "|", "exclude:^a\\;b$;suffix:\\;", "");
+        assertEquals("c;|a;", result.get("result"));
+    }
+
+    @Test
+    public void testInvalidPipeline() {
+        Map<String, String> result = new ListPipelineAction().applyPipeline("a,b", ",", "trim;reverse", "");
+        assertEquals("failure", result.get("response"));
+        assertEquals("Invalid pipeline step: reverse", result.get("result"));
+        result = new ListPipelineAction().applyPipeline("a,b", ",", "slice", "");
+        assertEquals("failure", result.get("response"));
+    }
+}
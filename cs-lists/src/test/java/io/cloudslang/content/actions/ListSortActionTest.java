@@ -39,4 +39,38 @@ public class ListSortActionTest {
         assertEquals("success", result2.get("response"));
         assertEquals("1,5,6,8,10", result2.get("result"));
     }
+
+    @Test
+    public void testSortDoubles() {
+        Map<String, String> result = new ListSortAction().sortList("2.5,10,-1,0.1234", ",", "false");
+        assertEquals("success", result.get("response"));
+        assertEquals("-1.0,0.123,2.5,10.0", result.get("result"));
+    }
+
+    @Test
+    public void testSortLongs() {
+        Map<String, String> result = new ListSortAction().sortList("3000000000,1,-9000000000", ",", "false");
+        assertEquals("success", result.get("response"));
+        assertEquals("-9000000000,1,3000000000", result.get("result"));
+    }
+
+    @Test
+    public void testSortNaturalCollation() {
+        Map<String, String> result = new ListSortAction().sortList("item10,item2,item1", ",", "false", "natural", null);
+        assertEquals("success", result.get("response"));
+        assertEquals("item1,item2,item10", result.get("result"));
+    }
+
+    @Test
+    public void testSortLocaleCollation() {
+        Map<String, String> result = new ListSortAction().sortList("b,A,a,B", ",", "false", "locale", "en-US");
+        assertEquals("success", result.get("response"));
+        assertEquals("a,A,b,B", result.get("result"));
+    }
+
+    @Test
+    public void testSortInvalidCollation() {
+        Map<String, String> result = new ListSortAction().sortList(LIST_STRING, ",", "false", "random", null);
+        assertEquals("failure", result.get("response"));
+    }
 }
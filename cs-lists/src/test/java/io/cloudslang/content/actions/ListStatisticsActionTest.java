@@ -0,0 +1,52 @@
+package io.cloudslang.content.actions;
+
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+public class ListStatisticsActionTest {
+
+    @Test
+    public void testDefaultAggregates() {
+        Map<String, String> result = new ListStatisticsAction().aggregate("4,1,7,2,6", ",", "", "", "", "", "");
+        assertEquals("success", result.get("response"));
+        assertEquals("count=5,min=1,max=7,sum=20,mean=4,median=4,stddev=2.280350850198276", result.get("result"));
+    }
+
+    @Test
+    public void testPercentilesAndTrimmedMean() {
+        Map<String, String> result = new ListStatisticsAction().aggregate("10;1;9;2;8;3;7;4;6;5;100", ";",
+                "p0,p50,p90,p100,trimmedMean", "20", "", "", ":");
+        assertEquals("p0:1;p50:6;p90:10;p100:100;trimmedMean:6", result.get("result"));
+        result = new ListStatisticsAction().aggregate("1,2,3,4", ",", "median,p25", "", "", "", "");
+        assertEquals("median=2.5,p25=1.75", result.get("result"));
+    }
+
+    @Test
+    public void testStreamingSample() {
+        StringBuilder list = new StringBuilder();
+        for (int count = 1; count <= 100000; count++) {
+            list.append(count % 1000).append(',');
+        }
+        Map<String, String> exact = new ListStatisticsAction().aggregate(list.toString(), ",", "count,sum,median", "", "false", "", "");
+        assertEquals("count=100000,sum=49950000,median=499.5", exact.get("result"));
+        Map<String, String> streamed = new ListStatisticsAction().aggregate(list.toString(), ",", "count,sum,max,median", "", "true", "1000", "");
+        String[] aggregates = streamed.get("result").split(",");
+        assertEquals("count=100000", aggregates[0]);
+        assertEquals("sum=49950000", aggregates[1]);
+        assertEquals("max=999", aggregates[2]);
+        assertEquals(500, Double.parseDouble(aggregates[3].substring("median=".length())), 50);
+    }
+
+    @Test
+    public void testInvalidInputs() {
+        Map<String, String> result = new ListStatisticsAction().aggregate("1,a", ",", "", "", "", "", "");
+        assertEquals("failure", result.get("response"));
+        result = new ListStatisticsAction().aggregate("1,2", ",", "mode", "", "", "", "");
+        assertEquals("Invalid function: mode", result.get("result"));
+        result = new ListStatisticsAction().aggregate("", ",", "mean", "", "", "", "");
+        assertEquals("The list is empty!", result.get("result"));
+    }
+}
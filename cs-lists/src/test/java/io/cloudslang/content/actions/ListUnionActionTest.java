@@ -0,0 +1,24 @@
+
+package io.cloudslang.content.actions;
+
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+public class ListUnionActionTest {
+
+    @Test
+    public void testUnion() {
+        Map<String, String> result = new ListUnionAction().getUnion("a,b,a", "c,b,d", ",", "", "");
+        assertEquals("success", result.get("response"));
+        assertEquals("a,b,c,d", result.get("result"));
+    }
+
+    @Test
+    public void testUnionTrim() {
+        Map<String, String> result = new ListUnionAction().getUnion("a , b", " c,a", ",", "false", "true");
+        assertEquals("a,b,c", result.get("result"));
+    }
+}
@@ -6,8 +6,11 @@ import org.junit.Test;
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.regex.Pattern;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
@@ -50,4 +53,40 @@ public class ListProcessorTest {
 
     }
 
-}
\ No newline at end of file
+    @Test
+    public void toArrayMatchesRegexSplit() throws Exception {
+        String[] lists = {"a,b,c", "a,,b", ",a,b", "a,b,,", ",,,", ",", "abc", "a,b,", ",,a,,b,,"};
+        for (String list : lists) {
+            assertArrayEquals(list, list.split(Pattern.quote(",")), ListProcessor.toArray(list, ","));
+            assertEquals(list, list.split(Pattern.quote(",")).length, ListProcessor.size(list, ","));
+        }
+        assertArrayEquals(new String[]{"a", "b|c"}, ListProcessor.toArray("a||b|c", "||"));
+        assertArrayEquals(new String[]{"a", "b"}, ListProcessor.toArray("a.*b", ".*"));
+        assertArrayEquals(new String[]{"a", "b"}, ListProcessor.toArray("a\\tb", "\\t"));
+        assertArrayEquals(new String[]{"a", "b", "c"}, ListProcessor.toArray("abc", ""));
+        assertArrayEquals(new String[0], ListProcessor.toArray("", ","));
+    }
+
+    @Test
+    public void tokenizeIteratesLazily() throws Exception {
+        Iterator<String> tokens = ListProcessor.tokenize("a,,b,,", ",").iterator();
+        assertEquals("a", tokens.next());
+        assertEquals("", tokens.next());
+        assertEquals("b", tokens.next());
+        assertFalse(tokens.hasNext());
+    }
+
+    @Test
+    public void toArrayLargeLists() throws Exception {
+        for (int size : new int[]{10000, 100000, 1000000}) {
+            StringBuilder list = new StringBuilder();
+            for (int count = 0; count < size; count++) {
+                list.append(count % 7 == 0 ? "" : String.valueOf(count)).append(", ");
+            }
+            String[] expected = list.toString().split(Pattern.quote(", "));
+            assertArrayEquals(expected, ListProcessor.toArray(list.toString(), ", "));
+            assertEquals(expected.length, ListProcessor.size(list.toString(), ", "));
+        }
+    }
+
+}
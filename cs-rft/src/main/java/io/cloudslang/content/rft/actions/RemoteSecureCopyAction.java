@@ -58,11 +58,18 @@ public class RemoteSecureCopyAction {
      * @param timeout Time in milliseconds to wait for the command to complete. Default value is 90000 (90 seconds)
      * @param proxyHost The HTTP proxy host
      * @param proxyPort The HTTP proxy port
+     * @param bufferSize The size in bytes of the blocks the file is read and written in. Valid values: 262144 to 4194304. Default value: 1048576 (1 MB)
+     * @param allowedCiphers A comma separated list of the ciphers of the sessions, in order of preference, e.g. aes128-ctr,aes128-cbc. Default value: the ciphers of JSch
+     * @param compression If true, the data is compressed with zlib, which helps on slow links with compressible files. Default value: false
+     * @param useSessionPool If true, the session to a host is kept open after the copy and reused by the next copies with the same
+     *                       host, credentials and settings, which saves the key exchange and the authentication. Default value: false
      *
      * @return - a map containing the output of the operation. Keys present in the map are:
      *     <br><b>returnResult</b> - The primary output.
      *     <br><b>returnCode</b> - the return code of the operation. 0 if the operation goes to success, -1 if the operation goes to failure.
      *     <br><b>exception</b> - the exception message if the operation goes to failure.
+     *     <br><b>bytesTransferred</b> - the number of bytes copied, counted for every host the file was sent to or received from.
+     *     <br><b>throughput</b> - the transfer rate of the file data, in bytes per second.
      *
      */
 
@@ -70,7 +77,9 @@ public class RemoteSecureCopyAction {
             outputs = {
                     @Output(Constants.OutputNames.RETURN_CODE),
                     @Output(Constants.OutputNames.RETURN_RESULT),
-                    @Output(Constants.OutputNames.EXCEPTION)
+                    @Output(Constants.OutputNames.EXCEPTION),
+                    @Output(Constants.OutputNames.BYTES_TRANSFERRED),
+                    @Output(Constants.OutputNames.THROUGHPUT)
             },
             responses = {
                     @Response(text = Constants.ResponseNames.SUCCESS, field = Constants.OutputNames.RETURN_CODE, value = Constants.ReturnCodes.RETURN_CODE_SUCCESS, matchType = MatchType.COMPARE_EQUAL, responseType = ResponseType.RESOLVED),
@@ -94,7 +103,11 @@ public class RemoteSecureCopyAction {
             @Param(Constants.InputNames.KNOWN_HOSTS_PATH) String knownHostsPath,
             @Param(Constants.InputNames.TIMEOUT) String timeout,
             @Param(Constants.InputNames.PROXY_HOST) String proxyHost,
-            @Param(Constants.InputNames.PROXY_PORT) String proxyPort) {
+            @Param(Constants.InputNames.PROXY_PORT) String proxyPort,
+            @Param(Constants.InputNames.BUFFER_SIZE) String bufferSize,
+            @Param(Constants.InputNames.ALLOWED_CIPHERS) String allowedCiphers,
+            @Param(Constants.InputNames.COMPRESSION) String compression,
+            @Param(Constants.InputNames.USE_SESSION_POOL) String useSessionPool) {
 
         RemoteSecureCopyInputs remoteSecureCopyInputs = new RemoteSecureCopyInputs(sourcePath, destinationHost, destinationPath, destinationUsername);
         remoteSecureCopyInputs.setSrcHost(sourceHost);
@@ -110,9 +123,22 @@ public class RemoteSecureCopyAction {
         remoteSecureCopyInputs.setTimeout(timeout);
         remoteSecureCopyInputs.setProxyHost(proxyHost);
         remoteSecureCopyInputs.setProxyPort(proxyPort);
+        remoteSecureCopyInputs.setBufferSize(bufferSize);
+        remoteSecureCopyInputs.setAllowedCiphers(allowedCiphers);
+        remoteSecureCopyInputs.setCompression(compression);
+        remoteSecureCopyInputs.setUseSessionPool(useSessionPool);
 
         return new RemoteSecureCopyService().execute(remoteSecureCopyInputs);
 
     }
 
+    public Map<String, String> copyTo(String sourceHost, String sourcePath, String sourcePort, String sourceUsername, String sourcePassword,
+                                      String sourcePrivateKeyFile, String destinationHost, String destinationPath, String destinationPort,
+                                      String destinationUsername, String destinationPassword, String destinationPrivateKeyFile,
+                                      String knownHostsPolicy, String knownHostsPath, String timeout, String proxyHost, String proxyPort) {
+        return copyTo(sourceHost, sourcePath, sourcePort, sourceUsername, sourcePassword, sourcePrivateKeyFile, destinationHost,
+                destinationPath, destinationPort, destinationUsername, destinationPassword, destinationPrivateKeyFile,
+                knownHostsPolicy, knownHostsPath, timeout, proxyHost, proxyPort, null, null, null, null);
+    }
+
 }
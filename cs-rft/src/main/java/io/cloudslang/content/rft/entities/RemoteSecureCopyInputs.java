@@ -39,6 +39,10 @@ public class RemoteSecureCopyInputs {
     private String timeout;
     private String proxyHost;
     private String proxyPort;
+    private String bufferSize;
+    private String allowedCiphers;
+    private String compression;
+    private String useSessionPool;
 
     public RemoteSecureCopyInputs(String srcPath, String destHost, String destPath, String destUsername) {
         this.srcPath = srcPath;
@@ -182,4 +186,36 @@ public class RemoteSecureCopyInputs {
     public void setProxyPort(String proxyPort) {
         this.proxyPort = proxyPort;
     }
-}
\ No newline at end of file
+
+    public String getBufferSize() {
+        return bufferSize;
+    }
+
+    public void setBufferSize(String bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    public String getAllowedCiphers() {
+        return allowedCiphers;
+    }
+
+    public void setAllowedCiphers(String allowedCiphers) {
+        this.allowedCiphers = allowedCiphers;
+    }
+
+    public String getCompression() {
+        return compression;
+    }
+
+    public void setCompression(String compression) {
+        this.compression = compression;
+    }
+
+    public String getUseSessionPool() {
+        return useSessionPool;
+    }
+
+    public void setUseSessionPool(String useSessionPool) {
+        this.useSessionPool = useSessionPool;
+    }
+}
@@ -58,6 +58,10 @@ public class RemoteSecureCopyService {
                 returnCode = Constants.ReturnCodes.RETURN_CODE_FAILURE;
             }
             populateResult(returnResult, resultMessage, errorMessage, returnCode);
+            if (successfullyCopied) {
+                returnResult.put(Constants.OutputNames.BYTES_TRANSFERRED, String.valueOf(copier.getBytesTransferred()));
+                returnResult.put(Constants.OutputNames.THROUGHPUT, String.valueOf(copier.getThroughput()));
+            }
 
         } catch (Exception e) {
             populateResult(returnResult, e.getMessage(), StringUtils.getStackTraceAsString(e), Constants.ReturnCodes.RETURN_CODE_FAILURE);
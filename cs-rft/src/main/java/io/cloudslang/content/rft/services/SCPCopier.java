@@ -18,6 +18,7 @@ package io.cloudslang.content.rft.services;
 import com.jcraft.jsch.*;
 import io.cloudslang.content.rft.entities.*;
 import io.cloudslang.content.rft.utils.Constants;
+import io.cloudslang.content.rft.utils.SCPSessionPool;
 import io.cloudslang.content.rft.utils.StringUtils;
 
 import java.io.*;
@@ -36,9 +37,12 @@ public class SCPCopier {
     private static final String KNOWN_HOSTS_ALLOW = "allow";
     private static final String KNOWN_HOSTS_STRICT = "strict";
     private static final String KNOWN_HOSTS_ADD = "add";
+    private static final String COMPRESSION_ALGORITHMS = "zlib@openssh.com,zlib,none";
 
     private Session session;
     private RemoteSecureCopyInputs remoteSecureCopyInputs;
+    private long bytesTransferred;
+    private long transferTime;
 
     public SCPCopier(RemoteSecureCopyInputs remoteSecureCopyInputs) {
         this.remoteSecureCopyInputs = remoteSecureCopyInputs;
@@ -64,28 +68,27 @@ public class SCPCopier {
 
     protected boolean copyFromLocalToRemote(String srcPath, String destPath){
         FileInputStream fileInputStream = null;
+        Channel channel = null;
+        String poolKey = null;
+        boolean reusable = false;
 
         try {
-
-            JSch jsch = new JSch();
-            session = jsch.getSession(remoteSecureCopyInputs.getDestUsername(), remoteSecureCopyInputs.getDestHost(), StringUtils.toInt(remoteSecureCopyInputs.getDestPort(), Constants.DEFAULT_PORT));
-
-            String proxyHost = remoteSecureCopyInputs.getProxyHost();
-            if (!StringUtils.isEmpty(proxyHost)) session.setProxy(new ProxyHTTP(proxyHost, StringUtils.toInt(remoteSecureCopyInputs.getProxyPort(), Constants.DEFAULT_PROXY_PORT)));
-
-            establishKnownHostsConfiguration(ConnectionUtils.resolveKnownHosts(remoteSecureCopyInputs.getKnownHostsPolicy(), remoteSecureCopyInputs.getKnownHostsPath()), jsch, session);
-            establishPrivateKeyFile(ConnectionUtils.getKeyFile(remoteSecureCopyInputs.getDestPrivateKeyFile(), remoteSecureCopyInputs.getDestPassword()), jsch, session, false);
-
-            session.connect(StringUtils.toInt(remoteSecureCopyInputs.getTimeout(), Constants.DEFAULT_TIMEOUT));
+            int bufferSize = getBufferSize();
+            poolKey = getPoolKey(remoteSecureCopyInputs.getDestUsername(), remoteSecureCopyInputs.getDestHost(), remoteSecureCopyInputs.getDestPort(),
+                    remoteSecureCopyInputs.getDestPrivateKeyFile(), remoteSecureCopyInputs.getDestPassword());
+            openSession(poolKey, remoteSecureCopyInputs.getDestUsername(), remoteSecureCopyInputs.getDestHost(), remoteSecureCopyInputs.getDestPort(),
+                    remoteSecureCopyInputs.getDestPrivateKeyFile(), remoteSecureCopyInputs.getDestPassword(), false);
 
             String command = "scp " + "-p -t " + destPath;
-            Channel channel = session.openChannel(EXEC_CHANNEL);
+            channel = session.openChannel(EXEC_CHANNEL);
             ((ChannelExec) channel).setCommand(command);
 
             OutputStream out = channel.getOutputStream();
             InputStream in = channel.getInputStream();
 
             channel.connect();
+            // a protocol error leaves the session usable
+            reusable = true;
 
             if (checkAck(in) != 0) {
                 return false;
@@ -117,15 +120,15 @@ public class SCPCopier {
                 return false;
             }
 
-            // send a content of srcPath
+            // send a content of srcPath, the channel sends full packets and is flushed once, at the end of the file
+            long start = System.nanoTime();
             fileInputStream = new FileInputStream(srcPath);
-            byte[] buf = new byte[1024];
+            byte[] buf = new byte[bufferSize];
             while (true) {
                 int len = fileInputStream.read(buf, 0, buf.length);
                 if (len <= 0)
                     break;
                 out.write(buf, 0, len);
-                out.flush();
             }
             fileInputStream.close();
             fileInputStream = null;
@@ -136,12 +139,12 @@ public class SCPCopier {
             if (checkAck(in) != 0) {
                 return false;
             }
+            recordTransfer(filesize, start);
             out.close();
 
-            channel.disconnect();
-            session.disconnect();
             return true;
         } catch (JSchException | IOException e) {
+            reusable = false;
             throw new RuntimeException(e);
         } finally{
             try{
@@ -149,34 +152,33 @@ public class SCPCopier {
                     fileInputStream.close();
                 }
             }catch (IOException ioe) {}
+            closeSession(channel, poolKey, reusable);
         }
     }
 
     protected boolean copyFromRemoteToLocal(String srcPath, String destPath){
-        FileOutputStream fileOutputStream = null;
+        OutputStream fileOutputStream = null;
+        Channel channel = null;
+        String poolKey = null;
+        boolean reusable = false;
 
         try {
-
-            JSch jsch = new JSch();
-            session = jsch.getSession(remoteSecureCopyInputs.getSrcUsername(), remoteSecureCopyInputs.getSrcHost(), StringUtils.toInt(remoteSecureCopyInputs.getSrcPort(), Constants.DEFAULT_PORT));
-
-            String proxyHost = remoteSecureCopyInputs.getProxyHost();
-            if (!StringUtils.isEmpty(proxyHost)) session.setProxy(new ProxyHTTP(proxyHost, StringUtils.toInt(remoteSecureCopyInputs.getProxyPort(), Constants.DEFAULT_PROXY_PORT)));
-
-            establishKnownHostsConfiguration(ConnectionUtils.resolveKnownHosts(remoteSecureCopyInputs.getKnownHostsPolicy(), remoteSecureCopyInputs.getKnownHostsPath()), jsch, session);
-            establishPrivateKeyFile(ConnectionUtils.getKeyFile(remoteSecureCopyInputs.getSrcPrivateKeyFile(), remoteSecureCopyInputs.getSrcPassword()), jsch, session, true);
-
-            session.connect(StringUtils.toInt(remoteSecureCopyInputs.getTimeout(), Constants.DEFAULT_TIMEOUT));
+            int bufferSize = getBufferSize();
+            poolKey = getPoolKey(remoteSecureCopyInputs.getSrcUsername(), remoteSecureCopyInputs.getSrcHost(), remoteSecureCopyInputs.getSrcPort(),
+                    remoteSecureCopyInputs.getSrcPrivateKeyFile(), remoteSecureCopyInputs.getSrcPassword());
+            openSession(poolKey, remoteSecureCopyInputs.getSrcUsername(), remoteSecureCopyInputs.getSrcHost(), remoteSecureCopyInputs.getSrcPort(),
+                    remoteSecureCopyInputs.getSrcPrivateKeyFile(), remoteSecureCopyInputs.getSrcPassword(), true);
 
             String command = "scp -f " + srcPath;
-            Channel channel = session.openChannel(EXEC_CHANNEL);
+            channel = session.openChannel(EXEC_CHANNEL);
             ((ChannelExec) channel).setCommand(command);
 
             OutputStream out = channel.getOutputStream();
             InputStream in = channel.getInputStream();
 
             channel.connect();
-            byte[] buf = new byte[1024];
+            reusable = true;
+            byte[] buf = new byte[bufferSize];
 
             buf[0] = 0;
             out.write(buf, 0, 1);
@@ -214,7 +216,10 @@ public class SCPCopier {
                 out.write(buf, 0, 1);
                 out.flush();
 
-                fileOutputStream = new FileOutputStream(destPath);
+                // the file is written in blocks of the buffer size, whatever the size of the packets read from the channel
+                long start = System.nanoTime();
+                long size = filesize;
+                fileOutputStream = new BufferedOutputStream(new FileOutputStream(destPath), bufferSize);
 
                 int foo;
                 while (true) {
@@ -238,15 +243,15 @@ public class SCPCopier {
                 if (checkAck(in) != 0) {
                     return false;
                 }
+                recordTransfer(size, start);
                 buf[0] = 0;
                 out.write(buf, 0, 1);
                 out.flush();
             }
-            channel.disconnect();
-            session.disconnect();
             return true;
 
         } catch (JSchException | IOException e) {
+            reusable = false;
             throw new RuntimeException(e);
         } finally {
             try {
@@ -257,6 +262,93 @@ public class SCPCopier {
             catch (Exception ee){
 
             }
+            closeSession(channel, poolKey, reusable);
+        }
+    }
+
+    /**
+     * @return the number of bytes of the copied files, counted once for every host they were sent to or received from.
+     */
+    public long getBytesTransferred() {
+        return bytesTransferred;
+    }
+
+    /**
+     * @return the bytes transferred per second, measured from the start of the data of every file to its acknowledgement.
+     */
+    public long getThroughput() {
+        return transferTime <= 0 ? 0 : (long) (bytesTransferred * 1e9 / transferTime);
+    }
+
+    private void recordTransfer(long size, long start) {
+        bytesTransferred += size;
+        transferTime += System.nanoTime() - start;
+    }
+
+    protected int getBufferSize() {
+        int bufferSize = StringUtils.toInt(remoteSecureCopyInputs.getBufferSize(), Constants.DEFAULT_BUFFER_SIZE);
+        if (bufferSize < Constants.MIN_BUFFER_SIZE || bufferSize > Constants.MAX_BUFFER_SIZE) {
+            throw new RuntimeException("The " + Constants.InputNames.BUFFER_SIZE + " input must be between " +
+                    Constants.MIN_BUFFER_SIZE + " and " + Constants.MAX_BUFFER_SIZE + ".");
+        }
+        return bufferSize;
+    }
+
+    // the pool key covers everything that configures the session, so a pooled session is only reused with the same settings
+    private String getPoolKey(String username, String host, String port, String privateKeyFile, String password) {
+        if (!StringUtils.toBoolean(remoteSecureCopyInputs.getUseSessionPool(), Constants.DEFAULT_USE_SESSION_POOL)) {
+            return null;
+        }
+        return SCPSessionPool.getKey(host, StringUtils.toInt(port, Constants.DEFAULT_PORT), username, password, privateKeyFile,
+                remoteSecureCopyInputs.getKnownHostsPolicy(), remoteSecureCopyInputs.getKnownHostsPath(),
+                remoteSecureCopyInputs.getProxyHost(), remoteSecureCopyInputs.getProxyPort(),
+                remoteSecureCopyInputs.getAllowedCiphers(), remoteSecureCopyInputs.getCompression());
+    }
+
+    private void openSession(String poolKey, String username, String host, String port, String privateKeyFile, String password,
+                             boolean usesSrcPrivateKeyFile) throws JSchException, IOException {
+        session = poolKey == null ? null : SCPSessionPool.getInstance().borrow(poolKey);
+        if (session != null) {
+            return;
+        }
+
+        JSch jsch = new JSch();
+        session = jsch.getSession(username, host, StringUtils.toInt(port, Constants.DEFAULT_PORT));
+
+        String proxyHost = remoteSecureCopyInputs.getProxyHost();
+        if (!StringUtils.isEmpty(proxyHost)) session.setProxy(new ProxyHTTP(proxyHost, StringUtils.toInt(remoteSecureCopyInputs.getProxyPort(), Constants.DEFAULT_PROXY_PORT)));
+
+        establishKnownHostsConfiguration(ConnectionUtils.resolveKnownHosts(remoteSecureCopyInputs.getKnownHostsPolicy(), remoteSecureCopyInputs.getKnownHostsPath()), jsch, session);
+        establishPrivateKeyFile(ConnectionUtils.getKeyFile(privateKeyFile, password), jsch, session, usesSrcPrivateKeyFile);
+        establishTransportConfiguration(session);
+
+        session.connect(StringUtils.toInt(remoteSecureCopyInputs.getTimeout(), Constants.DEFAULT_TIMEOUT));
+    }
+
+    private void closeSession(Channel channel, String poolKey, boolean reusable) {
+        if (channel != null) {
+            channel.disconnect();
+        }
+        if (session == null) {
+            return;
+        }
+        if (poolKey != null && reusable) {
+            SCPSessionPool.getInstance().giveBack(poolKey, session);
+        } else {
+            session.disconnect();
+        }
+        session = null;
+    }
+
+    protected void establishTransportConfiguration(Session session) {
+        String allowedCiphers = remoteSecureCopyInputs.getAllowedCiphers();
+        if (!StringUtils.isEmpty(allowedCiphers)) {
+            session.setConfig("cipher.s2c", allowedCiphers);
+            session.setConfig("cipher.c2s", allowedCiphers);
+        }
+        if (StringUtils.toBoolean(remoteSecureCopyInputs.getCompression(), Constants.DEFAULT_COMPRESSION)) {
+            session.setConfig("compression.s2c", COMPRESSION_ALGORITHMS);
+            session.setConfig("compression.c2s", COMPRESSION_ALGORITHMS);
         }
     }
 
@@ -35,6 +35,11 @@ public class Constants {
     public static final String DEFAULT_KNOWN_HOSTS_POLICY = "strict";
     public static final Path DEFAULT_KNOWN_HOSTS_PATH = Paths.get(System.getProperty("user.home"), ".ssh", "known_hosts");
     public static final int DEFAULT_PROXY_PORT = 8080;
+    public static final int DEFAULT_BUFFER_SIZE = 1048576; //1 MB
+    public static final int MIN_BUFFER_SIZE = 262144; //256 KB
+    public static final int MAX_BUFFER_SIZE = 4194304; //4 MB
+    public static final boolean DEFAULT_COMPRESSION = false;
+    public static final boolean DEFAULT_USE_SESSION_POOL = false;
 
     public static final class InputNames {
         public static final String SOURCE_HOST = "sourceHost";
@@ -54,6 +59,10 @@ public class Constants {
         public static final String TIMEOUT = "timeout";
         public static final String PROXY_HOST = "proxyHost";
         public static final String PROXY_PORT = "proxyPort";
+        public static final String BUFFER_SIZE = "bufferSize";
+        public static final String ALLOWED_CIPHERS = "allowedCiphers";
+        public static final String COMPRESSION = "compression";
+        public static final String USE_SESSION_POOL = "useSessionPool";
 
     }
 
@@ -62,6 +71,8 @@ public class Constants {
         public static final String RETURN_RESULT = "returnResult";
         public static final String EXCEPTION = "exception";
         public static final String RETURN_CODE = "returnCode";
+        public static final String BYTES_TRANSFERRED = "bytesTransferred";
+        public static final String THROUGHPUT = "throughput";
     }
 
     public static final class ReturnCodes {
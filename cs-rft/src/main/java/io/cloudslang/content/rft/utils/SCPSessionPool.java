@@ -0,0 +1,250 @@
+/*
+ * (c) Copyright 2017 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cloudslang.content.rft.utils;
+
+import com.jcraft.jsch.JSchException;
+import com.jcraft.jsch.Session;
+
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the authenticated sessions of finished copies, so the next copy to the same host, with the same user,
+ * credentials and transport settings, does not pay for a new key exchange and authentication.
+ * <p>
+ * A session is used by one copy at a time. Pooled sessions send keepalive messages and are closed by a background
+ * evictor once they have been idle for the idle timeout.
+ */
+public class SCPSessionPool {
+    public static final long DEFAULT_IDLE_TIMEOUT = 300000; //5 minutes
+    public static final int DEFAULT_MAX_IDLE_SESSIONS = 4;
+    public static final int DEFAULT_KEEP_ALIVE_INTERVAL = 30000; //30 seconds
+    private static final int KEEP_ALIVE_COUNT_MAX = 3;
+    private static final String KEY_DIGEST = "SHA-256";
+    private static final Charset KEY_ENCODING = Charset.forName("UTF-8");
+
+    private static final SCPSessionPool INSTANCE = new SCPSessionPool(DEFAULT_IDLE_TIMEOUT, DEFAULT_MAX_IDLE_SESSIONS);
+
+    private final Map<String, Deque<IdleSession>> sessions = new HashMap<>();
+    private final long idleTimeout;
+    private final int maxIdleSessions;
+    private long hits;
+    private ScheduledExecutorService evictor;
+
+    public SCPSessionPool(long idleTimeout, int maxIdleSessions) {
+        this.idleTimeout = idleTimeout;
+        this.maxIdleSessions = maxIdleSessions;
+    }
+
+    public static SCPSessionPool getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Builds the key of the sessions of a user, with a SHA-256 fingerprint of the settings instead of the secrets.
+     *
+     * @param host     The remote host.
+     * @param port     The remote port.
+     * @param username The username.
+     * @param settings The password, private key, known hosts, proxy, cipher and compression settings of the session.
+     * @return the pool key.
+     */
+    public static String getKey(String host, int port, String username, String... settings) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance(KEY_DIGEST);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(KEY_DIGEST + " is not available.", e);
+        }
+        for (String setting : settings) {
+            // each setting is length prefixed, so moving characters from one setting to the next changes the key
+            String value = String.valueOf(setting == null ? -1 : setting.length()) + ':' + setting + '\n';
+            digest.update(value.getBytes(KEY_ENCODING));
+        }
+        StringBuilder key = new StringBuilder("scpPool:").append(host).append('-').append(port).append('-').append(username).append('-');
+        for (byte value : digest.digest()) {
+            key.append(String.format("%02x", value));
+        }
+        return key.toString();
+    }
+
+    /**
+     * Takes the most recently used connected session of the key out of the pool.
+     *
+     * @param key The pool key, see {@link #getKey(String, int, String, String...)}.
+     * @return the session, or null if the pool has no session for the key.
+     */
+    public Session borrow(String key) {
+        Session session = null;
+        synchronized (sessions) {
+            evictIdle();
+            Deque<IdleSession> keySessions = sessions.get(key);
+            while (session == null && keySessions != null && !keySessions.isEmpty()) {
+                Session candidate = keySessions.pollFirst().session;
+                if (candidate.isConnected()) {
+                    session = candidate;
+                    hits++;
+                }
+            }
+            if (keySessions != null && keySessions.isEmpty()) {
+                sessions.remove(key);
+            }
+        }
+        return session;
+    }
+
+    /**
+     * Puts the session of a finished copy back in the pool. A session that is not connected, or that exceeds the
+     * maximum number of idle sessions of its key, is closed.
+     *
+     * @param key     The pool key.
+     * @param session The session.
+     */
+    public void giveBack(String key, Session session) {
+        Session closed = null;
+        synchronized (sessions) {
+            evictIdle();
+            if (!session.isConnected()) {
+                return;
+            }
+            try {
+                session.setServerAliveInterval(DEFAULT_KEEP_ALIVE_INTERVAL);
+                session.setServerAliveCountMax(KEEP_ALIVE_COUNT_MAX);
+            } catch (JSchException e) {
+                session.disconnect();
+                return;
+            }
+            startEvictor();
+            Deque<IdleSession> keySessions = sessions.get(key);
+            if (keySessions == null) {
+                keySessions = new ArrayDeque<>();
+                sessions.put(key, keySessions);
+            }
+            keySessions.addFirst(new IdleSession(session));
+            if (keySessions.size() > maxIdleSessions) {
+                closed = keySessions.pollLast().session;
+            }
+        }
+        if (closed != null) {
+            closed.disconnect();
+        }
+    }
+
+    /**
+     * Closes all the pooled sessions.
+     */
+    public void clear() {
+        synchronized (sessions) {
+            for (Deque<IdleSession> keySessions : sessions.values()) {
+                for (IdleSession idleSession : keySessions) {
+                    idleSession.session.disconnect();
+                }
+            }
+            sessions.clear();
+            if (evictor != null) {
+                evictor.shutdownNow();
+                evictor = null;
+            }
+        }
+    }
+
+    /**
+     * @return the number of copies that reused a pooled session.
+     */
+    public long getHits() {
+        synchronized (sessions) {
+            return hits;
+        }
+    }
+
+    /**
+     * @return the number of idle sessions in the pool.
+     */
+    public int size() {
+        int size = 0;
+        synchronized (sessions) {
+            for (Deque<IdleSession> keySessions : sessions.values()) {
+                size += keySessions.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Closes the sessions that were not used for the idle timeout. Called by the evictor, and by every use of the pool.
+     *
+     * @return the number of closed sessions.
+     */
+    public int evictIdle() {
+        int evicted = 0;
+        long idleSince = System.currentTimeMillis() - idleTimeout;
+        // disconnecting an idle session does not wait for the server, so it is done with the lock held
+        synchronized (sessions) {
+            for (Iterator<Deque<IdleSession>> keys = sessions.values().iterator(); keys.hasNext(); ) {
+                Deque<IdleSession> keySessions = keys.next();
+                // the sessions are ordered from the most to the least recently used
+                while (!keySessions.isEmpty() && keySessions.peekLast().lastUsed < idleSince) {
+                    keySessions.pollLast().session.disconnect();
+                    evicted++;
+                }
+                if (keySessions.isEmpty()) {
+                    keys.remove();
+                }
+            }
+        }
+        return evicted;
+    }
+
+    // called with the lock held, the evictor only runs while sessions may be pooled
+    private void startEvictor() {
+        if (evictor == null) {
+            evictor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "scp-session-pool-evictor");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+            long period = Math.max(idleTimeout, 1);
+            evictor.scheduleWithFixedDelay(new Runnable() {
+                @Override
+                public void run() {
+                    evictIdle();
+                }
+            }, period, period, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static class IdleSession {
+        private final Session session;
+        private final long lastUsed = System.currentTimeMillis();
+
+        private IdleSession(Session session) {
+            this.session = session;
+        }
+    }
+}
@@ -19,6 +19,7 @@ import com.jcraft.jsch.*;
 import io.cloudslang.content.rft.entities.KeyFile;
 import io.cloudslang.content.rft.entities.KnownHostsFile;
 import io.cloudslang.content.rft.entities.RemoteSecureCopyInputs;
+import io.cloudslang.content.rft.utils.SCPSessionPool;
 import io.cloudslang.content.rft.utils.StringUtils;
 import org.junit.Before;
 import org.junit.Rule;
@@ -39,6 +40,8 @@ import java.nio.file.Paths;
 import static org.junit.Assert.assertEquals;
 import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.powermock.api.mockito.PowerMockito.mockStatic;
 import static org.powermock.api.mockito.PowerMockito.verifyNew;
@@ -317,6 +320,56 @@ public class SCPCopierTest {
         verify(jSchMock).addIdentity(key.getKeyFilePath(), key.getPassPhrase());
     }
 
+    @Test
+    public void copyFromLocalToRemoteWithSessionPool() throws Exception {
+        RemoteSecureCopyInputs remoteSecureCopyInputs = getRemoteSecureCopyInputs();
+        remoteSecureCopyInputs.setUseSessionPool("true");
+        scpCopier = new SCPCopier(remoteSecureCopyInputs) {
+            protected void establishKnownHostsConfiguration(KnownHostsFile knownHostsFile, JSch jsch, Session session) throws JSchException, IOException {
+            }
+
+            protected void establishPrivateKeyFile(KeyFile keyFile, JSch jsch, Session session, boolean usesSrcPrivateKeyFile) {
+            }
+        };
+        PowerMockito.when(sessionMock.isConnected()).thenReturn(true);
+        try {
+            assertEquals(true, scpCopier.copyFromLocalToRemote());
+            assertEquals(true, scpCopier.copyFromLocalToRemote());
+
+            verifyNew(JSch.class, times(1)).withNoArguments();
+            verify(sessionMock, times(1)).connect(anyInt());
+            verify(channelExecMock, times(2)).disconnect();
+            verify(sessionMock, never()).disconnect();
+        } finally {
+            SCPSessionPool.getInstance().clear();
+        }
+    }
+
+    @Test
+    public void establishTransportConfiguration() {
+        RemoteSecureCopyInputs remoteSecureCopyInputs = getRemoteSecureCopyInputs();
+        remoteSecureCopyInputs.setAllowedCiphers("aes128-ctr,aes128-cbc");
+        remoteSecureCopyInputs.setCompression("true");
+        scpCopier = new SCPCopier(remoteSecureCopyInputs);
+
+        scpCopier.establishTransportConfiguration(sessionMock);
+
+        verify(sessionMock).setConfig("cipher.s2c", "aes128-ctr,aes128-cbc");
+        verify(sessionMock).setConfig("cipher.c2s", "aes128-ctr,aes128-cbc");
+        verify(sessionMock).setConfig("compression.s2c", "zlib@openssh.com,zlib,none");
+        verify(sessionMock).setConfig("compression.c2s", "zlib@openssh.com,zlib,none");
+    }
+
+    @Test
+    public void copyFromLocalToRemoteWithInvalidBufferSize() throws Exception {
+        RemoteSecureCopyInputs remoteSecureCopyInputs = getRemoteSecureCopyInputs();
+        remoteSecureCopyInputs.setBufferSize("1024");
+        scpCopier = new SCPCopier(remoteSecureCopyInputs);
+        exception.expect(RuntimeException.class);
+        exception.expectMessage("bufferSize");
+        scpCopier.copyFromLocalToRemote();
+    }
+
     private RemoteSecureCopyInputs getRemoteSecureCopyInputs() {
         return new RemoteSecureCopyInputs(StringUtils.EMPTY_STRING, StringUtils.EMPTY_STRING, StringUtils.EMPTY_STRING, StringUtils.EMPTY_STRING);
     }
@@ -0,0 +1,108 @@
+/*
+ * (c) Copyright 2017 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cloudslang.content.rft.utils;
+
+import com.jcraft.jsch.Session;
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class SCPSessionPoolTest {
+
+    private static final String KEY = SCPSessionPool.getKey("host", 22, "user", "password");
+
+    private final SCPSessionPool pool = new SCPSessionPool(60000, 1);
+
+    @After
+    public void tearDown() {
+        pool.clear();
+    }
+
+    @Test
+    public void testSessionIsReusedOnceGivenBack() {
+        Session session = connectedSession();
+        assertNull(pool.borrow(KEY));
+        pool.giveBack(KEY, session);
+
+        assertSame(session, pool.borrow(KEY));
+        assertNull(pool.borrow(KEY));
+        assertEquals(1, pool.getHits());
+        verify(session, never()).disconnect();
+    }
+
+    @Test
+    public void testExtraAndIdleSessionsAreClosed() throws Exception {
+        Session first = connectedSession();
+        Session second = connectedSession();
+        pool.giveBack(KEY, first);
+        pool.giveBack(KEY, second);
+        verify(first).disconnect();
+        assertEquals(1, pool.size());
+
+        SCPSessionPool shortLivedPool = new SCPSessionPool(20, 1);
+        shortLivedPool.giveBack(KEY, first);
+        Thread.sleep(200);
+        assertNull(shortLivedPool.borrow(KEY));
+        assertEquals(0, shortLivedPool.size());
+        shortLivedPool.clear();
+    }
+
+    @Test
+    public void testIdleSessionsAreClosedWithoutLaterCopies() throws Exception {
+        SCPSessionPool shortLivedPool = new SCPSessionPool(20, 1);
+        Session session = connectedSession();
+        shortLivedPool.giveBack(KEY, session);
+        verify(session).setServerAliveInterval(SCPSessionPool.DEFAULT_KEEP_ALIVE_INTERVAL);
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (shortLivedPool.size() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(0, shortLivedPool.size());
+        verify(session).disconnect();
+        shortLivedPool.clear();
+    }
+
+    @Test
+    public void testDisconnectedSessionsAreNotReused() {
+        Session session = connectedSession();
+        pool.giveBack(KEY, session);
+        when(session.isConnected()).thenReturn(false);
+        assertNull(pool.borrow(KEY));
+        assertEquals(0, pool.size());
+    }
+
+    @Test
+    public void testKeysSeparateSettings() {
+        assertEquals(KEY, SCPSessionPool.getKey("host", 22, "user", "password"));
+        assertNotEquals(KEY, SCPSessionPool.getKey("host", 22, "user", "other"));
+        assertNotEquals(SCPSessionPool.getKey("host", 22, "user", "ab", "c"), SCPSessionPool.getKey("host", 22, "user", "a", "bc"));
+    }
+
+    private static Session connectedSession() {
+        Session session = mock(Session.class);
+        when(session.isConnected()).thenReturn(true);
+        return session;
+    }
+}
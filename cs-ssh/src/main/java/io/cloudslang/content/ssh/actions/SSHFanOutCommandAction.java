@@ -0,0 +1,168 @@
+/*
+ * (c) Copyright 2017 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cloudslang.content.ssh.actions;
+
+import com.hp.oo.sdk.content.annotations.Action;
+import com.hp.oo.sdk.content.annotations.Output;
+import com.hp.oo.sdk.content.annotations.Param;
+import com.hp.oo.sdk.content.annotations.Response;
+import com.hp.oo.sdk.content.plugin.ActionMetadata.MatchType;
+import com.hp.oo.sdk.content.plugin.ActionMetadata.ResponseType;
+import io.cloudslang.content.constants.OutputNames;
+import io.cloudslang.content.constants.ResponseNames;
+import io.cloudslang.content.constants.ReturnCodes;
+import io.cloudslang.content.ssh.entities.SSHShellInputs;
+import io.cloudslang.content.ssh.services.actions.ScoreSSHFanOutCommand;
+import io.cloudslang.content.ssh.utils.Constants;
+import io.cloudslang.content.ssh.utils.StringUtils;
+
+import java.util.Map;
+
+/**
+ * The operation executes the same Shell command(s) on many remote machines in parallel using the SSH protocol.
+ */
+public class SSHFanOutCommandAction {
+
+    /**
+     * Executes the same Shell command(s) on many remote machines in parallel using the SSH protocol.
+     *
+     * @param hosts               A comma separated list of the remote machines. Every machine is written as
+     *                            [username@]host[:port][;privateKeyFile], the username, port and private key file
+     *                            given for a machine overwrite the username, port and privateKeyFile inputs.
+     *                            An IPv6 address with a port is written in brackets: [::1]:22
+     * @param port                The port number for running the command, used by the hosts without a port. Default value: 22
+     * @param username            The username of the account on the remote machines.
+     * @param password            The password of the user, used by the hosts without an entry in hostPasswords.
+     *                            If using a private key file this will be used as the passphrase for the file.
+     * @param privateKeyFile      The path to the private key file (OpenSSH type) on the machine where is the worker.
+     * @param privateKeyData      A string representing the private key (OpenSSH type) used for authenticating the user.
+     *                            The 'privateKeyData' and the 'privateKeyFile' inputs are mutually exclusive.
+     * @param knownHostsPolicy    The policy used for managing known_hosts file. Valid values: allow, strict, add. Default value: allow
+     * @param knownHostsPath      The path to the known hosts file.
+     * @param allowedCiphers      A comma separated list of ciphers that will be used in the client-server handshake
+     *                            mechanism when the connection is created.
+     * @param command             The command(s) to execute on every host.
+     * @param characterSet        The character encoding used for input stream encoding from the target machines.
+     *                            Valid values: SJIS, EUC-JP, UTF-8. Default value: UTF-8.
+     * @param pty                 Whether to use a pseudo-terminal (PTY) session. Valid values: false, true. Default value: false
+     * @param agentForwarding     Enables or disables the forwarding of the authentication agent connection.
+     *                            Agent forwarding should be enabled with caution.
+     * @param timeout             Time in milliseconds to wait for the command to complete on a host. Default value is 90000 (90 seconds)
+     * @param connectTimeout      Time in milliseconds to wait for the connection to a host to be made. Default value: 10000
+     * @param proxyHost           The HTTP proxy host.
+     * @param proxyPort           The HTTP proxy port. Default value: 8080
+     * @param proxyUsername       The username used for the proxy authentication.
+     * @param proxyPassword       The password used for the proxy authentication.
+     * @param useShell            Specifies whether to use shell mode to run the commands.
+     *                            Valid values: true, false.
+     *                            Default value: false.
+     * @param useSessionPool      If true the commands run over sessions taken from the pool of authenticated sessions
+     *                            shared by all the flows of the worker, so later calls on the same hosts reuse them.
+     *                            If false every host uses a new session, closed when its command completes.
+     *                            Valid values: true, false.
+     *                            Default value: true.
+     * @param maxChannelsPerSession The maximum number of commands that run at the same time over one pooled session.
+     *                            Default value: 10.
+     * @param maxParallel         The maximum number of hosts the command runs on at the same time. Default value: 10.
+     * @param hostPasswords       A comma separated list of the passwords of the remote machines, in the order of the
+     *                            hosts input. An empty entry, or a missing one at the end of the list, keeps the
+     *                            password input. A password that contains a comma can only be given in the password input.
+     * @return - a map containing the output of the operation. Keys present in the map are:
+     * <br><b>returnResult</b> - A JSON array with the result of every host, in the order of the hosts input. Every result
+     * has the host, exitCode, stdout, stderr and durationMs fields; the exitCode is -1 and the stderr holds the error
+     * when the command could not run on the host.
+     * <br><b>successCount</b> - The number of hosts where the command completed with the exit code 0.
+     * <br><b>failureCount</b> - The number of the other hosts.
+     * <br><b>returnCode</b> - the return code of the operation. 0 if the command succeeded on all the hosts, -1 otherwise.
+     * <br><b>exception</b> - the exception message if the operation could not start.
+     */
+    @Action(name = "SSH Fan Out Command",
+            outputs = {
+                    @Output(OutputNames.RETURN_CODE),
+                    @Output(OutputNames.RETURN_RESULT),
+                    @Output(OutputNames.EXCEPTION),
+                    @Output(Constants.SUCCESS_COUNT),
+                    @Output(Constants.FAILURE_COUNT)
+            },
+            responses = {
+                    @Response(text = ResponseNames.SUCCESS, field = OutputNames.RETURN_CODE, value = ReturnCodes.SUCCESS, matchType = MatchType.COMPARE_EQUAL, responseType = ResponseType.RESOLVED),
+                    @Response(text = ResponseNames.FAILURE, field = OutputNames.RETURN_CODE, value = ReturnCodes.FAILURE, matchType = MatchType.COMPARE_EQUAL, responseType = ResponseType.ERROR, isOnFail = true)
+            }
+    )
+    public Map<String, String> runSshFanOutCommand(
+            @Param(value = Constants.HOSTS, required = true) String hosts,
+            @Param(Constants.InputNames.PORT) String port,
+            @Param(value = Constants.InputNames.USERNAME, required = true) String username,
+            @Param(value = Constants.InputNames.PASSWORD, encrypted = true) String password,
+            @Param(Constants.PRIVATE_KEY_FILE) String privateKeyFile,
+            @Param(value = Constants.PRIVATE_KEY_DATA, encrypted = true) String privateKeyData,
+            @Param(Constants.KNOWN_HOSTS_POLICY) String knownHostsPolicy,
+            @Param(Constants.KNOWN_HOSTS_PATH) String knownHostsPath,
+            @Param(Constants.ALLOWED_CIPHERS) String allowedCiphers,
+            @Param(value = Constants.COMMAND, required = true) String command,
+            @Param(Constants.InputNames.CHARACTER_SET) String characterSet,
+            @Param(value = Constants.PTY) String pty,
+            @Param(value = Constants.InputNames.AGENT_FORWARDING) String agentForwarding,
+            @Param(Constants.InputNames.TIMEOUT) String timeout,
+            @Param(Constants.CONNECT_TIMEOUT) String connectTimeout,
+            @Param(Constants.PROXY_HOST) String proxyHost,
+            @Param(Constants.PROXY_PORT) String proxyPort,
+            @Param(Constants.PROXY_USERNAME) String proxyUsername,
+            @Param(value = Constants.PROXY_PASSWORD, encrypted = true) String proxyPassword,
+            @Param(Constants.USE_SHELL) String useShell,
+            @Param(Constants.USE_SESSION_POOL) String useSessionPool,
+            @Param(Constants.MAX_CHANNELS_PER_SESSION) String maxChannelsPerSession,
+            @Param(Constants.MAX_PARALLEL) String maxParallel,
+            @Param(value = Constants.HOST_PASSWORDS, encrypted = true) String hostPasswords) {
+
+        SSHShellInputs sshShellInputs = new SSHShellInputs();
+        sshShellInputs.setPort(port);
+        sshShellInputs.setUsername(username);
+        sshShellInputs.setPassword(password);
+        sshShellInputs.setPrivateKeyFile(privateKeyFile);
+        sshShellInputs.setPrivateKeyData(privateKeyData);
+        sshShellInputs.setCommand(command);
+        sshShellInputs.setCharacterSet(characterSet);
+        sshShellInputs.setPty(pty);
+        sshShellInputs.setAgentForwarding(agentForwarding);
+        sshShellInputs.setTimeout(timeout);
+        sshShellInputs.setConnectTimeout(connectTimeout);
+        sshShellInputs.setKnownHostsPolicy(knownHostsPolicy);
+        sshShellInputs.setKnownHostsPath(knownHostsPath);
+        sshShellInputs.setAllowedCiphers(allowedCiphers);
+        sshShellInputs.setProxyHost(proxyHost);
+        sshShellInputs.setProxyPort(proxyPort);
+        sshShellInputs.setProxyUsername(proxyUsername);
+        sshShellInputs.setProxyPassword(proxyPassword);
+        sshShellInputs.setUseShell(useShell);
+        // the hosts of a fan out are usually reached again, so their sessions are pooled unless asked otherwise
+        sshShellInputs.setUseSessionPool(StringUtils.toNotEmptyString(useSessionPool, String.valueOf(true)));
+        sshShellInputs.setMaxChannelsPerSession(maxChannelsPerSession);
+
+        return new ScoreSSHFanOutCommand().execute(sshShellInputs, hosts, hostPasswords, maxParallel);
+    }
+
+    public Map<String, String> runSshFanOutCommand(String hosts, String port, String username, String password, String privateKeyFile,
+                                                   String privateKeyData, String knownHostsPolicy, String knownHostsPath,
+                                                   String allowedCiphers, String command, String characterSet, String pty,
+                                                   String agentForwarding, String timeout, String connectTimeout, String proxyHost,
+                                                   String proxyPort, String proxyUsername, String proxyPassword, String useShell,
+                                                   String useSessionPool, String maxChannelsPerSession, String maxParallel) {
+        return runSshFanOutCommand(hosts, port, username, password, privateKeyFile, privateKeyData, knownHostsPolicy,
+                knownHostsPath, allowedCiphers, command, characterSet, pty, agentForwarding, timeout, connectTimeout, proxyHost,
+                proxyPort, proxyUsername, proxyPassword, useShell, useSessionPool, maxChannelsPerSession, maxParallel, null);
+    }
+}
@@ -79,10 +79,40 @@ public class SSHShellCommandAction {
      *                            Note: If the output does not show the whole expected output, increase the <timeout> value.
      *                            Valid values: true, false.
      *                            Default value: false.
+     * @param useSessionPool      If true the command runs over a session taken from a pool of authenticated sessions
+     *                            shared by all the flows of the worker, instead of the session kept in the
+     *                            globalSessionObject. A pooled session is reused by later calls with the same host,
+     *                            port, user and credentials, and is closed after it has been idle for 5 minutes, so
+     *                            the closeSession input is ignored.
+     *                            Valid values: true, false.
+     *                            Default value: false.
+     * @param maxChannelsPerSession The maximum number of commands that run at the same time over one pooled session.
+     *                            It should not exceed the MaxSessions setting of the SSH server.
+     *                            Default value: 10.
+     * @param stdoutFile          The path of a local file on the worker the standard output of the command is written
+     *                            to while it is received, through a buffer of outputBufferSize bytes. Not used in shell
+     *                            mode.
+     * @param stderrFile          The path of a local file on the worker the standard error of the command is written to.
+     *                            Not used in shell mode.
+     * @param outputBufferSize    The size in bytes of the buffer of the stdoutFile and stderrFile. Default value: 1048576
+     * @param maxOutputSize       The maximum number of bytes of the standard output and of the standard error kept in
+     *                            memory and returned. When an output is longer, its first and last maxOutputSize/2
+     *                            bytes are returned, the whole output is still written to its file. A negative value
+     *                            keeps all of the output. Not used in shell mode.
+     *                            Default value: -1.
+     * @param countLines          If true the lines of the standard output and of the standard error are counted.
+     *                            Not used in shell mode.
+     *                            Valid values: true, false.
+     *                            Default value: false.
+     * @param digestAlgorithm     The algorithm of a digest computed over the whole standard output and standard error,
+     *                            for example MD5 or SHA-256. No digest is computed if empty. Not used in shell mode.
      * @return - a map containing the output of the operation. Keys present in the map are:
      * <br><b>returnResult</b> - The primary output.
      * <br><b>STDOUT</b> - The standard output of the command(s).
      * <br><b>visualized</b> - The output of the command in XML format.
+     * <br><b>stdoutSize</b> - The number of bytes of the standard output, stderrSize is the one of the standard error.
+     * <br><b>stdoutLines</b> - The number of lines of the standard output, stderrLines is the one of the standard error.
+     * <br><b>stdoutDigest</b> - The hex encoded digest of the standard output, stderrDigest is the one of the standard error.
      * <br><b>returnCode</b> - the return code of the operation. 0 if the operation goes to success, -1 if the operation goes to failure.
      * <br><b>exception</b> - the exception message if the operation goes to failure.
      */
@@ -94,7 +124,13 @@ public class SSHShellCommandAction {
                     @Output(OutputNames.EXCEPTION),
                     @Output(Constants.STDOUT),
                     @Output(Constants.STDERR),
-                    @Output(Constants.EXIT_STATUS)
+                    @Output(Constants.EXIT_STATUS),
+                    @Output(Constants.STDOUT_SIZE),
+                    @Output(Constants.STDERR_SIZE),
+                    @Output(Constants.STDOUT_LINES),
+                    @Output(Constants.STDERR_LINES),
+                    @Output(Constants.STDOUT_DIGEST),
+                    @Output(Constants.STDERR_DIGEST)
             },
             responses = {
                     @Response(text = ResponseNames.SUCCESS, field = OutputNames.RETURN_CODE, value = ReturnCodes.SUCCESS, matchType = MatchType.COMPARE_EQUAL, responseType = ResponseType.RESOLVED),
@@ -125,7 +161,15 @@ public class SSHShellCommandAction {
             @Param(Constants.PROXY_USERNAME) String proxyUsername,
             @Param(value = Constants.PROXY_PASSWORD, encrypted = true) String proxyPassword,
             @Param(Constants.ALLOW_EXPECT_COMMANDS) String allowExpectCommands,
-            @Param(Constants.USE_SHELL) String useShell) {
+            @Param(Constants.USE_SHELL) String useShell,
+            @Param(Constants.USE_SESSION_POOL) String useSessionPool,
+            @Param(Constants.MAX_CHANNELS_PER_SESSION) String maxChannelsPerSession,
+            @Param(Constants.STDOUT_FILE) String stdoutFile,
+            @Param(Constants.STDERR_FILE) String stderrFile,
+            @Param(Constants.OUTPUT_BUFFER_SIZE) String outputBufferSize,
+            @Param(Constants.MAX_OUTPUT_SIZE) String maxOutputSize,
+            @Param(Constants.COUNT_LINES) String countLines,
+            @Param(Constants.DIGEST_ALGORITHM) String digestAlgorithm) {
 
         SSHShellInputs sshShellInputs = new SSHShellInputs();
         sshShellInputs.setHost(host);
@@ -152,7 +196,45 @@ public class SSHShellCommandAction {
         sshShellInputs.setProxyPassword(proxyPassword);
         sshShellInputs.setAllowExpectCommands(allowExpectCommands);
         sshShellInputs.setUseShell(useShell);
+        sshShellInputs.setUseSessionPool(useSessionPool);
+        sshShellInputs.setMaxChannelsPerSession(maxChannelsPerSession);
+        sshShellInputs.setStdoutFile(stdoutFile);
+        sshShellInputs.setStderrFile(stderrFile);
+        sshShellInputs.setOutputBufferSize(outputBufferSize);
+        sshShellInputs.setMaxOutputSize(maxOutputSize);
+        sshShellInputs.setCountLines(countLines);
+        sshShellInputs.setDigestAlgorithm(digestAlgorithm);
 
         return new ScoreSSHShellCommand().execute(sshShellInputs);
     }
+
+    public Map<String, String> runSshShellCommand(String host, String port, String username, String password,
+                                                  String privateKeyFile, String privateKeyData, String knownHostsPolicy,
+                                                  String knownHostsPath, String allowedCiphers, String command,
+                                                  String arguments, String characterSet, String pty, String agentForwarding,
+                                                  String timeout, String connectTimeout,
+                                                  GlobalSessionObject<Map<String, SSHConnection>> globalSessionObject,
+                                                  String closeSession, String proxyHost, String proxyPort,
+                                                  String proxyUsername, String proxyPassword, String allowExpectCommands,
+                                                  String useShell) {
+        return runSshShellCommand(host, port, username, password, privateKeyFile, privateKeyData, knownHostsPolicy,
+                knownHostsPath, allowedCiphers, command, arguments, characterSet, pty, agentForwarding, timeout,
+                connectTimeout, globalSessionObject, closeSession, proxyHost, proxyPort, proxyUsername, proxyPassword,
+                allowExpectCommands, useShell, null, null, null, null, null, null, null, null);
+    }
+
+    public Map<String, String> runSshShellCommand(String host, String port, String username, String password,
+                                                  String privateKeyFile, String privateKeyData, String knownHostsPolicy,
+                                                  String knownHostsPath, String allowedCiphers, String command,
+                                                  String arguments, String characterSet, String pty, String agentForwarding,
+                                                  String timeout, String connectTimeout,
+                                                  GlobalSessionObject<Map<String, SSHConnection>> globalSessionObject,
+                                                  String closeSession, String proxyHost, String proxyPort,
+                                                  String proxyUsername, String proxyPassword, String allowExpectCommands,
+                                                  String useShell, String useSessionPool, String maxChannelsPerSession) {
+        return runSshShellCommand(host, port, username, password, privateKeyFile, privateKeyData, knownHostsPolicy,
+                knownHostsPath, allowedCiphers, command, arguments, characterSet, pty, agentForwarding, timeout,
+                connectTimeout, globalSessionObject, closeSession, proxyHost, proxyPort, proxyUsername, proxyPassword,
+                allowExpectCommands, useShell, useSessionPool, maxChannelsPerSession, null, null, null, null, null, null);
+    }
 }
@@ -0,0 +1,140 @@
+/*
+ * (c) Copyright 2017 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cloudslang.content.ssh.actions;
+
+import com.hp.oo.sdk.content.annotations.Action;
+import com.hp.oo.sdk.content.annotations.Output;
+import com.hp.oo.sdk.content.annotations.Param;
+import com.hp.oo.sdk.content.annotations.Response;
+import com.hp.oo.sdk.content.plugin.ActionMetadata.MatchType;
+import com.hp.oo.sdk.content.plugin.ActionMetadata.ResponseType;
+import io.cloudslang.content.constants.OutputNames;
+import io.cloudslang.content.constants.ResponseNames;
+import io.cloudslang.content.constants.ReturnCodes;
+import io.cloudslang.content.ssh.entities.SSHShellInputs;
+import io.cloudslang.content.ssh.services.actions.ScoreSSHTunnel;
+import io.cloudslang.content.ssh.utils.Constants;
+
+import java.util.Map;
+
+/**
+ * The operation manages named SSH tunnels that are shared by all the flows of the worker.
+ */
+public class SSHTunnelAction {
+
+    /**
+     * Opens, releases or closes a named SSH tunnel. A tunnel is a local port forwarded through the SSH server, either
+     * to one remote host and port (local tunnel) or to any remote host through a SOCKS5 proxy (dynamic tunnel).
+     * Opening a tunnel that is already open only counts one more reference to it, so the HTTP, database or WinRM
+     * operations of the following steps reach the remote host through localhost and the localPort output, without a
+     * new SSH handshake. A tunnel without references is closed after it has been idle for 10 minutes, and a tunnel
+     * whose SSH session was lost is opened again by the next open operation.
+     *
+     * @param tunnelName          The name of the tunnel.
+     * @param tunnelOperation     open - opens the tunnel or adds a reference to it.
+     *                            release - removes a reference from the tunnel.
+     *                            close - closes the tunnel, whatever its references.
+     *                            Default value: open
+     * @param tunnelType          local - forwards the local port to the remoteHost and remotePort.
+     *                            dynamic - runs a SOCKS5 proxy on the local port.
+     *                            Default value: local
+     * @param bindAddress         The local address the tunnel listens on. Default value: 127.0.0.1
+     * @param localPort           The local port of the tunnel, 0 to use any free port. Default value: 0
+     * @param remoteHost          The host the connections of a local tunnel are forwarded to, as the SSH server resolves it.
+     * @param remotePort          The port the connections of a local tunnel are forwarded to.
+     * @param host                The hostname or the ip address of the SSH server.
+     * @param port                The port of the SSH server. Default value: 22
+     * @param username            The username of the account on the SSH server.
+     * @param password            The password of the user. If using a private key file this will be used as the passphrase for the file.
+     * @param privateKeyFile      The path to the private key file (OpenSSH type) on the machine where is the worker.
+     * @param privateKeyData      A string representing the private key (OpenSSH type) used for authenticating the user.
+     *                            The 'privateKeyData' and the 'privateKeyFile' inputs are mutually exclusive.
+     * @param knownHostsPolicy    The policy used for managing known_hosts file. Valid values: allow, strict, add. Default value: allow
+     * @param knownHostsPath      The path to the known hosts file.
+     * @param allowedCiphers      A comma separated list of ciphers that will be used in the client-server handshake
+     *                            mechanism when the connection is created.
+     * @param connectTimeout      Time in milliseconds to wait for the connection to be made. Default value: 10000
+     * @param proxyHost           The HTTP proxy host.
+     * @param proxyPort           The HTTP proxy port. Default value: 8080
+     * @param proxyUsername       The username used for the proxy authentication.
+     * @param proxyPassword       The password used for the proxy authentication.
+     * @param maxChannelsPerSession The maximum number of tunnels and commands that use one pooled session at the same
+     *                            time. Default value: 10.
+     * @return - a map containing the output of the operation. Keys present in the map are:
+     * <br><b>returnResult</b> - The local port of the tunnel, or a message for the release and close operations.
+     * <br><b>localPort</b> - The local port of the tunnel.
+     * <br><b>referenceCount</b> - The number of references to the tunnel.
+     * <br><b>returnCode</b> - the return code of the operation. 0 if the operation goes to success, -1 if the operation goes to failure.
+     * <br><b>exception</b> - the exception message if the operation goes to failure.
+     */
+    @Action(name = "SSH Tunnel",
+            outputs = {
+                    @Output(OutputNames.RETURN_CODE),
+                    @Output(OutputNames.RETURN_RESULT),
+                    @Output(OutputNames.EXCEPTION),
+                    @Output(Constants.LOCAL_PORT),
+                    @Output(Constants.REFERENCE_COUNT)
+            },
+            responses = {
+                    @Response(text = ResponseNames.SUCCESS, field = OutputNames.RETURN_CODE, value = ReturnCodes.SUCCESS, matchType = MatchType.COMPARE_EQUAL, responseType = ResponseType.RESOLVED),
+                    @Response(text = ResponseNames.FAILURE, field = OutputNames.RETURN_CODE, value = ReturnCodes.FAILURE, matchType = MatchType.COMPARE_EQUAL, responseType = ResponseType.ERROR, isOnFail = true)
+            }
+    )
+    public Map<String, String> manageSshTunnel(
+            @Param(value = Constants.TUNNEL_NAME, required = true) String tunnelName,
+            @Param(Constants.TUNNEL_OPERATION) String tunnelOperation,
+            @Param(Constants.TUNNEL_TYPE) String tunnelType,
+            @Param(Constants.BIND_ADDRESS) String bindAddress,
+            @Param(Constants.LOCAL_PORT) String localPort,
+            @Param(Constants.REMOTE_HOST) String remoteHost,
+            @Param(Constants.REMOTE_PORT) String remotePort,
+            @Param(Constants.InputNames.HOST) String host,
+            @Param(Constants.InputNames.PORT) String port,
+            @Param(Constants.InputNames.USERNAME) String username,
+            @Param(value = Constants.InputNames.PASSWORD, encrypted = true) String password,
+            @Param(Constants.PRIVATE_KEY_FILE) String privateKeyFile,
+            @Param(value = Constants.PRIVATE_KEY_DATA, encrypted = true) String privateKeyData,
+            @Param(Constants.KNOWN_HOSTS_POLICY) String knownHostsPolicy,
+            @Param(Constants.KNOWN_HOSTS_PATH) String knownHostsPath,
+            @Param(Constants.ALLOWED_CIPHERS) String allowedCiphers,
+            @Param(Constants.CONNECT_TIMEOUT) String connectTimeout,
+            @Param(Constants.PROXY_HOST) String proxyHost,
+            @Param(Constants.PROXY_PORT) String proxyPort,
+            @Param(Constants.PROXY_USERNAME) String proxyUsername,
+            @Param(value = Constants.PROXY_PASSWORD, encrypted = true) String proxyPassword,
+            @Param(Constants.MAX_CHANNELS_PER_SESSION) String maxChannelsPerSession) {
+
+        SSHShellInputs sshShellInputs = new SSHShellInputs();
+        sshShellInputs.setHost(host);
+        sshShellInputs.setPort(port);
+        sshShellInputs.setUsername(username);
+        sshShellInputs.setPassword(password);
+        sshShellInputs.setPrivateKeyFile(privateKeyFile);
+        sshShellInputs.setPrivateKeyData(privateKeyData);
+        sshShellInputs.setKnownHostsPolicy(knownHostsPolicy);
+        sshShellInputs.setKnownHostsPath(knownHostsPath);
+        sshShellInputs.setAllowedCiphers(allowedCiphers);
+        sshShellInputs.setConnectTimeout(connectTimeout);
+        sshShellInputs.setProxyHost(proxyHost);
+        sshShellInputs.setProxyPort(proxyPort);
+        sshShellInputs.setProxyUsername(proxyUsername);
+        sshShellInputs.setProxyPassword(proxyPassword);
+        sshShellInputs.setMaxChannelsPerSession(maxChannelsPerSession);
+
+        return new ScoreSSHTunnel().execute(sshShellInputs, tunnelName, tunnelOperation, tunnelType, bindAddress,
+                localPort, remoteHost, remotePort);
+    }
+}
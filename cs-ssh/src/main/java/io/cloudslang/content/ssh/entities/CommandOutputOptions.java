@@ -0,0 +1,64 @@
+/*
+ * (c) Copyright 2017 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cloudslang.content.ssh.entities;
+
+import java.nio.file.Path;
+
+/**
+ * Where and how the output of a command is captured, see {@link io.cloudslang.content.ssh.utils.OutputCapture}.
+ */
+public class CommandOutputOptions {
+    private Path standardOutputFile;
+    private Path standardErrorFile;
+    private int bufferSize;
+    private int maxOutputSize;
+    private boolean countLines;
+    private String digestAlgorithm;
+
+    public CommandOutputOptions(Path standardOutputFile, Path standardErrorFile, int bufferSize, int maxOutputSize,
+                                boolean countLines, String digestAlgorithm) {
+        this.standardOutputFile = standardOutputFile;
+        this.standardErrorFile = standardErrorFile;
+        this.bufferSize = bufferSize;
+        this.maxOutputSize = maxOutputSize;
+        this.countLines = countLines;
+        this.digestAlgorithm = digestAlgorithm;
+    }
+
+    public Path getStandardOutputFile() {
+        return standardOutputFile;
+    }
+
+    public Path getStandardErrorFile() {
+        return standardErrorFile;
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public int getMaxOutputSize() {
+        return maxOutputSize;
+    }
+
+    public boolean isCountLines() {
+        return countLines;
+    }
+
+    public String getDigestAlgorithm() {
+        return digestAlgorithm;
+    }
+}
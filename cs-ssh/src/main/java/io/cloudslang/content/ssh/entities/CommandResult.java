@@ -23,6 +23,12 @@ public class CommandResult {
     private String standardOutput;
     private String standardError;
     private int exitCode;
+    private long standardOutputSize = -1;
+    private long standardErrorSize = -1;
+    private long standardOutputLines = -1;
+    private long standardErrorLines = -1;
+    private String standardOutputDigest;
+    private String standardErrorDigest;
 
     public CommandResult() {
     }
@@ -51,6 +57,54 @@ public class CommandResult {
         this.exitCode = exitCode;
     }
 
+    public long getStandardOutputSize() {
+        return standardOutputSize;
+    }
+
+    public void setStandardOutputSize(long standardOutputSize) {
+        this.standardOutputSize = standardOutputSize;
+    }
+
+    public long getStandardErrorSize() {
+        return standardErrorSize;
+    }
+
+    public void setStandardErrorSize(long standardErrorSize) {
+        this.standardErrorSize = standardErrorSize;
+    }
+
+    public long getStandardOutputLines() {
+        return standardOutputLines;
+    }
+
+    public void setStandardOutputLines(long standardOutputLines) {
+        this.standardOutputLines = standardOutputLines;
+    }
+
+    public long getStandardErrorLines() {
+        return standardErrorLines;
+    }
+
+    public void setStandardErrorLines(long standardErrorLines) {
+        this.standardErrorLines = standardErrorLines;
+    }
+
+    public String getStandardOutputDigest() {
+        return standardOutputDigest;
+    }
+
+    public void setStandardOutputDigest(String standardOutputDigest) {
+        this.standardOutputDigest = standardOutputDigest;
+    }
+
+    public String getStandardErrorDigest() {
+        return standardErrorDigest;
+    }
+
+    public void setStandardErrorDigest(String standardErrorDigest) {
+        this.standardErrorDigest = standardErrorDigest;
+    }
+
     @Override
     public String toString() {
         return "CommandResult{" +
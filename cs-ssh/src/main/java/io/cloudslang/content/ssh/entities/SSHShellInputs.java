@@ -52,6 +52,14 @@ public class SSHShellInputs {
     private boolean allowExpectCommands;
     private int connectTimeout;
     private boolean useShell;
+    private boolean useSessionPool;
+    private int maxChannelsPerSession;
+    private String stdoutFile;
+    private String stderrFile;
+    private int outputBufferSize = Constants.DEFAULT_OUTPUT_BUFFER_SIZE;
+    private int maxOutputSize = Constants.DEFAULT_MAX_OUTPUT_SIZE;
+    private boolean countLines;
+    private String digestAlgorithm;
 
     public String getHost() {
         return host;
@@ -269,4 +277,68 @@ public class SSHShellInputs {
     public void setUseShell(String useShell) {
         this.useShell = StringUtils.toBoolean(useShell, Constants.DEFAULT_USE_SHELL);
     }
+
+    public boolean isUseSessionPool() {
+        return useSessionPool;
+    }
+
+    public void setUseSessionPool(String useSessionPool) {
+        this.useSessionPool = StringUtils.toBoolean(useSessionPool, Constants.DEFAULT_USE_SESSION_POOL);
+    }
+
+    public int getMaxChannelsPerSession() {
+        return maxChannelsPerSession;
+    }
+
+    public void setMaxChannelsPerSession(String maxChannelsPerSession) {
+        this.maxChannelsPerSession = StringUtils.toInt(maxChannelsPerSession, Constants.DEFAULT_MAX_CHANNELS_PER_SESSION);
+    }
+
+    public String getStdoutFile() {
+        return stdoutFile;
+    }
+
+    public void setStdoutFile(String stdoutFile) {
+        this.stdoutFile = stdoutFile;
+    }
+
+    public String getStderrFile() {
+        return stderrFile;
+    }
+
+    public void setStderrFile(String stderrFile) {
+        this.stderrFile = stderrFile;
+    }
+
+    public int getOutputBufferSize() {
+        return outputBufferSize;
+    }
+
+    public void setOutputBufferSize(String outputBufferSize) {
+        this.outputBufferSize = StringUtils.toInt(outputBufferSize, Constants.DEFAULT_OUTPUT_BUFFER_SIZE);
+    }
+
+    public int getMaxOutputSize() {
+        return maxOutputSize;
+    }
+
+    public void setMaxOutputSize(String maxOutputSize) {
+        this.maxOutputSize = StringUtils.toInt(maxOutputSize, Constants.DEFAULT_MAX_OUTPUT_SIZE);
+    }
+
+    public boolean isCountLines() {
+        return countLines;
+    }
+
+    public void setCountLines(String countLines) {
+        this.countLines = StringUtils.toBoolean(countLines, Constants.DEFAULT_COUNT_LINES);
+    }
+
+    public String getDigestAlgorithm() {
+        return digestAlgorithm;
+    }
+
+    public void setDigestAlgorithm(String digestAlgorithm) {
+        this.digestAlgorithm = digestAlgorithm;
+    }
 }
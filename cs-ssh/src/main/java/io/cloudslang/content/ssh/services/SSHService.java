@@ -18,6 +18,7 @@ package io.cloudslang.content.ssh.services;
 import com.hp.oo.sdk.content.plugin.GlobalSessionObject;
 import com.jcraft.jsch.Channel;
 import com.jcraft.jsch.Session;
+import io.cloudslang.content.ssh.entities.CommandOutputOptions;
 import io.cloudslang.content.ssh.entities.CommandResult;
 import io.cloudslang.content.ssh.entities.SSHConnection;
 
@@ -55,6 +56,21 @@ public interface SSHService extends AutoCloseable {
      */
     CommandResult runShellCommand(String command, String characterSet, boolean usePseudoTerminal, int connectTimeout, int commandTimeout, boolean agentForwarding);
 
+    /**
+     * Run a Shell command(s) using SSH protocol, capturing its output as the options require.
+     *
+     * @param command           The Shell command(s).
+     * @param characterSet      The character set for the command and for the output of the command.
+     * @param usePseudoTerminal If true the result will be formatted like in a terminal.
+     * @param connectTimeout    The channel connection timeout.
+     * @param commandTimeout    The command timeout.
+     * @param agentForwarding   Weathers the agent forwarding is enabled or not.
+     * @param outputOptions     The files, memory limit, line counting and digest of the output, or null to keep all
+     *                          of the output in memory.
+     * @return the command result.
+     */
+    CommandResult runShellCommand(String command, String characterSet, boolean usePseudoTerminal, int connectTimeout, int commandTimeout, boolean agentForwarding, CommandOutputOptions outputOptions);
+
     /**
      * Checks the SSH session.
      *
@@ -24,6 +24,7 @@ import io.cloudslang.content.ssh.entities.SSHShellInputs;
 import io.cloudslang.content.ssh.services.SSHService;
 import io.cloudslang.content.ssh.utils.CacheUtils;
 import io.cloudslang.content.ssh.utils.Constants;
+import io.cloudslang.content.ssh.utils.SSHSessionPool;
 import io.cloudslang.content.ssh.utils.StringUtils;
 import org.bouncycastle.jce.provider.BouncyCastleProvider;
 
@@ -82,6 +83,14 @@ public abstract class SSHShellAbstract {
         return service.saveToCache(sessionParam, sessionId);
     }
 
+    protected String getPoolKey(SSHShellInputs sshShellInputs, int port) {
+        return SSHSessionPool.getKey(sshShellInputs.getHost(), port, sshShellInputs.getUsername(),
+                sshShellInputs.getPassword(), sshShellInputs.getPrivateKeyFile(), sshShellInputs.getPrivateKeyData(),
+                sshShellInputs.getKnownHostsPolicy(), sshShellInputs.getKnownHostsPath(), sshShellInputs.getAllowedCiphers(),
+                sshShellInputs.getProxyHost(), sshShellInputs.getProxyPort(), sshShellInputs.getProxyUsername(),
+                sshShellInputs.getProxyPassword());
+    }
+
     protected void populateResult(Map<String, String> returnResult, Throwable e) {
         returnResult.put(OutputNames.RETURN_RESULT, e.getMessage());
         returnResult.put(OutputNames.EXCEPTION, StringUtils.getStackTraceAsString(e));
@@ -0,0 +1,272 @@
+/*
+ * (c) Copyright 2017 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cloudslang.content.ssh.services.actions;
+
+import com.hp.oo.sdk.content.plugin.GlobalSessionObject;
+import io.cloudslang.content.constants.OutputNames;
+import io.cloudslang.content.constants.ReturnCodes;
+import io.cloudslang.content.ssh.entities.SSHConnection;
+import io.cloudslang.content.ssh.entities.SSHShellInputs;
+import io.cloudslang.content.ssh.utils.Constants;
+import io.cloudslang.content.ssh.utils.StringUtils;
+import io.cloudslang.content.utils.StringUtilities;
+import org.apache.commons.lang3.StringEscapeUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the same command on many hosts at the same time, with a bounded number of workers.
+ */
+public class ScoreSSHFanOutCommand extends SSHShellAbstract {
+
+    public static final String NO_HOSTS_MESSAGE = "No hosts are specified.";
+    private static final char USERNAME_SEPARATOR = '@';
+    private static final char PORT_SEPARATOR = ':';
+    private static final char KEY_FILE_SEPARATOR = ';';
+
+    /**
+     * @param sshShellInputs The inputs shared by all the hosts.
+     * @param hosts          The hosts, each written as [username@]host[:port][;privateKeyFile].
+     * @param maxParallel    The maximum number of hosts the command runs on at the same time.
+     * @return the results of all the hosts, as a JSON array, and the number of hosts that succeeded and failed.
+     */
+    public Map<String, String> execute(SSHShellInputs sshShellInputs, String hosts, String maxParallel) {
+        return execute(sshShellInputs, hosts, null, maxParallel);
+    }
+
+    /**
+     * @param sshShellInputs The inputs shared by all the hosts.
+     * @param hosts          The hosts, each written as [username@]host[:port][;privateKeyFile].
+     * @param hostPasswords  The passwords of the hosts, in the order of the hosts. An empty entry keeps the shared password.
+     * @param maxParallel    The maximum number of hosts the command runs on at the same time.
+     * @return the results of all the hosts, as a JSON array, and the number of hosts that succeeded and failed.
+     */
+    public Map<String, String> execute(SSHShellInputs sshShellInputs, String hosts, String hostPasswords, String maxParallel) {
+        Map<String, String> returnResult = new HashMap<>();
+        // the provider is added once for all the hosts, so no host removes it while the others use it
+        boolean providerAdded = addSecurityProvider();
+        ExecutorService executor = null;
+
+        try {
+            if (StringUtilities.isEmpty(sshShellInputs.getCommand())) {
+                throw new RuntimeException(COMMAND_IS_NOT_SPECIFIED_MESSAGE);
+            }
+            List<SSHShellInputs> hostInputs = parseHosts(sshShellInputs, hosts, hostPasswords);
+            if (hostInputs.isEmpty()) {
+                throw new RuntimeException(NO_HOSTS_MESSAGE);
+            }
+            int parallel = StringUtils.toInt(maxParallel, Constants.DEFAULT_MAX_PARALLEL);
+            if (parallel < 1) {
+                throw new RuntimeException("The " + Constants.MAX_PARALLEL + " input must be greater than 0.");
+            }
+
+            executor = Executors.newFixedThreadPool(Math.min(parallel, hostInputs.size()), new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "ssh-fan-out");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+            List<Future<HostResult>> futures = new ArrayList<>();
+            for (final SSHShellInputs inputs : hostInputs) {
+                futures.add(executor.submit(new Callable<HostResult>() {
+                    @Override
+                    public HostResult call() {
+                        return runOnHost(inputs);
+                    }
+                }));
+            }
+
+            StringBuilder results = new StringBuilder("[");
+            int successCount = 0;
+            for (Future<HostResult> future : futures) {
+                HostResult result = future.get();
+                if (results.length() > 1) {
+                    results.append(',');
+                }
+                result.appendJson(results);
+                if (result.isSuccess()) {
+                    successCount++;
+                }
+            }
+            results.append(']');
+            int failureCount = futures.size() - successCount;
+
+            returnResult.put(OutputNames.RETURN_RESULT, results.toString());
+            returnResult.put(Constants.SUCCESS_COUNT, String.valueOf(successCount));
+            returnResult.put(Constants.FAILURE_COUNT, String.valueOf(failureCount));
+            returnResult.put(OutputNames.RETURN_CODE, failureCount == 0 ? ReturnCodes.SUCCESS : ReturnCodes.FAILURE);
+        } catch (Exception e) {
+            populateResult(returnResult, e);
+        } finally {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+            if (providerAdded) {
+                removeSecurityProvider();
+            }
+        }
+        return returnResult;
+    }
+
+    private HostResult runOnHost(SSHShellInputs inputs) {
+        long start = System.nanoTime();
+        Map<String, String> hostResult = new ScoreSSHShellCommand().execute(inputs);
+        long durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        String exitStatus = hostResult.get(Constants.EXIT_STATUS);
+        if (exitStatus == null) {
+            // the command did not run, the error is returned as its standard error
+            return new HostResult(inputs.getHost(), -1, "", hostResult.get(OutputNames.RETURN_RESULT), durationMs, false);
+        }
+        int exitCode = Integer.parseInt(exitStatus);
+        boolean success = ReturnCodes.SUCCESS.equals(hostResult.get(OutputNames.RETURN_CODE)) && exitCode == 0;
+        return new HostResult(inputs.getHost(), exitCode, hostResult.get(Constants.STDOUT), hostResult.get(Constants.STDERR),
+                durationMs, success);
+    }
+
+    static List<SSHShellInputs> parseHosts(SSHShellInputs sshShellInputs, String hosts) {
+        return parseHosts(sshShellInputs, hosts, null);
+    }
+
+    /**
+     * Creates the inputs of every host, from the shared inputs and the overrides of the host. The passwords are
+     * matched to the host entries by position, empty host entries included.
+     */
+    static List<SSHShellInputs> parseHosts(SSHShellInputs sshShellInputs, String hosts, String hostPasswords) {
+        List<SSHShellInputs> hostInputs = new ArrayList<>();
+        if (hosts == null) {
+            return hostInputs;
+        }
+        String[] entries = hosts.split(StringUtils.DEFAULT_DELIMITER, -1);
+        String[] passwords = StringUtilities.isEmpty(hostPasswords) ? new String[0] : hostPasswords.split(StringUtils.DEFAULT_DELIMITER, -1);
+        if (passwords.length > entries.length) {
+            throw new RuntimeException("The " + Constants.HOST_PASSWORDS + " input has more entries than the " + Constants.HOSTS + " input.");
+        }
+        for (int index = 0; index < entries.length; index++) {
+            String entry = entries[index].trim();
+            if (entry.isEmpty()) {
+                continue;
+            }
+            SSHShellInputs inputs = copy(sshShellInputs);
+            if (index < passwords.length && !passwords[index].isEmpty()) {
+                inputs.setPassword(passwords[index]);
+            }
+
+            int keyFileIndex = entry.indexOf(KEY_FILE_SEPARATOR);
+            if (keyFileIndex >= 0) {
+                inputs.setPrivateKeyFile(entry.substring(keyFileIndex + 1).trim());
+                inputs.setPrivateKeyData(null);
+                entry = entry.substring(0, keyFileIndex).trim();
+            }
+            int usernameIndex = entry.lastIndexOf(USERNAME_SEPARATOR);
+            if (usernameIndex >= 0) {
+                inputs.setUsername(entry.substring(0, usernameIndex));
+                entry = entry.substring(usernameIndex + 1);
+            }
+            if (entry.startsWith("[")) {
+                // an IPv6 address, with an optional port: [::1]:22
+                int end = entry.indexOf(']');
+                if (end < 0) {
+                    throw new RuntimeException("Invalid host: " + entry);
+                }
+                if (end + 1 < entry.length() && entry.charAt(end + 1) == PORT_SEPARATOR) {
+                    inputs.setPort(entry.substring(end + 2));
+                }
+                entry = entry.substring(1, end);
+            } else if (entry.indexOf(PORT_SEPARATOR) >= 0 && entry.indexOf(PORT_SEPARATOR) == entry.lastIndexOf(PORT_SEPARATOR)) {
+                inputs.setPort(entry.substring(entry.indexOf(PORT_SEPARATOR) + 1));
+                entry = entry.substring(0, entry.indexOf(PORT_SEPARATOR));
+            }
+            inputs.setHost(entry);
+            hostInputs.add(inputs);
+        }
+        return hostInputs;
+    }
+
+    private static SSHShellInputs copy(SSHShellInputs sshShellInputs) {
+        SSHShellInputs inputs = new SSHShellInputs();
+        inputs.setHost(sshShellInputs.getHost());
+        inputs.setPort(sshShellInputs.getPort());
+        inputs.setUsername(sshShellInputs.getUsername());
+        inputs.setPassword(sshShellInputs.getPassword());
+        inputs.setPrivateKeyFile(sshShellInputs.getPrivateKeyFile());
+        inputs.setPrivateKeyData(sshShellInputs.getPrivateKeyData());
+        inputs.setCommand(sshShellInputs.getCommand());
+        inputs.setArguments(sshShellInputs.getArguments());
+        inputs.setCharacterSet(sshShellInputs.getCharacterSet());
+        inputs.setPty(sshShellInputs.getPty());
+        inputs.setAgentForwarding(sshShellInputs.getAgentForwarding());
+        inputs.setTimeout(sshShellInputs.getTimeout());
+        inputs.setConnectTimeout(String.valueOf(sshShellInputs.getConnectTimeout()));
+        inputs.setKnownHostsPolicy(sshShellInputs.getKnownHostsPolicy());
+        inputs.setKnownHostsPath(sshShellInputs.getKnownHostsPath());
+        inputs.setAllowedCiphers(sshShellInputs.getAllowedCiphers());
+        inputs.setProxyHost(sshShellInputs.getProxyHost());
+        inputs.setProxyPort(sshShellInputs.getProxyPort());
+        inputs.setProxyUsername(sshShellInputs.getProxyUsername());
+        inputs.setProxyPassword(sshShellInputs.getProxyPassword());
+        inputs.setUseShell(String.valueOf(sshShellInputs.isUseShell()));
+        inputs.setUseSessionPool(String.valueOf(sshShellInputs.isUseSessionPool()));
+        inputs.setMaxChannelsPerSession(String.valueOf(sshShellInputs.getMaxChannelsPerSession()));
+        inputs.setAllowExpectCommands(String.valueOf(false));
+        // without the pool every host uses its own session, closed at the end of the command
+        inputs.setSshGlobalSessionObject(new GlobalSessionObject<Map<String, SSHConnection>>());
+        inputs.setCloseSession(String.valueOf(true));
+        return inputs;
+    }
+
+    private static class HostResult {
+        private final String host;
+        private final int exitCode;
+        private final String standardOutput;
+        private final String standardError;
+        private final long durationMs;
+        private final boolean success;
+
+        private HostResult(String host, int exitCode, String standardOutput, String standardError, long durationMs, boolean success) {
+            this.host = host;
+            this.exitCode = exitCode;
+            this.standardOutput = standardOutput == null ? "" : standardOutput;
+            this.standardError = standardError == null ? "" : standardError;
+            this.durationMs = durationMs;
+            this.success = success;
+        }
+
+        private boolean isSuccess() {
+            return success;
+        }
+
+        private void appendJson(StringBuilder json) {
+            json.append("{\"host\":\"").append(StringEscapeUtils.escapeJson(host))
+                    .append("\",\"exitCode\":").append(exitCode)
+                    .append(",\"stdout\":\"").append(StringEscapeUtils.escapeJson(standardOutput))
+                    .append("\",\"stderr\":\"").append(StringEscapeUtils.escapeJson(standardError))
+                    .append("\",\"durationMs\":").append(durationMs)
+                    .append('}');
+        }
+    }
+}
@@ -16,14 +16,17 @@
 package io.cloudslang.content.ssh.services.actions;
 
 import com.jcraft.jsch.ProxyHTTP;
+import com.jcraft.jsch.Session;
 import io.cloudslang.content.constants.OutputNames;
 import io.cloudslang.content.constants.ReturnCodes;
 import io.cloudslang.content.ssh.entities.*;
+import io.cloudslang.content.ssh.exceptions.SSHException;
 import io.cloudslang.content.ssh.services.SSHService;
 import io.cloudslang.content.ssh.services.impl.SSHServiceImpl;
 import io.cloudslang.content.ssh.utils.Constants;
 import io.cloudslang.content.ssh.utils.IdentityKeyUtils;
 import io.cloudslang.content.ssh.utils.ProxyUtils;
+import io.cloudslang.content.ssh.utils.SSHSessionPool;
 import io.cloudslang.content.ssh.utils.StringUtils;
 import io.cloudslang.content.utils.StringUtilities;
 
@@ -61,6 +64,11 @@ public class ScoreSSHShellCommand extends SSHShellAbstract {
             IdentityKey identityKey = IdentityKeyUtils.getIdentityKey(sshShellInputs.getPrivateKeyFile(), sshShellInputs.getPrivateKeyData(), sshShellInputs.getPassword());
             KnownHostsFile knownHostsFile = new KnownHostsFile(knownHostsPath, knownHostsPolicy);
 
+            if (sshShellInputs.isUseSessionPool()) {
+                runPooledSSHCommand(sshShellInputs, returnResult, connection, identityKey, knownHostsFile, portNumber);
+                return returnResult;
+            }
+
             // get the cached SSH session
             service = getSshServiceFromCache(sshShellInputs, sessionId);
             boolean saveSSHSession = false;
@@ -84,6 +92,33 @@ public class ScoreSSHShellCommand extends SSHShellAbstract {
         return returnResult;
     }
 
+    private void runPooledSSHCommand(
+            final SSHShellInputs sshShellInputs,
+            Map<String, String> returnResult,
+            final ConnectionDetails connection,
+            final IdentityKey identityKey,
+            final KnownHostsFile knownHostsFile,
+            int portNumber) throws SSHException {
+
+        final ProxyHTTP proxyHTTP = ProxyUtils.getHTTPProxy(sshShellInputs.getProxyHost(), sshShellInputs.getProxyPort(), sshShellInputs.getProxyUsername(), sshShellInputs.getProxyPassword());
+        SSHSessionPool pool = SSHSessionPool.getInstance();
+        SSHSessionPool.Lease lease = pool.acquire(getPoolKey(sshShellInputs, portNumber), sshShellInputs.getMaxChannelsPerSession(),
+                new SSHSessionPool.SessionFactory() {
+                    @Override
+                    public Session openSession() throws SSHException {
+                        return SSHServiceImpl.openSession(connection, identityKey, knownHostsFile, sshShellInputs.getConnectTimeout(), proxyHTTP, sshShellInputs.getAllowedCiphers());
+                    }
+                });
+        CommandResult commandResult;
+        try {
+            // the pooled session is shared, so the service is not closed
+            commandResult = runCommand(sshShellInputs, new SSHServiceImpl(lease.getSession(), null));
+        } finally {
+            pool.release(lease);
+        }
+        populateResult(returnResult, commandResult);
+    }
+
     private SSHService getSshServiceFromCache(SSHShellInputs sshShellInputs, String sessionId) {
         SSHService service = getFromCache(sshShellInputs, sessionId);
         return service;
@@ -95,6 +130,15 @@ public class ScoreSSHShellCommand extends SSHShellAbstract {
             SSHService service, String sessionId,
             boolean saveSSHSession) {
 
+        CommandResult commandResult = runCommand(sshShellInputs, service);
+
+        handleSessionClosure(sshShellInputs, service, sessionId, saveSSHSession);
+
+        // populate the results
+        populateResult(returnResult, commandResult);
+    }
+
+    private CommandResult runCommand(SSHShellInputs sshShellInputs, SSHService service) {
         int timeoutNumber = StringUtils.toInt(sshShellInputs.getTimeout(), Constants.DEFAULT_TIMEOUT);
         boolean usePseudoTerminal = StringUtils.toBoolean(sshShellInputs.getPty(), Constants.DEFAULT_USE_PSEUDO_TERMINAL);
         boolean agentForwarding = StringUtils.toBoolean(sshShellInputs.getAgentForwarding(), Constants.DEFAULT_USE_AGENT_FORWARDING);
@@ -118,13 +162,29 @@ public class ScoreSSHShellCommand extends SSHShellAbstract {
                     usePseudoTerminal,
                     sshShellInputs.getConnectTimeout(),
                     timeoutNumber,
-                    agentForwarding);
+                    agentForwarding,
+                    getOutputOptions(sshShellInputs));
         }
+        return commandResult;
+    }
 
-        handleSessionClosure(sshShellInputs, service, sessionId, saveSSHSession);
-
-        // populate the results
-        populateResult(returnResult, commandResult);
+    private CommandOutputOptions getOutputOptions(SSHShellInputs sshShellInputs) {
+        String digestAlgorithm = StringUtils.toNotEmptyString(sshShellInputs.getDigestAlgorithm(), null);
+        if (StringUtilities.isEmpty(sshShellInputs.getStdoutFile()) && StringUtilities.isEmpty(sshShellInputs.getStderrFile()) &&
+                sshShellInputs.getMaxOutputSize() < 0 && !sshShellInputs.isCountLines() && digestAlgorithm == null) {
+            // all of the output is kept in memory
+            return null;
+        }
+        if (sshShellInputs.getOutputBufferSize() <= 0) {
+            throw new RuntimeException("The " + Constants.OUTPUT_BUFFER_SIZE + " input must be greater than 0.");
+        }
+        return new CommandOutputOptions(
+                StringUtils.toPath(sshShellInputs.getStdoutFile(), null),
+                StringUtils.toPath(sshShellInputs.getStderrFile(), null),
+                sshShellInputs.getOutputBufferSize(),
+                sshShellInputs.getMaxOutputSize(),
+                sshShellInputs.isCountLines(),
+                digestAlgorithm);
     }
 
     private void handleSessionClosure(SSHShellInputs sshShellInputs, SSHService service, String sessionId, boolean saveSSHSession) {
@@ -156,6 +216,18 @@ public class ScoreSSHShellCommand extends SSHShellAbstract {
             returnResult.put(OutputNames.RETURN_CODE, ReturnCodes.FAILURE);
         }
         returnResult.put(Constants.EXIT_STATUS, String.valueOf(commandResult.getExitCode()));
+        if (commandResult.getStandardOutputSize() >= 0) {
+            returnResult.put(Constants.STDOUT_SIZE, String.valueOf(commandResult.getStandardOutputSize()));
+            returnResult.put(Constants.STDERR_SIZE, String.valueOf(commandResult.getStandardErrorSize()));
+        }
+        if (commandResult.getStandardOutputLines() >= 0) {
+            returnResult.put(Constants.STDOUT_LINES, String.valueOf(commandResult.getStandardOutputLines()));
+            returnResult.put(Constants.STDERR_LINES, String.valueOf(commandResult.getStandardErrorLines()));
+        }
+        if (commandResult.getStandardOutputDigest() != null) {
+            returnResult.put(Constants.STDOUT_DIGEST, commandResult.getStandardOutputDigest());
+            returnResult.put(Constants.STDERR_DIGEST, commandResult.getStandardErrorDigest());
+        }
     }
 
 }
@@ -0,0 +1,161 @@
+/*
+ * (c) Copyright 2017 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cloudslang.content.ssh.services.actions;
+
+import com.jcraft.jsch.ProxyHTTP;
+import com.jcraft.jsch.Session;
+import io.cloudslang.content.constants.OutputNames;
+import io.cloudslang.content.constants.ReturnCodes;
+import io.cloudslang.content.ssh.entities.ConnectionDetails;
+import io.cloudslang.content.ssh.entities.IdentityKey;
+import io.cloudslang.content.ssh.entities.KnownHostsFile;
+import io.cloudslang.content.ssh.entities.SSHShellInputs;
+import io.cloudslang.content.ssh.exceptions.SSHException;
+import io.cloudslang.content.ssh.services.impl.SSHServiceImpl;
+import io.cloudslang.content.ssh.utils.Constants;
+import io.cloudslang.content.ssh.utils.IdentityKeyUtils;
+import io.cloudslang.content.ssh.utils.ProxyUtils;
+import io.cloudslang.content.ssh.utils.SSHSessionPool;
+import io.cloudslang.content.ssh.utils.SSHTunnelRegistry;
+import io.cloudslang.content.ssh.utils.StringUtils;
+import io.cloudslang.content.utils.StringUtilities;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Opens, releases and closes the named tunnels of the {@link SSHTunnelRegistry}.
+ */
+public class ScoreSSHTunnel extends SSHShellAbstract {
+
+    public static final String OPEN = "open";
+    public static final String RELEASE = "release";
+    public static final String CLOSE = "close";
+    public static final String TUNNEL_NAME_IS_NOT_SPECIFIED_MESSAGE = "Tunnel name is not specified.";
+
+    private final SSHTunnelRegistry registry;
+
+    public ScoreSSHTunnel() {
+        this(SSHTunnelRegistry.getInstance());
+    }
+
+    public ScoreSSHTunnel(SSHTunnelRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * @param sshShellInputs The connection to the SSH server the tunnel goes through.
+     * @param tunnelName     The name of the tunnel.
+     * @param operation      open, release or close.
+     * @param tunnelType     local or dynamic.
+     * @param bindAddress    The local address the tunnel listens on.
+     * @param localPort      The local port of the tunnel, 0 for any free port.
+     * @param remoteHost     The host a local tunnel forwards to.
+     * @param remotePort     The port a local tunnel forwards to.
+     * @return the local port and the references of the tunnel.
+     */
+    public Map<String, String> execute(SSHShellInputs sshShellInputs, String tunnelName, String operation, String tunnelType,
+                                       String bindAddress, String localPort, String remoteHost, String remotePort) {
+        Map<String, String> returnResult = new HashMap<>();
+        boolean providerAdded = addSecurityProvider();
+
+        try {
+            if (StringUtilities.isEmpty(tunnelName)) {
+                throw new RuntimeException(TUNNEL_NAME_IS_NOT_SPECIFIED_MESSAGE);
+            }
+            String tunnelOperation = StringUtils.toNotEmptyString(operation, Constants.DEFAULT_TUNNEL_OPERATION).toLowerCase(Locale.ENGLISH);
+            switch (tunnelOperation) {
+                case OPEN:
+                    SSHTunnelRegistry.Tunnel tunnel = open(sshShellInputs, tunnelName, tunnelType, bindAddress, localPort, remoteHost, remotePort);
+                    populateResult(returnResult, String.valueOf(tunnel.getLocalPort()), tunnel.getLocalPort(), tunnel.getReferences());
+                    break;
+                case RELEASE:
+                    SSHTunnelRegistry.Tunnel released = registry.get(tunnelName);
+                    int references = registry.release(tunnelName);
+                    if (released == null || references < 0) {
+                        throw new RuntimeException("The " + tunnelName + " tunnel is not open.");
+                    }
+                    populateResult(returnResult, "The " + tunnelName + " tunnel was released.", released.getLocalPort(), references);
+                    break;
+                case CLOSE:
+                    if (!registry.close(tunnelName)) {
+                        throw new RuntimeException("The " + tunnelName + " tunnel is not open.");
+                    }
+                    populateResult(returnResult, "The " + tunnelName + " tunnel was closed.", -1, 0);
+                    break;
+                default:
+                    throw new RuntimeException("Invalid " + Constants.TUNNEL_OPERATION + ": " + operation);
+            }
+        } catch (Exception e) {
+            populateResult(returnResult, e);
+        } finally {
+            if (providerAdded) {
+                removeSecurityProvider();
+            }
+        }
+        return returnResult;
+    }
+
+    private SSHTunnelRegistry.Tunnel open(final SSHShellInputs sshShellInputs, String tunnelName, String tunnelType, String bindAddress,
+                                          String localPort, String remoteHost, String remotePort) throws SSHException {
+        SSHTunnelRegistry.Type type;
+        try {
+            type = SSHTunnelRegistry.Type.valueOf(StringUtils.toNotEmptyString(tunnelType, Constants.DEFAULT_TUNNEL_TYPE).toUpperCase(Locale.ENGLISH));
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid " + Constants.TUNNEL_TYPE + ": " + tunnelType);
+        }
+        int remotePortNumber = 0;
+        if (type == SSHTunnelRegistry.Type.LOCAL) {
+            if (StringUtilities.isEmpty(remoteHost)) {
+                throw new RuntimeException("The " + Constants.REMOTE_HOST + " input is required by a local tunnel.");
+            }
+            remotePortNumber = StringUtils.validatePortNumber(remotePort, Constants.REMOTE_PORT);
+        }
+
+        int portNumber = StringUtils.toInt(sshShellInputs.getPort(), Constants.DEFAULT_PORT);
+        String knownHostsPolicy = StringUtils.toNotEmptyString(sshShellInputs.getKnownHostsPolicy(), Constants.DEFAULT_KNOWN_HOSTS_POLICY);
+        Path knownHostsPath = StringUtils.toPath(sshShellInputs.getKnownHostsPath(), Constants.DEFAULT_KNOWN_HOSTS_PATH);
+        final ConnectionDetails connection = new ConnectionDetails(sshShellInputs.getHost(), portNumber, sshShellInputs.getUsername(), sshShellInputs.getPassword());
+        final IdentityKey identityKey = IdentityKeyUtils.getIdentityKey(sshShellInputs.getPrivateKeyFile(), sshShellInputs.getPrivateKeyData(), sshShellInputs.getPassword());
+        final KnownHostsFile knownHostsFile = new KnownHostsFile(knownHostsPath, knownHostsPolicy);
+        final ProxyHTTP proxyHTTP = ProxyUtils.getHTTPProxy(sshShellInputs.getProxyHost(), sshShellInputs.getProxyPort(), sshShellInputs.getProxyUsername(), sshShellInputs.getProxyPassword());
+
+        return registry.open(tunnelName, type,
+                StringUtils.toNotEmptyString(bindAddress, Constants.DEFAULT_BIND_ADDRESS),
+                StringUtils.toInt(localPort, Constants.DEFAULT_LOCAL_PORT),
+                remoteHost, remotePortNumber,
+                getPoolKey(sshShellInputs, portNumber),
+                sshShellInputs.getMaxChannelsPerSession(),
+                sshShellInputs.getConnectTimeout(),
+                new SSHSessionPool.SessionFactory() {
+                    @Override
+                    public Session openSession() throws SSHException {
+                        return SSHServiceImpl.openSession(connection, identityKey, knownHostsFile, sshShellInputs.getConnectTimeout(), proxyHTTP, sshShellInputs.getAllowedCiphers());
+                    }
+                });
+    }
+
+    private void populateResult(Map<String, String> returnResult, String result, int localPort, int references) {
+        returnResult.put(OutputNames.RETURN_RESULT, result);
+        if (localPort >= 0) {
+            returnResult.put(Constants.LOCAL_PORT, String.valueOf(localPort));
+        }
+        returnResult.put(Constants.REFERENCE_COUNT, String.valueOf(references));
+        returnResult.put(OutputNames.RETURN_CODE, ReturnCodes.SUCCESS);
+    }
+}
@@ -23,14 +23,18 @@ import io.cloudslang.content.ssh.exceptions.TimeoutException;
 import io.cloudslang.content.ssh.services.SSHService;
 import io.cloudslang.content.ssh.utils.CacheUtils;
 import io.cloudslang.content.ssh.utils.IdentityKeyUtils;
+import io.cloudslang.content.ssh.utils.OutputCapture;
 import io.cloudslang.content.utils.StringUtilities;
-import org.apache.commons.io.IOUtils;
 
 import java.io.*;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * @author ioanvranauhp
@@ -46,6 +50,12 @@ public class SSHServiceImpl implements SSHService {
     private static final String KNOWN_HOSTS_ADD = "add";
     private static final String ALLOWED_CIPHERS = "aes128-ctr,aes128-cbc,3des-ctr,3des-cbc,blowfish-cbc,aes192-ctr,aes192-cbc,aes256-ctr,aes256-cbc";
     public static final String EXIT_COMMAND = "exit";
+    private static final String END_MARKER_PREFIX = "CS_COMMAND_END_";
+    private static final int END_MARKER_SPLIT = 4;
+    private static final String END_MARKER_SEPARATOR = ":";
+    private static final int SHELL_BUFFER_SIZE = 8192;
+    private static final byte[] NEW_LINE = {'\n'};
+    private static final Timer SHELL_TIMEOUTS = new Timer("ssh-shell-timeout", true);
     private Session session;
     private Channel execChannel;
 
@@ -67,6 +77,35 @@ public class SSHServiceImpl implements SSHService {
      */
     public SSHServiceImpl(ConnectionDetails details, IdentityKey identityKey, KnownHostsFile knownHostsFile,
                           int connectTimeout, boolean keepContextForExpectCommand, ProxyHTTP proxyHTTP, String allowedCiphers) throws SSHException {
+        session = openSession(details, identityKey, knownHostsFile, connectTimeout, proxyHTTP, allowedCiphers);
+
+        if (keepContextForExpectCommand) {
+            try {
+                // create exec channel
+                execChannel = session.openChannel(EXEC_CHANNEL);
+
+                // connect to the channel and run the command(s)
+                execChannel.connect(connectTimeout);
+            } catch (JSchException e) {
+                throw new SSHException(e);
+            }
+        }
+    }
+
+    /**
+     * Open and authenticate a SSH session.
+     *
+     * @param details        The connection details.
+     * @param identityKey    The private key file or string.
+     * @param knownHostsFile The known_hosts file and policy.
+     * @param connectTimeout The open SSH session timeout.
+     * @param proxyHTTP      The proxy settings, parse it as null if no proxy settings required
+     * @param allowedCiphers The list of allowed ciphers. If not empty, it will be used to overwrite the default list.
+     * @return the connected session.
+     */
+    public static Session openSession(ConnectionDetails details, IdentityKey identityKey, KnownHostsFile knownHostsFile,
+                                      int connectTimeout, ProxyHTTP proxyHTTP, String allowedCiphers) throws SSHException {
+        final Session session;
         JSch jsch = new JSch();
         String finalListOfAllowedCiphers = StringUtilities.isNotBlank(allowedCiphers) ? allowedCiphers : ALLOWED_CIPHERS;
         JSch.setConfig("cipher.s2c", finalListOfAllowedCiphers);
@@ -127,17 +166,10 @@ public class SSHServiceImpl implements SSHService {
 
         try {
             session.connect(connectTimeout);
-
-            if (keepContextForExpectCommand) {
-                // create exec channel
-                execChannel = session.openChannel(EXEC_CHANNEL);
-
-                // connect to the channel and run the command(s)
-                execChannel.connect(connectTimeout);
-            }
         } catch (JSchException e) {
             throw new SSHException(e);
         }
+        return session;
     }
 
     @Override
@@ -165,21 +197,54 @@ public class SSHServiceImpl implements SSHService {
 
             final PrintWriter printWriter = new PrintWriter(new OutputStreamWriter(shellIn, characterSet));
 
+            // the end marker is printed with the exit code of the command once the command has finished;
+            // the quotes split it in the command itself, so a terminal echo of the command does not match it
+            final String endMarker = END_MARKER_PREFIX + UUID.randomUUID().toString().replace("-", "");
+            final String endMarkerCommand = "echo \"" + endMarker.substring(0, END_MARKER_SPLIT) + "\"\"" +
+                    endMarker.substring(END_MARKER_SPLIT) + END_MARKER_SEPARATOR + "$?\"";
+
             printWriter.println(command);
+            printWriter.println(endMarkerCommand);
             printWriter.flush();
 
+            // the timeout is only an upper bound: the channel is closed if the end marker did not arrive until then
+            final AtomicBoolean timedOut = new AtomicBoolean();
+            final TimerTask timeoutTask = new TimerTask() {
+                @Override
+                public void run() {
+                    timedOut.set(true);
+                    channelShell.disconnect();
+                }
+            };
+            SHELL_TIMEOUTS.schedule(timeoutTask, commandTimeout);
+
+            final ShellOutput output = new ShellOutput();
+            final int markerEnd;
             try {
-                Thread.sleep(commandTimeout);
-            } catch (InterruptedException ignored) {
+                markerEnd = readUntilEndMarker(shellOut, output, endMarker.getBytes(characterSet), timedOut);
+            } finally {
+                timeoutTask.cancel();
             }
 
-            printWriter.println(EXIT_COMMAND);
-            printWriter.flush();
-
-            final String result = IOUtils.toString(shellOut, characterSet);
-
             final CommandResult commandResult = new CommandResult();
-            commandResult.setStandardOutput(result);
+            final byte[] bytes = output.getBuffer();
+            if (markerEnd < 0) {
+                // the shell exited by itself or the command timed out
+                commandResult.setStandardOutput(output.toString(characterSet));
+            } else {
+                printWriter.println(EXIT_COMMAND);
+                printWriter.flush();
+
+                final int markerStart = markerEnd - endMarker.length();
+                int lineStart = markerStart;
+                while (lineStart > 0 && bytes[lineStart - 1] != '\n') {
+                    lineStart--;
+                }
+                final String standardOutput = new String(bytes, 0, lineStart, characterSet);
+                commandResult.setStandardOutput(removeLine(standardOutput, endMarkerCommand));
+                commandResult.setExitCode(parseExitCode(bytes, output.size(), markerEnd));
+            }
+            channelShell.disconnect();
 
             return commandResult;
         } catch (JSchException | IOException e) {
@@ -187,6 +252,79 @@ public class SSHServiceImpl implements SSHService {
         }
     }
 
+    /**
+     * Reads the shell output until the line that follows the end marker is complete.
+     *
+     * @return the index that follows the end marker in the output, or -1 if the stream ended without it
+     */
+    private static int readUntilEndMarker(InputStream shellOut, ShellOutput output, byte[] endMarker,
+                                          AtomicBoolean timedOut) throws IOException {
+        final byte[] buffer = new byte[SHELL_BUFFER_SIZE];
+        int markerEnd = -1;
+        int searchFrom = 0;
+        int read;
+        try {
+            while (!timedOut.get() && (read = shellOut.read(buffer)) >= 0) {
+                output.write(buffer, 0, read);
+                final byte[] bytes = output.getBuffer();
+                if (markerEnd < 0) {
+                    // only the new bytes, and the end of the previous ones that could start the marker, are searched
+                    final int markerStart = indexOf(bytes, output.size(), endMarker, searchFrom);
+                    if (markerStart >= 0) {
+                        markerEnd = markerStart + endMarker.length;
+                    } else {
+                        searchFrom = Math.max(0, output.size() - endMarker.length + 1);
+                    }
+                }
+                if (markerEnd >= 0 && indexOf(bytes, output.size(), NEW_LINE, markerEnd) >= 0) {
+                    return markerEnd;
+                }
+            }
+        } catch (IOException e) {
+            // the channel was closed by the timeout while reading
+            if (!timedOut.get()) {
+                throw e;
+            }
+        }
+        return -1;
+    }
+
+    private static int indexOf(byte[] bytes, int length, byte[] pattern, int from) {
+        for (int index = from; index <= length - pattern.length; index++) {
+            int matched = 0;
+            while (matched < pattern.length && bytes[index + matched] == pattern[matched]) {
+                matched++;
+            }
+            if (matched == pattern.length) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    private static int parseExitCode(byte[] bytes, int length, int markerEnd) {
+        int index = markerEnd;
+        if (index < length && bytes[index] == END_MARKER_SEPARATOR.charAt(0)) {
+            index++;
+        }
+        int exitCode = 0;
+        while (index < length && bytes[index] >= '0' && bytes[index] <= '9') {
+            exitCode = exitCode * 10 + bytes[index++] - '0';
+        }
+        return exitCode;
+    }
+
+    // removes the terminal echo of the end marker command
+    private static String removeLine(String output, String line) {
+        final int index = output.lastIndexOf(line);
+        if (index < 0) {
+            return output;
+        }
+        final int lineStart = output.lastIndexOf('\n', index) + 1;
+        final int lineEnd = output.indexOf('\n', index);
+        return output.substring(0, lineStart) + (lineEnd < 0 ? "" : output.substring(lineEnd + 1));
+    }
+
     @Override
     public CommandResult runShellCommand(
             String command,
@@ -195,6 +333,20 @@ public class SSHServiceImpl implements SSHService {
             int connectTimeout,
             int commandTimeout,
             boolean agentForwarding) {
+        return runShellCommand(command, characterSet, usePseudoTerminal, connectTimeout, commandTimeout, agentForwarding, null);
+    }
+
+    @Override
+    public CommandResult runShellCommand(
+            String command,
+            String characterSet,
+            boolean usePseudoTerminal,
+            int connectTimeout,
+            int commandTimeout,
+            boolean agentForwarding,
+            CommandOutputOptions outputOptions) {
+        OutputCapture out = null;
+        OutputCapture err = null;
         try {
             if (!isConnected()) {
                 session.connect(connectTimeout);
@@ -204,9 +356,9 @@ public class SSHServiceImpl implements SSHService {
             channel.setCommand(command.getBytes(characterSet));
             channel.setPty(usePseudoTerminal);
             channel.setAgentForwarding(agentForwarding);
-            OutputStream out = new ByteArrayOutputStream();
+            out = newOutputCapture(outputOptions, outputOptions == null ? null : outputOptions.getStandardOutputFile());
             channel.setOutputStream(out);
-            OutputStream err = new ByteArrayOutputStream();
+            err = newOutputCapture(outputOptions, outputOptions == null ? null : outputOptions.getStandardErrorFile());
             channel.setErrStream(err);
 
             // connect to the channel and run the command(s)
@@ -226,12 +378,18 @@ public class SSHServiceImpl implements SSHService {
 
             // save the response
             CommandResult result = new CommandResult();
-            result.setStandardOutput(((ByteArrayOutputStream) out).toString(characterSet));
+            result.setStandardOutput(out.toString(characterSet));
             if (usePseudoTerminal && channel.getExitStatus() != 0) {
-                result.setStandardError(((ByteArrayOutputStream) out).toString(characterSet));
+                result.setStandardError(out.toString(characterSet));
             } else {
-                result.setStandardError(((ByteArrayOutputStream) err).toString(characterSet));
+                result.setStandardError(err.toString(characterSet));
             }
+            result.setStandardOutputSize(out.getSize());
+            result.setStandardErrorSize(err.getSize());
+            result.setStandardOutputLines(out.getLineCount());
+            result.setStandardErrorLines(err.getLineCount());
+            result.setStandardOutputDigest(out.getDigest());
+            result.setStandardErrorDigest(err.getDigest());
 
             channel.disconnect();
             // The exit status is only available after the channel was closed (more exactly, just before the channel is closed).
@@ -242,8 +400,28 @@ public class SSHServiceImpl implements SSHService {
             }
 
             return result;
-        } catch (JSchException | UnsupportedEncodingException | TimeoutException e) {
+        } catch (JSchException | IOException | TimeoutException e) {
             throw new RuntimeException(e);
+        } finally {
+            closeQuietly(out);
+            closeQuietly(err);
+        }
+    }
+
+    private static OutputCapture newOutputCapture(CommandOutputOptions outputOptions, Path file) throws IOException {
+        if (outputOptions == null) {
+            return new OutputCapture(null, 0, -1, false, null);
+        }
+        return new OutputCapture(file, outputOptions.getBufferSize(), outputOptions.getMaxOutputSize(),
+                outputOptions.isCountLines(), outputOptions.getDigestAlgorithm());
+    }
+
+    private static void closeQuietly(OutputCapture capture) {
+        if (capture != null) {
+            try {
+                capture.close();
+            } catch (IOException ignore) {
+            }
         }
     }
 
@@ -291,4 +469,11 @@ public class SSHServiceImpl implements SSHService {
     public Channel getExecChannel() {
         return execChannel;
     }
+
+    // gives access to the bytes read so far without copying them
+    private static class ShellOutput extends ByteArrayOutputStream {
+        private byte[] getBuffer() {
+            return buf;
+        }
+    }
 }
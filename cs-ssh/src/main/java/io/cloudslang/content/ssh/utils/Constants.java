@@ -42,15 +42,52 @@ public class Constants {
     public static final String PROXY_PASSWORD = "proxyPassword";
     public static final String CONNECT_TIMEOUT = "connectTimeout";
     public static final String USE_SHELL = "useShell";
+    public static final String USE_SESSION_POOL = "useSessionPool";
+    public static final String MAX_CHANNELS_PER_SESSION = "maxChannelsPerSession";
+    public static final String HOSTS = "hosts";
+    public static final String MAX_PARALLEL = "maxParallel";
+    public static final String HOST_PASSWORDS = "hostPasswords";
+    public static final String STDOUT_FILE = "stdoutFile";
+    public static final String STDERR_FILE = "stderrFile";
+    public static final String OUTPUT_BUFFER_SIZE = "outputBufferSize";
+    public static final String MAX_OUTPUT_SIZE = "maxOutputSize";
+    public static final String COUNT_LINES = "countLines";
+    public static final String DIGEST_ALGORITHM = "digestAlgorithm";
+    public static final String TUNNEL_NAME = "tunnelName";
+    public static final String TUNNEL_OPERATION = "tunnelOperation";
+    public static final String TUNNEL_TYPE = "tunnelType";
+    public static final String BIND_ADDRESS = "bindAddress";
+    public static final String LOCAL_PORT = "localPort";
+    public static final String REMOTE_HOST = "remoteHost";
+    public static final String REMOTE_PORT = "remotePort";
     // outputs
     public static final String STDOUT = "STDOUT";
     public static final String STDERR = "STDERR";
     public static final String EXIT_STATUS = "exitStatus";
+    public static final String SUCCESS_COUNT = "successCount";
+    public static final String FAILURE_COUNT = "failureCount";
+    public static final String STDOUT_SIZE = "stdoutSize";
+    public static final String STDERR_SIZE = "stderrSize";
+    public static final String STDOUT_LINES = "stdoutLines";
+    public static final String STDERR_LINES = "stderrLines";
+    public static final String STDOUT_DIGEST = "stdoutDigest";
+    public static final String STDERR_DIGEST = "stderrDigest";
+    public static final String REFERENCE_COUNT = "referenceCount";
     // default values
     public static final int DEFAULT_PORT = 22;
     public static final int DEFAULT_PROXY_PORT = 8080;
     public static final boolean DEFAULT_ALLOW_EXPECT_COMMANDS = false;
     public static final boolean DEFAULT_USE_SHELL = false;
+    public static final boolean DEFAULT_USE_SESSION_POOL = false;
+    public static final int DEFAULT_MAX_CHANNELS_PER_SESSION = 10;
+    public static final int DEFAULT_MAX_PARALLEL = 10;
+    public static final int DEFAULT_OUTPUT_BUFFER_SIZE = 1048576; //1 MB
+    public static final int DEFAULT_MAX_OUTPUT_SIZE = -1; //unlimited
+    public static final boolean DEFAULT_COUNT_LINES = false;
+    public static final String DEFAULT_TUNNEL_OPERATION = "open";
+    public static final String DEFAULT_TUNNEL_TYPE = "local";
+    public static final String DEFAULT_BIND_ADDRESS = "127.0.0.1";
+    public static final int DEFAULT_LOCAL_PORT = 0; //any free port
     public static final int DEFAULT_TIMEOUT = 90000; //90 seconds
     public static final int DEFAULT_CONNECT_TIMEOUT = 10000; //10 seconds
     public static final boolean DEFAULT_USE_PSEUDO_TERMINAL = false;
@@ -0,0 +1,228 @@
+/*
+ * (c) Copyright 2017 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cloudslang.content.ssh.utils;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+/**
+ * Receives the output of a remote command without keeping all of it in memory.
+ * <p>
+ * The output is optionally written to a local file through a large buffer. Only its first and last bytes are kept in
+ * memory, so a command that prints hundreds of megabytes does not fill the heap of the worker. The number of bytes, the
+ * number of lines and a digest of the whole output are computed while it is received.
+ */
+public class OutputCapture extends OutputStream {
+    public static final int DEFAULT_BUFFER_SIZE = 1048576; //1 MB
+
+    private final OutputStream file;
+    private final MessageDigest digest;
+    private final boolean countLines;
+    private final byte[] head;
+    private final byte[] tail;
+    private final boolean keepAll;
+    private byte[] all;
+    private int headSize;
+    // the tail is a circular buffer, tailEnd is where the next byte is written
+    private int tailEnd;
+    private long size;
+    private long lines;
+    private byte last = '\n';
+    private boolean closed;
+
+    /**
+     * @param path            The local file the output is written to, or null to only keep it in memory.
+     * @param bufferSize      The size of the buffer of the file.
+     * @param maxSize         The maximum number of bytes kept in memory, half from the start and half from the end of
+     *                        the output, or a negative number to keep all of them.
+     * @param countLines      If true the lines of the output are counted.
+     * @param digestAlgorithm The algorithm of the digest of the output, for example SHA-256, or null for no digest.
+     * @throws IOException if the file could not be created.
+     */
+    public OutputCapture(Path path, int bufferSize, int maxSize, boolean countLines, String digestAlgorithm) throws IOException {
+        if (digestAlgorithm == null) {
+            this.digest = null;
+        } else {
+            try {
+                this.digest = MessageDigest.getInstance(digestAlgorithm);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalArgumentException("Invalid digest algorithm: " + digestAlgorithm, e);
+            }
+        }
+        this.countLines = countLines;
+        this.keepAll = maxSize < 0;
+        this.all = keepAll ? new byte[256] : null;
+        this.head = new byte[keepAll ? 0 : maxSize - maxSize / 2];
+        this.tail = new byte[keepAll ? 0 : maxSize / 2];
+        this.file = path == null ? null : new BufferedOutputStream(Files.newOutputStream(path), Math.max(bufferSize, 1));
+    }
+
+    @Override
+    public synchronized void write(int value) throws IOException {
+        write(new byte[]{(byte) value}, 0, 1);
+    }
+
+    @Override
+    public synchronized void write(byte[] bytes, int offset, int length) throws IOException {
+        if (length <= 0) {
+            return;
+        }
+        if (file != null && !closed) {
+            file.write(bytes, offset, length);
+        }
+        if (digest != null) {
+            digest.update(bytes, offset, length);
+        }
+        if (countLines) {
+            for (int index = offset; index < offset + length; index++) {
+                if (bytes[index] == '\n') {
+                    lines++;
+                }
+            }
+        }
+        last = bytes[offset + length - 1];
+        if (keepAll) {
+            keep(bytes, offset, length);
+        } else {
+            keepHeadAndTail(bytes, offset, length);
+        }
+        size += length;
+    }
+
+    private void keep(byte[] bytes, int offset, int length) {
+        if (size + length > all.length) {
+            all = Arrays.copyOf(all, (int) Math.max(size + length, all.length * 2L));
+        }
+        System.arraycopy(bytes, offset, all, (int) size, length);
+    }
+
+    private void keepHeadAndTail(byte[] bytes, int offset, int length) {
+        int toHead = Math.min(head.length - headSize, length);
+        System.arraycopy(bytes, offset, head, headSize, toHead);
+        headSize += toHead;
+        offset += toHead;
+        length -= toHead;
+        if (length == 0 || tail.length == 0) {
+            return;
+        }
+        if (length >= tail.length) {
+            // only the last bytes of the chunk stay in the tail
+            System.arraycopy(bytes, offset + length - tail.length, tail, 0, tail.length);
+            tailEnd = 0;
+            return;
+        }
+        int toEnd = Math.min(tail.length - tailEnd, length);
+        System.arraycopy(bytes, offset, tail, tailEnd, toEnd);
+        System.arraycopy(bytes, offset + toEnd, tail, 0, length - toEnd);
+        tailEnd = (tailEnd + length) % tail.length;
+    }
+
+    @Override
+    public synchronized void flush() throws IOException {
+        if (file != null && !closed) {
+            file.flush();
+        }
+    }
+
+    /**
+     * Flushes and closes the file, the captured output stays available.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            if (file != null) {
+                file.close();
+            }
+        }
+    }
+
+    /**
+     * @return the number of bytes received.
+     */
+    public synchronized long getSize() {
+        return size;
+    }
+
+    /**
+     * @return the number of lines received, a last line without a line feed included, or -1 if they are not counted.
+     */
+    public synchronized long getLineCount() {
+        if (!countLines) {
+            return -1;
+        }
+        return last == '\n' ? lines : lines + 1;
+    }
+
+    /**
+     * @return the hex encoded digest of the output, or null if no digest is computed.
+     */
+    public synchronized String getDigest() {
+        if (digest == null) {
+            return null;
+        }
+        MessageDigest result;
+        try {
+            // a copy keeps the digest of the output going on if more bytes are received
+            result = (MessageDigest) digest.clone();
+        } catch (CloneNotSupportedException e) {
+            result = digest;
+        }
+        StringBuilder hex = new StringBuilder();
+        for (byte value : result.digest()) {
+            hex.append(String.format("%02x", value));
+        }
+        return hex.toString();
+    }
+
+    /**
+     * @return true if only the start and the end of the output are kept.
+     */
+    public synchronized boolean isTruncated() {
+        return !keepAll && size > head.length + tail.length;
+    }
+
+    /**
+     * Decodes the output kept in memory. When the output was truncated, a line with the number of skipped bytes
+     * separates its start from its end.
+     *
+     * @param characterSet The character set of the output.
+     * @return the output.
+     * @throws UnsupportedEncodingException if the character set is not supported.
+     */
+    public synchronized String toString(String characterSet) throws UnsupportedEncodingException {
+        if (keepAll) {
+            return new String(all, 0, (int) size, characterSet);
+        }
+        if (!isTruncated()) {
+            int tailSize = (int) (size - headSize);
+            return new String(head, 0, headSize, characterSet) + new String(tail, 0, tailSize, characterSet);
+        }
+        byte[] lastBytes = new byte[tail.length];
+        System.arraycopy(tail, tailEnd, lastBytes, 0, tail.length - tailEnd);
+        System.arraycopy(tail, 0, lastBytes, tail.length - tailEnd, tailEnd);
+        long skipped = size - head.length - tail.length;
+        return new String(head, 0, headSize, characterSet) + "\n... " + skipped + " bytes skipped ...\n" +
+                new String(lastBytes, characterSet);
+    }
+}
@@ -0,0 +1,403 @@
+/*
+ * (c) Copyright 2017 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cloudslang.content.ssh.utils;
+
+import com.jcraft.jsch.JSchException;
+import com.jcraft.jsch.Session;
+import io.cloudslang.content.ssh.exceptions.SSHException;
+
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool of authenticated SSH sessions, shared by all the flows that run on a worker.
+ * <p>
+ * Sessions are kept per host, port, user and credentials. A session is shared by up to a given number of concurrent
+ * leases, each of them using its own channels, which matches the MaxSessions limit of the server (10 by default for
+ * OpenSSH). A new session, with its key exchange and authentication, is opened only when all the sessions of the key
+ * are busy. A session being opened already counts its first lease, and the callers that find room on it wait for it
+ * instead of opening their own, so concurrent calls to a host that has no session yet pay for a single handshake.
+ * Sessions send keepalive messages while they are pooled and are closed after they have been idle for the idle timeout.
+ */
+public class SSHSessionPool {
+    public static final long DEFAULT_IDLE_TIMEOUT = 300000; //5 minutes
+    public static final int DEFAULT_KEEP_ALIVE_INTERVAL = 30000; //30 seconds
+    private static final int KEEP_ALIVE_COUNT_MAX = 3;
+    private static final String KEY_DIGEST = "SHA-256";
+    private static final Charset KEY_ENCODING = Charset.forName("UTF-8");
+
+    private static final SSHSessionPool INSTANCE = new SSHSessionPool(DEFAULT_IDLE_TIMEOUT, DEFAULT_KEEP_ALIVE_INTERVAL);
+
+    private final Map<String, List<PooledSession>> sessions = new HashMap<>();
+    private final long idleTimeout;
+    private final int keepAliveInterval;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong handshakes = new AtomicLong();
+    private ScheduledExecutorService evictor;
+
+    public SSHSessionPool(long idleTimeout, int keepAliveInterval) {
+        this.idleTimeout = idleTimeout;
+        this.keepAliveInterval = keepAliveInterval;
+    }
+
+    public static SSHSessionPool getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Opens a new authenticated session, called when the pool has no session available for a key.
+     */
+    public interface SessionFactory {
+        Session openSession() throws SSHException;
+    }
+
+    /**
+     * Builds the key of the sessions of a user. The secrets are hashed, so they are not kept in the pool.
+     *
+     * @param host        The remote host.
+     * @param port        The remote port.
+     * @param username    The username.
+     * @param credentials The password, private key, known hosts, proxy and cipher settings of the session.
+     * @return the pool key.
+     */
+    public static String getKey(String host, int port, String username, String... credentials) {
+        StringBuilder secrets = new StringBuilder();
+        for (String credential : credentials) {
+            // the length prefix keeps ("ab", "c") and ("a", "bc") apart
+            secrets.append(credential == null ? -1 : credential.length()).append(':').append(credential).append('\n');
+        }
+        String fingerprint;
+        try {
+            MessageDigest digest = MessageDigest.getInstance(KEY_DIGEST);
+            StringBuilder hex = new StringBuilder();
+            for (byte value : digest.digest(secrets.toString().getBytes(KEY_ENCODING))) {
+                hex.append(String.format("%02x", value));
+            }
+            fingerprint = hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // every JRE provides SHA-256, a weaker fingerprint could hand a session to other credentials
+            throw new IllegalStateException(KEY_DIGEST + " is not available.", e);
+        }
+        return "sshPool:" + host + "-" + port + "-" + username + "-" + fingerprint;
+    }
+
+    /**
+     * Leases a session of the key that has fewer than the given number of leases, opening a new one when there is none.
+     * When a session of the key is being opened by another caller and has room, the call waits for it instead.
+     * The lease must be released after its channels were closed.
+     *
+     * @param key                   The pool key, see {@link #getKey(String, int, String, String...)}.
+     * @param maxChannelsPerSession The maximum number of concurrent leases of a session.
+     * @param factory               Opens a new session.
+     * @return the lease.
+     * @throws SSHException if a new session could not be opened, by this call or by the call it waited for.
+     */
+    public Lease acquire(String key, int maxChannelsPerSession, SessionFactory factory) throws SSHException {
+        PooledSession opening;
+        synchronized (sessions) {
+            startEvictor();
+            PooledSession available = null;
+            List<PooledSession> keySessions = sessions.get(key);
+            if (keySessions != null) {
+                for (PooledSession pooledSession : keySessions) {
+                    if (pooledSession.activeChannels < maxChannelsPerSession &&
+                            (pooledSession.session == null || pooledSession.session.isConnected())) {
+                        available = pooledSession;
+                        break;
+                    }
+                }
+            }
+            if (available != null) {
+                available.activeChannels++;
+                waitUntilOpened(available);
+                hits.incrementAndGet();
+                return new Lease(available);
+            }
+            // the placeholder reserves the first lease of the new session while it is being opened
+            opening = new PooledSession(key, null);
+            opening.activeChannels = 1;
+            if (keySessions == null) {
+                keySessions = new ArrayList<>();
+                sessions.put(key, keySessions);
+            }
+            keySessions.add(opening);
+        }
+
+        // the handshake is done outside of the lock, so it does not delay the leases of the other sessions
+        Session session = null;
+        try {
+            session = factory.openSession();
+            handshakes.incrementAndGet();
+            session.setServerAliveInterval(keepAliveInterval);
+            session.setServerAliveCountMax(KEEP_ALIVE_COUNT_MAX);
+        } catch (SSHException | JSchException | RuntimeException e) {
+            if (session != null) {
+                session.disconnect();
+            }
+            SSHException failure = e instanceof SSHException ? (SSHException) e : new SSHException(e);
+            synchronized (sessions) {
+                opening.failure = failure;
+                remove(opening);
+                sessions.notifyAll();
+            }
+            throw failure;
+        }
+        synchronized (sessions) {
+            opening.session = session;
+            sessions.notifyAll();
+        }
+        return new Lease(opening);
+    }
+
+    // called with the lock held and a lease of the session counted, which is given up if the session fails to open
+    private void waitUntilOpened(PooledSession pooledSession) throws SSHException {
+        boolean interrupted = false;
+        while (pooledSession.session == null && pooledSession.failure == null) {
+            try {
+                sessions.wait();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if (pooledSession.failure != null) {
+            pooledSession.activeChannels--;
+            throw new SSHException(pooledSession.failure.getMessage(), pooledSession.failure);
+        }
+    }
+
+    /**
+     * Returns a lease to the pool. A session that is no longer connected is removed once it has no other lease.
+     *
+     * @param lease The lease.
+     */
+    public void release(Lease lease) {
+        synchronized (sessions) {
+            if (lease.released) {
+                return;
+            }
+            lease.released = true;
+            PooledSession pooledSession = lease.pooledSession;
+            pooledSession.activeChannels--;
+            pooledSession.lastUsed = System.currentTimeMillis();
+            if (pooledSession.activeChannels > 0) {
+                return;
+            }
+            if (pooledSession.removed) {
+                // the pool was cleared while the session was being opened
+                pooledSession.session.disconnect();
+            } else if (!pooledSession.session.isConnected()) {
+                remove(pooledSession);
+            }
+        }
+    }
+
+    /**
+     * Returns a lease whose session failed, the session is closed and no longer leased.
+     *
+     * @param lease The lease.
+     */
+    public void invalidate(Lease lease) {
+        synchronized (sessions) {
+            if (!lease.released) {
+                lease.released = true;
+                lease.pooledSession.activeChannels--;
+            }
+            remove(lease.pooledSession);
+        }
+        lease.pooledSession.session.disconnect();
+    }
+
+    /**
+     * Closes the sessions that have no lease and were not used for the idle timeout or are disconnected.
+     *
+     * @return the number of closed sessions.
+     */
+    public int evictIdle() {
+        List<Session> evicted = new ArrayList<>();
+        long idleSince = System.currentTimeMillis() - idleTimeout;
+        synchronized (sessions) {
+            for (Iterator<List<PooledSession>> keys = sessions.values().iterator(); keys.hasNext(); ) {
+                List<PooledSession> keySessions = keys.next();
+                for (Iterator<PooledSession> iterator = keySessions.iterator(); iterator.hasNext(); ) {
+                    PooledSession pooledSession = iterator.next();
+                    if (pooledSession.activeChannels == 0 &&
+                            (pooledSession.lastUsed < idleSince || !pooledSession.session.isConnected())) {
+                        iterator.remove();
+                        evicted.add(pooledSession.session);
+                    }
+                }
+                if (keySessions.isEmpty()) {
+                    keys.remove();
+                }
+            }
+        }
+        for (Session session : evicted) {
+            session.disconnect();
+        }
+        return evicted.size();
+    }
+
+    /**
+     * Closes all the pooled sessions.
+     */
+    public void clear() {
+        List<PooledSession> closed = new ArrayList<>();
+        synchronized (sessions) {
+            for (List<PooledSession> keySessions : sessions.values()) {
+                for (PooledSession pooledSession : keySessions) {
+                    pooledSession.removed = true;
+                    // a session being opened is closed by the release of its last lease
+                    if (pooledSession.session != null) {
+                        closed.add(pooledSession);
+                    }
+                }
+            }
+            sessions.clear();
+            if (evictor != null) {
+                evictor.shutdownNow();
+                evictor = null;
+            }
+        }
+        for (PooledSession pooledSession : closed) {
+            pooledSession.session.disconnect();
+        }
+    }
+
+    /**
+     * @return the number of leases served by a session opened, or being opened, for another lease.
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * @return the number of sessions opened by the pool.
+     */
+    public long getHandshakes() {
+        return handshakes.get();
+    }
+
+    /**
+     * @return the number of key exchanges and authentications saved by reusing sessions, the same as the hits.
+     */
+    public long getHandshakesAvoided() {
+        return hits.get();
+    }
+
+    /**
+     * @return the number of leases not yet released.
+     */
+    public int getActiveChannels() {
+        int activeChannels = 0;
+        synchronized (sessions) {
+            for (List<PooledSession> keySessions : sessions.values()) {
+                for (PooledSession pooledSession : keySessions) {
+                    activeChannels += pooledSession.activeChannels;
+                }
+            }
+        }
+        return activeChannels;
+    }
+
+    /**
+     * @return the number of pooled sessions.
+     */
+    public int size() {
+        int size = 0;
+        synchronized (sessions) {
+            for (List<PooledSession> keySessions : sessions.values()) {
+                size += keySessions.size();
+            }
+        }
+        return size;
+    }
+
+    private void remove(PooledSession pooledSession) {
+        pooledSession.removed = true;
+        List<PooledSession> keySessions = sessions.get(pooledSession.key);
+        if (keySessions != null) {
+            keySessions.remove(pooledSession);
+            if (keySessions.isEmpty()) {
+                sessions.remove(pooledSession.key);
+            }
+        }
+    }
+
+    private void startEvictor() {
+        if (evictor == null) {
+            evictor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "ssh-session-pool-evictor");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+            long period = Math.max(idleTimeout, 1);
+            evictor.scheduleWithFixedDelay(new Runnable() {
+                @Override
+                public void run() {
+                    evictIdle();
+                }
+            }, period, period, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static class PooledSession {
+        private final String key;
+        // null while the session is being opened
+        private Session session;
+        private SSHException failure;
+        private int activeChannels;
+        private boolean removed;
+        private long lastUsed = System.currentTimeMillis();
+
+        private PooledSession(String key, Session session) {
+            this.key = key;
+            this.session = session;
+        }
+    }
+
+    /**
+     * A session leased from the pool.
+     */
+    public static class Lease {
+        private final PooledSession pooledSession;
+        private boolean released;
+
+        private Lease(PooledSession pooledSession) {
+            this.pooledSession = pooledSession;
+        }
+
+        public Session getSession() {
+            return pooledSession.session;
+        }
+    }
+}
@@ -0,0 +1,373 @@
+/*
+ * (c) Copyright 2017 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cloudslang.content.ssh.utils;
+
+import com.jcraft.jsch.JSchException;
+import com.jcraft.jsch.Session;
+import io.cloudslang.content.ssh.exceptions.SSHException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registry of named port forwards, shared by all the flows that run on a worker.
+ * <p>
+ * A tunnel is either a local forward, which sends the connections of a local port to one remote host and port, or a
+ * dynamic forward, a local SOCKS5 proxy that reaches any remote host. Tunnels run over sessions leased from the
+ * {@link SSHSessionPool} and are reference counted: opening a tunnel that is already open only adds a reference, so
+ * the flows that reach a database or an HTTP endpoint through a bastion pay for the handshake and the forward once. A
+ * tunnel whose session was lost is opened again by the next request. Tunnels without references are closed after they
+ * have been idle for the idle timeout.
+ */
+public class SSHTunnelRegistry {
+    public static final long DEFAULT_IDLE_TIMEOUT = 600000; //10 minutes
+
+    private static final SSHTunnelRegistry INSTANCE = new SSHTunnelRegistry(SSHSessionPool.getInstance(), DEFAULT_IDLE_TIMEOUT);
+
+    private final Map<String, Tunnel> tunnels = new HashMap<>();
+    private final SSHSessionPool sessionPool;
+    private final long idleTimeout;
+    private ScheduledExecutorService evictor;
+
+    public SSHTunnelRegistry(SSHSessionPool sessionPool, long idleTimeout) {
+        this.sessionPool = sessionPool;
+        this.idleTimeout = idleTimeout;
+    }
+
+    public static SSHTunnelRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    public enum Type {
+        LOCAL, DYNAMIC
+    }
+
+    /**
+     * Adds a reference to the tunnel of the given name, opening it when it is not open or no longer healthy.
+     *
+     * @param name                  The name of the tunnel.
+     * @param type                  The type of the tunnel.
+     * @param bindAddress           The local address the tunnel listens on.
+     * @param localPort             The local port, or 0 to use any free port.
+     * @param remoteHost            The host the connections are forwarded to, not used by a dynamic tunnel.
+     * @param remotePort            The port the connections are forwarded to, not used by a dynamic tunnel.
+     * @param poolKey               The key of the session in the pool, see {@link SSHSessionPool#getKey(String, int, String, String...)}.
+     * @param maxChannelsPerSession The maximum number of concurrent leases of a pooled session.
+     * @param connectTimeout        The timeout of the channels of a dynamic tunnel.
+     * @param factory               Opens a new session when the pool has none.
+     * @return the tunnel.
+     * @throws SSHException if the tunnel could not be opened or another tunnel with the same name is open.
+     */
+    public Tunnel open(String name, Type type, String bindAddress, int localPort, String remoteHost, int remotePort,
+                       String poolKey, int maxChannelsPerSession, int connectTimeout, SSHSessionPool.SessionFactory factory)
+            throws SSHException {
+        Tunnel broken = null;
+        synchronized (tunnels) {
+            startEvictor();
+            Tunnel tunnel = tunnels.get(name);
+            if (tunnel != null) {
+                checkDefinition(tunnel, type, bindAddress, localPort, remoteHost, remotePort, poolKey);
+                if (tunnel.isHealthy()) {
+                    tunnel.references++;
+                    return tunnel;
+                }
+                tunnels.remove(name);
+                broken = tunnel;
+            }
+        }
+        if (broken != null) {
+            // the users of the broken tunnel move to the new one
+            broken.close(false);
+        }
+
+        // the session and the forward are opened outside of the lock, so they do not delay the other tunnels
+        SSHSessionPool.Lease lease = sessionPool.acquire(poolKey, maxChannelsPerSession, factory);
+        Tunnel tunnel = new Tunnel(name, type, bindAddress, remoteHost, remotePort, poolKey, lease);
+        try {
+            tunnel.forward(localPort, connectTimeout);
+        } catch (JSchException | IOException e) {
+            sessionPool.release(lease);
+            synchronized (tunnels) {
+                // the same tunnel may have been opened at the same time, with the same local port
+                Tunnel opened = tunnels.get(name);
+                if (opened != null && opened.isHealthy()) {
+                    checkDefinition(opened, type, bindAddress, localPort, remoteHost, remotePort, poolKey);
+                    opened.references++;
+                    return opened;
+                }
+            }
+            throw new SSHException(e);
+        }
+        Tunnel replaced;
+        synchronized (tunnels) {
+            Tunnel opened = tunnels.get(name);
+            if (opened != null && opened.isHealthy()) {
+                // the same tunnel was opened at the same time, so the new one is not needed
+                replaced = tunnel;
+                tunnel = isSameDefinition(opened, type, bindAddress, localPort, remoteHost, remotePort, poolKey) ? opened : null;
+                if (tunnel != null) {
+                    opened.references++;
+                }
+            } else {
+                tunnel.references = 1 + (broken == null ? 0 : broken.references);
+                tunnels.put(name, tunnel);
+                replaced = opened;
+            }
+        }
+        if (replaced != null) {
+            replaced.close(replaced.isHealthy());
+        }
+        if (tunnel == null) {
+            throw new SSHException("The " + name + " tunnel is already open with a different definition.");
+        }
+        return tunnel;
+    }
+
+    /**
+     * @param name The name of the tunnel.
+     * @return the open tunnel of the given name, or null.
+     */
+    public Tunnel get(String name) {
+        synchronized (tunnels) {
+            return tunnels.get(name);
+        }
+    }
+
+    /**
+     * Removes a reference from a tunnel, a tunnel without references stays open until it has been idle for the idle
+     * timeout.
+     *
+     * @param name The name of the tunnel.
+     * @return the references left, or -1 if there is no tunnel with this name.
+     */
+    public int release(String name) {
+        synchronized (tunnels) {
+            Tunnel tunnel = tunnels.get(name);
+            if (tunnel == null) {
+                return -1;
+            }
+            if (tunnel.references > 0) {
+                tunnel.references--;
+            }
+            tunnel.lastUsed = System.currentTimeMillis();
+            return tunnel.references;
+        }
+    }
+
+    /**
+     * Closes a tunnel, whatever its references.
+     *
+     * @param name The name of the tunnel.
+     * @return true if the tunnel was open.
+     */
+    public boolean close(String name) {
+        Tunnel tunnel;
+        synchronized (tunnels) {
+            tunnel = tunnels.remove(name);
+        }
+        if (tunnel == null) {
+            return false;
+        }
+        tunnel.close(tunnel.isHealthy());
+        return true;
+    }
+
+    /**
+     * Closes the tunnels that have no reference and were not used for the idle timeout or whose session was lost. A
+     * referenced tunnel whose session was lost is opened again by the next request for it.
+     *
+     * @return the number of closed tunnels.
+     */
+    public int evictIdle() {
+        List<Tunnel> evicted = new ArrayList<>();
+        long idleSince = System.currentTimeMillis() - idleTimeout;
+        synchronized (tunnels) {
+            for (Iterator<Tunnel> iterator = tunnels.values().iterator(); iterator.hasNext(); ) {
+                Tunnel tunnel = iterator.next();
+                if (tunnel.references == 0 && (tunnel.lastUsed < idleSince || !tunnel.isHealthy())) {
+                    iterator.remove();
+                    evicted.add(tunnel);
+                }
+            }
+        }
+        for (Tunnel tunnel : evicted) {
+            tunnel.close(tunnel.isHealthy());
+        }
+        return evicted.size();
+    }
+
+    /**
+     * Closes all the tunnels.
+     */
+    public void clear() {
+        List<Tunnel> closed;
+        synchronized (tunnels) {
+            closed = new ArrayList<>(tunnels.values());
+            tunnels.clear();
+            if (evictor != null) {
+                evictor.shutdownNow();
+                evictor = null;
+            }
+        }
+        for (Tunnel tunnel : closed) {
+            tunnel.close(tunnel.isHealthy());
+        }
+    }
+
+    /**
+     * @return the number of open tunnels.
+     */
+    public int size() {
+        synchronized (tunnels) {
+            return tunnels.size();
+        }
+    }
+
+    private static void checkDefinition(Tunnel tunnel, Type type, String bindAddress, int localPort, String remoteHost,
+                                        int remotePort, String poolKey) throws SSHException {
+        if (!isSameDefinition(tunnel, type, bindAddress, localPort, remoteHost, remotePort, poolKey)) {
+            throw new SSHException("The " + tunnel.name + " tunnel is already open with a different definition.");
+        }
+    }
+
+    private static boolean isSameDefinition(Tunnel tunnel, Type type, String bindAddress, int localPort, String remoteHost,
+                                            int remotePort, String poolKey) {
+        boolean sameTarget = type == Type.DYNAMIC || tunnel.remoteHost.equals(remoteHost) && tunnel.remotePort == remotePort;
+        return tunnel.type == type && tunnel.bindAddress.equals(bindAddress) && tunnel.poolKey.equals(poolKey) &&
+                (localPort == 0 || tunnel.localPort == localPort) && sameTarget;
+    }
+
+    private void startEvictor() {
+        if (evictor == null) {
+            evictor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "ssh-tunnel-registry-evictor");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+            // the health of the tunnels is checked more often than they expire
+            long period = Math.max(Math.min(idleTimeout, SSHSessionPool.DEFAULT_KEEP_ALIVE_INTERVAL), 1);
+            evictor.scheduleWithFixedDelay(new Runnable() {
+                @Override
+                public void run() {
+                    evictIdle();
+                }
+            }, period, period, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * A port forward over a pooled session.
+     */
+    public class Tunnel {
+        private final String name;
+        private final Type type;
+        private final String bindAddress;
+        private final String remoteHost;
+        private final int remotePort;
+        private final String poolKey;
+        private final SSHSessionPool.Lease lease;
+        private int localPort;
+        private SocksProxy socksProxy;
+        private int references;
+        private long lastUsed = System.currentTimeMillis();
+
+        private Tunnel(String name, Type type, String bindAddress, String remoteHost, int remotePort, String poolKey,
+                       SSHSessionPool.Lease lease) {
+            this.name = name;
+            this.type = type;
+            this.bindAddress = bindAddress;
+            this.remoteHost = remoteHost;
+            this.remotePort = remotePort;
+            this.poolKey = poolKey;
+            this.lease = lease;
+        }
+
+        private void forward(int port, int connectTimeout) throws JSchException, IOException {
+            Session session = lease.getSession();
+            if (type == Type.LOCAL) {
+                localPort = session.setPortForwardingL(bindAddress, port, remoteHost, remotePort);
+            } else {
+                socksProxy = new SocksProxy(session, bindAddress, port, connectTimeout);
+                localPort = socksProxy.getLocalPort();
+            }
+        }
+
+        /**
+         * @return true if the session is connected and the forward is listening.
+         */
+        public boolean isHealthy() {
+            Session session = lease.getSession();
+            if (!session.isConnected()) {
+                return false;
+            }
+            if (type == Type.DYNAMIC) {
+                return socksProxy.isOpen();
+            }
+            try {
+                return Arrays.asList(session.getPortForwardingL()).contains(localPort + ":" + remoteHost + ":" + remotePort);
+            } catch (JSchException e) {
+                return false;
+            }
+        }
+
+        private void close(boolean healthy) {
+            if (type == Type.DYNAMIC) {
+                socksProxy.close();
+            } else {
+                try {
+                    lease.getSession().delPortForwardingL(bindAddress, localPort);
+                } catch (JSchException ignore) {
+                }
+            }
+            // a healthy session goes back to the pool, so the next tunnel or command to the same host reuses it
+            if (healthy) {
+                sessionPool.release(lease);
+            } else {
+                sessionPool.invalidate(lease);
+            }
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Type getType() {
+            return type;
+        }
+
+        public int getLocalPort() {
+            return localPort;
+        }
+
+        public int getReferences() {
+            synchronized (tunnels) {
+                return references;
+            }
+        }
+    }
+}
@@ -0,0 +1,239 @@
+/*
+ * (c) Copyright 2017 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cloudslang.content.ssh.utils;
+
+import com.jcraft.jsch.Channel;
+import com.jcraft.jsch.ChannelDirectTCPIP;
+import com.jcraft.jsch.JSchException;
+import com.jcraft.jsch.Session;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.Charset;
+
+/**
+ * A local SOCKS5 proxy that opens every connection as a direct-tcpip channel of an SSH session, the same as the
+ * dynamic forward (-D) of OpenSSH. Only the CONNECT command without authentication is supported.
+ */
+class SocksProxy implements Runnable {
+    private static final byte VERSION = 5;
+    private static final byte NO_AUTHENTICATION = 0;
+    private static final byte NO_ACCEPTABLE_METHOD = (byte) 0xFF;
+    private static final byte CONNECT = 1;
+    private static final byte IPV4 = 1;
+    private static final byte DOMAIN_NAME = 3;
+    private static final byte IPV6 = 4;
+    static final byte SUCCEEDED = 0;
+    static final byte GENERAL_FAILURE = 1;
+    static final byte COMMAND_NOT_SUPPORTED = 7;
+    static final byte ADDRESS_TYPE_NOT_SUPPORTED = 8;
+    private static final Charset DOMAIN_ENCODING = Charset.forName("US-ASCII");
+
+    private final Session session;
+    private final ServerSocket serverSocket;
+    private final int connectTimeout;
+    private volatile boolean closed;
+
+    SocksProxy(Session session, String bindAddress, int port, int connectTimeout) throws IOException {
+        this.session = session;
+        this.connectTimeout = connectTimeout;
+        this.serverSocket = new ServerSocket();
+        serverSocket.bind(new InetSocketAddress(InetAddress.getByName(bindAddress), port));
+        Thread acceptor = new Thread(this, "ssh-tunnel-socks-" + serverSocket.getLocalPort());
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    int getLocalPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    boolean isOpen() {
+        return !closed && !serverSocket.isClosed();
+    }
+
+    void close() {
+        closed = true;
+        try {
+            serverSocket.close();
+        } catch (IOException ignore) {
+        }
+    }
+
+    @Override
+    public void run() {
+        while (isOpen()) {
+            final Socket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch (IOException e) {
+                // the server socket was closed
+                return;
+            }
+            Thread handler = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    handle(socket);
+                }
+            }, "ssh-tunnel-socks-connection");
+            handler.setDaemon(true);
+            handler.start();
+        }
+    }
+
+    private void handle(Socket socket) {
+        boolean connected = false;
+        try {
+            DataInputStream in = new DataInputStream(socket.getInputStream());
+            OutputStream out = socket.getOutputStream();
+            if (!negotiate(in, out)) {
+                return;
+            }
+            String host;
+            if (in.readByte() != VERSION) {
+                return;
+            }
+            byte command = in.readByte();
+            in.readByte();
+            byte addressType = in.readByte();
+            if (addressType == IPV4) {
+                byte[] address = new byte[4];
+                in.readFully(address);
+                host = InetAddress.getByAddress(address).getHostAddress();
+            } else if (addressType == IPV6) {
+                byte[] address = new byte[16];
+                in.readFully(address);
+                host = InetAddress.getByAddress(address).getHostAddress();
+            } else if (addressType == DOMAIN_NAME) {
+                byte[] name = new byte[in.readUnsignedByte()];
+                in.readFully(name);
+                host = new String(name, DOMAIN_ENCODING);
+            } else {
+                reply(out, ADDRESS_TYPE_NOT_SUPPORTED);
+                return;
+            }
+            int port = in.readUnsignedShort();
+            if (command != CONNECT) {
+                reply(out, COMMAND_NOT_SUPPORTED);
+                return;
+            }
+
+            // the data of the remote host waits for the reply, which must be the first bytes the client reads
+            PendingOutputStream pendingOut = new PendingOutputStream(out);
+            Channel channel;
+            try {
+                channel = session.getStreamForwarder(host, port);
+                ((ChannelDirectTCPIP) channel).setInputStream(socket.getInputStream());
+                ((ChannelDirectTCPIP) channel).setOutputStream(pendingOut);
+                channel.connect(connectTimeout);
+            } catch (JSchException e) {
+                reply(out, GENERAL_FAILURE);
+                return;
+            }
+            pendingOut.open(replyBytes(SUCCEEDED));
+            connected = true;
+        } catch (IOException ignore) {
+        } finally {
+            if (!connected) {
+                try {
+                    socket.close();
+                } catch (IOException ignore) {
+                }
+            }
+        }
+    }
+
+    private static boolean negotiate(DataInputStream in, OutputStream out) throws IOException {
+        if (in.readByte() != VERSION) {
+            return false;
+        }
+        byte[] methods = new byte[in.readUnsignedByte()];
+        in.readFully(methods);
+        for (byte method : methods) {
+            if (method == NO_AUTHENTICATION) {
+                out.write(new byte[]{VERSION, NO_AUTHENTICATION});
+                out.flush();
+                return true;
+            }
+        }
+        out.write(new byte[]{VERSION, NO_ACCEPTABLE_METHOD});
+        out.flush();
+        return false;
+    }
+
+    private static void reply(OutputStream out, byte status) throws IOException {
+        out.write(replyBytes(status));
+        out.flush();
+    }
+
+    // the bound address is not known for a forwarded channel, so it is sent as 0.0.0.0:0
+    private static byte[] replyBytes(byte status) {
+        return new byte[]{VERSION, status, 0, IPV4, 0, 0, 0, 0, 0, 0};
+    }
+
+    // holds the bytes received before the reply was sent
+    private static class PendingOutputStream extends OutputStream {
+        private final OutputStream out;
+        private ByteArrayOutputStream pending = new ByteArrayOutputStream();
+        private boolean closed;
+
+        private PendingOutputStream(OutputStream out) {
+            this.out = out;
+        }
+
+        private synchronized void open(byte[] reply) throws IOException {
+            if (!closed) {
+                out.write(reply);
+                pending.writeTo(out);
+                out.flush();
+            }
+            pending = null;
+        }
+
+        @Override
+        public synchronized void write(int value) throws IOException {
+            write(new byte[]{(byte) value}, 0, 1);
+        }
+
+        @Override
+        public synchronized void write(byte[] bytes, int offset, int length) throws IOException {
+            if (pending != null) {
+                pending.write(bytes, offset, length);
+            } else {
+                out.write(bytes, offset, length);
+            }
+        }
+
+        @Override
+        public synchronized void flush() throws IOException {
+            if (pending == null) {
+                out.flush();
+            }
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            closed = true;
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * (c) Copyright 2017 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cloudslang.content.ssh.services.actions;
+
+import io.cloudslang.content.constants.OutputNames;
+import io.cloudslang.content.constants.ReturnCodes;
+import io.cloudslang.content.ssh.entities.SSHShellInputs;
+import io.cloudslang.content.ssh.utils.Constants;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ScoreSSHFanOutCommandTest {
+
+    private SSHShellInputs getInputs() {
+        SSHShellInputs inputs = new SSHShellInputs();
+        inputs.setPort("2222");
+        inputs.setUsername("user");
+        inputs.setPassword("password");
+        inputs.setPrivateKeyData("key");
+        inputs.setCommand("ls");
+        inputs.setConnectTimeout("1000");
+        inputs.setUseSessionPool("false");
+        return inputs;
+    }
+
+    @Test
+    public void testParseHosts() {
+        List<SSHShellInputs> hosts = ScoreSSHFanOutCommand.parseHosts(getInputs(),
+                "host1, admin@host2:22 ,,host3;/keys/id_rsa, root@[::1]:2022, fe80::1");
+
+        assertEquals(5, hosts.size());
+        assertEquals("host1", hosts.get(0).getHost());
+        assertEquals("2222", hosts.get(0).getPort());
+        assertEquals("user", hosts.get(0).getUsername());
+        assertEquals("key", hosts.get(0).getPrivateKeyData());
+
+        assertEquals("host2", hosts.get(1).getHost());
+        assertEquals("22", hosts.get(1).getPort());
+        assertEquals("admin", hosts.get(1).getUsername());
+
+        assertEquals("host3", hosts.get(2).getHost());
+        assertEquals("/keys/id_rsa", hosts.get(2).getPrivateKeyFile());
+        assertNull(hosts.get(2).getPrivateKeyData());
+
+        assertEquals("::1", hosts.get(3).getHost());
+        assertEquals("2022", hosts.get(3).getPort());
+        assertEquals("root", hosts.get(3).getUsername());
+
+        assertEquals("fe80::1", hosts.get(4).getHost());
+        assertEquals("2222", hosts.get(4).getPort());
+    }
+
+    @Test
+    public void testParseHostsWithPasswords() {
+        List<SSHShellInputs> hosts = ScoreSSHFanOutCommand.parseHosts(getInputs(), "host1,,host2,host3", "secret1,,,secret3");
+
+        assertEquals(3, hosts.size());
+        assertEquals("secret1", hosts.get(0).getPassword());
+        assertEquals("password", hosts.get(1).getPassword());
+        assertEquals("secret3", hosts.get(2).getPassword());
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testParseHostsWithTooManyPasswords() {
+        ScoreSSHFanOutCommand.parseHosts(getInputs(), "host1", "secret1,secret2");
+    }
+
+    @Test
+    public void testParseHostsCopiesTheInputs() {
+        List<SSHShellInputs> hosts = ScoreSSHFanOutCommand.parseHosts(getInputs(), "host1,host2");
+
+        assertEquals("ls", hosts.get(1).getCommand());
+        assertEquals(1000, hosts.get(1).getConnectTimeout());
+        assertFalse(hosts.get(1).isUseSessionPool());
+        assertTrue(Boolean.valueOf(hosts.get(1).getCloseSession()));
+        assertTrue(hosts.get(0).getSshGlobalSessionObject() != hosts.get(1).getSshGlobalSessionObject());
+    }
+
+    @Test
+    public void testNoHosts() {
+        Map<String, String> result = new ScoreSSHFanOutCommand().execute(getInputs(), " , ", null);
+
+        assertEquals(ReturnCodes.FAILURE, result.get(OutputNames.RETURN_CODE));
+        assertEquals(ScoreSSHFanOutCommand.NO_HOSTS_MESSAGE, result.get(OutputNames.RETURN_RESULT));
+    }
+
+    @Test
+    public void testNoCommand() {
+        SSHShellInputs inputs = getInputs();
+        inputs.setCommand("");
+        Map<String, String> result = new ScoreSSHFanOutCommand().execute(inputs, "host1", null);
+
+        assertEquals(ReturnCodes.FAILURE, result.get(OutputNames.RETURN_CODE));
+        assertEquals(SSHShellAbstract.COMMAND_IS_NOT_SPECIFIED_MESSAGE, result.get(OutputNames.RETURN_RESULT));
+    }
+
+    @Test
+    public void testUnreachableHostsAreReportedPerHost() {
+        Map<String, String> result = new ScoreSSHFanOutCommand().execute(getInputs(), "127.0.0.1:1,localhost:1", "1");
+
+        assertEquals(ReturnCodes.FAILURE, result.get(OutputNames.RETURN_CODE));
+        assertEquals("0", result.get(Constants.SUCCESS_COUNT));
+        assertEquals("2", result.get(Constants.FAILURE_COUNT));
+        String returnResult = result.get(OutputNames.RETURN_RESULT);
+        assertTrue(returnResult.startsWith("[{\"host\":\"127.0.0.1\",\"exitCode\":-1,\"stdout\":\"\",\"stderr\":\""));
+        assertTrue(returnResult.contains("},{\"host\":\"localhost\",\"exitCode\":-1,"));
+        assertTrue(returnResult.endsWith("}]"));
+    }
+}
@@ -23,7 +23,6 @@ import io.cloudslang.content.ssh.entities.KeyFile;
 import io.cloudslang.content.ssh.entities.KnownHostsFile;
 import io.cloudslang.content.ssh.exceptions.SSHException;
 import io.cloudslang.content.ssh.services.SSHService;
-import org.apache.commons.io.IOUtils;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -35,6 +34,8 @@ import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -42,16 +43,17 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
-import static org.powermock.api.mockito.PowerMockito.mockStatic;
 
 /**
  * @author ioanvranauhp
  * @since 1.0.128-SNAPSHOT
  */
 @RunWith(PowerMockRunner.class)
-@PrepareForTest({SSHServiceImpl.class, IOUtils.class})
+@PrepareForTest({SSHServiceImpl.class})
 public class SSHServiceImplTest {
 
     public static final boolean AGENT_FORWARDING_FALSE = false;
@@ -157,11 +159,36 @@ public class SSHServiceImplTest {
         when(channelShellMock.getInputStream()).thenReturn(inputStreamMock);
         when(channelShellMock.getOutputStream()).thenReturn(outputStreamMock);
         when(inputStreamMock.available()).thenReturn(1).thenReturn(0);
-        mockStatic(IOUtils.class);
-        when(IOUtils.toString(inputStreamMock, "UTF-8")).thenReturn("");
+        when(inputStreamMock.read(any(byte[].class))).thenReturn(-1);
         return new SSHServiceImpl(sessionMock, channelExecMock);
     }
 
+    @Test
+    public void testRunShellReturnsAtTheEndMarker() throws Exception {
+        final ByteArrayOutputStream shellIn = new ByteArrayOutputStream();
+        when(channelShellMock.getOutputStream()).thenReturn(shellIn);
+        when(channelShellMock.getInputStream()).thenReturn(new InputStream() {
+            private InputStream output;
+
+            @Override
+            public int read() throws IOException {
+                if (output == null) {
+                    // answers the end marker command like a shell would
+                    String marker = shellIn.toString("UTF-8").replaceAll("(?s).*echo \"(\\w+)\"\"(\\w+):\\$\\?\".*", "$1$2");
+                    output = new ByteArrayInputStream(("ls\r\nfile1\r\n" + marker + ":2\r\n").getBytes("UTF-8"));
+                }
+                return output.read();
+            }
+        });
+        SSHService sshService = new SSHServiceImpl(sessionMock, channelExecMock);
+        long start = System.currentTimeMillis();
+        CommandResult commandResult = sshService.runShell("ls", "UTF-8", true, CONNECT_TIMEOUT, 60000, AGENT_FORWARDING_FALSE);
+        assertTrue(System.currentTimeMillis() - start < 10000);
+        assertEquals(2, commandResult.getExitCode());
+        assertEquals("ls\r\nfile1\r\n", commandResult.getStandardOutput());
+        assertTrue(shellIn.toString("UTF-8").endsWith(SSHServiceImpl.EXIT_COMMAND + System.lineSeparator()));
+    }
+
     @Test
     public void testRunShellCommand2() throws Exception {
         SSHService sshService = prepareRunShellCommandTest();
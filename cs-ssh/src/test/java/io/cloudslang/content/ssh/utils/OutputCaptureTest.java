@@ -0,0 +1,114 @@
+/*
+ * (c) Copyright 2017 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cloudslang.content.ssh.utils;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class OutputCaptureTest {
+
+    private static final String OUTPUT = "first line\nsecond line\nthird line";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static void write(OutputCapture capture, String output, int chunkSize) throws Exception {
+        byte[] bytes = output.getBytes(StandardCharsets.UTF_8);
+        for (int offset = 0; offset < bytes.length; offset += chunkSize) {
+            capture.write(bytes, offset, Math.min(chunkSize, bytes.length - offset));
+        }
+    }
+
+    @Test
+    public void testKeepsAllOfTheOutput() throws Exception {
+        OutputCapture capture = new OutputCapture(null, 0, -1, false, null);
+        write(capture, OUTPUT, 5);
+
+        assertEquals(OUTPUT, capture.toString("UTF-8"));
+        assertEquals(OUTPUT.length(), capture.getSize());
+        assertFalse(capture.isTruncated());
+        assertEquals(-1, capture.getLineCount());
+        assertNull(capture.getDigest());
+    }
+
+    @Test
+    public void testKeepsTheHeadAndTheTail() throws Exception {
+        for (int chunkSize = 1; chunkSize <= OUTPUT.length(); chunkSize++) {
+            OutputCapture capture = new OutputCapture(null, 0, 11, false, null);
+            write(capture, OUTPUT, chunkSize);
+
+            assertTrue(capture.isTruncated());
+            assertEquals("first \n... " + (OUTPUT.length() - 11) + " bytes skipped ...\n line", capture.toString("UTF-8"));
+        }
+    }
+
+    @Test
+    public void testOutputShorterThanTheMaximumSize() throws Exception {
+        OutputCapture capture = new OutputCapture(null, 0, OUTPUT.length(), false, null);
+        write(capture, OUTPUT, 7);
+
+        assertFalse(capture.isTruncated());
+        assertEquals(OUTPUT, capture.toString("UTF-8"));
+    }
+
+    @Test
+    public void testCountsTheLines() throws Exception {
+        OutputCapture capture = new OutputCapture(null, 0, 0, true, null);
+        write(capture, OUTPUT, 4);
+        assertEquals(3, capture.getLineCount());
+
+        capture.write('\n');
+        assertEquals(3, capture.getLineCount());
+        assertEquals("\n... " + (OUTPUT.length() + 1) + " bytes skipped ...\n", capture.toString("UTF-8"));
+    }
+
+    @Test
+    public void testDigest() throws Exception {
+        OutputCapture capture = new OutputCapture(null, 0, 0, false, "MD5");
+        write(capture, "abc", 1);
+
+        assertEquals("900150983cd24fb0d6963f7d28e17f72", capture.getDigest());
+        assertEquals("900150983cd24fb0d6963f7d28e17f72", capture.getDigest());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidDigestAlgorithm() throws Exception {
+        new OutputCapture(null, 0, 0, false, "invalid");
+    }
+
+    @Test
+    public void testWritesTheWholeOutputToTheFile() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("stdout.txt");
+        OutputCapture capture = new OutputCapture(file, 8, 4, false, null);
+        write(capture, OUTPUT, 3);
+        capture.close();
+        capture.close();
+
+        assertArrayEquals(OUTPUT.getBytes(StandardCharsets.UTF_8), Files.readAllBytes(file));
+        assertEquals("fi\n... " + (OUTPUT.length() - 4) + " bytes skipped ...\nne", capture.toString("UTF-8"));
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ * (c) Copyright 2017 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cloudslang.content.ssh.utils;
+
+import com.jcraft.jsch.Session;
+import io.cloudslang.content.ssh.exceptions.SSHException;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class SSHSessionPoolTest {
+
+    private static final String KEY = SSHSessionPool.getKey("host", 22, "user", "password");
+
+    private final SSHSessionPool pool = new SSHSessionPool(60000, 1000);
+
+    @After
+    public void tearDown() {
+        pool.clear();
+    }
+
+    @Test
+    public void testSessionIsSharedUpToTheChannelLimit() throws Exception {
+        CountingFactory factory = new CountingFactory();
+        SSHSessionPool.Lease first = pool.acquire(KEY, 2, factory);
+        SSHSessionPool.Lease second = pool.acquire(KEY, 2, factory);
+        SSHSessionPool.Lease third = pool.acquire(KEY, 2, factory);
+
+        assertSame(first.getSession(), second.getSession());
+        assertNotSame(first.getSession(), third.getSession());
+        assertEquals(2, factory.opened);
+        assertEquals(1, pool.getHandshakesAvoided());
+        assertEquals(3, pool.getActiveChannels());
+
+        pool.release(second);
+        pool.release(second);
+        assertEquals(2, pool.getActiveChannels());
+        assertSame(first.getSession(), pool.acquire(KEY, 2, factory).getSession());
+        assertEquals(2, factory.opened);
+        verify(first.getSession()).setServerAliveInterval(1000);
+    }
+
+    @Test
+    public void testIdleAndBrokenSessionsAreEvicted() throws Exception {
+        SSHSessionPool shortLivedPool = new SSHSessionPool(20, 1000);
+        CountingFactory factory = new CountingFactory();
+        SSHSessionPool.Lease idle = shortLivedPool.acquire(KEY, 10, factory);
+        SSHSessionPool.Lease busy = shortLivedPool.acquire(KEY, 1, factory);
+        shortLivedPool.release(idle);
+        Thread.sleep(200);
+        shortLivedPool.evictIdle();
+        verify(idle.getSession()).disconnect();
+        assertEquals(1, shortLivedPool.size());
+        assertEquals(1, shortLivedPool.getActiveChannels());
+        shortLivedPool.release(busy);
+
+        SSHSessionPool.Lease broken = pool.acquire(KEY, 10, factory);
+        pool.invalidate(broken);
+        assertEquals(0, pool.size());
+        assertEquals(0, pool.getActiveChannels());
+        shortLivedPool.clear();
+    }
+
+    @Test
+    public void testConcurrentCallsToANewHostShareOneHandshake() throws Exception {
+        final CountDownLatch opening = new CountDownLatch(1);
+        final CountDownLatch proceed = new CountDownLatch(1);
+        final CountingFactory factory = new CountingFactory() {
+            @Override
+            public Session openSession() throws SSHException {
+                opening.countDown();
+                try {
+                    proceed.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    throw new SSHException(e);
+                }
+                return super.openSession();
+            }
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(5);
+        try {
+            List<Future<SSHSessionPool.Lease>> leases = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                leases.add(executor.submit(new Callable<SSHSessionPool.Lease>() {
+                    @Override
+                    public SSHSessionPool.Lease call() throws Exception {
+                        return pool.acquire(KEY, 10, factory);
+                    }
+                }));
+            }
+            opening.await(5, TimeUnit.SECONDS);
+            // lets the other callers find the session being opened
+            Thread.sleep(200);
+            proceed.countDown();
+
+            Session session = leases.get(0).get(5, TimeUnit.SECONDS).getSession();
+            for (Future<SSHSessionPool.Lease> lease : leases) {
+                assertSame(session, lease.get(5, TimeUnit.SECONDS).getSession());
+            }
+            assertEquals(1, pool.getHandshakes());
+            assertEquals(4, pool.getHits());
+            assertEquals(5, pool.getActiveChannels());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testFailedOpeningIsReportedToWaitingCallers() throws Exception {
+        final CountDownLatch opening = new CountDownLatch(1);
+        final CountDownLatch proceed = new CountDownLatch(1);
+        final SSHSessionPool.SessionFactory failingFactory = new SSHSessionPool.SessionFactory() {
+            @Override
+            public Session openSession() throws SSHException {
+                opening.countDown();
+                try {
+                    proceed.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    throw new SSHException(e);
+                }
+                throw new SSHException("Auth fail");
+            }
+        };
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<SSHSessionPool.Lease> first = executor.submit(new Callable<SSHSessionPool.Lease>() {
+                @Override
+                public SSHSessionPool.Lease call() throws Exception {
+                    return pool.acquire(KEY, 10, failingFactory);
+                }
+            });
+            opening.await(5, TimeUnit.SECONDS);
+            new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        Thread.sleep(200);
+                    } catch (InterruptedException ignored) {
+                    }
+                    proceed.countDown();
+                }
+            }.start();
+            try {
+                pool.acquire(KEY, 10, new CountingFactory());
+                fail("The caller waiting for the failed session should fail");
+            } catch (SSHException e) {
+                assertEquals("Auth fail", e.getMessage());
+            }
+            try {
+                first.get(5, TimeUnit.SECONDS);
+                fail("The caller opening the session should fail");
+            } catch (ExecutionException e) {
+                assertEquals("Auth fail", e.getCause().getMessage());
+            }
+            assertEquals(0, pool.size());
+            assertEquals(0, pool.getHandshakes());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testKeysSeparateCredentials() {
+        assertEquals(KEY, SSHSessionPool.getKey("host", 22, "user", "password"));
+        assertNotEquals(KEY, SSHSessionPool.getKey("host", 22, "user", "other"));
+        assertNotEquals(SSHSessionPool.getKey("host", 22, "user", "ab", "c"), SSHSessionPool.getKey("host", 22, "user", "a", "bc"));
+    }
+
+    private static class CountingFactory implements SSHSessionPool.SessionFactory {
+        private int opened;
+
+        @Override
+        public Session openSession() throws SSHException {
+            opened++;
+            Session session = mock(Session.class);
+            when(session.isConnected()).thenReturn(true);
+            return session;
+        }
+    }
+}
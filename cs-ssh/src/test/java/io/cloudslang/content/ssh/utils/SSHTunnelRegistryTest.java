@@ -0,0 +1,175 @@
+/*
+ * (c) Copyright 2017 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cloudslang.content.ssh.utils;
+
+import com.jcraft.jsch.JSchException;
+import com.jcraft.jsch.Session;
+import io.cloudslang.content.ssh.exceptions.SSHException;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.DataInputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class SSHTunnelRegistryTest {
+
+    private static final String KEY = SSHSessionPool.getKey("bastion", 22, "user", "password");
+    private static final String LOCALHOST = "127.0.0.1";
+
+    private final SSHSessionPool pool = new SSHSessionPool(60000, 1000);
+    private final SSHTunnelRegistry registry = new SSHTunnelRegistry(pool, 60000);
+    private final ForwardingFactory factory = new ForwardingFactory();
+
+    @After
+    public void tearDown() {
+        registry.clear();
+        pool.clear();
+    }
+
+    private SSHTunnelRegistry.Tunnel openLocal(String name) throws SSHException {
+        return registry.open(name, SSHTunnelRegistry.Type.LOCAL, LOCALHOST, 0, "db", 5432, KEY, 10, 1000, factory);
+    }
+
+    @Test
+    public void testOpenTunnelIsReferenced() throws Exception {
+        SSHTunnelRegistry.Tunnel first = openLocal("db");
+        SSHTunnelRegistry.Tunnel second = openLocal("db");
+
+        assertSame(first, second);
+        assertEquals(40000, first.getLocalPort());
+        assertEquals(2, first.getReferences());
+        assertEquals(1, factory.opened);
+
+        assertEquals(1, registry.release("db"));
+        assertEquals(0, registry.release("db"));
+        assertEquals(0, registry.release("db"));
+        assertEquals(-1, registry.release("other"));
+        assertEquals(1, registry.size());
+    }
+
+    @Test
+    public void testTunnelsShareTheSession() throws Exception {
+        SSHTunnelRegistry.Tunnel db = openLocal("db");
+        SSHTunnelRegistry.Tunnel other = openLocal("other");
+
+        assertNotSame(db, other);
+        assertEquals(1, factory.opened);
+        assertEquals(2, pool.getActiveChannels());
+    }
+
+    @Test(expected = SSHException.class)
+    public void testSameNameWithAnotherDefinition() throws Exception {
+        openLocal("db");
+        registry.open("db", SSHTunnelRegistry.Type.LOCAL, LOCALHOST, 0, "web", 80, KEY, 10, 1000, factory);
+    }
+
+    @Test
+    public void testBrokenTunnelIsOpenedAgain() throws Exception {
+        SSHTunnelRegistry.Tunnel broken = openLocal("db");
+        Session brokenSession = factory.last;
+        when(brokenSession.isConnected()).thenReturn(false);
+
+        SSHTunnelRegistry.Tunnel tunnel = openLocal("db");
+        assertNotSame(broken, tunnel);
+        assertEquals(2, tunnel.getReferences());
+        assertEquals(2, factory.opened);
+        verify(brokenSession).disconnect();
+        assertEquals(1, pool.size());
+    }
+
+    @Test
+    public void testCloseAndIdleExpiry() throws Exception {
+        openLocal("db");
+        Session session = factory.last;
+        assertTrue(registry.close("db"));
+        verify(session).delPortForwardingL(LOCALHOST, 40000);
+        assertNull(registry.get("db"));
+        // the session stays in the pool
+        assertEquals(0, pool.getActiveChannels());
+        assertEquals(1, pool.size());
+
+        SSHTunnelRegistry shortLivedRegistry = new SSHTunnelRegistry(pool, 20);
+        shortLivedRegistry.open("idle", SSHTunnelRegistry.Type.LOCAL, LOCALHOST, 0, "db", 5432, KEY, 10, 1000, factory);
+        shortLivedRegistry.open("used", SSHTunnelRegistry.Type.LOCAL, LOCALHOST, 0, "db", 5432, KEY, 10, 1000, factory);
+        shortLivedRegistry.release("idle");
+        Thread.sleep(200);
+        shortLivedRegistry.evictIdle();
+        assertNull(shortLivedRegistry.get("idle"));
+        assertEquals(1, shortLivedRegistry.size());
+        shortLivedRegistry.clear();
+    }
+
+    @Test
+    public void testDynamicTunnelAnswersSocksRequests() throws Exception {
+        SSHTunnelRegistry.Tunnel tunnel = registry.open("socks", SSHTunnelRegistry.Type.DYNAMIC, LOCALHOST, 0, null, 0, KEY, 10, 1000, factory);
+        when(factory.last.getStreamForwarder(anyString(), anyInt())).thenThrow(new JSchException("refused"));
+        assertTrue(tunnel.isHealthy());
+
+        try (Socket socket = new Socket(LOCALHOST, tunnel.getLocalPort())) {
+            socket.setSoTimeout(5000);
+            OutputStream out = socket.getOutputStream();
+            DataInputStream in = new DataInputStream(socket.getInputStream());
+            out.write(new byte[]{5, 1, 0});
+            byte[] method = new byte[2];
+            in.readFully(method);
+            assertArrayEquals(new byte[]{5, 0}, method);
+
+            out.write(new byte[]{5, 1, 0, 3, 2, 'd', 'b', 0x15, 0x38});
+            byte[] reply = new byte[10];
+            in.readFully(reply);
+            assertEquals(SocksProxy.GENERAL_FAILURE, reply[1]);
+        }
+        verify(factory.last).getStreamForwarder(eq("db"), eq(5432));
+
+        assertTrue(registry.close("socks"));
+        assertFalse(tunnel.isHealthy());
+    }
+
+    private static class ForwardingFactory implements SSHSessionPool.SessionFactory {
+        private int opened;
+        private Session last;
+
+        @Override
+        public Session openSession() throws SSHException {
+            opened++;
+            Session session = mock(Session.class);
+            try {
+                when(session.isConnected()).thenReturn(true);
+                when(session.setPortForwardingL(anyString(), anyInt(), anyString(), anyInt())).thenReturn(40000);
+                when(session.getPortForwardingL()).thenReturn(new String[]{"40000:db:5432"});
+            } catch (JSchException e) {
+                throw new SSHException(e);
+            }
+            last = session;
+            return session;
+        }
+    }
+}
@@ -36,11 +36,13 @@ import static io.cloudslang.content.utils.OutputUtilities.getFailureResultsMap;
 import static io.cloudslang.content.utils.OutputUtilities.getSuccessResultsMap;
 import static io.cloudslang.content.xml.utils.Constants.Inputs.DEFAULT_JSON_ARRAY_ITEM_NAME;
 import static io.cloudslang.content.xml.utils.Constants.Inputs.DELIMITER;
+import static io.cloudslang.content.xml.utils.Constants.Inputs.FILE_PATH;
 import static io.cloudslang.content.xml.utils.Constants.Inputs.JSON;
 import static io.cloudslang.content.xml.utils.Constants.Inputs.JSON_ARRAYS_ITEM_NAMES;
 import static io.cloudslang.content.xml.utils.Constants.Inputs.JSON_ARRAYS_NAMES;
 import static io.cloudslang.content.xml.utils.Constants.Inputs.NAMESPACES_PREFIXES;
 import static io.cloudslang.content.xml.utils.Constants.Inputs.NAMESPACES_URIS;
+import static io.cloudslang.content.xml.utils.Constants.Inputs.OUTPUT_FILE;
 import static io.cloudslang.content.xml.utils.Constants.Inputs.PRETTY_PRINT;
 import static io.cloudslang.content.xml.utils.Constants.Inputs.ROOT_TAG_NAME;
 import static io.cloudslang.content.xml.utils.Constants.Inputs.SHOW_XML_DECLARATION;
@@ -53,7 +55,7 @@ public class ConvertJsonToXml {
     /**
      * Converts a JSON array or a JSON object to a XML document.
      *
-     * @param json                     - The JSON array or object (in the form of a String).
+     * @param json                     - The JSON array or object (in the form of a String). Either json or filePath must be given.
      * @param prettyPrint              - The flag for formatting the resulted XML. If it is true the result will contain tabs and newline ('\n') chars.
      *                                 Default value: true
      *                                 Valid values: true, false
@@ -61,7 +63,10 @@ public class ConvertJsonToXml {
      *                                 If this is true then rootTagName can't be empty.
      *                                 Default value: false
      *                                 Valid values: true, false
-     * @param rootTagName              - The XML tag name. If this input is empty you will get a list of XML elements.
+     * @param rootTagName              - The XML tag name. If this input is empty you will get a list of XML elements,
+     *                                 one for each member of a JSON object or item of a JSON array, separated by new lines.
+     *                                 Such a list is not a well formed XML document when it has several elements. With
+     *                                 showXmlDeclaration true, a JSON object must then have a single member.
      * @param defaultJsonArrayItemName - Default XML tag name for items in a JSON array if there isn't a pair (array name, array item name) defined in jsonArraysNames and jsonArraysItemNames.
      *                                 Default value: 'item'
      * @param jsonArraysNames          - The list of array names separated by delimiter.
@@ -70,6 +75,12 @@ public class ConvertJsonToXml {
      * @param namespacesUris           - The coresponding list of namespaces uris separated by delimiter.
      * @param delimiter                - The list separator
      *                                 Default value: ','
+     * @param filePath                 - The path of a file containing the JSON array or object, read as UTF-8. Use it instead
+     *                                 of json for large payloads.
+     *                                 Optional
+     * @param outputFile               - The path of a file where the resulted XML is written, encoded as UTF-8, instead of being
+     *                                 returned. The file is overwritten if it exists.
+     *                                 Optional
      * @return The converted JSON array or object as an XML document
      */
     @Action(name = "Convert JSON to XML",
@@ -82,7 +93,7 @@ public class ConvertJsonToXml {
                     @Response(text = ResponseNames.FAILURE, field = RETURN_CODE, value = FAILURE)
             })
     public Map<String, String> execute(
-            @Param(value = JSON, required = true) String json,
+            @Param(value = JSON) String json,
             @Param(value = PRETTY_PRINT) String prettyPrint,
             @Param(value = SHOW_XML_DECLARATION) String showXmlDeclaration,
             @Param(value = ROOT_TAG_NAME) String rootTagName,
@@ -91,9 +102,12 @@ public class ConvertJsonToXml {
             @Param(value = NAMESPACES_URIS) String namespacesUris,
             @Param(value = JSON_ARRAYS_NAMES) String jsonArraysNames,
             @Param(value = JSON_ARRAYS_ITEM_NAMES) String jsonArraysItemNames,
-            @Param(value = DELIMITER) String delimiter) {
+            @Param(value = DELIMITER) String delimiter,
+            @Param(value = FILE_PATH) String filePath,
+            @Param(value = OUTPUT_FILE) String outputFile) {
 
         try {
+            ValidateUtils.validateJsonAndFilePathInputs(json, filePath);
             showXmlDeclaration = StringUtils.defaultIfEmpty(showXmlDeclaration, TRUE);
             prettyPrint = StringUtils.defaultIfEmpty(prettyPrint, TRUE);
             ValidateUtils.validateInputs(prettyPrint, showXmlDeclaration);
@@ -106,18 +120,29 @@ public class ConvertJsonToXml {
                     .withDefaultJsonArrayItemName(defaultJsonArrayItemName)
                     .withNamespaces(namespacesUris, namespacesPrefixes, delimiter)
                     .withJsonArraysNames(jsonArraysNames, jsonArraysItemNames, delimiter)
+                    .withFilePath(filePath)
+                    .withOutputFile(outputFile)
                     .build();
 
             final ConvertJsonToXmlService converter = new ConvertJsonToXmlService();
             converter.setNamespaces(inputs.getNamespaces());
             converter.setJsonArrayItemNames(inputs.getArraysItemNames());
             converter.setJsonArrayItemName(inputs.getDefaultJsonArrayItemName());
-            final String xml = converter.convertToXmlString(inputs);
-
-            return getSuccessResultsMap(xml);
+            if (StringUtils.isNotEmpty(outputFile)) {
+                converter.convertToXmlFile(inputs);
+                return getSuccessResultsMap("Result was written in the output file: " + outputFile);
+            }
+            return getSuccessResultsMap(converter.convertToXmlString(inputs));
         } catch (Exception e) {
             return getFailureResultsMap(e);
         }
     }
 
+    public Map<String, String> execute(String json, String prettyPrint, String showXmlDeclaration, String rootTagName,
+                                       String defaultJsonArrayItemName, String namespacesPrefixes, String namespacesUris,
+                                       String jsonArraysNames, String jsonArraysItemNames, String delimiter) {
+        return execute(json, prettyPrint, showXmlDeclaration, rootTagName, defaultJsonArrayItemName, namespacesPrefixes,
+                namespacesUris, jsonArraysNames, jsonArraysItemNames, delimiter, null, null);
+    }
+
 }
@@ -36,6 +36,7 @@ import static io.cloudslang.content.utils.OutputUtilities.getFailureResultsMap;
 import static io.cloudslang.content.utils.OutputUtilities.getSuccessResultsMap;
 import static io.cloudslang.content.xml.utils.Constants.Inputs.INCLUDE_ATTRIBUTES;
 import static io.cloudslang.content.xml.utils.Constants.Inputs.INCLUDE_ROOT;
+import static io.cloudslang.content.xml.utils.Constants.Inputs.OUTPUT_FILE;
 import static io.cloudslang.content.xml.utils.Constants.Inputs.PARSING_FEATURES;
 import static io.cloudslang.content.xml.utils.Constants.Inputs.PRETTY_PRINT;
 import static io.cloudslang.content.xml.utils.Constants.Inputs.TEXT_ELEMENTS_NAME;
@@ -44,6 +45,7 @@ import static io.cloudslang.content.xml.utils.Constants.Outputs.NAMESPACES_PREFI
 import static io.cloudslang.content.xml.utils.Constants.Outputs.NAMESPACES_URIS;
 import static org.apache.commons.lang3.StringUtils.EMPTY;
 import static org.apache.commons.lang3.StringUtils.defaultIfEmpty;
+import static org.apache.commons.lang3.StringUtils.isNotEmpty;
 
 /**
  * Created by ursan on 8/2/2016.
@@ -77,6 +79,9 @@ public class ConvertXmlToJson {
      *                           http://apache.org/xml/features/disallow-doctype-decl true
      *                           http://xml.org/sax/features/external-general-entities false
      *                           http://xml.org/sax/features/external-parameter-entities false
+     * @param outputFile         - The path of a file where the resulted JSON is written instead of being returned. The file
+     *                           is overwritten if it exists.
+     *                           Optional
      * @return The converted XML document as a JSON array or object
      */
 
@@ -98,7 +103,8 @@ public class ConvertXmlToJson {
             @Param(value = INCLUDE_ROOT) String includeRootElement,
             @Param(value = INCLUDE_ATTRIBUTES) String includeAttributes,
             @Param(value = PRETTY_PRINT) String prettyPrint,
-            @Param(value = PARSING_FEATURES) String parsingFeatures) {
+            @Param(value = PARSING_FEATURES) String parsingFeatures,
+            @Param(value = OUTPUT_FILE) String outputFile) {
 
         try {
             includeRootElement = defaultIfEmpty(includeRootElement, TRUE);
@@ -113,12 +119,17 @@ public class ConvertXmlToJson {
                     .withIncludeAttributes(Boolean.parseBoolean(includeAttributes))
                     .withPrettyPrint(Boolean.parseBoolean(prettyPrint))
                     .withParsingFeatures(parsingFeatures)
+                    .withOutputFile(outputFile)
                     .build();
 
             final ConvertXmlToJsonService converter = new ConvertXmlToJsonService();
-            final String json = converter.convertToJsonString(inputs);
-
-            final Map<String, String> result = getSuccessResultsMap(json);
+            final Map<String, String> result;
+            if (isNotEmpty(outputFile)) {
+                converter.convertToJsonFile(inputs);
+                result = getSuccessResultsMap("Result was written in the output file: " + outputFile);
+            } else {
+                result = getSuccessResultsMap(converter.convertToJsonString(inputs));
+            }
             result.put(NAMESPACES_PREFIXES, converter.getNamespacesPrefixes());
             result.put(NAMESPACES_URIS, converter.getNamespacesUris());
             return result;
@@ -129,4 +140,9 @@ public class ConvertXmlToJson {
             return result;
         }
     }
+
+    public Map<String, String> execute(String xml, String textElementsName, String includeRootElement, String includeAttributes,
+                                       String prettyPrint, String parsingFeatures) {
+        return execute(xml, textElementsName, includeRootElement, includeAttributes, prettyPrint, parsingFeatures, null);
+    }
 }
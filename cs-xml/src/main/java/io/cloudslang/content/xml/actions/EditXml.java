@@ -38,6 +38,8 @@ import static io.cloudslang.content.utils.OutputUtilities.getSuccessResultsMap;
 import static io.cloudslang.content.xml.utils.Constants.Inputs.ACTION;
 import static io.cloudslang.content.xml.utils.Constants.Inputs.FEATURES;
 import static io.cloudslang.content.xml.utils.Constants.Inputs.FILE_PATH;
+import static io.cloudslang.content.xml.utils.Constants.Inputs.NAMESPACES_PREFIXES;
+import static io.cloudslang.content.xml.utils.Constants.Inputs.NAMESPACES_URIS;
 import static io.cloudslang.content.xml.utils.Constants.Inputs.TYPE;
 import static io.cloudslang.content.xml.utils.Constants.Inputs.TYPE_NAME;
 import static io.cloudslang.content.xml.utils.Constants.Inputs.VALUE;
@@ -88,6 +90,9 @@ public class EditXml {
      *                        http://apache.org/xml/features/disallow-doctype-decl true
      *                        http://xml.org/sax/features/external-general-entities false
      *                        http://xml.org/sax/features/external-parameter-entities false
+     * @param namespacesPrefixes Optional - The prefixes used in the XPath queries, separated by ','. When given, the
+     *                           prefixes are not looked up in the document.
+     * @param namespacesUris     Optional - The namespace URIs of namespacesPrefixes, in the same order, separated by ','.
      * @return map of results containing success or failure text, a result message, and the value selected
      */
     @Action(name = "Edit XML",
@@ -107,7 +112,9 @@ public class EditXml {
             @Param(value = VALUE) String value,
             @Param(value = TYPE) String type,
             @Param(value = TYPE_NAME) String name,
-            @Param(value = FEATURES) String parsingFeatures) {
+            @Param(value = FEATURES) String parsingFeatures,
+            @Param(value = NAMESPACES_PREFIXES) String namespacesPrefixes,
+            @Param(value = NAMESPACES_URIS) String namespacesUris) {
 
         try {
             final EditXmlInputs inputs = new EditXmlInputs.EditXmlInputsBuilder()
@@ -120,6 +127,8 @@ public class EditXml {
                     .withType(type)
                     .withValue(value)
                     .withParsingFeatures(parsingFeatures)
+                    .withNamespacesPrefixes(namespacesPrefixes)
+                    .withNamespacesUris(namespacesUris)
                     .build();
             ValidateUtils.validateInputs(inputs);
             final ActionType myAction = ActionType.valueOf(action.toLowerCase());
@@ -132,5 +141,9 @@ public class EditXml {
             return getFailureResultsMap(e.getMessage());
         }
     }
-}
 
+    public Map<String, String> xPathReplaceNode(String xml, String filePath, String action, String xpath1, String xpath2,
+                                                String value, String type, String name, String parsingFeatures) {
+        return xPathReplaceNode(xml, filePath, action, xpath1, xpath2, value, type, name, parsingFeatures, null, null);
+    }
+}
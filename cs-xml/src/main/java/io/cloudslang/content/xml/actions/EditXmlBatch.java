@@ -0,0 +1,91 @@
+/*
+ * (c) Copyright 2017 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.cloudslang.content.xml.actions;
+
+import com.hp.oo.sdk.content.annotations.Action;
+import com.hp.oo.sdk.content.annotations.Output;
+import com.hp.oo.sdk.content.annotations.Param;
+import com.hp.oo.sdk.content.annotations.Response;
+import io.cloudslang.content.constants.ResponseNames;
+import io.cloudslang.content.xml.services.EditXmlBatchService;
+
+import java.util.Map;
+
+import static io.cloudslang.content.constants.OutputNames.EXCEPTION;
+import static io.cloudslang.content.constants.OutputNames.RETURN_CODE;
+import static io.cloudslang.content.constants.OutputNames.RETURN_RESULT;
+import static io.cloudslang.content.constants.ReturnCodes.FAILURE;
+import static io.cloudslang.content.constants.ReturnCodes.SUCCESS;
+import static io.cloudslang.content.utils.OutputUtilities.getFailureResultsMap;
+import static io.cloudslang.content.utils.OutputUtilities.getSuccessResultsMap;
+import static io.cloudslang.content.xml.utils.Constants.Inputs.FEATURES;
+import static io.cloudslang.content.xml.utils.Constants.Inputs.FILE_PATH;
+import static io.cloudslang.content.xml.utils.Constants.Inputs.NAMESPACES_PREFIXES;
+import static io.cloudslang.content.xml.utils.Constants.Inputs.NAMESPACES_URIS;
+import static io.cloudslang.content.xml.utils.Constants.Inputs.OPERATIONS;
+import static io.cloudslang.content.xml.utils.Constants.Inputs.XML;
+
+/**
+ * Applies several Edit XML operations in a single parse and serialization of the document.
+ */
+public class EditXmlBatch {
+
+    /**
+     * @param xml             The XML (in the form of a String).
+     * @param filePath        Absolute or remote path of the XML file.
+     * @param operations      A JSON array with the operations to apply, in order. Each operation is a JSON object with
+     *                        the same inputs as Edit XML: action, xpath (or xpath1), xpath2, value, type and name.
+     *                        Every operation sees the changes made by the previous ones.
+     *                        Example: [{"action": "update", "xpath": "/config/port", "type": "text", "value": "8080"},
+     *                        {"action": "delete", "xpath": "/config/debug", "type": "elem"}]
+     * @param parsingFeatures The list of XML parsing features separated by new line (CRLF).
+     *                        The feature name - value must be separated by empty space.
+     *                        Same as the parsingFeatures input of Edit XML.
+     * @param namespacesPrefixes Optional - The prefixes used in the XPath queries, separated by ','. When given, the
+     *                           prefixes are not looked up in the document.
+     * @param namespacesUris     Optional - The namespace URIs of namespacesPrefixes, in the same order, separated by ','.
+     * @return map of results containing the edited XML as returnResult, the return code and the exception if any.
+     * If an operation is invalid or fails, no result is returned and the error names the failed operation.
+     */
+    @Action(name = "Edit XML Batch",
+            outputs = {
+                    @Output(RETURN_RESULT),
+                    @Output(RETURN_CODE),
+                    @Output(EXCEPTION)},
+            responses = {
+                    @Response(text = ResponseNames.SUCCESS, field = RETURN_CODE, value = SUCCESS),
+                    @Response(text = ResponseNames.FAILURE, field = RETURN_CODE, value = FAILURE)})
+    public Map<String, String> execute(
+            @Param(value = XML) String xml,
+            @Param(value = FILE_PATH) String filePath,
+            @Param(value = OPERATIONS, required = true) String operations,
+            @Param(value = FEATURES) String parsingFeatures,
+            @Param(value = NAMESPACES_PREFIXES) String namespacesPrefixes,
+            @Param(value = NAMESPACES_URIS) String namespacesUris) {
+
+        try {
+            return getSuccessResultsMap(new EditXmlBatchService().execute(xml, filePath, operations, parsingFeatures,
+                    namespacesPrefixes, namespacesUris));
+        } catch (Exception e) {
+            return getFailureResultsMap(e.getMessage());
+        }
+    }
+
+    public Map<String, String> execute(String xml, String filePath, String operations, String parsingFeatures) {
+        return execute(xml, filePath, operations, parsingFeatures, null, null);
+    }
+}
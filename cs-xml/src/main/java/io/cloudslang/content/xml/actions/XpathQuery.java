@@ -50,6 +50,15 @@ public class XpathQuery {
      * @param queryType         type of selection result from query attribute value
      * @param delimiter         optional - string to use as delimiter in case query_type is nodelist
      * @param secureProcessing  optional - whether to use secure processing
+     * @param streaming         optional - whether to evaluate the query while reading the document instead of loading
+     *                          it in memory. Supports absolute paths of child (/) and descendant (//) steps with name
+     *                          tests, [n], [@attr] and [@attr='value'] predicates, and a last step selecting
+     *                          attributes (@attr) or text nodes (text()). Matched nodes keep their original formatting.
+     *                          Valid values: true, false
+     *                          Default value: false
+     * @param namespacesPrefixes optional - the prefixes used in the XPATH query, separated by ','. When given, the
+     *                           prefixes are not looked up in the document. Not used by streaming queries.
+     * @param namespacesUris     optional - the namespace URIs of namespacesPrefixes, in the same order, separated by ','
      * @return map of results containing success or failure text, a result message, and the value selected
      */
     @Action(name = "XpathQuery",
@@ -67,20 +76,36 @@ public class XpathQuery {
             @Param(value = Constants.Inputs.XPATH_QUERY, required = true) String xPathQuery,
             @Param(value = Constants.Inputs.QUERY_TYPE, required = true) String queryType,
             @Param(Constants.Inputs.DELIMITER) String delimiter,
-            @Param(Constants.Inputs.SECURE_PROCESSING) String secureProcessing) {
+            @Param(Constants.Inputs.SECURE_PROCESSING) String secureProcessing,
+            @Param(Constants.Inputs.STREAMING) String streaming,
+            @Param(Constants.Inputs.NAMESPACES_PREFIXES) String namespacesPrefixes,
+            @Param(Constants.Inputs.NAMESPACES_URIS) String namespacesUris) {
 
         final CommonInputs commonInputs = new CommonInputs.CommonInputsBuilder()
                 .withXmlDocument(xmlDocument)
                 .withXmlDocumentSource(xmlDocumentSource)
                 .withXpathQuery(xPathQuery)
                 .withSecureProcessing(secureProcessing)
+                .withNamespacesPrefixes(namespacesPrefixes)
+                .withNamespacesUris(namespacesUris)
                 .build();
 
         final CustomInputs customInputs = new CustomInputs.CustomInputsBuilder()
                 .withQueryType(queryType)
                 .withDelimiter(delimiter)
+                .withStreaming(streaming)
                 .build();
 
         return new XpathQueryService().execute(commonInputs, customInputs);
     }
+
+    public Map<String, String> execute(String xmlDocument, String xmlDocumentSource, String xPathQuery, String queryType,
+                                       String delimiter, String secureProcessing) {
+        return execute(xmlDocument, xmlDocumentSource, xPathQuery, queryType, delimiter, secureProcessing, null);
+    }
+
+    public Map<String, String> execute(String xmlDocument, String xmlDocumentSource, String xPathQuery, String queryType,
+                                       String delimiter, String secureProcessing, String streaming) {
+        return execute(xmlDocument, xmlDocumentSource, xPathQuery, queryType, delimiter, secureProcessing, streaming, null, null);
+    }
 }
@@ -0,0 +1,134 @@
+/*
+ * (c) Copyright 2017 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.cloudslang.content.xml.entities;
+
+import io.cloudslang.content.xml.utils.XmlUtils;
+import org.w3c.dom.Document;
+import org.w3c.dom.NodeList;
+
+import javax.xml.namespace.NamespaceContext;
+import javax.xml.xpath.XPathConstants;
+import javax.xml.xpath.XPathExpression;
+import javax.xml.xpath.XPathExpressionException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A parsed xml document being edited, together with its namespace context and the XPath expressions already
+ * compiled against it, so that several edits can share one parse, one namespace scan and one serialization.
+ * Instances are meant to be used by a single thread.
+ */
+public class EditableXmlDocument {
+    private final Document document;
+    private final String namespacesPrefixes;
+    private final String namespacesUris;
+    private final Map<String, XPathExpression> expressions = new HashMap<>();
+    private NamespaceContext namespaceContext;
+    private boolean namespaceAwareNodes;
+
+    /**
+     * @param document           the parsed document
+     * @param namespacesPrefixes the prefixes to use, separated by ','. When empty, the prefixes are discovered in the document
+     * @param namespacesUris     the corresponding namespace URIs, separated by ','
+     * @throws Exception if the number of prefixes and URIs differ
+     */
+    public EditableXmlDocument(Document document, String namespacesPrefixes, String namespacesUris) throws Exception {
+        this.document = document;
+        this.namespacesPrefixes = namespacesPrefixes;
+        this.namespacesUris = namespacesUris;
+        this.namespaceContext = XmlUtils.getNamespaceContext(namespacesPrefixes, namespacesUris, document);
+    }
+
+    /**
+     * Parses the xml given as a String or as a local or remote file.
+     *
+     * @param xml      the xml as String
+     * @param filePath the path/remote path to the file
+     * @param features parsing features to set on the document builder
+     * @return the parsed document
+     * @throws Exception in case the xml can not be read or parsed
+     */
+    public static EditableXmlDocument create(String xml, String filePath, String features) throws Exception {
+        return create(xml, filePath, features, null, null);
+    }
+
+    /**
+     * Parses the xml given as a String or as a local or remote file. The namespace prefixes given by the user are
+     * used for the XPath expressions, otherwise the prefixes are discovered in the parsed document.
+     *
+     * @param xml                the xml as String
+     * @param filePath           the path/remote path to the file
+     * @param features           parsing features to set on the document builder
+     * @param namespacesPrefixes the prefixes to use, separated by ','
+     * @param namespacesUris     the corresponding namespace URIs, separated by ','
+     * @return the parsed document
+     * @throws Exception in case the xml can not be read or parsed
+     */
+    public static EditableXmlDocument create(String xml, String filePath, String features, String namespacesPrefixes,
+                                             String namespacesUris) throws Exception {
+        return new EditableXmlDocument(XmlUtils.createDocument(xml, filePath, features), namespacesPrefixes, namespacesUris);
+    }
+
+    public Document getDocument() {
+        return document;
+    }
+
+    public NamespaceContext getNamespaceContext() {
+        return namespaceContext;
+    }
+
+    public boolean isNamespaceAwareNodes() {
+        return namespaceAwareNodes;
+    }
+
+    /**
+     * @param namespaceAwareNodes whether the element values added by the edits are parsed namespace aware, so that
+     *                            the prefixes they declare can be used by the next XPath expressions on this document
+     */
+    public void setNamespaceAwareNodes(boolean namespaceAwareNodes) {
+        this.namespaceAwareNodes = namespaceAwareNodes;
+    }
+
+    /**
+     * Rebuilds the namespace context after an edit that may have added prefixes to the document, so that the next
+     * XPath expressions resolve them as they would on the edited document parsed again. The expressions compiled so
+     * far are bound to the previous context and are discarded.
+     *
+     * @throws Exception if the number of prefixes and URIs differ
+     */
+    public void refreshNamespaceContext() throws Exception {
+        XmlUtils.clearNamespaceContext(document);
+        namespaceContext = XmlUtils.getNamespaceContext(namespacesPrefixes, namespacesUris, document);
+        expressions.clear();
+    }
+
+    /**
+     * Returns the nodes currently selected by the XPath, compiling it on its first use.
+     *
+     * @param xPath the XPath to evaluate
+     * @return the selected nodes
+     * @throws XPathExpressionException if the XPath is not valid or does not select nodes
+     */
+    public NodeList selectNodes(String xPath) throws XPathExpressionException {
+        XPathExpression expression = expressions.get(xPath);
+        if (expression == null) {
+            expression = XmlUtils.createXPathExpression(namespaceContext, xPath);
+            expressions.put(xPath, expression);
+        }
+        return (NodeList) expression.evaluate(document, XPathConstants.NODESET);
+    }
+}
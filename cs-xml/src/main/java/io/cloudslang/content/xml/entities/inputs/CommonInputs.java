@@ -38,6 +38,8 @@ public class CommonInputs {
     private String proxyPort;
     private String proxyUsername;
     private String proxyPassword;
+    private String namespacesPrefixes;
+    private String namespacesUris;
 
     public CommonInputs(CommonInputsBuilder builder) {
         this.xmlDocument = builder.xmlDocument;
@@ -56,6 +58,8 @@ public class CommonInputs {
         this.proxyPort = builder.proxyPort;
         this.proxyUsername = builder.proxyUsername;
         this.proxyPassword = builder.proxyPassword;
+        this.namespacesPrefixes = builder.namespacesPrefixes;
+        this.namespacesUris = builder.namespacesUris;
     }
 
     public String getXmlDocument() {
@@ -122,6 +126,14 @@ public class CommonInputs {
         return proxyPassword;
     }
 
+    public String getNamespacesPrefixes() {
+        return namespacesPrefixes;
+    }
+
+    public String getNamespacesUris() {
+        return namespacesUris;
+    }
+
     public static class CommonInputsBuilder {
         private String xmlDocument;
         private String xmlDocumentSource;
@@ -139,6 +151,8 @@ public class CommonInputs {
         private String proxyPort;
         private String proxyUsername;
         private String proxyPassword;
+        private String namespacesPrefixes;
+        private String namespacesUris;
 
         public CommonInputs build() {
             return new CommonInputs(this);
@@ -224,5 +238,15 @@ public class CommonInputs {
             this.proxyPassword = proxyPassword;
             return this;
         }
+
+        public CommonInputsBuilder withNamespacesPrefixes(String namespacesPrefixes) {
+            this.namespacesPrefixes = namespacesPrefixes;
+            return this;
+        }
+
+        public CommonInputsBuilder withNamespacesUris(String namespacesUris) {
+            this.namespacesUris = namespacesUris;
+            return this;
+        }
     }
 }
@@ -36,6 +36,8 @@ public class ConvertJsonToXmlInputs {
     private final String defaultJsonArrayItemName;
     private final Map<String, String> namespaces;
     private final Map<String, String> arraysItemNames;
+    private final String filePath;
+    private final String outputFile;
 
     public ConvertJsonToXmlInputs(final ConvertJsonToXmlInputsBuilder builder) {
         this.json = builder.json;
@@ -45,6 +47,8 @@ public class ConvertJsonToXmlInputs {
         this.defaultJsonArrayItemName = builder.defaultJsonArrayItemName;
         this.namespaces = builder.namespaces;
         this.arraysItemNames = builder.arraysItemNames;
+        this.filePath = builder.filePath;
+        this.outputFile = builder.outputFile;
     }
 
     public String getJson() {
@@ -75,6 +79,14 @@ public class ConvertJsonToXmlInputs {
         return arraysItemNames;
     }
 
+    public String getFilePath() {
+        return filePath;
+    }
+
+    public String getOutputFile() {
+        return outputFile;
+    }
+
     public static class ConvertJsonToXmlInputsBuilder {
         private String json;
         private boolean prettyPrint;
@@ -83,6 +95,8 @@ public class ConvertJsonToXmlInputs {
         private String defaultJsonArrayItemName;
         private Map<String, String> namespaces;
         private Map<String, String> arraysItemNames;
+        private String filePath;
+        private String outputFile;
 
         public ConvertJsonToXmlInputs build() {
             return new ConvertJsonToXmlInputs(this);
@@ -129,5 +143,14 @@ public class ConvertJsonToXmlInputs {
             return this;
         }
 
+        public ConvertJsonToXmlInputsBuilder withFilePath(final String filePath) {
+            this.filePath = filePath;
+            return this;
+        }
+
+        public ConvertJsonToXmlInputsBuilder withOutputFile(final String outputFile) {
+            this.outputFile = outputFile;
+            return this;
+        }
     }
 }
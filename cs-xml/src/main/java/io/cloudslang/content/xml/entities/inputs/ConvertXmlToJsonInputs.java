@@ -31,6 +31,7 @@ public class ConvertXmlToJsonInputs {
     private boolean includeAttributes;
     private boolean prettyPrint;
     private String parsingFeatures;
+    private String outputFile;
 
     public ConvertXmlToJsonInputs(ConvertXmlToJsonInputsBuilder builder) {
         this.xml = builder.xml;
@@ -39,6 +40,7 @@ public class ConvertXmlToJsonInputs {
         this.includeAttributes = builder.includeAttributes;
         this.prettyPrint = builder.prettyPrint;
         this.parsingFeatures = builder.parsingFeatures;
+        this.outputFile = builder.outputFile;
     }
 
     public String getXml() {
@@ -65,6 +67,10 @@ public class ConvertXmlToJsonInputs {
         return parsingFeatures;
     }
 
+    public String getOutputFile() {
+        return outputFile;
+    }
+
     public static class ConvertXmlToJsonInputsBuilder {
         private String xml;
         private String textElementsName;
@@ -72,6 +78,7 @@ public class ConvertXmlToJsonInputs {
         private boolean includeAttributes;
         private boolean prettyPrint;
         private String parsingFeatures;
+        private String outputFile;
 
         public ConvertXmlToJsonInputs build() {
             return new ConvertXmlToJsonInputs(this);
@@ -106,5 +113,10 @@ public class ConvertXmlToJsonInputs {
             this.parsingFeatures = parsingFeatures;
             return this;
         }
+
+        public ConvertXmlToJsonInputsBuilder withOutputFile(final String outputFile) {
+            this.outputFile = outputFile;
+            return this;
+        }
     }
 }
@@ -30,6 +30,7 @@ public class CustomInputs {
     private String xsdDocumentSource;
     private String queryType;
     private String delimiter;
+    private boolean streaming;
 
     public CustomInputs(CustomInputsBuilder builder) {
         this.attributeName = builder.attributeName;
@@ -39,6 +40,7 @@ public class CustomInputs {
         this.xsdDocumentSource = builder.xsdDocumentSource;
         this.queryType = builder.queryType;
         this.delimiter = builder.delimiter;
+        this.streaming = builder.streaming;
     }
 
     public String getAttributeName() {
@@ -69,6 +71,10 @@ public class CustomInputs {
         return delimiter;
     }
 
+    public boolean getStreaming() {
+        return streaming;
+    }
+
     public static class CustomInputsBuilder {
         private String attributeName;
         private String value;
@@ -77,6 +83,7 @@ public class CustomInputs {
         private String xsdDocumentSource;
         private String queryType;
         private String delimiter;
+        private boolean streaming;
 
         public CustomInputs build() {
             return new CustomInputs(this);
@@ -116,6 +123,11 @@ public class CustomInputs {
             return this;
         }
 
+        public CustomInputsBuilder withStreaming(String inputValue) {
+            streaming = Boolean.parseBoolean(inputValue);
+            return this;
+        }
+
         public CustomInputsBuilder withXsdDocumentSource(String xsdDocumentSource) {
             this.xsdDocumentSource = InputUtils.validateXsdDocumentSource(xsdDocumentSource);
             return this;
@@ -30,6 +30,8 @@ public class EditXmlInputs {
     private String name;
     private String value;
     private String parsingFeatures;
+    private String namespacesPrefixes;
+    private String namespacesUris;
 
     public EditXmlInputs(EditXmlInputsBuilder builder) {
         this.xml = builder.xml;
@@ -41,6 +43,8 @@ public class EditXmlInputs {
         this.name = builder.name;
         this.value = builder.value;
         this.parsingFeatures = builder.parsingFeatures;
+        this.namespacesPrefixes = builder.namespacesPrefixes;
+        this.namespacesUris = builder.namespacesUris;
     }
 
     public String getXml() {
@@ -79,6 +83,14 @@ public class EditXmlInputs {
         return parsingFeatures;
     }
 
+    public String getNamespacesPrefixes() {
+        return namespacesPrefixes;
+    }
+
+    public String getNamespacesUris() {
+        return namespacesUris;
+    }
+
     public static class EditXmlInputsBuilder {
         private String xml;
         private String filePath;
@@ -89,6 +101,8 @@ public class EditXmlInputs {
         private String name;
         private String value;
         private String parsingFeatures;
+        private String namespacesPrefixes;
+        private String namespacesUris;
 
         public EditXmlInputs build() {
             return new EditXmlInputs(this);
@@ -140,6 +154,16 @@ public class EditXmlInputs {
             parsingFeatures = inputValue;
             return this;
         }
+
+        public EditXmlInputs.EditXmlInputsBuilder withNamespacesPrefixes(String inputValue) {
+            namespacesPrefixes = inputValue;
+            return this;
+        }
+
+        public EditXmlInputs.EditXmlInputsBuilder withNamespacesUris(String inputValue) {
+            namespacesUris = inputValue;
+            return this;
+        }
     }
 
 }
@@ -0,0 +1,34 @@
+/*
+ * (c) Copyright 2017 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.cloudslang.content.xml.services;
+
+import io.cloudslang.content.xml.entities.EditableXmlDocument;
+import io.cloudslang.content.xml.entities.inputs.EditXmlInputs;
+import io.cloudslang.content.xml.utils.DocumentUtils;
+
+/**
+ * Runs a single edit operation: parses the xml from the inputs, applies the edit and serializes the result.
+ */
+public abstract class AbstractOperationService implements OperationService {
+    @Override
+    public final String execute(EditXmlInputs inputs) throws Exception {
+        final EditableXmlDocument document = EditableXmlDocument.create(inputs.getXml(), inputs.getFilePath(), inputs.getParsingFeatures(),
+                inputs.getNamespacesPrefixes(), inputs.getNamespacesUris());
+        apply(document, inputs);
+        return DocumentUtils.documentToString(document.getDocument());
+    }
+}
@@ -19,20 +19,20 @@ import io.cloudslang.content.utils.OutputUtilities;
 import io.cloudslang.content.utils.StringUtilities;
 import io.cloudslang.content.xml.entities.inputs.ApplyXslTransformationInputs;
 import io.cloudslang.content.xml.utils.Constants;
+import io.cloudslang.content.xml.utils.UrlContentCache;
 import io.cloudslang.content.xml.utils.XmlUtils;
+import org.apache.commons.io.FileUtils;
 
 import javax.xml.transform.Result;
 import javax.xml.transform.Source;
 import javax.xml.transform.Templates;
 import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.stream.StreamResult;
 import javax.xml.transform.stream.StreamSource;
+import java.io.ByteArrayInputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
-import java.io.InputStream;
 import java.io.StringReader;
 import java.io.StringWriter;
 import java.net.URL;
@@ -84,25 +84,36 @@ public class ApplyXslTransformationService {
      * @return the resulting xml after validation
      * @throws Exception in case something went wrong
      */
-    private Source readSource(String xmlDocument, String features) throws Exception {
-        if (xmlDocument.startsWith(Constants.Inputs.HTTP_PREFIX_STRING) || xmlDocument.startsWith(Constants.Inputs.HTTPS_PREFIX_STRING)) {
-            URL xmlUrl = new URL(xmlDocument);
-            InputStream xmlStream = xmlUrl.openStream();
-            XmlUtils.parseXmlInputStream(xmlStream, features);
-            return new StreamSource(xmlStream);
-        } else {
-            if (new File(xmlDocument).exists()) {
-                XmlUtils.parseXmlFile(xmlDocument, features);
-                return new StreamSource(new FileInputStream(xmlDocument));
-            }
-            XmlUtils.parseXmlString(xmlDocument, features);
-            return new StreamSource(new StringReader(xmlDocument));
-
+    static Source readSource(String xmlDocument, String features) throws Exception {
+        if (isUrl(xmlDocument)) {
+            return readSource(UrlContentCache.getInstance().fetch(new URL(xmlDocument)).getBytes(), features);
+        }
+        final File xmlFile = new File(xmlDocument);
+        if (xmlFile.exists()) {
+            return readSource(FileUtils.readFileToByteArray(xmlFile), features);
         }
+        XmlUtils.parseXmlString(xmlDocument, features);
+        return new StreamSource(new StringReader(xmlDocument));
+    }
+
+    /**
+     * Validates the content read from a file or URL and returns it as a source. The content is read once and
+     * parsed from the same buffer by both the validation and the caller.
+     *
+     * @param content the xml content
+     * @return the resulting xml after validation
+     * @throws Exception in case the content is not a valid xml
+     */
+    static Source readSource(byte[] content, String features) throws Exception {
+        XmlUtils.parseXmlInputStream(new ByteArrayInputStream(content), features);
+        return new StreamSource(new ByteArrayInputStream(content));
+    }
+
+    static boolean isUrl(String xmlDocument) {
+        return xmlDocument.startsWith(Constants.Inputs.HTTP_PREFIX_STRING) || xmlDocument.startsWith(Constants.Inputs.HTTPS_PREFIX_STRING);
     }
 
     private Templates getTemplate(ApplyXslTransformationInputs applyXslTransformationInputs) throws Exception {
-        final TransformerFactory factory = TransformerFactory.newInstance();
-        return factory.newTemplates(readSource(applyXslTransformationInputs.getXslTemplate(), applyXslTransformationInputs.getParsingFeatures()));
+        return XslTemplatesCache.getInstance().getTemplates(applyXslTransformationInputs.getXslTemplate(), applyXslTransformationInputs.getParsingFeatures());
     }
 }
@@ -13,27 +13,44 @@
  * limitations under the License.
  */
 
+
 package io.cloudslang.content.xml.services;
 
-import com.google.gson.JsonArray;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
-import com.google.gson.JsonPrimitive;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
 import io.cloudslang.content.xml.entities.inputs.ConvertJsonToXmlInputs;
-import org.apache.commons.lang3.StringUtils;
-import org.jdom2.Attribute;
-import org.jdom2.Document;
-import org.jdom2.Element;
+import org.jdom2.IllegalAddException;
+import org.jdom2.IllegalDataException;
+import org.jdom2.IllegalNameException;
 import org.jdom2.Namespace;
-import org.jdom2.output.Format;
-import org.jdom2.output.XMLOutputter;
+import org.jdom2.Verifier;
 
-import java.util.ArrayList;
+import java.io.BufferedWriter;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
-import java.util.List;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.TreeMap;
 
 import static io.cloudslang.content.xml.utils.Constants.INDENT;
 import static io.cloudslang.content.xml.utils.Constants.JSON_ATTRIBUTE_PREFIX;
@@ -45,11 +62,22 @@ import static io.cloudslang.content.xml.utils.Constants.UTF_8_ENCODING;
 import static org.apache.commons.lang3.StringUtils.EMPTY;
 import static org.apache.commons.lang3.StringUtils.isBlank;
 import static org.apache.commons.lang3.StringUtils.isEmpty;
+import static org.apache.commons.lang3.StringUtils.isNotEmpty;
 
 /**
  * Created by ursan on 8/2/2016.
+ * <p>
+ * The JSON is read token by token and every XML element is written as soon as it is complete, so neither the JSON
+ * nor the XML document is held in memory. The output has the same format as the JDOM outputter used before.
+ * <p>
+ * The start tag of an element is written when its first child starts. An attribute that comes after a child in the
+ * JSON object is therefore found too late; when that happens the conversion is restarted after a first pass that
+ * collects the attributes of those objects.
  */
 public class ConvertJsonToXmlService {
+    private static final String XML_DECLARATION = "<?xml version=\"1.0\" encoding=\"" + UTF_8_ENCODING + "\"?>";
+    private static final Map<Integer, Map<String, String>> NO_LATE_ATTRIBUTES = Collections.emptyMap();
+
     private Map<String, String> jsonArrayItemNames;
     private String jsonArrayItemName;
     private final Map<String, Namespace> namespaces;
@@ -60,195 +88,599 @@ public class ConvertJsonToXmlService {
         jsonArrayItemNames = new HashMap<>();
     }
 
-    public String convertToXmlString(final ConvertJsonToXmlInputs inputs) {
-        if (isBlank(inputs.getJson())) {
+    public String convertToXmlString(final ConvertJsonToXmlInputs inputs) throws IOException {
+        if (isBlank(inputs.getJson()) && isEmpty(inputs.getFilePath())) {
             return EMPTY;
         }
-        final XMLOutputter xmlWriter = new XMLOutputter();
-        xmlWriter.setFormat(getFormat(inputs.getPrettyPrint(), inputs.getShowXmlDeclaration()));
-        if (inputs.getShowXmlDeclaration()) {
-            return xmlWriter.outputString(convertJsonStringToXmlDocument(inputs.getJson(), inputs.getRootTagName()));
+        final StringWriter writer = new StringWriter();
+        try {
+            convert(inputs, writer, NO_LATE_ATTRIBUTES);
+        } catch (LateAttributeException e) {
+            writer.getBuffer().setLength(0);
+            convert(inputs, writer, collectLateAttributes(inputs));
         }
-        return getXmlFromElements(convertJsonStringToXmlElements(inputs.getJson(), inputs.getRootTagName()), xmlWriter);
+        return writer.toString();
     }
 
-    private String getXmlFromElements(final List<Element> elements, final XMLOutputter xmlWriter) {
-        final StringBuilder result = new StringBuilder();
-        for (final Element element : elements) {
-            result.append(xmlWriter.outputString(element)).append(NEW_LINE);
+    /**
+     * Converts the JSON and writes the resulted XML, encoded as UTF-8, to the output file of the inputs.
+     * The file is overwritten if it exists. The XML is written to a temporary file in the same directory and renamed
+     * once complete, so a failed conversion leaves the output file as it was.
+     */
+    public void convertToXmlFile(final ConvertJsonToXmlInputs inputs) throws IOException {
+        try {
+            convertToFile(inputs, NO_LATE_ATTRIBUTES);
+        } catch (LateAttributeException e) {
+            convertToFile(inputs, collectLateAttributes(inputs));
+        }
+    }
+
+    private void convertToFile(final ConvertJsonToXmlInputs inputs, final Map<Integer, Map<String, String>> lateAttributes) throws IOException {
+        final Path outputFile = Paths.get(inputs.getOutputFile()).toAbsolutePath();
+        final Path temporaryFile = Files.createTempFile(outputFile.getParent(), outputFile.getFileName().toString(), ".tmp");
+        try {
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(temporaryFile.toFile()), StandardCharsets.UTF_8))) {
+                if (isNotBlankInput(inputs)) {
+                    convert(inputs, writer, lateAttributes);
+                }
+            }
+            try {
+                Files.move(temporaryFile, outputFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporaryFile, outputFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporaryFile);
         }
-        result.delete(result.length() - NEW_LINE.length(), result.length());
-        return result.toString();
     }
 
-    private Format getFormat(final boolean prettyPrint, final boolean showXmlDeclaration) {
-        final Format format = prettyPrint ? Format.getPrettyFormat().setIndent(INDENT) : Format.getCompactFormat();
-        return format.setOmitDeclaration(!showXmlDeclaration)
-                .setEncoding(UTF_8_ENCODING)
-                .setLineSeparator(NEW_LINE);
+    private void convert(final ConvertJsonToXmlInputs inputs, final Writer writer, final Map<Integer, Map<String, String>> lateAttributes) throws IOException {
+        try (JsonReader reader = openJson(inputs)) {
+            final XmlOutput output = new XmlOutput(writer, inputs.getPrettyPrint());
+            new Conversion(reader, output, lateAttributes).convertDocument(inputs.getShowXmlDeclaration(), inputs.getRootTagName());
+            writer.flush();
+        } catch (MalformedJsonException | EOFException | NumberFormatException e) {
+            // reported the way the Gson tree parser reports them
+            throw new JsonSyntaxException(e);
+        }
     }
 
-    private List<Element> convertJsonStringToXmlElements(final String json, final String rootTagName) {
-        final JsonElement jsonElement = new JsonParser().parse(json);
-        if (isEmpty(rootTagName)) {
-            return convertToXmlElementsJsonElement(jsonElement);
+    private Map<Integer, Map<String, String>> collectLateAttributes(final ConvertJsonToXmlInputs inputs) throws IOException {
+        final Map<Integer, Map<String, String>> lateAttributes = new HashMap<>();
+        try (JsonReader reader = openJson(inputs)) {
+            collectLateAttributes(reader, lateAttributes, new int[1]);
+        } catch (MalformedJsonException | EOFException | NumberFormatException e) {
+            throw new JsonSyntaxException(e);
         }
-        final Element root = convertToXmlElementJsonElementWithRootTag(jsonElement, rootTagName);
-        return Collections.singletonList(root);
+        return lateAttributes;
     }
 
-    private Document convertJsonStringToXmlDocument(final String json, final String rootTagName) {
-        final JsonElement jsonElement = new JsonParser().parse(json);
-        final Document document = new Document();
-        return document.setRootElement(addRootTagJsonElement(rootTagName, jsonElement));
+    // objects are numbered in document order, the same way the conversion numbers them
+    private static void collectLateAttributes(final JsonReader reader, final Map<Integer, Map<String, String>> lateAttributes,
+                                              final int[] objectCount) throws IOException {
+        switch (reader.peek()) {
+            case BEGIN_OBJECT:
+                final int ordinal = objectCount[0]++;
+                final Map<String, String> attributes = new LinkedHashMap<>();
+                boolean hasChildren = false;
+                boolean late = false;
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    final String name = reader.nextName();
+                    final boolean attribute = name.startsWith(JSON_ATTRIBUTE_PREFIX);
+                    if (attribute && isPrimitive(reader.peek())) {
+                        late |= hasChildren;
+                        attributes.put(name.substring(JSON_ATTRIBUTE_PREFIX.length()), getPrimitiveValue(reader));
+                    } else {
+                        hasChildren |= !attribute && reader.peek() != JsonToken.NULL;
+                        collectLateAttributes(reader, lateAttributes, objectCount);
+                    }
+                }
+                reader.endObject();
+                if (late) {
+                    lateAttributes.put(ordinal, attributes);
+                }
+                break;
+            case BEGIN_ARRAY:
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    collectLateAttributes(reader, lateAttributes, objectCount);
+                }
+                reader.endArray();
+                break;
+            default:
+                reader.skipValue();
+        }
+    }
 
+    private boolean isNotBlankInput(final ConvertJsonToXmlInputs inputs) {
+        return !isBlank(inputs.getJson()) || isNotEmpty(inputs.getFilePath());
     }
 
-    private Element addRootTagJsonElement(final String rootTagName, final JsonElement jsonElement) {
-        if (isEmpty(rootTagName)) {
-            if (jsonElement.isJsonArray()) {
-                // we don't know the root tag name
-                throw new IllegalArgumentException(ROOT_TAG_NAME_IS_MISSING);
-            } else {
-                final List<Element> elements = convertToXmlElementsJsonObject(jsonElement.getAsJsonObject());
-                if (elements.size() != 1) {
+    private JsonReader openJson(final ConvertJsonToXmlInputs inputs) throws IOException {
+        final JsonReader reader = isNotEmpty(inputs.getFilePath()) ?
+                new JsonReader(new InputStreamReader(new FileInputStream(inputs.getFilePath()), StandardCharsets.UTF_8)) :
+                new JsonReader(new StringReader(inputs.getJson()));
+        reader.setLenient(true);
+        return reader;
+    }
+
+    private static boolean isPrimitive(final JsonToken token) {
+        return token == JsonToken.STRING || token == JsonToken.NUMBER || token == JsonToken.BOOLEAN;
+    }
+
+    private static String getPrimitiveValue(final JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.BOOLEAN) {
+            return Boolean.toString(reader.nextBoolean());
+        }
+        // numbers keep their original text
+        return reader.nextString();
+    }
+
+    private QualifiedName createName(final String tagName) {
+        final String[] tagNames = tagName.split(NAMESPACE_DELIMITER);
+        final String name = tagNames.length == 1 ? tagName : tagNames[1];
+        Namespace namespace = tagNames.length == 1 ? null : namespaces.get(tagNames[0]);
+        if (namespace == null) {
+            namespace = Namespace.NO_NAMESPACE;
+        }
+        final String reason = Verifier.checkElementName(name);
+        if (reason != null) {
+            throw new IllegalNameException("The name \"" + name + "\" is not legal for JDOM/XML elements: " + reason + ".");
+        }
+        final QualifiedName qualifiedName = new QualifiedName(name, namespace);
+        // every element declares all the namespaces, one of them must not redefine the prefix of the element
+        final Namespace declared = namespaces.get(namespace.getPrefix());
+        if (declared != null && !declared.getURI().equals(namespace.getURI())) {
+            throw new IllegalAddException("The namespace " + getDeclaration(declared) + " could not be added as a namespace to \"" +
+                    qualifiedName.name + "\": " + Verifier.checkNamespaceCollision(declared, namespace));
+        }
+        return qualifiedName;
+    }
+
+    private static String getDeclaration(final Namespace namespace) {
+        final String prefix = namespace.getPrefix();
+        return "xmlns" + (prefix.isEmpty() ? EMPTY : NAMESPACE_DELIMITER + prefix) + "=\"" + escapeAttribute(namespace.getURI()) + "\"";
+    }
+
+    public void setJsonArrayItemNames(final Map<String, String> jsonArrayItemNames) {
+        this.jsonArrayItemNames = jsonArrayItemNames;
+    }
+
+    public void setJsonArrayItemName(final String jsonArrayItemName) {
+        this.jsonArrayItemName = jsonArrayItemName;
+    }
+
+    public void setNamespaces(final Map<String, String> namespacesString) {
+        for (final Map.Entry<String, String> entry : namespacesString.entrySet()) {
+            namespaces.put(entry.getValue(), Namespace.getNamespace(entry.getValue(), entry.getKey()));
+        }
+    }
+
+    /**
+     * One conversion of the JSON read by a reader, following the structure of the JSON values.
+     */
+    private final class Conversion {
+        private final JsonReader reader;
+        private final XmlOutput output;
+        private final Map<Integer, Map<String, String>> lateAttributes;
+        private int objectCount;
+
+        private Conversion(final JsonReader reader, final XmlOutput output, final Map<Integer, Map<String, String>> lateAttributes) {
+            this.reader = reader;
+            this.output = output;
+            this.lateAttributes = lateAttributes;
+        }
+
+        private void convertDocument(final boolean showXmlDeclaration, final String rootTagName) throws IOException {
+            final JsonToken token;
+            try {
+                token = reader.peek();
+            } catch (EOFException e) {
+                // an empty document converts to nothing
+                return;
+            }
+            if (showXmlDeclaration) {
+                output.writeDeclaration();
+                if (isEmpty(rootTagName)) {
+                    if (token == JsonToken.BEGIN_ARRAY) {
+                        // we don't know the root tag name
+                        throw new IllegalArgumentException(ROOT_TAG_NAME_IS_MISSING);
+                    }
                     // the JSON object must have only one element
-                    throw new IllegalArgumentException(ONLY_ONE_ROOT_ELEMENT);
+                    if (convertMembers(true) != 1) {
+                        throw new IllegalArgumentException(ONLY_ONE_ROOT_ELEMENT);
+                    }
+                } else {
+                    convertRoot(token, rootTagName);
+                }
+                output.writeLineSeparator();
+            } else if (isEmpty(rootTagName)) {
+                if (token == JsonToken.BEGIN_ARRAY) {
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        convertValue(jsonArrayItemName, getArrayItemName(jsonArrayItemName));
+                    }
+                    reader.endArray();
+                } else {
+                    convertMembers(false);
                 }
-                return elements.get(0);
+            } else {
+                convertRoot(token, rootTagName);
+            }
+            // like the Gson tree parser, anything after the value is checked strictly
+            reader.setLenient(false);
+            if (reader.peek() != JsonToken.END_DOCUMENT) {
+                throw new JsonSyntaxException("Did not consume the entire document.");
             }
         }
-        return convertToXmlElementJsonElementWithRootTag(jsonElement, rootTagName);
-    }
 
-    private Element convertJsonArrayToXmlElement(final JsonArray jsonArray, final String arrayName) {
-        final Element result = createElement(arrayName);
-        for (JsonElement itemJson : jsonArray) {
-            final Element elementToAdd = getXmlElementFromJsonElement(itemJson, jsonArrayItemName);
-            if (elementToAdd != null) {
-                result.addContent(elementToAdd);
+        private void convertRoot(final JsonToken token, final String rootTagName) throws IOException {
+            if (token == JsonToken.BEGIN_ARRAY) {
+                convertArray(rootTagName, jsonArrayItemName);
+            } else {
+                convertObject(rootTagName);
             }
         }
-        return result;
-    }
 
-    private List<Element> convertToXmlElementsJsonArray(final JsonArray jsonArray) {
-        return convertToXmlElementsJsonArray(jsonArray, jsonArrayItemName);
-    }
+        // the members of the top level object are converted to elements, without attributes
+        private int convertMembers(final boolean singleElement) throws IOException {
+            requireObject();
+            objectCount++;
+            int elements = 0;
+            reader.beginObject();
+            while (reader.hasNext()) {
+                final String name = reader.nextName();
+                if (reader.peek() == JsonToken.NULL) {
+                    reader.nextNull();
+                } else {
+                    if (singleElement && elements > 0) {
+                        throw new IllegalArgumentException(ONLY_ONE_ROOT_ELEMENT);
+                    }
+                    convertValue(name, getArrayItemName(name));
+                    elements++;
+                }
+            }
+            reader.endObject();
+            return elements;
+        }
 
-    private List<Element> convertToXmlElementsJsonArray(final JsonArray jsonArray, final String itemName) {
-        final List<Element> result = new ArrayList<>();
-        for (JsonElement itemJson : jsonArray) {
-            final Element xmlItem = getXmlElementFromJsonElement(itemJson, itemName);
-            if (xmlItem != null) {
-                result.add(xmlItem);
+        private void convertValue(final String tagName, final String arrayItemName) throws IOException {
+            switch (reader.peek()) {
+                case BEGIN_OBJECT:
+                    convertObject(tagName);
+                    break;
+                case BEGIN_ARRAY:
+                    convertArray(tagName, arrayItemName);
+                    break;
+                case NULL:
+                    //if it's null we don't care
+                    reader.nextNull();
+                    break;
+                default:
+                    final QualifiedName name = createName(tagName);
+                    output.writeTextElement(name, getPrimitiveValue(reader));
             }
         }
-        return result;
-    }
 
+        private void convertArray(final String tagName, final String itemName) throws IOException {
+            output.startElement(createName(tagName));
+            reader.beginArray();
+            while (reader.hasNext()) {
+                convertValue(itemName, getArrayItemName(itemName));
+            }
+            reader.endArray();
+            output.endElement();
+        }
 
-    private List<Element> convertToXmlElementsJsonElement(final JsonElement jsonElement) {
-        if (jsonElement.isJsonArray()) {
-            return convertToXmlElementsJsonArray(jsonElement.getAsJsonArray());
+        private void convertObject(final String tagName) throws IOException {
+            requireObject();
+            final Map<String, String> attributes = lateAttributes.get(objectCount++);
+            output.startElement(createName(tagName));
+            if (attributes != null) {
+                for (final Map.Entry<String, String> attribute : attributes.entrySet()) {
+                    output.addAttribute(attribute.getKey(), attribute.getValue());
+                }
+            }
+            reader.beginObject();
+            while (reader.hasNext()) {
+                final String childTagName = reader.nextName();
+                //this child element is an XML attribute
+                if (childTagName.startsWith(JSON_ATTRIBUTE_PREFIX)) {
+                    //if attribute value is not a primitive value we don't add it to xml element
+                    if (!isPrimitive(reader.peek())) {
+                        skipValue();
+                    } else if (attributes == null) {
+                        output.addAttribute(childTagName.substring(JSON_ATTRIBUTE_PREFIX.length()), getPrimitiveValue(reader));
+                    } else {
+                        reader.skipValue();
+                    }
+                } else {
+                    convertValue(childTagName, getArrayItemName(childTagName));
+                }
+            }
+            reader.endObject();
+            output.endElement();
         }
-        return convertToXmlElementsJsonObject(jsonElement.getAsJsonObject());
-    }
 
-    private Element convertToXmlElementJsonElementWithRootTag(final JsonElement jsonElement, final String rootTagName) {
-        if (jsonElement.isJsonArray()) {
-            return convertJsonArrayToXmlElement(jsonElement.getAsJsonArray(), rootTagName);
+        private String getArrayItemName(final String arrayName) {
+            return jsonArrayItemNames.containsKey(arrayName) ? jsonArrayItemNames.get(arrayName) : jsonArrayItemName;
         }
-        return convertJsonObjectToXmlElement(jsonElement.getAsJsonObject(), rootTagName);
-    }
 
-    private List<Element> convertToXmlElementsJsonObject(final JsonObject jsonObject) {
-        final List<Element> result = new ArrayList<>();
-        for (final Map.Entry<String, JsonElement> entry : jsonObject.entrySet()) {
-            final String childTagName = entry.getKey();
-            final JsonElement childJson = entry.getValue();
-            //if it's null we don't care
-            final Element elementToAdd = getXmlElementFromJsonElement(childJson, childTagName);
-            if (elementToAdd != null) {
-                result.add(elementToAdd);
+        private void requireObject() throws IOException {
+            if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+                throw new IllegalStateException("Not a JSON Object: " + new JsonParser().parse(reader));
             }
         }
-        return result;
-    }
 
-    private Element getXmlElementFromJsonElement(final JsonElement childJson, final String childTagName) {
-        if (childJson.isJsonPrimitive()) {
-            final String childValue = getJsonPrimitiveValue(childJson.getAsJsonPrimitive());
-            return createElement(childTagName).setText(childValue);
-        } else if (childJson.isJsonObject()) {
-            return convertJsonObjectToXmlElement(childJson.getAsJsonObject(), childTagName);
-        } else if (childJson.isJsonArray()) {
-            final String itemName = jsonArrayItemNames.containsKey(childTagName) ?
-                    jsonArrayItemNames.get(childTagName) : jsonArrayItemName;
-            final Element container = createElement(childTagName);
-            final List<Element> elements = convertToXmlElementsJsonArray(childJson.getAsJsonArray(), itemName);
-            for (final Element element : elements) {
-                container.addContent(element);
+        private void skipValue() throws IOException {
+            switch (reader.peek()) {
+                case BEGIN_OBJECT:
+                    objectCount++;
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        reader.nextName();
+                        skipValue();
+                    }
+                    reader.endObject();
+                    break;
+                case BEGIN_ARRAY:
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        skipValue();
+                    }
+                    reader.endArray();
+                    break;
+                default:
+                    reader.skipValue();
             }
-            return container;
         }
-        return null;
     }
 
-    private Element convertJsonObjectToXmlElement(final JsonObject jsonObject, final String tagName) {
-        final Element result = createElement(tagName);
-        for (final Map.Entry<String, JsonElement> entry : jsonObject.entrySet()) {
-            String childTagName = entry.getKey();
-            final JsonElement childJson = entry.getValue();
-            //this child element is an XML attribute
-            if (childTagName.startsWith(JSON_ATTRIBUTE_PREFIX)) {
-                //if attribute value is not a primitive value we don't add it to xml element
-                if (childJson.isJsonPrimitive()) {
-                    //remove @ char from the attribute name
-                    childTagName = childTagName.substring(JSON_ATTRIBUTE_PREFIX.length());
-                    final String attributeValue = getJsonPrimitiveValue(childJson.getAsJsonPrimitive());
-                    result.setAttribute(new Attribute(childTagName, attributeValue));
+    /**
+     * Writes elements in the format of the JDOM outputter: compact with normalized text, or pretty printed with
+     * trimmed text. Top level elements declare all the namespaces and are separated by new lines.
+     */
+    private final class XmlOutput {
+        private final Writer writer;
+        private final boolean prettyPrint;
+        private final Deque<QualifiedName> openElements = new ArrayDeque<>();
+        private final Map<String, String> attributes = new LinkedHashMap<>();
+        private boolean startTagPending;
+        private boolean topLevelWritten;
+
+        private XmlOutput(final Writer writer, final boolean prettyPrint) {
+            this.writer = writer;
+            this.prettyPrint = prettyPrint;
+        }
+
+        private void writeDeclaration() throws IOException {
+            writer.write(XML_DECLARATION);
+            writeLineSeparator();
+        }
+
+        private void writeLineSeparator() throws IOException {
+            writer.write(NEW_LINE);
+        }
+
+        private void startElement(final QualifiedName name) throws IOException {
+            if (startTagPending) {
+                writeStartTag();
+                writer.write('>');
+            }
+            if (openElements.isEmpty()) {
+                if (topLevelWritten) {
+                    writeLineSeparator();
                 }
-            } else {
-                //if it's null we don't care
-                final Element elementToAdd = getXmlElementFromJsonElement(childJson, childTagName);
-                if (elementToAdd != null) {
-                    result.addContent(elementToAdd);
+                topLevelWritten = true;
+            } else if (prettyPrint) {
+                writeIndent(openElements.size());
+            }
+            openElements.push(name);
+            startTagPending = true;
+        }
+
+        private void addAttribute(final String name, final String value) {
+            if (!startTagPending) {
+                throw new LateAttributeException();
+            }
+            String reason = Verifier.checkAttributeName(name);
+            if (reason != null) {
+                throw new IllegalNameException("The name \"" + name + "\" is not legal for JDOM/XML attributes: " + reason + ".");
+            }
+            reason = Verifier.checkCharacterData(value);
+            if (reason != null) {
+                throw new IllegalDataException("The data \"" + value + "\" is not legal for a JDOM attribute: " + reason + ".");
+            }
+            attributes.put(name, value);
+        }
+
+        private void writeTextElement(final QualifiedName name, final String text) throws IOException {
+            final String reason = Verifier.checkCharacterData(text);
+            if (reason != null) {
+                throw new IllegalDataException("The data \"" + text + "\" is not legal for a JDOM character content: " + reason + ".");
+            }
+            startElement(name);
+            final String content = prettyPrint ? trim(text) : normalize(text);
+            if (content.isEmpty()) {
+                endElement();
+                return;
+            }
+            writeStartTag();
+            writer.write('>');
+            writer.write(escapeText(content));
+            openElements.pop();
+            writeEndTag(name);
+        }
+
+        private void endElement() throws IOException {
+            final QualifiedName name = openElements.peek();
+            if (startTagPending) {
+                writeStartTag();
+                writer.write(" />");
+                openElements.pop();
+                return;
+            }
+            openElements.pop();
+            if (prettyPrint) {
+                writeIndent(openElements.size());
+            }
+            writeEndTag(name);
+        }
+
+        private void writeStartTag() throws IOException {
+            final QualifiedName name = openElements.peek();
+            writer.write('<');
+            writer.write(name.qualifiedName);
+            if (openElements.size() == 1) {
+                writeNamespaceDeclarations(name.namespace);
+            }
+            for (final Map.Entry<String, String> attribute : attributes.entrySet()) {
+                writer.write(' ');
+                writer.write(attribute.getKey());
+                writer.write("=\"");
+                writer.write(escapeAttribute(attribute.getValue()));
+                writer.write('"');
+            }
+            attributes.clear();
+            startTagPending = false;
+        }
+
+        // the namespace of the element first, then the other ones ordered by prefix
+        private void writeNamespaceDeclarations(final Namespace elementNamespace) throws IOException {
+            if (!Namespace.NO_NAMESPACE.equals(elementNamespace)) {
+                writer.write(' ');
+                writer.write(getDeclaration(elementNamespace));
+            }
+            for (final Namespace namespace : new TreeMap<>(namespaces).values()) {
+                if (!namespace.equals(elementNamespace)) {
+                    writer.write(' ');
+                    writer.write(getDeclaration(namespace));
                 }
             }
         }
-        return result;
+
+        private void writeEndTag(final QualifiedName name) throws IOException {
+            writer.write("</");
+            writer.write(name.qualifiedName);
+            writer.write('>');
+        }
+
+        private void writeIndent(final int depth) throws IOException {
+            writeLineSeparator();
+            for (int i = 0; i < depth; i++) {
+                writer.write(INDENT);
+            }
+        }
     }
 
-    private Element createElement(final String tagName) {
-        final String[] tagNames = tagName.split(NAMESPACE_DELIMITER);
-        final Element result = tagNames.length == 1 ? new Element(tagName) : new Element(tagNames[1], namespaces.get(tagNames[0]));
-        for (Namespace namespace : namespaces.values()) {
-            result.addNamespaceDeclaration(namespace);
+    private static final class QualifiedName {
+        private final String name;
+        private final Namespace namespace;
+        private final String qualifiedName;
+
+        private QualifiedName(final String name, final Namespace namespace) {
+            this.name = name;
+            this.namespace = namespace;
+            this.qualifiedName = namespace.getPrefix().isEmpty() ? name : namespace.getPrefix() + NAMESPACE_DELIMITER + name;
         }
-        return result;
     }
 
-    private String getJsonPrimitiveValue(final JsonPrimitive jsonPrimitive) {
-        if (jsonPrimitive.isNumber()) {
-            return jsonPrimitive.getAsNumber().toString();
-        } else if (jsonPrimitive.isBoolean()) {
-            return Boolean.toString(jsonPrimitive.getAsBoolean());
+    /**
+     * Thrown when an attribute of an element is found after the start tag of the element was written.
+     */
+    private static final class LateAttributeException extends RuntimeException {
+    }
+
+    private static boolean isXmlWhitespace(final char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\r';
+    }
+
+    private static String trim(final String text) {
+        int start = 0;
+        int end = text.length();
+        while (start < end && isXmlWhitespace(text.charAt(start))) {
+            start++;
         }
-        return jsonPrimitive.getAsString();
+        while (end > start && isXmlWhitespace(text.charAt(end - 1))) {
+            end--;
+        }
+        return text.substring(start, end);
     }
 
-    public void setJsonArrayItemNames(final Map<String, String> jsonArrayItemNames) {
-        this.jsonArrayItemNames = jsonArrayItemNames;
+    // trims the text and replaces every run of whitespace with a single space
+    private static String normalize(final String text) {
+        final StringBuilder result = new StringBuilder(text.length());
+        boolean whitespace = false;
+        for (int i = 0; i < text.length(); i++) {
+            final char c = text.charAt(i);
+            if (isXmlWhitespace(c)) {
+                whitespace = true;
+            } else {
+                if (whitespace && result.length() > 0) {
+                    result.append(' ');
+                }
+                whitespace = false;
+                result.append(c);
+            }
+        }
+        return result.toString();
     }
 
-    public void setJsonArrayItemName(final String jsonArrayItemName) {
-        this.jsonArrayItemName = jsonArrayItemName;
+    private static String escapeText(final String text) {
+        final StringBuilder result = new StringBuilder(text.length() + 16);
+        for (int i = 0; i < text.length(); i++) {
+            final char c = text.charAt(i);
+            switch (c) {
+                case '<':
+                    result.append("&lt;");
+                    break;
+                case '>':
+                    result.append("&gt;");
+                    break;
+                case '&':
+                    result.append("&amp;");
+                    break;
+                case '\r':
+                    result.append("&#xD;");
+                    break;
+                default:
+                    result.append(c);
+            }
+        }
+        return result.toString();
     }
 
-    public void setNamespaces(final Map<String, String> namespacesString) {
-        for (final Map.Entry<String, String> entry : namespacesString.entrySet()) {
-            namespaces.put(entry.getValue(), Namespace.getNamespace(entry.getValue(), entry.getKey()));
+    private static String escapeAttribute(final String value) {
+        final StringBuilder result = new StringBuilder(value.length() + 16);
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            switch (c) {
+                case '<':
+                    result.append("&lt;");
+                    break;
+                case '>':
+                    result.append("&gt;");
+                    break;
+                case '"':
+                    result.append("&quot;");
+                    break;
+                case '&':
+                    result.append("&amp;");
+                    break;
+                case '\r':
+                    result.append("&#xD;");
+                    break;
+                case '\t':
+                    result.append("&#x9;");
+                    break;
+                case '\n':
+                    result.append("&#xA;");
+                    break;
+                default:
+                    result.append(c);
+            }
         }
+        return result.toString();
     }
 }
@@ -13,42 +13,63 @@
  * limitations under the License.
  */
 
+
 package io.cloudslang.content.xml.services;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.JsonArray;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonPrimitive;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.PrettyPrinter;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.CharacterEscapes;
+import com.fasterxml.jackson.core.io.SerializedString;
 import io.cloudslang.content.xml.entities.inputs.ConvertXmlToJsonInputs;
-import io.cloudslang.content.xml.utils.XmlUtils;
+import io.cloudslang.content.xml.utils.XmlFactories;
 import org.apache.commons.lang3.StringUtils;
-import org.jdom2.Attribute;
-import org.jdom2.Element;
-import org.jdom2.JDOMException;
-import org.jdom2.Namespace;
-import org.jdom2.input.SAXBuilder;
-import org.jetbrains.annotations.NotNull;
+import org.xml.sax.Attributes;
 import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
+import org.xml.sax.SAXParseException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
 
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
 import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import static io.cloudslang.content.xml.utils.Constants.Defaults;
 import static io.cloudslang.content.xml.utils.Constants.Defaults.PREFIX_DELIMITER;
 import static io.cloudslang.content.xml.utils.Constants.JSON_ATTRIBUTE_PREFIX;
 import static org.apache.commons.lang3.StringUtils.EMPTY;
-import static org.apache.commons.lang3.StringUtils.isNotEmpty;
 
 /**
  * Created by ursan on 8/2/2016.
+ * <p>
+ * The document is read with a single SAX pass into a compact tree where the children of every element are grouped by
+ * name as they are parsed, so repeated names (JSON arrays) are known without rescanning the siblings. The JSON is then
+ * written directly to the output with a Jackson generator, formatted the same way Gson formats it.
  */
 public class ConvertXmlToJsonService {
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final CharacterEscapes GSON_ESCAPES = new GsonCharacterEscapes();
+    private static final String XMLNS = "xmlns";
+
     private final StringBuilder namespacesPrefixes;
     private final StringBuilder namespacesUris;
 
@@ -57,183 +78,409 @@ public class ConvertXmlToJsonService {
         namespacesUris = new StringBuilder();
     }
 
-    public String convertToJsonString(final ConvertXmlToJsonInputs inputs) throws JDOMException, IOException, SAXException {
+    public String convertToJsonString(final ConvertXmlToJsonInputs inputs) throws IOException, SAXException, ParserConfigurationException {
         if (StringUtils.isBlank(inputs.getXml())) {
             return EMPTY;
         }
-        final InputSource inputSource = new InputSource(new StringReader(inputs.getXml()));
-        final SAXBuilder builder = new SAXBuilder();
-        XmlUtils.setFeatures(builder, inputs.getParsingFeatures());
-        final Element root = builder.build(inputSource).getRootElement();
-        final List<Element> xmlElements = Collections.singletonList(root);
-        if (root.getChildren().isEmpty() && !inputs.getIncludeAttributes()) {
-            return prettyPrint(addJsonObjectsAndPrimitives(new JsonObject(), xmlElements, inputs.getIncludeAttributes(), inputs.getTextElementsName()),
-                    inputs.getPrettyPrint());
-        }
-        final JsonObject jsonObjectValue = convertXmlElementsToJsonObject(xmlElements, inputs.getIncludeAttributes(), inputs.getTextElementsName());
-        final JsonObject jsonObject = getJsonObjectWithRootElement(root, jsonObjectValue, inputs.getIncludeRootElement());
-        return prettyPrint(jsonObject, inputs.getPrettyPrint());
+        final StringWriter writer = new StringWriter();
+        convertToJson(inputs, writer);
+        return writer.toString();
     }
 
-
-    private JsonObject getJsonObjectWithRootElement(final Element rootElement, final JsonObject jsonObject, final boolean addRootElement) {
-        if (addRootElement) {
-            final JsonObject rootJson = new JsonObject();
-            rootJson.add(rootElement.getName(), jsonObject);
-            return rootJson;
+    /**
+     * Converts the XML document and writes the resulted JSON, encoded as UTF-8, to the output file of the inputs.
+     * The file is overwritten if it exists. The JSON is written to a temporary file next to the output file first, so
+     * a failed conversion leaves an existing output file unchanged.
+     */
+    public void convertToJsonFile(final ConvertXmlToJsonInputs inputs) throws IOException, SAXException, ParserConfigurationException {
+        final Path outputFile = Paths.get(inputs.getOutputFile()).toAbsolutePath();
+        final Path temporaryFile = Files.createTempFile(outputFile.getParent(), outputFile.getFileName().toString(), ".tmp");
+        try {
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(temporaryFile.toFile()), StandardCharsets.UTF_8))) {
+                if (StringUtils.isNotBlank(inputs.getXml())) {
+                    convertToJson(inputs, writer);
+                }
+            }
+            try {
+                Files.move(temporaryFile, outputFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporaryFile, outputFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporaryFile);
         }
-        return jsonObject;
     }
 
-    private String prettyPrint(final JsonObject rootJson, final boolean prettyPrint) {
-        if (prettyPrint) {
-            final Gson gson = new GsonBuilder().setPrettyPrinting()
-                    .disableHtmlEscaping()
-                    .create();
-            return gson.toJson(rootJson);
+    private void convertToJson(final ConvertXmlToJsonInputs inputs, final Writer writer) throws IOException, SAXException, ParserConfigurationException {
+        final XmlElement root = parse(inputs);
+        final JsonGenerator generator = JSON_FACTORY.createGenerator(writer);
+        generator.setCharacterEscapes(GSON_ESCAPES);
+        if (inputs.getPrettyPrint()) {
+            generator.setPrettyPrinter(new GsonPrettyPrinter());
         }
-        return rootJson.toString();
-    }
-
-
-    private JsonObject addJsonObjectsAndPrimitives(final JsonObject jsonObject, final List<Element> elements, final boolean includeAttributes, final String textPropName) {
-        for (final Element element : elements) {
-            final JsonElement jsonElement = isPrimitiveElement(element) ?
-                    new JsonPrimitive(element.getValue()) : convertXmlElementsToJsonObject(Collections.singletonList(element), includeAttributes, textPropName);
-            jsonObject.add(getElementFullName(element), jsonElement);
+        if (root.children == null && !inputs.getIncludeAttributes()) {
+            generator.writeStartObject();
+            generator.writeFieldName(root.fullName);
+            writeElement(generator, root, inputs);
+            generator.writeEndObject();
+        } else if (inputs.getIncludeRootElement()) {
+            generator.writeStartObject();
+            generator.writeFieldName(root.localName);
+            writeJsonObject(generator, root, inputs);
+            generator.writeEndObject();
+        } else {
+            writeJsonObject(generator, root, inputs);
         }
-        return jsonObject;
+        generator.flush();
     }
 
-    private JsonObject convertXmlElementsToJsonObject(final List<Element> xmlElements, final boolean includeAttributes, final String textPropName) {
-        JsonObject result = new JsonObject();
-        for (final Element xmlElement : xmlElements) {
-            result = addXmlElementToJsonObject(result, xmlElement, includeAttributes, textPropName);
+    private XmlElement parse(final ConvertXmlToJsonInputs inputs) throws IOException, SAXException, ParserConfigurationException {
+        final XMLReader reader = XmlFactories.getXmlReader(inputs.getParsingFeatures());
+        final TreeHandler handler = new TreeHandler(inputs.getIncludeAttributes());
+        reader.setContentHandler(handler);
+        reader.setErrorHandler(handler);
+        try {
+            reader.parse(new InputSource(new StringReader(inputs.getXml())));
+        } catch (SAXParseException e) {
+            // keep the message format of the previous JDOM based parsing
+            throw new SAXParseException("Error on line " + e.getLineNumber() + ": " + e.getMessage(),
+                    e.getPublicId(), e.getSystemId(), e.getLineNumber(), e.getColumnNumber(), e);
         }
-        return result;
+        return handler.root;
     }
 
-    private JsonArray convertXmlElementsToJsonArray(final List<Element> xmlElements, final boolean includeAttributes, final String textPropName) {
-        final JsonArray result = new JsonArray();
-        for (final Element xmlElement : xmlElements) {
-            result.add(addXmlElementToJsonObject(new JsonObject(), xmlElement, includeAttributes, textPropName));
+    private void writeElement(final JsonGenerator generator, final XmlElement element, final ConvertXmlToJsonInputs inputs) throws IOException {
+        if (element.isPrimitive()) {
+            generator.writeString(element.getText());
+        } else {
+            writeJsonObject(generator, element, inputs);
         }
-        return result;
-    }
-
-    private JsonObject addXmlElementToJsonObject(JsonObject jsonObject, final Element xmlElement, final boolean includeAttributes, final String textPropName) {
-        addNamespaces(xmlElement.getAdditionalNamespaces());
-        if (includeAttributes) {
-            jsonObject = addAttributesToJsonObject(jsonObject, xmlElement.getAttributes());
-        }
-        List<Element> children = xmlElement.getChildren();
-        jsonObject = searchAndAddArrayElementsToJsonObject(jsonObject, children, includeAttributes, textPropName);
-        children = eliminateArrayElements(children);
-        jsonObject = addJsonObjectsAndPrimitives(jsonObject, children, includeAttributes, textPropName);
-        jsonObject = addTextProp(jsonObject, xmlElement.getText(), textPropName);
-        return jsonObject;
     }
 
-    private JsonObject searchAndAddArrayElementsToJsonObject(final JsonObject jsonObject, final List<Element> elements, final boolean includeAttributes, final String textPropName) {
-        final List<String> arrayElementsNames = getListOfArrayElementNames(elements);
-        for (final String arrayName : arrayElementsNames) {
-            final List<Element> arrayElements = getElementsByName(arrayName, elements);
-            jsonObject.add(arrayName, convertXmlElementsToJsonArray(arrayElements, includeAttributes, textPropName));
+    private void writeJsonObject(final JsonGenerator generator, final XmlElement element, final ConvertXmlToJsonInputs inputs) throws IOException {
+        addNamespaces(element.namespaces);
+        // a later property with the same name replaces the value of the earlier one but keeps its position
+        final Map<String, Object> properties = new LinkedHashMap<>();
+        if (inputs.getIncludeAttributes()) {
+            for (int i = 0; i < element.attributeNames.length; i++) {
+                properties.put(JSON_ATTRIBUTE_PREFIX + element.attributeNames[i], element.attributeValues[i]);
+            }
+        }
+        if (element.children != null) {
+            for (final Map.Entry<String, List<XmlElement>> entry : element.children.entrySet()) {
+                if (entry.getValue().size() > 1) {
+                    properties.put(entry.getKey(), entry.getValue());
+                }
+            }
+            for (final Map.Entry<String, List<XmlElement>> entry : element.children.entrySet()) {
+                if (entry.getValue().size() == 1) {
+                    properties.put(entry.getKey(), entry.getValue().get(0));
+                }
+            }
+        }
+        if (hasTextContent(element.text)) {
+            properties.put(inputs.getTextElementsName(), element.getText());
         }
-        return jsonObject;
-    }
 
-    private List<Element> eliminateArrayElements(List<Element> elements) {
-        final List<String> arrayElementsNames = getListOfArrayElementNames(elements);
-        for (final String arrayName : arrayElementsNames) {
-            elements = eliminateElementsWithName(arrayName, elements);
+        generator.writeStartObject();
+        for (final Map.Entry<String, Object> property : properties.entrySet()) {
+            generator.writeFieldName(property.getKey());
+            final Object value = property.getValue();
+            if (value instanceof XmlElement) {
+                writeElement(generator, (XmlElement) value, inputs);
+            } else if (value instanceof List) {
+                generator.writeStartArray();
+                for (final Object arrayElement : (List) value) {
+                    writeJsonObject(generator, (XmlElement) arrayElement, inputs);
+                }
+                generator.writeEndArray();
+            } else {
+                generator.writeString((String) value);
+            }
         }
-        return elements;
+        generator.writeEndObject();
     }
 
-    private JsonObject addTextProp(final JsonObject jsonObject, final String text, final String textPropName) {
-        if (isNotEmpty(text) && text.matches(".*[a-zA-Z0-9].*")) {
-            jsonObject.addProperty(textPropName, text);
+    // same as text.matches(".*[a-zA-Z0-9].*"): no line terminator and at least one ASCII letter or digit
+    private static boolean hasTextContent(final CharSequence text) {
+        if (text == null) {
+            return false;
         }
-        return jsonObject;
+        boolean alphanumeric = false;
+        for (int i = 0; i < text.length(); i++) {
+            final char c = text.charAt(i);
+            if (c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029') {
+                return false;
+            }
+            alphanumeric |= (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
+        }
+        return alphanumeric;
     }
 
-    private void addNamespaces(final List<Namespace> namespaces) {
-        for (final Namespace namespace : namespaces) {
+    private void addNamespaces(final List<String[]> namespaces) {
+        if (namespaces == null) {
+            return;
+        }
+        for (final String[] namespace : namespaces) {
             if (namespacesUris.length() > 0) {
                 namespacesPrefixes.append(Defaults.DELIMITER);
                 namespacesUris.append(Defaults.DELIMITER);
             }
-            namespacesPrefixes.append(namespace.getPrefix());
-            namespacesUris.append(namespace.getURI());
+            namespacesPrefixes.append(namespace[0]);
+            namespacesUris.append(namespace[1]);
         }
     }
 
-    private JsonObject addAttributesToJsonObject(final JsonObject jsonObject, final List<Attribute> attributes) {
-        for (final Attribute attribute : attributes) {
-            jsonObject.addProperty(JSON_ATTRIBUTE_PREFIX + attribute.getName(), attribute.getValue());
-        }
-        return jsonObject;
+    public String getNamespacesUris() {
+        return namespacesUris.toString();
     }
 
-    @NotNull
-    private String getElementFullName(final Element element) {
-        final StringBuilder name = new StringBuilder(element.getNamespacePrefix());
-        if (!element.getNamespacePrefix().isEmpty())
-            name.append(PREFIX_DELIMITER);
-        name.append(element.getName());
-        return name.toString();
+    public String getNamespacesPrefixes() {
+        return namespacesPrefixes.toString();
     }
 
-    private List<String> getElementsFullName(final List<Element> elements) {
-        final List<String> names = new ArrayList<>();
-        for (final Element element : elements) {
-            names.add(getElementFullName(element));
+    private static final class XmlElement {
+        private static final String[] NO_ATTRIBUTES = new String[0];
+
+        private final String fullName;
+        private final String localName;
+        private final boolean hasAttributes;
+        private String[] attributeNames = NO_ATTRIBUTES;
+        private String[] attributeValues = NO_ATTRIBUTES;
+        private List<String[]> namespaces;
+        private Map<String, List<XmlElement>> children;
+        private StringBuilder text;
+
+        private XmlElement(final String fullName, final String localName, final boolean hasAttributes) {
+            this.fullName = fullName;
+            this.localName = localName;
+            this.hasAttributes = hasAttributes;
+        }
+
+        //if it doesn't have child and doesn't have attributes it's primitive.
+        private boolean isPrimitive() {
+            return children == null && !hasAttributes;
         }
-        return names;
-    }
 
+        private void addChild(final XmlElement child) {
+            if (children == null) {
+                children = new LinkedHashMap<>();
+            }
+            List<XmlElement> sameName = children.get(child.fullName);
+            if (sameName == null) {
+                sameName = new ArrayList<>(1);
+                children.put(child.fullName, sameName);
+            }
+            sameName.add(child);
+        }
 
-    private boolean isPrimitiveElement(final Element element) {
-        return element.getChildren().isEmpty() && element.getAttributes().isEmpty(); //if it doesn't have child and doesn't have attributes it's primitive.
+        private String getText() {
+            return text == null ? EMPTY : text.toString();
+        }
     }
 
-    private List<String> getListOfArrayElementNames(final List<Element> elements) {
-        final List<String> names = new ArrayList<>();
-        final List<String> elementsStr = getElementsFullName(elements);
-        for (final String name : elementsStr) {
-            if (elementsStr.indexOf(name) != elementsStr.lastIndexOf(name) && !names.contains(name)) {
-                names.add(name);
+    private static final class TreeHandler extends DefaultHandler {
+        private final boolean includeAttributes;
+        private final Deque<XmlElement> openElements = new ArrayDeque<>();
+        private List<String[]> declaredNamespaces;
+        private XmlElement root;
+
+        private TreeHandler(final boolean includeAttributes) {
+            this.includeAttributes = includeAttributes;
+        }
+
+        @Override
+        public void startPrefixMapping(final String prefix, final String uri) {
+            if (declaredNamespaces == null) {
+                declaredNamespaces = new ArrayList<>(2);
             }
+            declaredNamespaces.add(new String[]{prefix, uri});
         }
-        return names;
-    }
 
-    private List<Element> getElementsByName(final String arrayName, final List<Element> elementsToSearch) {
-        final List<Element> elements = new ArrayList<>();
-        for (Element element : elementsToSearch) {
-            if (getElementFullName(element).equals(arrayName)) {
-                elements.add(element);
+        @Override
+        public void startElement(final String uri, final String localName, final String qName, final Attributes attributes) {
+            final int attributesCount = countAttributes(attributes);
+            final XmlElement element = new XmlElement(qName, localName, attributesCount > 0);
+            if (includeAttributes && attributesCount > 0) {
+                element.attributeNames = new String[attributesCount];
+                element.attributeValues = new String[attributesCount];
+                int index = 0;
+                for (int i = 0; i < attributes.getLength(); i++) {
+                    if (!isNamespaceDeclaration(attributes.getQName(i))) {
+                        element.attributeNames[index] = attributes.getLocalName(i);
+                        element.attributeValues[index++] = attributes.getValue(i);
+                    }
+                }
+            }
+            if (declaredNamespaces != null) {
+                element.namespaces = additionalNamespaces(qName, uri);
+                declaredNamespaces = null;
+            }
+            if (openElements.isEmpty()) {
+                root = element;
+            } else {
+                openElements.peek().addChild(element);
+            }
+            openElements.push(element);
+        }
+
+        @Override
+        public void endElement(final String uri, final String localName, final String qName) {
+            openElements.pop();
+        }
+
+        @Override
+        public void characters(final char[] ch, final int start, final int length) {
+            final XmlElement element = openElements.peek();
+            if (element != null) {
+                if (element.text == null) {
+                    element.text = new StringBuilder(length);
+                }
+                element.text.append(ch, start, length);
             }
         }
-        return elements;
-    }
 
-    private List<Element> eliminateElementsWithName(final String arrayName, final List<Element> elements) {
-        final List<Element> newElements = new ArrayList<>();
-        for (final Element element : elements) {
-            if (!getElementFullName(element).equals(arrayName)) {
-                newElements.add(element);
+        @Override
+        public void ignorableWhitespace(final char[] ch, final int start, final int length) {
+            characters(ch, start, length);
+        }
+
+        @Override
+        public void error(final SAXParseException e) throws SAXException {
+            throw e;
+        }
+
+        // the declarations made on the element, except the one of the element's own namespace
+        private List<String[]> additionalNamespaces(final String qName, final String uri) {
+            final int prefixEnd = qName.indexOf(PREFIX_DELIMITER);
+            final String prefix = prefixEnd == -1 ? EMPTY : qName.substring(0, prefixEnd);
+            final List<String[]> namespaces = new ArrayList<>(declaredNamespaces.size());
+            for (final String[] namespace : declaredNamespaces) {
+                if (!(namespace[0].equals(prefix) && namespace[1].equals(uri))) {
+                    namespaces.add(namespace);
+                }
+            }
+            return namespaces;
+        }
+
+        private static int countAttributes(final Attributes attributes) {
+            int count = 0;
+            for (int i = 0; i < attributes.getLength(); i++) {
+                if (!isNamespaceDeclaration(attributes.getQName(i))) {
+                    count++;
+                }
             }
+            return count;
+        }
+
+        // reported as attributes only when the namespace-prefixes parsing feature is turned on
+        private static boolean isNamespaceDeclaration(final String qName) {
+            return qName.startsWith(XMLNS) && (qName.length() == XMLNS.length() || qName.charAt(XMLNS.length()) == PREFIX_DELIMITER.charAt(0));
         }
-        return newElements;
     }
 
-    public String getNamespacesUris() {
-        return namespacesUris.toString();
+    /**
+     * Indents with two spaces and separates names from values with ": ", like Gson's pretty printing.
+     */
+    private static final class GsonPrettyPrinter implements PrettyPrinter {
+        private static final String INDENT = "  ";
+        private int nesting;
+
+        @Override
+        public void writeRootValueSeparator(final JsonGenerator generator) throws IOException {
+        }
+
+        @Override
+        public void writeStartObject(final JsonGenerator generator) throws IOException {
+            generator.writeRaw('{');
+            nesting++;
+        }
+
+        @Override
+        public void writeEndObject(final JsonGenerator generator, final int nrOfEntries) throws IOException {
+            nesting--;
+            if (nrOfEntries > 0) {
+                newLine(generator);
+            }
+            generator.writeRaw('}');
+        }
+
+        @Override
+        public void writeObjectEntrySeparator(final JsonGenerator generator) throws IOException {
+            generator.writeRaw(',');
+            newLine(generator);
+        }
+
+        @Override
+        public void writeObjectFieldValueSeparator(final JsonGenerator generator) throws IOException {
+            generator.writeRaw(": ");
+        }
+
+        @Override
+        public void writeStartArray(final JsonGenerator generator) throws IOException {
+            generator.writeRaw('[');
+            nesting++;
+        }
+
+        @Override
+        public void writeEndArray(final JsonGenerator generator, final int nrOfValues) throws IOException {
+            nesting--;
+            if (nrOfValues > 0) {
+                newLine(generator);
+            }
+            generator.writeRaw(']');
+        }
+
+        @Override
+        public void writeArrayValueSeparator(final JsonGenerator generator) throws IOException {
+            generator.writeRaw(',');
+            newLine(generator);
+        }
+
+        @Override
+        public void beforeArrayValues(final JsonGenerator generator) throws IOException {
+            newLine(generator);
+        }
+
+        @Override
+        public void beforeObjectEntries(final JsonGenerator generator) throws IOException {
+            newLine(generator);
+        }
+
+        private void newLine(final JsonGenerator generator) throws IOException {
+            generator.writeRaw('\n');
+            for (int i = 0; i < nesting; i++) {
+                generator.writeRaw(INDENT);
+            }
+        }
     }
 
-    public String getNamespacesPrefixes() {
-        return namespacesPrefixes.toString();
+    /**
+     * Escapes the characters Gson escapes when HTML escaping is disabled, using the same lowercase unicode escapes.
+     */
+    private static final class GsonCharacterEscapes extends CharacterEscapes {
+        private final int[] asciiEscapes;
+
+        private GsonCharacterEscapes() {
+            asciiEscapes = standardAsciiEscapesForJSON();
+            for (int c = 0; c < 0x20; c++) {
+                if (asciiEscapes[c] == ESCAPE_STANDARD) {
+                    asciiEscapes[c] = ESCAPE_CUSTOM;
+                }
+            }
+        }
+
+        @Override
+        public int[] getEscapeCodesForAscii() {
+            return asciiEscapes;
+        }
+
+        @Override
+        public SerializableString getEscapeSequence(final int ch) {
+            if (ch < 0x20 || ch == '\u2028' || ch == '\u2029') {
+                return new SerializedString(String.format("\\u%04x", ch));
+            }
+            return null;
+        }
     }
 }
@@ -0,0 +1,139 @@
+/*
+ * (c) Copyright 2017 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.cloudslang.content.xml.services;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import io.cloudslang.content.xml.entities.ActionType;
+import io.cloudslang.content.xml.entities.EditableXmlDocument;
+import io.cloudslang.content.xml.entities.inputs.EditXmlInputs;
+import io.cloudslang.content.xml.factory.OperationFactory;
+import io.cloudslang.content.xml.utils.Constants;
+import io.cloudslang.content.xml.utils.DocumentUtils;
+import io.cloudslang.content.xml.utils.ValidateUtils;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Applies an ordered list of Edit XML operations to a document that is parsed and serialized only once.
+ */
+public class EditXmlBatchService {
+    // the operations that can add namespace prefixes to the document, through the nodes or names they write
+    private static final Set<ActionType> NAMESPACE_CHANGING_ACTIONS =
+            EnumSet.of(ActionType.insert, ActionType.append, ActionType.subnode, ActionType.update, ActionType.rename);
+
+    /**
+     * @param xml             the xml as String
+     * @param filePath        the path/remote path to the xml file
+     * @param operations      a JSON array of operations, each one a JSON object with the action, xpath, xpath2,
+     *                        value, type and name keys of Edit XML
+     * @param parsingFeatures parsing features to set on the document builder
+     * @return a String representation of the modified XML
+     * @throws Exception if an operation is not valid or can not be applied
+     */
+    public String execute(String xml, String filePath, String operations, String parsingFeatures) throws Exception {
+        return execute(xml, filePath, operations, parsingFeatures, null, null);
+    }
+
+    /**
+     * Same as {@link #execute(String, String, String, String)}, resolving the XPath prefixes with the given namespaces
+     * instead of the ones found in the document when namespacesPrefixes is not empty.
+     */
+    public String execute(String xml, String filePath, String operations, String parsingFeatures,
+                          String namespacesPrefixes, String namespacesUris) throws Exception {
+        ValidateUtils.validateXmlAndFilePathInputs(xml, filePath);
+        final List<EditXmlInputs> edits = parseOperations(xml, filePath, operations, parsingFeatures);
+
+        final EditableXmlDocument document = EditableXmlDocument.create(xml, filePath, parsingFeatures, namespacesPrefixes, namespacesUris);
+        document.setNamespaceAwareNodes(true);
+        for (int i = 0; i < edits.size(); i++) {
+            final EditXmlInputs edit = edits.get(i);
+            try {
+                final ActionType action = ActionType.valueOf(edit.getAction());
+                OperationFactory.getOperation(action).apply(document, edit);
+                if (NAMESPACE_CHANGING_ACTIONS.contains(action) && i < edits.size() - 1) {
+                    document.refreshNamespaceContext();
+                }
+            } catch (Exception e) {
+                throw new Exception(getOperationLabel(i, edit.getAction()) + " failed: " + e.getMessage(), e);
+            }
+        }
+        return DocumentUtils.documentToString(document.getDocument());
+    }
+
+    // every operation is validated before the document is parsed, so an invalid batch fails without doing any work
+    private static List<EditXmlInputs> parseOperations(String xml, String filePath, String operations, String parsingFeatures) throws Exception {
+        final JsonElement operationsJson;
+        try {
+            operationsJson = new JsonParser().parse(operations);
+        } catch (JsonParseException e) {
+            throw new Exception("Invalid operations: " + e.getMessage(), e);
+        }
+        if (operationsJson == null || !operationsJson.isJsonArray() || operationsJson.getAsJsonArray().size() == 0) {
+            throw new Exception("The operations input must be a non empty JSON array of operations.");
+        }
+        final JsonArray operationsArray = operationsJson.getAsJsonArray();
+        final List<EditXmlInputs> edits = new ArrayList<>(operationsArray.size());
+        for (int i = 0; i < operationsArray.size(); i++) {
+            if (!operationsArray.get(i).isJsonObject()) {
+                throw new Exception(getOperationLabel(i, null) + " is not a JSON object.");
+            }
+            final JsonObject operation = operationsArray.get(i).getAsJsonObject();
+            final String action = getString(operation, Constants.Inputs.ACTION);
+            try {
+                String xpath = getString(operation, Constants.Inputs.XPATH);
+                if (xpath == null) {
+                    xpath = getString(operation, Constants.Inputs.XPATH1);
+                }
+                final EditXmlInputs edit = new EditXmlInputs.EditXmlInputsBuilder()
+                        .withXml(xml)
+                        .withFilePath(filePath)
+                        .withAction(action)
+                        .withXpath1(xpath)
+                        .withXpath2(getString(operation, Constants.Inputs.XPATH2))
+                        .withValue(getString(operation, Constants.Inputs.VALUE))
+                        .withType(getString(operation, Constants.Inputs.TYPE))
+                        .withName(getString(operation, Constants.Inputs.TYPE_NAME))
+                        .withParsingFeatures(parsingFeatures)
+                        .build();
+                ValidateUtils.validateInputs(edit);
+                ActionType.valueOf(edit.getAction());
+                edits.add(edit);
+            } catch (IllegalArgumentException e) {
+                throw new Exception(getOperationLabel(i, action) + " is invalid: Invalid action " + e.getMessage(), e);
+            } catch (Exception e) {
+                throw new Exception(getOperationLabel(i, action) + " is invalid: " + e.getMessage(), e);
+            }
+        }
+        return edits;
+    }
+
+    private static String getString(JsonObject operation, String key) {
+        final JsonElement value = operation.get(key);
+        return value == null || value.isJsonNull() ? null : value.getAsString();
+    }
+
+    private static String getOperationLabel(int index, String action) {
+        return "Operation " + (index + 1) + (action == null ? "" : " (" + action + ")");
+    }
+}
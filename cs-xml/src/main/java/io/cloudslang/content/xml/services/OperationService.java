@@ -15,6 +15,7 @@
 
 package io.cloudslang.content.xml.services;
 
+import io.cloudslang.content.xml.entities.EditableXmlDocument;
 import io.cloudslang.content.xml.entities.inputs.EditXmlInputs;
 
 /**
@@ -22,4 +23,13 @@ import io.cloudslang.content.xml.entities.inputs.EditXmlInputs;
  */
 public interface OperationService {
     String execute(EditXmlInputs inputs) throws Exception;
+
+    /**
+     * Applies the edit to an already parsed document, without serializing it.
+     *
+     * @param document the document to edit
+     * @param inputs   the edit to apply; the xml and file path inputs are not used
+     * @throws Exception in case something goes wrong
+     */
+    void apply(EditableXmlDocument document, EditXmlInputs inputs) throws Exception;
 }
@@ -20,18 +20,20 @@ import io.cloudslang.content.xml.entities.inputs.CommonInputs;
 import io.cloudslang.content.xml.entities.inputs.CustomInputs;
 import io.cloudslang.content.xml.utils.Constants;
 import io.cloudslang.content.xml.utils.ResultUtils;
+import io.cloudslang.content.xml.utils.XmlFactories;
 import io.cloudslang.content.xml.utils.XmlUtils;
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
-import org.w3c.dom.Document;
+import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
 import org.xml.sax.SAXParseException;
+import org.xml.sax.XMLReader;
 
-import javax.xml.XMLConstants;
-import javax.xml.transform.TransformerException;
-import javax.xml.transform.stream.StreamSource;
+import javax.xml.transform.sax.SAXSource;
 import javax.xml.validation.Schema;
-import javax.xml.validation.SchemaFactory;
 import javax.xml.validation.Validator;
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.StringReader;
 import java.util.HashMap;
 import java.util.Map;
@@ -51,43 +53,43 @@ import static org.apache.commons.lang3.StringUtils.EMPTY;
  * Created by markowis on 03/03/2016.
  */
 public class ValidateService {
-    private static String getStringValueOfDocument(Document doc) throws TransformerException {
-        return XmlUtils.getStringWriter(doc).toString();
-    }
 
-    private static void validateAgainstXsd(String xmlDocument, String xsdDocument) throws Exception {
-        SchemaFactory schemaFactory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
-        Schema schema = schemaFactory.newSchema(new StreamSource(new StringReader(xsdDocument)));
-        Validator validator = schema.newValidator();
-        validator.validate(new StreamSource(new StringReader(xmlDocument)));
+    /**
+     * Returns the source of the xml document. Local files are read directly, so the document is read only once.
+     */
+    private static InputSource getXmlSource(CommonInputs commonInputs) throws Exception {
+        if (Constants.XML_PATH.equalsIgnoreCase(commonInputs.getXmlDocumentSource())) {
+            final File xmlFile = new File(commonInputs.getXmlDocument());
+            final InputSource source = new InputSource(new FileInputStream(xmlFile));
+            source.setSystemId(xmlFile.toURI().toString());
+            return source;
+        }
+        if (Constants.XML_URL.equalsIgnoreCase(commonInputs.getXmlDocumentSource())) {
+            return new InputSource(new StringReader(XmlUtils.createXmlDocumentFromUrl(commonInputs)));
+        }
+        return new InputSource(new StringReader(commonInputs.getXmlDocument()));
     }
 
     public Map<String, String> execute(CommonInputs commonInputs, CustomInputs customInputs) {
         Map<String, String> result = new HashMap<>();
+        InputSource xmlSource = null;
 
         try {
-            String xmlDocument;
-            String xsdDocument;
-            if (Constants.XML_PATH.equalsIgnoreCase(commonInputs.getXmlDocumentSource())) {
-                Document doc = XmlUtils.createDocumentFromFile(commonInputs.getXmlDocument(), commonInputs.getSecureProcessing());
-                xmlDocument = getStringValueOfDocument(doc);
-            } else if (Constants.XML_URL.equalsIgnoreCase(commonInputs.getXmlDocumentSource())) {
-                xmlDocument = XmlUtils.createXmlDocumentFromUrl(commonInputs);
-            } else {
-                xmlDocument = commonInputs.getXmlDocument();
-            }
+            final boolean secure = commonInputs.getSecureProcessing();
+            final String xsdDocument = customInputs.getXsdDocument();
+            // the schema is compiled before reading the xml, both use the same per-thread reader
+            final Schema schema = StringUtils.isBlank(xsdDocument) ? null : XsdSchemaCache.getInstance()
+                    .getSchema(xsdDocument, Constants.XSD_PATH.equalsIgnoreCase(customInputs.getXsdDocumentSource()), secure);
 
-            if (Constants.XSD_PATH.equalsIgnoreCase(customInputs.getXsdDocumentSource())) {
-                Document doc = XmlUtils.createDocumentFromFile(customInputs.getXsdDocument(), commonInputs.getSecureProcessing());
-                xsdDocument = getStringValueOfDocument(doc);
+            xmlSource = getXmlSource(commonInputs);
+            final XMLReader reader = XmlFactories.getSecureXmlReader(secure);
+            if (schema == null) {
+                reader.parse(xmlSource);
+                result.put(RETURN_RESULT, PARSING_SUCCESS);
             } else {
-                xsdDocument = customInputs.getXsdDocument();
-            }
-            XmlUtils.parseXmlStringSecurely(xmlDocument, commonInputs.getSecureProcessing());
-            result.put(RETURN_RESULT, PARSING_SUCCESS);
-
-            if (StringUtils.isNotBlank(xsdDocument)) {
-                validateAgainstXsd(xmlDocument, xsdDocument);
+                // a single SAX pass checks both that the xml is well formed and that it is valid
+                final Validator validator = schema.newValidator();
+                validator.validate(new SAXSource(reader, xmlSource));
                 result.put(RETURN_RESULT, VALIDATION_SUCCESS);
             }
 
@@ -101,6 +103,10 @@ public class ValidateService {
             ResultUtils.populateFailureResult(result, VALIDATION_FAILURE + e.getMessage());
         } catch (Exception e) {
             ResultUtils.populateFailureResult(result, e.getMessage());
+        } finally {
+            if (xmlSource != null) {
+                IOUtils.closeQuietly(xmlSource.getByteStream());
+            }
         }
         return result;
     }
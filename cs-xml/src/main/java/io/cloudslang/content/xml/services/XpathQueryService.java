@@ -20,6 +20,8 @@ import io.cloudslang.content.xml.entities.inputs.CommonInputs;
 import io.cloudslang.content.xml.entities.inputs.CustomInputs;
 import io.cloudslang.content.xml.utils.Constants;
 import io.cloudslang.content.xml.utils.ResultUtils;
+import io.cloudslang.content.xml.utils.StreamingXpath;
+import io.cloudslang.content.xml.utils.XmlFactories;
 import io.cloudslang.content.xml.utils.XmlUtils;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.w3c.dom.Document;
@@ -27,9 +29,16 @@ import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 
 import javax.xml.namespace.NamespaceContext;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamReader;
 import javax.xml.transform.TransformerException;
 import javax.xml.xpath.XPathConstants;
 import javax.xml.xpath.XPathExpression;
+import java.io.BufferedInputStream;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -48,12 +57,17 @@ public class XpathQueryService {
         Map<String, String> result = new HashMap<>();
 
         try {
-            Document doc = XmlUtils.getDocument(commonInputs);
-            NamespaceContext context = XmlUtils.getNamespaceContext(commonInputs, doc);
+            String selection;
+            if (customInputs.getStreaming()) {
+                selection = streamingXPathQuery(commonInputs, customInputs.getQueryType(), customInputs.getDelimiter());
+            } else {
+                Document doc = XmlUtils.getDocument(commonInputs);
+                NamespaceContext context = XmlUtils.getNamespaceContext(commonInputs, doc);
 
-            XPathExpression expr = XmlUtils.createXPathExpression(context, commonInputs.getXPathQuery());
+                XPathExpression expr = XmlUtils.createXPathExpression(context, commonInputs.getXPathQuery());
 
-            String selection = xPathQuery(doc, expr, customInputs.getQueryType(), customInputs.getDelimiter());
+                selection = xPathQuery(doc, expr, customInputs.getQueryType(), customInputs.getDelimiter());
+            }
 
             if (isBlank(selection)) {
                 ResultUtils.populateValueResult(result, ResponseNames.SUCCESS, SELECT_SUCCESS, NO_MATCH_FOUND, SUCCESS);
@@ -80,6 +94,41 @@ public class XpathQueryService {
         }
     }
 
+    /**
+     * Evaluates the query while reading the document, without building a DOM. Node and value queries stop reading
+     * at the first match.
+     */
+    private static String streamingXPathQuery(CommonInputs commonInputs, String queryType, String delimiter) throws Exception {
+        if (!Constants.QueryTypes.NODE_LIST.equals(queryType) && !Constants.QueryTypes.NODE.equals(queryType)
+                && !Constants.QueryTypes.VALUE.equals(queryType)) {
+            throw new Exception("Invalid query type");
+        }
+        final StreamingXpath xpath = StreamingXpath.compile(commonInputs.getXPathQuery());
+        final StringWriter selection = new StringWriter();
+        final XMLInputFactory inputFactory = XmlFactories.getStreamingInputFactory();
+        final int maxResults = Constants.QueryTypes.NODE_LIST.equals(queryType) ? 0 : 1;
+        final boolean values = Constants.QueryTypes.VALUE.equals(queryType);
+
+        if (Constants.XML_PATH.equalsIgnoreCase(commonInputs.getXmlDocumentSource())) {
+            try (InputStream inputStream = new BufferedInputStream(new FileInputStream(commonInputs.getXmlDocument()))) {
+                final XMLStreamReader reader = inputFactory.createXMLStreamReader(inputStream);
+                try {
+                    xpath.evaluate(reader, selection, delimiter, values, maxResults);
+                } finally {
+                    reader.close();
+                }
+            }
+        } else {
+            final XMLStreamReader reader = inputFactory.createXMLStreamReader(new StringReader(commonInputs.getXmlDocument()));
+            try {
+                xpath.evaluate(reader, selection, delimiter, values, maxResults);
+            } finally {
+                reader.close();
+            }
+        }
+        return selection.toString();
+    }
+
     private static String xPathNodeListQuery(Document doc, XPathExpression expr, String delimiter) throws Exception {
         NodeList nodeList = (NodeList) expr.evaluate(doc, XPathConstants.NODESET);
         return nodeListToString(nodeList, delimiter);
@@ -0,0 +1,144 @@
+/*
+ * (c) Copyright 2017 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.cloudslang.content.xml.services;
+
+import io.cloudslang.content.xml.utils.XmlFactories;
+import io.cloudslang.content.xml.utils.XmlUtils;
+import org.jetbrains.annotations.NotNull;
+import org.xml.sax.InputSource;
+
+import javax.xml.transform.Source;
+import javax.xml.transform.sax.SAXSource;
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.validation.Schema;
+import java.io.File;
+import java.io.StringReader;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded LRU cache of compiled XML schemas.
+ * <p>
+ * Schemas given as a local file are keyed on their absolute path and recompiled when the file modification time or
+ * size changes, inline schemas are keyed on a SHA-256 hash of their content. Compiled Schema objects are immutable and
+ * thread safe, so concurrent validations against the same XSD share a single instance.
+ */
+public final class XsdSchemaCache {
+    public static final int DEFAULT_MAX_SIZE = 64;
+
+    private static final XsdSchemaCache INSTANCE = new XsdSchemaCache(DEFAULT_MAX_SIZE);
+    private static final String FILE_KEY_PREFIX = "file:";
+    private static final String INLINE_KEY_PREFIX = "sha256:";
+    private static final String SECURE_SEPARATOR = "\nsecure:";
+    private static final String INLINE_VERSION = "";
+
+    private final Map<String, CachedSchema> schemas;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public XsdSchemaCache(final int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("The cache size must be a positive number!");
+        }
+        this.schemas = new LinkedHashMap<String, CachedSchema>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedSchema> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    @NotNull
+    public static XsdSchemaCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns the compiled form of the schema, compiling it when it is not cached or when its file has changed.
+     *
+     * @param xsdDocument the schema as a local file path or the actual schema
+     * @param isFile      true if xsdDocument is a file path
+     * @param secure      value of the secure processing feature used to read a schema file
+     * @return the compiled schema
+     * @throws Exception if the schema cannot be read or compiled
+     */
+    @NotNull
+    public Schema getSchema(@NotNull final String xsdDocument, final boolean isFile, final boolean secure) throws Exception {
+        final File xsdFile = isFile ? new File(xsdDocument) : null;
+        final String key = isFile ? FILE_KEY_PREFIX + xsdFile.getAbsolutePath() + SECURE_SEPARATOR + secure :
+                INLINE_KEY_PREFIX + XmlUtils.sha256Hex(xsdDocument);
+        final String version = isFile ? xsdFile.lastModified() + ":" + xsdFile.length() : INLINE_VERSION;
+
+        final CachedSchema cached;
+        synchronized (schemas) {
+            cached = schemas.get(key);
+        }
+        if (cached != null && cached.version.equals(version)) {
+            hits.incrementAndGet();
+            return cached.schema;
+        }
+        misses.incrementAndGet();
+        // compiled outside the lock, a concurrent miss on the same schema only costs a duplicate compilation
+        final Schema schema = XmlFactories.getSchemaFactory().newSchema(getSource(xsdDocument, xsdFile, secure));
+        synchronized (schemas) {
+            schemas.put(key, new CachedSchema(version, schema));
+        }
+        return schema;
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public int size() {
+        synchronized (schemas) {
+            return schemas.size();
+        }
+    }
+
+    public void clear() {
+        synchronized (schemas) {
+            schemas.clear();
+        }
+        hits.set(0);
+        misses.set(0);
+    }
+
+    // schema files are read with the hardened reader; the system id lets relative includes and imports resolve
+    @NotNull
+    private static Source getSource(@NotNull final String xsdDocument, final File xsdFile, final boolean secure) throws Exception {
+        if (xsdFile == null) {
+            return new StreamSource(new StringReader(xsdDocument));
+        }
+        return new SAXSource(XmlFactories.getSecureXmlReader(secure), new InputSource(xsdFile.toURI().toString()));
+    }
+
+    private static final class CachedSchema {
+        private final String version;
+        private final Schema schema;
+
+        private CachedSchema(String version, Schema schema) {
+            this.version = version;
+            this.schema = schema;
+        }
+    }
+}
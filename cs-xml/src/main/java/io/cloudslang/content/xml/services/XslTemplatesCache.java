@@ -0,0 +1,287 @@
+/*
+ * (c) Copyright 2017 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.cloudslang.content.xml.services;
+
+import io.cloudslang.content.xml.utils.UrlContentCache;
+import io.cloudslang.content.xml.utils.XmlFactories;
+import io.cloudslang.content.xml.utils.XmlUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.jetbrains.annotations.NotNull;
+
+import javax.xml.transform.Source;
+import javax.xml.transform.Templates;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.URIResolver;
+import javax.xml.transform.stream.StreamSource;
+import java.io.File;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded LRU cache of compiled XSL stylesheets.
+ * <p>
+ * Stylesheets given as a local file are keyed on their absolute path and revalidated against the file modification
+ * time and size, stylesheets given as an HTTP URL are fetched through the {@link UrlContentCache} and versioned on
+ * the ETag or Last-Modified header of the response, and inline stylesheets are keyed on a SHA-256 hash of their
+ * content. A URL whose server sends neither header is compiled on every use.
+ * <p>
+ * The stylesheets included or imported while compiling are recorded with the version of their file, and a change to
+ * any of them compiles the stylesheet again. A stylesheet that includes or imports one that is not a local file is
+ * compiled on every use.
+ * <p>
+ * Compiled Templates are immutable and thread safe, so a single instance is shared by all the transformations that
+ * use the same stylesheet.
+ */
+public final class XslTemplatesCache {
+    public static final int DEFAULT_MAX_SIZE = 64;
+
+    private static final XslTemplatesCache INSTANCE = new XslTemplatesCache(DEFAULT_MAX_SIZE);
+    private static final String FILE_KEY_PREFIX = "file:";
+    private static final String URL_KEY_PREFIX = "url:";
+    private static final String INLINE_KEY_PREFIX = "sha256:";
+    private static final String FEATURES_SEPARATOR = "\n";
+    private static final String INLINE_VERSION = "";
+    private static final String FILE_SCHEME = "file";
+
+    private final Map<String, CachedTemplates> templates;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public XslTemplatesCache(final int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("The cache size must be a positive number!");
+        }
+        this.templates = new LinkedHashMap<String, CachedTemplates>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedTemplates> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    @NotNull
+    public static XslTemplatesCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns the compiled form of the stylesheet, compiling it when it is not cached or when its source has changed
+     * since it was compiled.
+     *
+     * @param xslTemplate the stylesheet as a local file path, an HTTP URL or the actual template
+     * @param features    the parsing features used to validate the stylesheet
+     * @return the compiled stylesheet
+     * @throws Exception if the stylesheet cannot be read or compiled
+     */
+    @NotNull
+    public Templates getTemplates(@NotNull final String xslTemplate, final String features) throws Exception {
+        final String key = getKey(xslTemplate, features);
+        // a URL is fetched once per call, the same content versions the cached stylesheet and is compiled on a miss
+        final UrlContentCache.Content content = isUrl(xslTemplate) ? UrlContentCache.getInstance().fetch(new URL(xslTemplate)) : null;
+        final String version = content != null ? content.getVersion() : getVersion(xslTemplate);
+        if (version != null) {
+            final CachedTemplates cached;
+            synchronized (templates) {
+                cached = templates.get(key);
+            }
+            if (cached != null && cached.version.equals(version) && cached.isDependenciesUnchanged()) {
+                hits.incrementAndGet();
+                return cached.templates;
+            }
+        }
+        misses.incrementAndGet();
+        // compiled outside the lock, a concurrent miss on the same stylesheet only costs a duplicate compilation
+        final Source source = content != null ? ApplyXslTransformationService.readSource(content.getBytes(), features) :
+                ApplyXslTransformationService.readSource(xslTemplate, features);
+        final DependencyRecorder dependencies = new DependencyRecorder();
+        final Templates compiled = compile(source, dependencies);
+        if (version != null && dependencies.isTracked()) {
+            synchronized (templates) {
+                templates.put(key, new CachedTemplates(xslTemplate, version, dependencies.getFiles(), compiled));
+            }
+        }
+        return compiled;
+    }
+
+    /**
+     * Compiles the stylesheet and adds it to the cache ahead of its first use.
+     *
+     * @param xslTemplate the stylesheet as a local file path, an HTTP URL or the actual template
+     * @param features    the parsing features used to validate the stylesheet
+     * @throws Exception if the stylesheet cannot be read or compiled
+     */
+    public void precompile(@NotNull final String xslTemplate, final String features) throws Exception {
+        getTemplates(xslTemplate, features);
+    }
+
+    /**
+     * Removes every compiled version of the stylesheet, whatever parsing features it was compiled with.
+     *
+     * @param xslTemplate the stylesheet as a local file path, an HTTP URL or the actual template
+     * @return the number of removed entries
+     */
+    public int evict(@NotNull final String xslTemplate) {
+        int evicted = 0;
+        synchronized (templates) {
+            final Iterator<CachedTemplates> iterator = templates.values().iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().source.equals(xslTemplate)) {
+                    iterator.remove();
+                    evicted++;
+                }
+            }
+        }
+        return evicted;
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public int size() {
+        synchronized (templates) {
+            return templates.size();
+        }
+    }
+
+    public void clear() {
+        synchronized (templates) {
+            templates.clear();
+        }
+        hits.set(0);
+        misses.set(0);
+    }
+
+    @NotNull
+    private static Templates compile(@NotNull final Source source, @NotNull final DependencyRecorder dependencies) throws TransformerException {
+        final TransformerFactory factory = XmlFactories.getTransformerFactory();
+        final URIResolver resolver = factory.getURIResolver();
+        factory.setURIResolver(dependencies);
+        try {
+            return factory.newTemplates(source);
+        } finally {
+            factory.setURIResolver(resolver);
+            dependencies.stop();
+        }
+    }
+
+    @NotNull
+    private static String getKey(@NotNull final String xslTemplate, final String features) throws NoSuchAlgorithmException {
+        final String sourceKey;
+        if (isUrl(xslTemplate)) {
+            sourceKey = URL_KEY_PREFIX + xslTemplate;
+        } else if (new File(xslTemplate).exists()) {
+            sourceKey = FILE_KEY_PREFIX + new File(xslTemplate).getAbsolutePath();
+        } else {
+            sourceKey = INLINE_KEY_PREFIX + XmlUtils.sha256Hex(xslTemplate);
+        }
+        return sourceKey + FEATURES_SEPARATOR + StringUtils.defaultString(features);
+    }
+
+    @NotNull
+    private static String getVersion(@NotNull final String xslTemplate) {
+        final File file = new File(xslTemplate);
+        if (file.exists()) {
+            return file.lastModified() + ":" + file.length();
+        }
+        return INLINE_VERSION;
+    }
+
+    private static boolean isUrl(@NotNull final String xslTemplate) {
+        return ApplyXslTransformationService.isUrl(xslTemplate);
+    }
+
+    private static final class CachedTemplates {
+        private final String source;
+        private final String version;
+        private final Map<String, String> dependencies;
+        private final Templates templates;
+
+        private CachedTemplates(String source, String version, Map<String, String> dependencies, Templates templates) {
+            this.source = source;
+            this.version = version;
+            this.dependencies = dependencies;
+            this.templates = templates;
+        }
+
+        private boolean isDependenciesUnchanged() {
+            for (final Map.Entry<String, String> dependency : dependencies.entrySet()) {
+                if (!dependency.getValue().equals(getVersion(dependency.getKey()))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Resolves the xsl:include and xsl:import hrefs the way the default resolution does, against the base URI or the
+     * working directory, and records the version of every local file they point to. Once the compilation is done it
+     * leaves every resolution, e.g. of the document() function, to the default one.
+     */
+    private static final class DependencyRecorder implements URIResolver {
+        private final Map<String, String> files = new LinkedHashMap<>();
+        private volatile boolean recording = true;
+        private boolean tracked = true;
+
+        @Override
+        public Source resolve(final String href, final String base) throws TransformerException {
+            if (!recording) {
+                return null;
+            }
+            try {
+                final URI baseUri = StringUtils.isEmpty(base) ? new File(System.getProperty("user.dir")).toURI() : new URI(base);
+                final URI uri = baseUri.resolve(new URI(href));
+                if (FILE_SCHEME.equals(uri.getScheme())) {
+                    final String path = new File(uri).getAbsolutePath();
+                    files.put(path, getVersion(path));
+                } else {
+                    tracked = false;
+                }
+                return new StreamSource(uri.toString());
+            } catch (URISyntaxException | IllegalArgumentException e) {
+                // left to the default resolution, which reports the href if it can not be resolved either
+                tracked = false;
+                return null;
+            }
+        }
+
+        private void stop() {
+            recording = false;
+        }
+
+        private boolean isTracked() {
+            return tracked;
+        }
+
+        @NotNull
+        private Map<String, String> getFiles() {
+            return files;
+        }
+    }
+}
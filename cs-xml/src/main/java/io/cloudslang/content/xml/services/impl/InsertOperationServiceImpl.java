@@ -15,10 +15,10 @@
 
 package io.cloudslang.content.xml.services.impl;
 
+import io.cloudslang.content.xml.entities.EditableXmlDocument;
 import io.cloudslang.content.xml.entities.inputs.EditXmlInputs;
-import io.cloudslang.content.xml.services.OperationService;
+import io.cloudslang.content.xml.services.AbstractOperationService;
 import io.cloudslang.content.xml.utils.Constants;
-import io.cloudslang.content.xml.utils.DocumentUtils;
 import io.cloudslang.content.xml.utils.XmlUtils;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
@@ -28,25 +28,26 @@ import org.w3c.dom.NodeList;
 /**
  * Created by moldovas on 7/8/2016.
  */
-public class InsertOperationServiceImpl implements OperationService {
+public class InsertOperationServiceImpl extends AbstractOperationService {
 
     /**
      * Inserts in an XML (provided as String or file) a new element; attribute or text text at a given XPath.
      *
-     * @param inputs inputs
-     * @return a String representation of the modified XML
+     * @param document the parsed document to edit
+     * @param inputs   inputs
      * @throws Exception in case something goes wrong
      */
     @Override
-    public String execute(EditXmlInputs inputs) throws Exception {
-        Document doc = XmlUtils.createDocument(inputs.getXml(), inputs.getFilePath(), inputs.getParsingFeatures());
-        NodeList nodeList = XmlUtils.readNode(doc, inputs.getXpath1(), XmlUtils.getNamespaceContext(inputs.getXml(), inputs.getFilePath()));
+    public void apply(EditableXmlDocument document, EditXmlInputs inputs) throws Exception {
+        Document doc = document.getDocument();
+        NodeList nodeList = document.selectNodes(inputs.getXpath1());
         Node childNode = null;
         Node node;
         Node parentNode;
         // create new Node to insert
         if (Constants.Inputs.TYPE_ELEM.equals(inputs.getType())) {
-            childNode = XmlUtils.stringToNode(inputs.getValue(), doc.getXmlEncoding(), inputs.getParsingFeatures());
+            childNode = XmlUtils.stringToNode(inputs.getValue(), doc.getXmlEncoding(), inputs.getParsingFeatures(),
+                    document.isNamespaceAwareNodes());
         }
 
         for (int i = 0; i < nodeList.getLength(); i++) {
@@ -64,6 +65,5 @@ public class InsertOperationServiceImpl implements OperationService {
                 ((Element) node).setAttribute(inputs.getName(), inputs.getValue());
             }
         }
-        return DocumentUtils.documentToString(doc);
     }
 }
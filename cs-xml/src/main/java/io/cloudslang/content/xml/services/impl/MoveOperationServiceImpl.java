@@ -15,33 +15,29 @@
 
 package io.cloudslang.content.xml.services.impl;
 
+import io.cloudslang.content.xml.entities.EditableXmlDocument;
 import io.cloudslang.content.xml.entities.inputs.EditXmlInputs;
-import io.cloudslang.content.xml.services.OperationService;
-import io.cloudslang.content.xml.utils.DocumentUtils;
-import io.cloudslang.content.xml.utils.XmlUtils;
+import io.cloudslang.content.xml.services.AbstractOperationService;
 import org.w3c.dom.Document;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 
-import javax.xml.namespace.NamespaceContext;
-
 /**
  * Created by moldovas on 7/8/2016.
  */
-public class MoveOperationServiceImpl implements OperationService {
+public class MoveOperationServiceImpl extends AbstractOperationService {
     /**
      * Moves the Nodes of an XML (provided as String or file) from a give XPath to their new location provided by the second  XPath.
      *
-     * @param inputs inputs
-     * @return String representation of the modified XML
+     * @param document the parsed document to edit
+     * @param inputs   inputs
      * @throws Exception in case something goes wrong
      */
     @Override
-    public String execute(EditXmlInputs inputs) throws Exception {
-        Document doc = XmlUtils.createDocument(inputs.getXml(), inputs.getFilePath(), inputs.getParsingFeatures());
-        NamespaceContext ctx = XmlUtils.getNamespaceContext(inputs.getXml(), inputs.getFilePath());
-        NodeList nodeListToMove = XmlUtils.readNode(doc, inputs.getXpath1(), ctx);
-        NodeList nodeListWhereToMove = XmlUtils.readNode(doc, inputs.getXpath2(), ctx);
+    public void apply(EditableXmlDocument document, EditXmlInputs inputs) throws Exception {
+        Document doc = document.getDocument();
+        NodeList nodeListToMove = document.selectNodes(inputs.getXpath1());
+        NodeList nodeListWhereToMove = document.selectNodes(inputs.getXpath2());
         Node nodeToMove;
         Node nodeWhereToMove;
 
@@ -63,6 +59,5 @@ public class MoveOperationServiceImpl implements OperationService {
                 }
             }
         }
-        return DocumentUtils.documentToString(doc);
     }
 }
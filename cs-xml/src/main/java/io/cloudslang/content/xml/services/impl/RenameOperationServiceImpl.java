@@ -15,11 +15,10 @@
 
 package io.cloudslang.content.xml.services.impl;
 
+import io.cloudslang.content.xml.entities.EditableXmlDocument;
 import io.cloudslang.content.xml.entities.inputs.EditXmlInputs;
-import io.cloudslang.content.xml.services.OperationService;
+import io.cloudslang.content.xml.services.AbstractOperationService;
 import io.cloudslang.content.xml.utils.Constants;
-import io.cloudslang.content.xml.utils.DocumentUtils;
-import io.cloudslang.content.xml.utils.XmlUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
@@ -29,18 +28,18 @@ import org.w3c.dom.NodeList;
 /**
  * Created by moldovas on 7/8/2016.
  */
-public class RenameOperationServiceImpl implements OperationService {
+public class RenameOperationServiceImpl extends AbstractOperationService {
     /**
      * Renames the tag or attribute of an XML (provided as String or file) at a given XPath.
      *
-     * @param inputs inputs
-     * @return a String representation of the modified XML
+     * @param document the parsed document to edit
+     * @param inputs   inputs
      * @throws Exception in case something goes wrong
      */
     @Override
-    public String execute(EditXmlInputs inputs) throws Exception {
-        Document doc = XmlUtils.createDocument(inputs.getXml(), inputs.getFilePath(), inputs.getParsingFeatures());
-        NodeList nodeList = XmlUtils.readNode(doc, inputs.getXpath1(), XmlUtils.getNamespaceContext(inputs.getXml(), inputs.getFilePath()));
+    public void apply(EditableXmlDocument document, EditXmlInputs inputs) throws Exception {
+        Document doc = document.getDocument();
+        NodeList nodeList = document.selectNodes(inputs.getXpath1());
         Node node;
         for (int i = 0; i < nodeList.getLength(); i++) {
             node = nodeList.item(i);
@@ -54,6 +53,5 @@ public class RenameOperationServiceImpl implements OperationService {
                 }
             }
         }
-        return DocumentUtils.documentToString(doc);
     }
 }
@@ -15,9 +15,9 @@
 
 package io.cloudslang.content.xml.services.impl;
 
+import io.cloudslang.content.xml.entities.EditableXmlDocument;
 import io.cloudslang.content.xml.entities.inputs.EditXmlInputs;
-import io.cloudslang.content.xml.services.OperationService;
-import io.cloudslang.content.xml.utils.DocumentUtils;
+import io.cloudslang.content.xml.services.AbstractOperationService;
 import io.cloudslang.content.xml.utils.XmlUtils;
 import org.w3c.dom.Document;
 import org.w3c.dom.Node;
@@ -26,26 +26,26 @@ import org.w3c.dom.NodeList;
 /**
  * Created by moldovas on 7/8/2016.
  */
-public class SubnodeOperationServiceImpl implements OperationService {
+public class SubnodeOperationServiceImpl extends AbstractOperationService {
     /**
      * Creates a sub-node in an XML (provided as String or file) at a given XPath.
      *
-     * @param inputs inputs
-     * @return a String representation of the modified XML
+     * @param document the parsed document to edit
+     * @param inputs   inputs
      * @throws Exception in case something goes wrong
      */
     @Override
-    public String execute(EditXmlInputs inputs) throws Exception {
-        Document doc = XmlUtils.createDocument(inputs.getXml(), inputs.getFilePath(), inputs.getParsingFeatures());
-        NodeList nodeList = XmlUtils.readNode(doc, inputs.getXpath1(), XmlUtils.getNamespaceContext(inputs.getXml(), inputs.getFilePath()));
+    public void apply(EditableXmlDocument document, EditXmlInputs inputs) throws Exception {
+        Document doc = document.getDocument();
+        NodeList nodeList = document.selectNodes(inputs.getXpath1());
         Node node;
-        Node childNode = XmlUtils.stringToNode(inputs.getValue(), doc.getXmlEncoding(), inputs.getParsingFeatures());
+        Node childNode = XmlUtils.stringToNode(inputs.getValue(), doc.getXmlEncoding(), inputs.getParsingFeatures(),
+                document.isNamespaceAwareNodes());
 
         for (int i = 0; i < nodeList.getLength(); i++) {
             childNode = doc.importNode(childNode, true);
             node = nodeList.item(i);
             node.appendChild(childNode);
         }
-        return DocumentUtils.documentToString(doc);
     }
 }
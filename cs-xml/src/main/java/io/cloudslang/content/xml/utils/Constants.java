@@ -79,6 +79,7 @@ public class Constants {
         public static final String XPATH_ELEMENT_QUERY = "xPathElementQuery";
         public static final String QUERY_TYPE = "queryType";
         public static final String DELIMITER = "delimiter";
+        public static final String STREAMING = "streaming";
         public static final String ATTRIBUTE_NAME = "attributeName";
         public static final String XML_ELEMENT = "xmlElement";
 
@@ -103,6 +104,8 @@ public class Constants {
         public static final String ACTION = "action";
         public static final String XPATH1 = "xpath1";
         public static final String XPATH2 = "xpath2";
+        public static final String XPATH = "xpath";
+        public static final String OPERATIONS = "operations";
         public static final String VALUE = "value";
         public static final String TYPE = "type";
         public static final String TYPE_NAME = "name";
@@ -20,7 +20,6 @@ import org.apache.xml.serialize.XMLSerializer;
 import org.w3c.dom.Document;
 
 import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
 import java.io.IOException;
 import java.io.StringWriter;
@@ -31,14 +30,11 @@ import java.io.Writer;
  */
 public class DocumentUtils {
     /**
-     * @return a new instance of DocumentBuilder
+     * @return the non namespace aware DocumentBuilder of the current thread
      * @throws ParserConfigurationException
      */
     public static DocumentBuilder createDocumentBuilder(String features) throws ParserConfigurationException {
-        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-        XmlUtils.setFeatures(factory, features);
-        factory.setNamespaceAware(false);
-        return factory.newDocumentBuilder();
+        return XmlFactories.getDocumentBuilder(features, false);
     }
 
     /**
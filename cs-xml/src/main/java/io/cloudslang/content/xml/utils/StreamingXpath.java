@@ -0,0 +1,667 @@
+/*
+ * (c) Copyright 2017 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.cloudslang.content.xml.utils;
+
+import org.apache.commons.lang3.StringUtils;
+import org.jetbrains.annotations.NotNull;
+
+import javax.xml.namespace.NamespaceContext;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.xpath.XPathExpressionException;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * XPath evaluation over a StAX reader, for documents too large to be loaded in a DOM.
+ * <p>
+ * Only absolute location paths made of forward steps are supported: child ({@code /}) and descendant ({@code //})
+ * steps with a name test ({@code name}, {@code prefix:name}, {@code *} or {@code prefix:*}), optionally followed by
+ * predicates of the form {@code [n]}, {@code [@attr]}, {@code [@attr='value']} or {@code [@attr!='value']}, and a
+ * last step that may also select attributes ({@code @name}) or text nodes ({@code text()}). Prefixes are resolved
+ * against the namespaces declared in the document.
+ * <p>
+ * Matches are written to the output in document order as soon as they are complete, and reading stops once the
+ * requested number of results is reached, so memory use only depends on the size of the matched nodes.
+ */
+public final class StreamingXpath {
+    private static final int ELEMENT = 0;
+    private static final int ATTRIBUTE = 1;
+    private static final int TEXT = 2;
+    private static final int MAX_STEPS = Long.SIZE - 1;
+    private static final String WILDCARD = "*";
+    private static final String TEXT_TEST = "text()";
+
+    private final String expression;
+    private final List<Step> steps;
+
+    private StreamingXpath(String expression, List<Step> steps) {
+        this.expression = expression;
+        this.steps = steps;
+    }
+
+    /**
+     * Parses an XPath expression for streaming evaluation.
+     *
+     * @param expression the XPath expression
+     * @return the parsed expression
+     * @throws XPathExpressionException if the expression is not part of the supported subset
+     */
+    @NotNull
+    public static StreamingXpath compile(String expression) throws XPathExpressionException {
+        if (StringUtils.isBlank(expression)) {
+            throw new XPathExpressionException("The XPath expression can not be empty!");
+        }
+        return new StreamingXpath(expression, new Parser(expression.trim()).parse());
+    }
+
+    /**
+     * Reads the document and writes the selected nodes to the output, separated by the delimiter. Elements, text nodes,
+     * comments and processing instructions are written as xml, attributes as name="value". When only values are
+     * requested, elements are replaced by their text content and attributes by their value.
+     *
+     * @param reader     reader positioned at the start of the document
+     * @param output     where the results are written
+     * @param delimiter  written between two results
+     * @param values     true to write string values instead of nodes
+     * @param maxResults the number of results after which reading stops, 0 for no limit
+     * @return the number of results written
+     * @throws XMLStreamException if the document can not be read
+     * @throws IOException        if the results can not be written
+     */
+    public int evaluate(@NotNull final XMLStreamReader reader, @NotNull final Writer output, final String delimiter,
+                        final boolean values, final int maxResults) throws XMLStreamException, IOException {
+        final Step lastStep = steps.get(steps.size() - 1);
+        final long lastState = 1L << (steps.size() - 1);
+        final ResultWriter results = new ResultWriter(output, StringUtils.defaultString(delimiter), values, maxResults);
+        final Deque<Frame> frames = new ArrayDeque<>();
+        frames.push(new Frame(1L, false, null));
+
+        while (reader.hasNext() && !results.isFull()) {
+            switch (reader.next()) {
+                case XMLStreamConstants.START_ELEMENT:
+                    final Frame frame = startElement(reader, frames.peek());
+                    frames.push(frame);
+                    results.startElement(reader, frames, frame.matched);
+                    if (lastStep.kind == ATTRIBUTE && (frame.states & lastState) != 0) {
+                        addAttributes(reader, lastStep, results);
+                    }
+                    break;
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.SPACE:
+                case XMLStreamConstants.CDATA:
+                    if (frames.size() > 1) {
+                        final boolean cdata = reader.getEventType() == XMLStreamConstants.CDATA;
+                        results.text(reader.getText(), cdata);
+                        if (lastStep.kind == TEXT && (frames.peek().states & lastState) != 0) {
+                            results.addText(reader.getText(), cdata);
+                        }
+                    }
+                    break;
+                case XMLStreamConstants.COMMENT:
+                    results.comment(reader.getText());
+                    break;
+                case XMLStreamConstants.PROCESSING_INSTRUCTION:
+                    results.processingInstruction(reader.getPITarget(), reader.getPIData());
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    results.endElement(reader, frames.size() - 1);
+                    frames.pop();
+                    break;
+                default:
+                    break;
+            }
+        }
+        return results.getCount();
+    }
+
+    @Override
+    public String toString() {
+        return expression;
+    }
+
+    @NotNull
+    private Frame startElement(@NotNull final XMLStreamReader reader, @NotNull final Frame parent) {
+        long states = 0;
+        boolean matched = false;
+        for (int i = 0; i < steps.size(); i++) {
+            if ((parent.states & (1L << i)) == 0) {
+                continue;
+            }
+            final Step step = steps.get(i);
+            if (step.descendant) {
+                states |= 1L << i;
+            }
+            if (step.kind == ELEMENT && step.matches(reader, parent, i)) {
+                if (i + 1 == steps.size()) {
+                    matched = true;
+                } else {
+                    states |= 1L << (i + 1);
+                }
+            }
+        }
+        Map<String, String> namespaces = null;
+        if (reader.getNamespaceCount() > 0) {
+            namespaces = new LinkedHashMap<>();
+            for (int i = 0; i < reader.getNamespaceCount(); i++) {
+                namespaces.put(StringUtils.defaultString(reader.getNamespacePrefix(i)), StringUtils.defaultString(reader.getNamespaceURI(i)));
+            }
+        }
+        return new Frame(states, matched, namespaces);
+    }
+
+    private static void addAttributes(@NotNull final XMLStreamReader reader, @NotNull final Step step,
+                                      @NotNull final ResultWriter results) throws IOException {
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            if (step.name.matches(reader.getAttributeNamespace(i), reader.getAttributeLocalName(i), reader.getNamespaceContext())) {
+                results.addAttribute(qualifiedName(reader.getAttributePrefix(i), reader.getAttributeLocalName(i)), reader.getAttributeValue(i));
+            }
+        }
+    }
+
+    private static String qualifiedName(String prefix, String localName) {
+        return StringUtils.isEmpty(prefix) ? localName : prefix + Constants.NAMESPACE_DELIMITER + localName;
+    }
+
+    private static final class NameTest {
+        private final String prefix;
+        private final String localName;
+
+        private NameTest(String prefix, String localName) {
+            this.prefix = prefix;
+            this.localName = localName;
+        }
+
+        // an unprefixed name only matches nodes without namespace, as in XPath 1.0
+        private boolean matches(String namespaceUri, String name, NamespaceContext context) {
+            if (!WILDCARD.equals(localName) && !localName.equals(name)) {
+                return false;
+            }
+            if (prefix == null) {
+                return WILDCARD.equals(localName) || StringUtils.isEmpty(namespaceUri);
+            }
+            final String uri = context.getNamespaceURI(prefix);
+            return StringUtils.isNotEmpty(uri) && uri.equals(namespaceUri);
+        }
+    }
+
+    private static final class Predicate {
+        private final int position;
+        private final NameTest attribute;
+        private final String value;
+        private final boolean negated;
+
+        private Predicate(int position, NameTest attribute, String value, boolean negated) {
+            this.position = position;
+            this.attribute = attribute;
+            this.value = value;
+            this.negated = negated;
+        }
+
+        private boolean matchesAttributes(XMLStreamReader reader) {
+            for (int i = 0; i < reader.getAttributeCount(); i++) {
+                if (attribute.matches(reader.getAttributeNamespace(i), reader.getAttributeLocalName(i), reader.getNamespaceContext())) {
+                    return value == null || value.equals(reader.getAttributeValue(i)) != negated;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static final class Step {
+        private final boolean descendant;
+        private final int kind;
+        private final NameTest name;
+        private final List<Predicate> predicates;
+
+        private Step(boolean descendant, int kind, NameTest name, List<Predicate> predicates) {
+            this.descendant = descendant;
+            this.kind = kind;
+            this.name = name;
+            this.predicates = predicates;
+        }
+
+        // predicates apply in order, a position counts the siblings that passed the name test and the previous predicates
+        private boolean matches(XMLStreamReader reader, Frame parent, int stepIndex) {
+            if (!name.matches(reader.getNamespaceURI(), reader.getLocalName(), reader.getNamespaceContext())) {
+                return false;
+            }
+            for (int i = 0; i < predicates.size(); i++) {
+                final Predicate predicate = predicates.get(i);
+                if (predicate.attribute == null) {
+                    if (parent.incrementPosition(stepIndex, i, predicates.size()) != predicate.position) {
+                        return false;
+                    }
+                } else if (!predicate.matchesAttributes(reader)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static final class Frame {
+        // bit i is set when step i is evaluated against the children, descendants or attributes of this node
+        private final long states;
+        private final boolean matched;
+        private final Map<String, String> namespaces;
+        private Map<Integer, int[]> positions;
+
+        private Frame(long states, boolean matched, Map<String, String> namespaces) {
+            this.states = states;
+            this.matched = matched;
+            this.namespaces = namespaces;
+        }
+
+        private int incrementPosition(int stepIndex, int predicateIndex, int predicateCount) {
+            if (positions == null) {
+                positions = new HashMap<>();
+            }
+            int[] counts = positions.get(stepIndex);
+            if (counts == null) {
+                counts = new int[predicateCount];
+                positions.put(stepIndex, counts);
+            }
+            return ++counts[predicateIndex];
+        }
+    }
+
+    private static final class Result {
+        private final StringBuilder content = new StringBuilder();
+        private final int depth;
+        private boolean complete;
+        private boolean startTagOpen;
+
+        private Result(int depth) {
+            this.depth = depth;
+        }
+    }
+
+    /**
+     * Serializes the events of every open element result and writes complete results in document order.
+     */
+    private static final class ResultWriter {
+        private final Writer output;
+        private final String delimiter;
+        private final boolean values;
+        private final int maxResults;
+        private final Deque<Result> pending = new ArrayDeque<>();
+        private final List<Result> open = new ArrayList<>();
+        private int count;
+
+        private ResultWriter(Writer output, String delimiter, boolean values, int maxResults) {
+            this.output = output;
+            this.delimiter = delimiter;
+            this.values = values;
+            this.maxResults = maxResults;
+        }
+
+        private boolean isFull() {
+            return maxResults > 0 && count >= maxResults;
+        }
+
+        private int getCount() {
+            return count;
+        }
+
+        private void startElement(XMLStreamReader reader, Deque<Frame> frames, boolean matched) {
+            final int depth = frames.size() - 1;
+            if (matched) {
+                final Result result = new Result(depth);
+                pending.add(result);
+                open.add(result);
+            }
+            if (values) {
+                return;
+            }
+            for (Result result : open) {
+                closeStartTag(result);
+                final StringBuilder content = result.content;
+                content.append('<').append(qualifiedName(reader.getPrefix(), reader.getLocalName()));
+                final Map<String, String> namespaces = result.depth == depth ? inScopeNamespaces(frames) : frames.peek().namespaces;
+                if (namespaces != null) {
+                    for (Map.Entry<String, String> namespace : namespaces.entrySet()) {
+                        content.append(namespace.getKey().isEmpty() ? " xmlns" : " xmlns:" + namespace.getKey())
+                                .append("=\"");
+                        escape(content, namespace.getValue(), true);
+                        content.append('"');
+                    }
+                }
+                for (int i = 0; i < reader.getAttributeCount(); i++) {
+                    content.append(' ').append(qualifiedName(reader.getAttributePrefix(i), reader.getAttributeLocalName(i))).append("=\"");
+                    escape(content, reader.getAttributeValue(i), true);
+                    content.append('"');
+                }
+                result.startTagOpen = true;
+            }
+        }
+
+        private void endElement(XMLStreamReader reader, int depth) throws IOException {
+            final Iterator<Result> iterator = open.iterator();
+            while (iterator.hasNext()) {
+                final Result result = iterator.next();
+                if (!values) {
+                    if (result.startTagOpen) {
+                        result.content.append("/>");
+                        result.startTagOpen = false;
+                    } else {
+                        result.content.append("</").append(qualifiedName(reader.getPrefix(), reader.getLocalName())).append('>');
+                    }
+                }
+                if (result.depth == depth) {
+                    result.complete = true;
+                    iterator.remove();
+                }
+            }
+            flush();
+        }
+
+        private void text(String text, boolean cdata) {
+            for (Result result : open) {
+                appendText(result, text, cdata);
+            }
+        }
+
+        private void comment(String text) {
+            if (values) {
+                return;
+            }
+            for (Result result : open) {
+                closeStartTag(result);
+                result.content.append("<!--").append(text).append("-->");
+            }
+        }
+
+        private void processingInstruction(String target, String data) {
+            if (values) {
+                return;
+            }
+            for (Result result : open) {
+                closeStartTag(result);
+                result.content.append("<?").append(target);
+                if (StringUtils.isNotEmpty(data)) {
+                    result.content.append(' ').append(data);
+                }
+                result.content.append("?>");
+            }
+        }
+
+        private void addAttribute(String name, String value) throws IOException {
+            final Result result = new Result(-1);
+            if (values) {
+                result.content.append(value);
+            } else {
+                result.content.append(name).append("=\"").append(value).append('"');
+            }
+            result.complete = true;
+            pending.add(result);
+            flush();
+        }
+
+        private void addText(String text, boolean cdata) throws IOException {
+            final Result result = new Result(-1);
+            appendText(result, text, cdata);
+            result.complete = true;
+            pending.add(result);
+            flush();
+        }
+
+        private void appendText(Result result, String text, boolean cdata) {
+            if (values) {
+                result.content.append(text);
+                return;
+            }
+            closeStartTag(result);
+            if (cdata) {
+                result.content.append("<![CDATA[").append(text).append("]]>");
+            } else {
+                escape(result.content, text, false);
+            }
+        }
+
+        private void flush() throws IOException {
+            while (!pending.isEmpty() && pending.peek().complete && !isFull()) {
+                final Result result = pending.poll();
+                if (count > 0) {
+                    output.write(delimiter);
+                }
+                output.write(values ? result.content.toString() : result.content.toString().trim());
+                count++;
+            }
+        }
+
+        private static void closeStartTag(Result result) {
+            if (result.startTagOpen) {
+                result.content.append('>');
+                result.startTagOpen = false;
+            }
+        }
+
+        // the root of a result declares every namespace in scope, so that the fragment stands on its own
+        private static Map<String, String> inScopeNamespaces(Deque<Frame> frames) {
+            final Map<String, String> namespaces = new LinkedHashMap<>();
+            final Iterator<Frame> iterator = frames.descendingIterator();
+            while (iterator.hasNext()) {
+                final Frame frame = iterator.next();
+                if (frame.namespaces != null) {
+                    namespaces.putAll(frame.namespaces);
+                }
+            }
+            if (namespaces.containsKey(StringUtils.EMPTY) && namespaces.get(StringUtils.EMPTY).isEmpty()) {
+                namespaces.remove(StringUtils.EMPTY);
+            }
+            return namespaces.isEmpty() ? Collections.<String, String>emptyMap() : namespaces;
+        }
+
+        private static void escape(StringBuilder content, String text, boolean attribute) {
+            for (int i = 0; i < text.length(); i++) {
+                final char c = text.charAt(i);
+                switch (c) {
+                    case '&':
+                        content.append("&amp;");
+                        break;
+                    case '<':
+                        content.append("&lt;");
+                        break;
+                    case '>':
+                        content.append("&gt;");
+                        break;
+                    case '"':
+                        content.append(attribute ? "&quot;" : "\"");
+                        break;
+                    default:
+                        content.append(c);
+                }
+            }
+        }
+    }
+
+    private static final class Parser {
+        private final String expression;
+        private int position;
+
+        private Parser(String expression) {
+            this.expression = expression;
+        }
+
+        private List<Step> parse() throws XPathExpressionException {
+            final List<Step> steps = new ArrayList<>();
+            while (position < expression.length()) {
+                if (!steps.isEmpty() && steps.get(steps.size() - 1).kind != ELEMENT) {
+                    throw unsupported("attributes and text nodes can only be selected by the last step");
+                }
+                if (expression.charAt(position) != '/') {
+                    throw unsupported("only absolute location paths are supported");
+                }
+                position++;
+                final boolean descendant = position < expression.length() && expression.charAt(position) == '/';
+                if (descendant) {
+                    position++;
+                }
+                skipWhitespace();
+                steps.add(parseStep(descendant));
+                skipWhitespace();
+            }
+            if (steps.isEmpty()) {
+                throw unsupported("the expression must select at least one step");
+            }
+            if (steps.size() > MAX_STEPS) {
+                throw unsupported("at most " + MAX_STEPS + " steps are supported");
+            }
+            return Collections.unmodifiableList(steps);
+        }
+
+        private Step parseStep(boolean descendant) throws XPathExpressionException {
+            if (peek() == '@') {
+                position++;
+                return new Step(descendant, ATTRIBUTE, parseNameTest(), Collections.<Predicate>emptyList());
+            }
+            if (expression.startsWith(TEXT_TEST, position)) {
+                position += TEXT_TEST.length();
+                return new Step(descendant, TEXT, null, Collections.<Predicate>emptyList());
+            }
+            final NameTest name = parseNameTest();
+            final List<Predicate> predicates = new ArrayList<>();
+            skipWhitespace();
+            while (peek() == '[') {
+                position++;
+                predicates.add(parsePredicate());
+                skipWhitespace();
+            }
+            return new Step(descendant, ELEMENT, name, predicates);
+        }
+
+        private Predicate parsePredicate() throws XPathExpressionException {
+            skipWhitespace();
+            final Predicate predicate;
+            if (Character.isDigit(peek())) {
+                final int start = position;
+                while (Character.isDigit(peek())) {
+                    position++;
+                }
+                final int index = Integer.parseInt(expression.substring(start, position));
+                if (index < 1) {
+                    throw unsupported("positions start at 1");
+                }
+                predicate = new Predicate(index, null, null, false);
+            } else if (peek() == '@') {
+                position++;
+                final NameTest attribute = parseNameTest();
+                skipWhitespace();
+                if (peek() == ']') {
+                    predicate = new Predicate(0, attribute, null, false);
+                } else {
+                    final boolean negated = peek() == '!';
+                    if (negated) {
+                        position++;
+                    }
+                    if (peek() != '=') {
+                        throw unsupported("only = and != comparisons are supported in predicates");
+                    }
+                    position++;
+                    skipWhitespace();
+                    predicate = new Predicate(0, attribute, parseLiteral(), negated);
+                }
+            } else {
+                throw unsupported("only [n], [@attr] and [@attr='value'] predicates are supported");
+            }
+            skipWhitespace();
+            if (peek() != ']') {
+                throw unsupported("unterminated predicate");
+            }
+            position++;
+            return predicate;
+        }
+
+        private String parseLiteral() throws XPathExpressionException {
+            final char quote = peek();
+            if (quote != '\'' && quote != '"') {
+                throw unsupported("predicates can only compare with a string literal");
+            }
+            final int end = expression.indexOf(quote, position + 1);
+            if (end == -1) {
+                throw unsupported("unterminated string literal");
+            }
+            final String literal = expression.substring(position + 1, end);
+            position = end + 1;
+            return literal;
+        }
+
+        private NameTest parseNameTest() throws XPathExpressionException {
+            String localName = parseName();
+            String prefix = null;
+            if (peek() == ':') {
+                if (position + 1 < expression.length() && expression.charAt(position + 1) == ':') {
+                    throw unsupported("axis specifiers are not supported");
+                }
+                position++;
+                if (WILDCARD.equals(localName)) {
+                    throw unsupported("a wildcard can not be used as a prefix");
+                }
+                prefix = localName;
+                localName = parseName();
+            }
+            if (peek() == '(') {
+                throw unsupported("functions and node type tests other than text() are not supported");
+            }
+            return new NameTest(prefix, localName);
+        }
+
+        private String parseName() throws XPathExpressionException {
+            if (peek() == '*') {
+                position++;
+                return WILDCARD;
+            }
+            final int start = position;
+            while (position < expression.length() && isNameChar(expression.charAt(position))) {
+                position++;
+            }
+            if (start == position) {
+                throw unsupported("a name test was expected at position " + start);
+            }
+            return expression.substring(start, position);
+        }
+
+        private static boolean isNameChar(char c) {
+            return Character.isLetterOrDigit(c) || c == '_' || c == '-' || c == '.';
+        }
+
+        private char peek() {
+            return position < expression.length() ? expression.charAt(position) : 0;
+        }
+
+        private void skipWhitespace() {
+            while (position < expression.length() && Character.isWhitespace(expression.charAt(position))) {
+                position++;
+            }
+        }
+
+        private XPathExpressionException unsupported(String reason) {
+            return new XPathExpressionException("The XPath expression " + expression + " is not supported in streaming mode: " + reason + ".");
+        }
+    }
+}
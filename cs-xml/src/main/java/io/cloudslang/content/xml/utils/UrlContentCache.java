@@ -0,0 +1,259 @@
+/*
+ * (c) Copyright 2017 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cloudslang.content.xml.utils;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * LRU cache of the content of remote XML, XSL and XSD sources, bounded by the total size of the cached content.
+ * <p>
+ * Every use of a cached source is revalidated with a conditional request built from the ETag and Last-Modified headers
+ * of the previous response, so an unchanged source costs a 304 response instead of a download. Responses without
+ * either header, and responses larger than the whole cache, are returned without being cached. The content is always
+ * held in a byte buffer, so a source can be parsed more than once without fetching it again.
+ */
+public final class UrlContentCache {
+    public static final long DEFAULT_MAX_BYTES = 32L * 1024 * 1024;
+
+    public static final String ETAG_HEADER = "ETag";
+    public static final String LAST_MODIFIED_HEADER = "Last-Modified";
+    public static final String IF_NONE_MATCH_HEADER = "If-None-Match";
+    public static final String IF_MODIFIED_SINCE_HEADER = "If-Modified-Since";
+
+    private static final UrlContentCache INSTANCE = new UrlContentCache(DEFAULT_MAX_BYTES);
+    private static final String HEADER_SEPARATOR = ":";
+    private static final String HEADERS_DELIMITER = "\r\n";
+
+    private final long maxBytes;
+    private final Map<String, Content> contents = new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedBytes;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public UrlContentCache(final long maxBytes) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("The cache size must be a positive number!");
+        }
+        this.maxBytes = maxBytes;
+    }
+
+    @NotNull
+    public static UrlContentCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns the content found at the URL, downloading it only when it is not cached or when the server reports
+     * that it has changed.
+     *
+     * @param url the URL of the source
+     * @return the content of the source
+     * @throws IOException if the source cannot be read
+     */
+    @NotNull
+    public Content fetch(@NotNull final URL url) throws IOException {
+        final URLConnection connection = url.openConnection();
+        if (!(connection instanceof HttpURLConnection)) {
+            try (InputStream inputStream = connection.getInputStream()) {
+                return new Content(IOUtils.toByteArray(inputStream), null, null);
+            }
+        }
+        final HttpURLConnection httpConnection = (HttpURLConnection) connection;
+        final String key = url.toString();
+        final Content cached = get(key);
+        if (cached != null) {
+            if (cached.eTag != null) {
+                httpConnection.setRequestProperty(IF_NONE_MATCH_HEADER, cached.eTag);
+            }
+            if (cached.lastModified != null) {
+                httpConnection.setRequestProperty(IF_MODIFIED_SINCE_HEADER, cached.lastModified);
+            }
+        }
+        if (cached != null && httpConnection.getResponseCode() == HttpURLConnection.HTTP_NOT_MODIFIED) {
+            return notModified(cached);
+        }
+        try (InputStream inputStream = httpConnection.getInputStream()) {
+            final byte[] bytes = IOUtils.toByteArray(inputStream);
+            return put(key, httpConnection.getHeaderField(ETAG_HEADER), httpConnection.getHeaderField(LAST_MODIFIED_HEADER), bytes);
+        }
+    }
+
+    /**
+     * Returns the cached content of the source, to be revalidated by the caller.
+     *
+     * @param key the key of the source, usually its URL
+     * @return the cached content or null if the source is not cached
+     */
+    @Nullable
+    public Content get(@NotNull final String key) {
+        synchronized (contents) {
+            return contents.get(key);
+        }
+    }
+
+    /**
+     * Records that the server confirmed the cached content is still valid.
+     *
+     * @param cached the content returned by {@link #get(String)}
+     * @return the cached content
+     */
+    @NotNull
+    public Content notModified(@NotNull final Content cached) {
+        hits.incrementAndGet();
+        return cached;
+    }
+
+    /**
+     * Caches a freshly downloaded content, when the response has a validator and the content fits in the cache.
+     *
+     * @param key          the key of the source, usually its URL
+     * @param eTag         the ETag header of the response, may be null
+     * @param lastModified the Last-Modified header of the response, may be null
+     * @param bytes        the content of the response
+     * @return the downloaded content
+     */
+    @NotNull
+    public Content put(@NotNull final String key, final String eTag, final String lastModified, @NotNull final byte[] bytes) {
+        misses.incrementAndGet();
+        final Content content = new Content(bytes, StringUtils.defaultIfEmpty(eTag, null), StringUtils.defaultIfEmpty(lastModified, null));
+        final boolean cacheable = content.getVersion() != null && bytes.length <= maxBytes;
+        synchronized (contents) {
+            final Content previous = cacheable ? contents.put(key, content) : contents.remove(key);
+            if (previous != null) {
+                cachedBytes -= previous.bytes.length;
+            }
+            if (cacheable) {
+                cachedBytes += bytes.length;
+                final Iterator<Content> iterator = contents.values().iterator();
+                while (cachedBytes > maxBytes && iterator.hasNext()) {
+                    cachedBytes -= iterator.next().bytes.length;
+                    iterator.remove();
+                }
+            }
+        }
+        return content;
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public int size() {
+        synchronized (contents) {
+            return contents.size();
+        }
+    }
+
+    public long getSizeInBytes() {
+        synchronized (contents) {
+            return cachedBytes;
+        }
+    }
+
+    public void clear() {
+        synchronized (contents) {
+            contents.clear();
+            cachedBytes = 0;
+        }
+        hits.set(0);
+        misses.set(0);
+    }
+
+    /**
+     * Returns the value of a header from a list of "name: value" lines, as returned by the http client.
+     *
+     * @param headers the response headers separated by CRLF
+     * @param name    the name of the header, case insensitive
+     * @return the value of the header or null if it is missing
+     */
+    @Nullable
+    public static String getHeaderValue(final String headers, @NotNull final String name) {
+        if (StringUtils.isEmpty(headers)) {
+            return null;
+        }
+        for (String header : StringUtils.splitByWholeSeparator(headers, HEADERS_DELIMITER)) {
+            final int separator = header.indexOf(HEADER_SEPARATOR);
+            if (separator > 0 && header.substring(0, separator).trim().equalsIgnoreCase(name)) {
+                return header.substring(separator + 1).trim();
+            }
+        }
+        return null;
+    }
+
+    public static final class Content {
+        private final byte[] bytes;
+        private final String eTag;
+        private final String lastModified;
+
+        private Content(byte[] bytes, String eTag, String lastModified) {
+            this.bytes = bytes;
+            this.eTag = eTag;
+            this.lastModified = lastModified;
+        }
+
+        // shared with the cache, callers must not modify the returned array
+        @NotNull
+        public byte[] getBytes() {
+            return bytes;
+        }
+
+        /**
+         * @return the validator of the content, or null if the server sent neither an ETag nor a Last-Modified header
+         */
+        @Nullable
+        public String getVersion() {
+            if (eTag != null) {
+                return ETAG_HEADER + HEADER_SEPARATOR + eTag;
+            }
+            return lastModified != null ? LAST_MODIFIED_HEADER + HEADER_SEPARATOR + lastModified : null;
+        }
+
+        /**
+         * @return the conditional request headers revalidating this content, separated by CRLF
+         */
+        @NotNull
+        public String getRevalidationHeaders() {
+            final StringBuilder headers = new StringBuilder();
+            if (eTag != null) {
+                headers.append(IF_NONE_MATCH_HEADER).append(HEADER_SEPARATOR).append(' ').append(eTag);
+            }
+            if (lastModified != null) {
+                if (headers.length() > 0) {
+                    headers.append(HEADERS_DELIMITER);
+                }
+                headers.append(IF_MODIFIED_SINCE_HEADER).append(HEADER_SEPARATOR).append(' ').append(lastModified);
+            }
+            return headers.toString();
+        }
+    }
+}
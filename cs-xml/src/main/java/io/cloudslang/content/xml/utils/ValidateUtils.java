@@ -38,6 +38,12 @@ public class ValidateUtils {
         }
     }
 
+    public static void validateJsonAndFilePathInputs(String json, String filePath) throws Exception {
+        if ((!StringUtils.isEmpty(filePath)) && (!StringUtils.isBlank(json))) {
+            throw new Exception("Supplied parameters: file path and json when only one is required");
+        }
+    }
+
     /**
      * Validates the operation inputs.
      *
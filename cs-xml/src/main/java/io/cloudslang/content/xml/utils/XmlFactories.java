@@ -0,0 +1,296 @@
+/*
+ * (c) Copyright 2017 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.cloudslang.content.xml.utils;
+
+import org.jetbrains.annotations.NotNull;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParser;
+import javax.xml.parsers.SAXParserFactory;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerConfigurationException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.validation.SchemaFactory;
+import javax.xml.xpath.XPath;
+import javax.xml.xpath.XPathFactory;
+import javax.xml.xpath.XPathFactoryConfigurationException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-thread JAXP objects shared by the xml services.
+ * <p>
+ * Looking up and configuring a JAXP factory is expensive, while the factories and the objects they create are not
+ * guaranteed to be thread safe. Each thread therefore configures its factories once and keeps the builders, XPath
+ * evaluators and transformers they produce, resetting them to their initial configuration before handing them out.
+ * An object obtained from this class must not be passed to another thread.
+ */
+public final class XmlFactories {
+    private static final String EXTERNAL_GENERAL_ENTITIES = "http://xml.org/sax/features/external-general-entities";
+    private static final String EXTERNAL_PARAMETER_ENTITIES = "http://xml.org/sax/features/external-parameter-entities";
+    private static final String LOAD_EXTERNAL_DTD = "http://apache.org/xml/features/nonvalidating/load-external-dtd";
+    private static final String DISALLOW_DOCTYPE_DECL = "http://apache.org/xml/features/disallow-doctype-decl";
+    private static final String SECURE_KEY_PREFIX = "secure:";
+    private static final String FEATURES_KEY_PREFIX = "features:";
+    private static final String NAMESPACE_AWARE_KEY_PREFIX = "namespaceAware:";
+    private static final int MAX_BUILDERS_PER_THREAD = 16;
+
+    private static final ThreadLocal<Map<String, DocumentBuilder>> DOCUMENT_BUILDERS = new ThreadLocal<Map<String, DocumentBuilder>>() {
+        @Override
+        protected Map<String, DocumentBuilder> initialValue() {
+            return new HashMap<>();
+        }
+    };
+
+    private static final ThreadLocal<Map<String, SAXParser>> SAX_PARSERS = new ThreadLocal<Map<String, SAXParser>>() {
+        @Override
+        protected Map<String, SAXParser> initialValue() {
+            return new HashMap<>();
+        }
+    };
+
+    private static final ThreadLocal<XMLInputFactory> STREAMING_INPUT_FACTORIES = new ThreadLocal<>();
+    private static final ThreadLocal<XPath> XPATHS = new ThreadLocal<>();
+    private static final ThreadLocal<Transformer> IDENTITY_TRANSFORMERS = new ThreadLocal<>();
+    private static final ThreadLocal<TransformerFactory> TRANSFORMER_FACTORIES = new ThreadLocal<>();
+    private static final ThreadLocal<SchemaFactory> SCHEMA_FACTORIES = new ThreadLocal<>();
+
+    private XmlFactories() {
+    }
+
+    /**
+     * Returns a namespace aware document builder that rejects doctype declarations and external entities.
+     *
+     * @param secure value of the secure processing feature
+     * @return a document builder owned by the current thread
+     * @throws ParserConfigurationException if the parser does not support the hardening features
+     */
+    @NotNull
+    public static DocumentBuilder getSecureDocumentBuilder(boolean secure) throws ParserConfigurationException {
+        final String key = SECURE_KEY_PREFIX + secure;
+        DocumentBuilder builder = getCachedDocumentBuilder(key);
+        if (builder == null) {
+            final DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setFeature(EXTERNAL_GENERAL_ENTITIES, false);
+            factory.setFeature(EXTERNAL_PARAMETER_ENTITIES, false);
+            factory.setFeature(LOAD_EXTERNAL_DTD, false);
+            factory.setFeature(DISALLOW_DOCTYPE_DECL, true);
+            factory.setXIncludeAware(false);
+            factory.setExpandEntityReferences(false);
+            factory.setNamespaceAware(true);
+            factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, secure);
+            builder = cacheDocumentBuilder(key, factory.newDocumentBuilder());
+        }
+        return builder;
+    }
+
+    /**
+     * Returns a namespace aware SAX reader with the same hardening as {@link #getSecureDocumentBuilder(boolean)},
+     * for reading documents without building a DOM.
+     *
+     * @param secure value of the secure processing feature
+     * @return an XML reader owned by the current thread
+     * @throws ParserConfigurationException if the parser does not support the hardening features
+     * @throws SAXException                 if the reader cannot be created
+     */
+    @NotNull
+    public static XMLReader getSecureXmlReader(boolean secure) throws ParserConfigurationException, SAXException {
+        final String key = SECURE_KEY_PREFIX + secure;
+        SAXParser parser = getCachedSaxParser(key);
+        if (parser == null) {
+            final SAXParserFactory factory = SAXParserFactory.newInstance();
+            factory.setFeature(EXTERNAL_GENERAL_ENTITIES, false);
+            factory.setFeature(EXTERNAL_PARAMETER_ENTITIES, false);
+            factory.setFeature(LOAD_EXTERNAL_DTD, false);
+            factory.setFeature(DISALLOW_DOCTYPE_DECL, true);
+            factory.setXIncludeAware(false);
+            factory.setNamespaceAware(true);
+            factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, secure);
+            parser = cacheSaxParser(key, factory.newSAXParser());
+        }
+        return parser.getXMLReader();
+    }
+
+    /**
+     * Returns a namespace aware SAX reader configured with the parsing features given by the user.
+     *
+     * @param features parsing features, one "name value" pair per line
+     * @return an XML reader owned by the current thread
+     * @throws ParserConfigurationException if one of the features is not supported
+     * @throws SAXException                 if one of the features is not recognized or the reader cannot be created
+     */
+    @NotNull
+    public static XMLReader getXmlReader(String features) throws ParserConfigurationException, SAXException {
+        final String key = FEATURES_KEY_PREFIX + features;
+        SAXParser parser = getCachedSaxParser(key);
+        if (parser == null) {
+            final SAXParserFactory factory = SAXParserFactory.newInstance();
+            factory.setNamespaceAware(true);
+            XmlUtils.setFeatures(factory, features);
+            parser = cacheSaxParser(key, factory.newSAXParser());
+        }
+        return parser.getXMLReader();
+    }
+
+    /**
+     * Returns a document builder configured with the parsing features given by the user.
+     *
+     * @param features       parsing features, one "name value" pair per line
+     * @param namespaceAware whether the builder is namespace aware
+     * @return a document builder owned by the current thread
+     * @throws ParserConfigurationException if one of the features is not supported
+     */
+    @NotNull
+    public static DocumentBuilder getDocumentBuilder(String features, boolean namespaceAware) throws ParserConfigurationException {
+        final String key = NAMESPACE_AWARE_KEY_PREFIX + namespaceAware + FEATURES_KEY_PREFIX + features;
+        DocumentBuilder builder = getCachedDocumentBuilder(key);
+        if (builder == null) {
+            final DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            XmlUtils.setFeatures(factory, features);
+            factory.setNamespaceAware(namespaceAware);
+            builder = cacheDocumentBuilder(key, factory.newDocumentBuilder());
+        }
+        return builder;
+    }
+
+    /**
+     * Returns a StAX factory for reading documents as a stream. Adjacent text is reported as a single event and,
+     * like the secure document builder, DTDs and external entities are not processed.
+     *
+     * @return an XML input factory owned by the current thread
+     */
+    @NotNull
+    public static XMLInputFactory getStreamingInputFactory() {
+        XMLInputFactory factory = STREAMING_INPUT_FACTORIES.get();
+        if (factory == null) {
+            factory = XMLInputFactory.newInstance();
+            factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+            factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+            factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+            STREAMING_INPUT_FACTORIES.set(factory);
+        }
+        return factory;
+    }
+
+    /**
+     * @return an XPath evaluator owned by the current thread, without a namespace context
+     */
+    @NotNull
+    public static XPath getXPath() {
+        XPath xPath = XPATHS.get();
+        if (xPath == null) {
+            final XPathFactory factory = XPathFactory.newInstance();
+            try {
+                factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+            } catch (XPathFactoryConfigurationException e) {
+                // every JAXP implementation supports secure processing, keep the defaults otherwise
+            }
+            xPath = factory.newXPath();
+            XPATHS.set(xPath);
+        } else {
+            xPath.reset();
+        }
+        return xPath;
+    }
+
+    /**
+     * @return an identity transformer owned by the current thread, with the default output properties
+     * @throws TransformerConfigurationException if the transformer cannot be created
+     */
+    @NotNull
+    public static Transformer getIdentityTransformer() throws TransformerConfigurationException {
+        Transformer transformer = IDENTITY_TRANSFORMERS.get();
+        if (transformer == null) {
+            final TransformerFactory factory = TransformerFactory.newInstance();
+            factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+            transformer = factory.newTransformer();
+            IDENTITY_TRANSFORMERS.set(transformer);
+        } else {
+            transformer.reset();
+        }
+        return transformer;
+    }
+
+    /**
+     * Returns the factory used to compile stylesheets. It keeps the JAXP defaults so that stylesheets can still
+     * include or import other stylesheets.
+     *
+     * @return a transformer factory owned by the current thread
+     */
+    @NotNull
+    public static TransformerFactory getTransformerFactory() {
+        TransformerFactory factory = TRANSFORMER_FACTORIES.get();
+        if (factory == null) {
+            factory = TransformerFactory.newInstance();
+            TRANSFORMER_FACTORIES.set(factory);
+        }
+        return factory;
+    }
+
+    /**
+     * @return a W3C XML Schema factory owned by the current thread
+     */
+    @NotNull
+    public static SchemaFactory getSchemaFactory() {
+        SchemaFactory factory = SCHEMA_FACTORIES.get();
+        if (factory == null) {
+            factory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
+            SCHEMA_FACTORIES.set(factory);
+        }
+        return factory;
+    }
+
+    private static DocumentBuilder getCachedDocumentBuilder(String key) {
+        final DocumentBuilder builder = DOCUMENT_BUILDERS.get().get(key);
+        if (builder != null) {
+            builder.reset();
+        }
+        return builder;
+    }
+
+    private static DocumentBuilder cacheDocumentBuilder(String key, DocumentBuilder builder) {
+        final Map<String, DocumentBuilder> builders = DOCUMENT_BUILDERS.get();
+        if (builders.size() >= MAX_BUILDERS_PER_THREAD) {
+            builders.clear();
+        }
+        builders.put(key, builder);
+        return builder;
+    }
+
+    private static SAXParser getCachedSaxParser(String key) {
+        final SAXParser parser = SAX_PARSERS.get().get(key);
+        if (parser != null) {
+            parser.reset();
+        }
+        return parser;
+    }
+
+    private static SAXParser cacheSaxParser(String key, SAXParser parser) {
+        final Map<String, SAXParser> parsers = SAX_PARSERS.get();
+        if (parsers.size() >= MAX_BUILDERS_PER_THREAD) {
+            parsers.clear();
+        }
+        parsers.put(key, parser);
+        return parser;
+    }
+}
@@ -29,12 +29,12 @@ import org.w3c.dom.NodeList;
 import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
 
-import javax.xml.XMLConstants;
 import javax.xml.namespace.NamespaceContext;
 import javax.xml.namespace.QName;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParserFactory;
 import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamConstants;
 import javax.xml.stream.XMLStreamException;
@@ -42,14 +42,12 @@ import javax.xml.stream.XMLStreamReader;
 import javax.xml.transform.OutputKeys;
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerException;
-import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.stream.StreamResult;
 import javax.xml.xpath.XPath;
 import javax.xml.xpath.XPathConstants;
 import javax.xml.xpath.XPathExpression;
 import javax.xml.xpath.XPathExpressionException;
-import javax.xml.xpath.XPathFactory;
 import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
@@ -59,6 +57,8 @@ import java.io.StringReader;
 import java.io.StringWriter;
 import java.net.MalformedURLException;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -69,6 +69,9 @@ import static org.apache.commons.lang3.StringUtils.EMPTY;
  */
 public class XmlUtils {
     private static final String OK_STATUS_CODE = "200";
+    private static final String NOT_MODIFIED_STATUS_CODE = "304";
+    private static final String CACHE_KEY_SEPARATOR = "\n";
+    private static final String NAMESPACE_CONTEXT_KEY = "io.cloudslang.content.xml.namespaceContext";
 
     private XmlUtils() {
     }
@@ -118,22 +121,7 @@ public class XmlUtils {
     }
 
     public static DocumentBuilder getDocumentBuilder(boolean secure) throws ParserConfigurationException {
-        String feature;
-        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-
-        feature = "http://xml.org/sax/features/external-general-entities";
-        factory.setFeature(feature, false);
-        feature = "http://xml.org/sax/features/external-parameter-entities";
-        factory.setFeature(feature, false);
-        feature = "http://apache.org/xml/features/nonvalidating/load-external-dtd";
-        factory.setFeature(feature, false);
-        feature = "http://apache.org/xml/features/disallow-doctype-decl";
-        factory.setFeature(feature, true);
-        factory.setXIncludeAware(false);
-        factory.setExpandEntityReferences(false);
-        factory.setNamespaceAware(true);
-        factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, secure);
-        return factory.newDocumentBuilder();
+        return XmlFactories.getSecureDocumentBuilder(secure);
     }
 
     /**
@@ -182,14 +170,8 @@ public class XmlUtils {
     }
 
     public static Document parseXmlInputStream(InputStream inputStream, String features) throws Exception {
-        Document xmlDocument;
-        DocumentBuilderFactory builderFactory = DocumentBuilderFactory.newInstance();
-        XmlUtils.setFeatures(builderFactory, features);
-
-        builderFactory.setNamespaceAware(true);
-        DocumentBuilder builder = builderFactory.newDocumentBuilder();
-        xmlDocument = builder.parse(inputStream);
-        return xmlDocument;
+        DocumentBuilder builder = XmlFactories.getDocumentBuilder(features, true);
+        return builder.parse(inputStream);
     }
 
     /**
@@ -215,27 +197,55 @@ public class XmlUtils {
      * @throws Exception in case the String can't be represented as a Node
      */
     public static Node stringToNode(String value, String encoding, String features) throws Exception {
+        return stringToNode(value, encoding, features, false);
+    }
+
+    /**
+     * Transforms a string representation of an XML Node to an Node. A namespace aware node keeps the namespaces it
+     * declares once it is imported in a document, without serializing and parsing the document again. A value using
+     * a prefix it does not declare itself, e.g. one declared by the element it is added to, can only be parsed without
+     * namespace awareness and falls back to the parser of {@link #stringToNode(String, String, String)}.
+     *
+     * @param value          the node as String
+     * @param features       parsing features to set on the document builder
+     * @param namespaceAware whether to parse the node namespace aware first
+     * @return the Node object
+     * @throws Exception in case the String can't be represented as a Node
+     */
+    public static Node stringToNode(String value, String encoding, String features, boolean namespaceAware) throws Exception {
         Node node;
         if (StringUtils.isEmpty(encoding)) {
             encoding = "UTF-8";
         }
+        SAXException namespaceException = null;
+        if (namespaceAware) {
+            try (InputStream inputStream = new ByteArrayInputStream(value.getBytes(encoding))) {
+                return XmlFactories.getDocumentBuilder(features, true).parse(inputStream).getDocumentElement();
+            } catch (SAXException se) {
+                namespaceException = se;
+            }
+        }
         try (InputStream inputStream = new ByteArrayInputStream(value.getBytes(encoding))) {
             // check if input value is a Node
             Document docNew = DocumentUtils.createDocumentBuilder(features).parse(inputStream);
             node = docNew.getDocumentElement();
         } catch (SAXException se) {
-            throw new Exception("Value " + value + "is not valid XML element : " + se.getMessage());
+            final Exception exception = new Exception("Value " + value + "is not valid XML element : " + se.getMessage());
+            if (namespaceException != null) {
+                exception.addSuppressed(namespaceException);
+            }
+            throw exception;
         }
         return node;
     }
 
     /**
-     * Returns a new instance of XPath.
+     * Returns the XPath instance of the current thread.
      *
      * @return XPath object
      */
     private static XPath createXpath() {
-        return XPathFactory.newInstance().newXPath();
+        return XmlFactories.getXPath();
     }
 
     /**
@@ -252,7 +262,7 @@ public class XmlUtils {
             inputXML = new ByteArrayInputStream(xml.getBytes());
         } else {
             if (filePath.startsWith(Constants.Inputs.HTTP_PREFIX_STRING) || filePath.startsWith(Constants.Inputs.HTTPS_PREFIX_STRING)) {
-                inputXML = new java.net.URL(filePath).openStream();
+                inputXML = new ByteArrayInputStream(UrlContentCache.getInstance().fetch(new java.net.URL(filePath)).getBytes());
             } else {
                 inputXML = new FileInputStream(new File(filePath));
             }
@@ -264,8 +274,7 @@ public class XmlUtils {
         DOMSource domSource = new DOMSource(doc);
         StringWriter writer = new StringWriter();
         StreamResult streamResult = new StreamResult(writer);
-        TransformerFactory tf = TransformerFactory.newInstance();
-        Transformer transformer = tf.newTransformer();
+        Transformer transformer = XmlFactories.getIdentityTransformer();
         transformer.transform(domSource, streamResult);
         return writer;
     }
@@ -277,11 +286,27 @@ public class XmlUtils {
     }
 
     public static XPathExpression createXPathExpression(NamespaceContext context, String xPathQuery) throws XPathExpressionException {
-        XPath xpath = XPathFactory.newInstance().newXPath();
+        XPath xpath = createXpath();
         xpath.setNamespaceContext(context);
         return xpath.compile(xPathQuery);
     }
 
+    /**
+     * Returns the hex encoded SHA-256 hash of a string, used to identify inline documents in caches.
+     *
+     * @param content the string to hash
+     * @return the hash as 64 lowercase hex digits
+     * @throws NoSuchAlgorithmException if SHA-256 is not available
+     */
+    public static String sha256Hex(String content) throws NoSuchAlgorithmException {
+        final byte[] digest = MessageDigest.getInstance("SHA-256").digest(content.getBytes(StandardCharsets.UTF_8));
+        final StringBuilder hex = new StringBuilder(digest.length * 2);
+        for (byte b : digest) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
     public static void validateNodeList(NodeList nodeList) throws Exception {
         if (nodeList.getLength() == 0) {
             throw new Exception(Constants.ErrorMessages.ELEMENT_NOT_FOUND);
@@ -291,7 +316,7 @@ public class XmlUtils {
     private static String transformElementNode(Node node) throws TransformerException {
         StringWriter stringWriter = new StringWriter();
 
-        Transformer transformer = TransformerFactory.newInstance().newTransformer();
+        Transformer transformer = XmlFactories.getIdentityTransformer();
         transformer.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, Constants.YES);
         transformer.setOutputProperty(OutputKeys.INDENT, Constants.YES);
         transformer.transform(new DOMSource(node), new StreamResult(stringWriter));
@@ -310,16 +335,79 @@ public class XmlUtils {
     }
 
     public static NamespaceContext getNamespaceContext(CommonInputs commonInputs, Document doc) throws Exception {
-        NamespaceContext context;
-        if (Constants.XML_PATH.equalsIgnoreCase(commonInputs.getXmlDocumentSource())) {
-            StringWriter writer = XmlUtils.getStringWriter(doc);
-            context = XmlUtils.getNamespaceContext(writer.toString(), "");
-        } else {
-            context = XmlUtils.getNamespaceContext(commonInputs.getXmlDocument(), "");
+        return getNamespaceContext(commonInputs.getNamespacesPrefixes(), commonInputs.getNamespacesUris(), doc);
+    }
+
+    /**
+     * Returns the namespace context for queries on a parsed document. The prefixes given by the user are used when
+     * there are any, otherwise the prefixes are discovered in the document.
+     *
+     * @param namespacesPrefixes the prefixes given by the user, separated by ','
+     * @param namespacesUris     the corresponding namespace URIs, separated by ','
+     * @param doc                the parsed document
+     * @return the namespace context
+     * @throws Exception if the number of prefixes and URIs differ
+     */
+    public static NamespaceContext getNamespaceContext(String namespacesPrefixes, String namespacesUris, Document doc) throws Exception {
+        if (StringUtils.isEmpty(namespacesPrefixes)) {
+            return getNamespaceContext(doc);
+        }
+        try {
+            return new SimpleNamespaceContext(InputUtils.generateMap(namespacesPrefixes, StringUtils.defaultString(namespacesUris),
+                    Constants.Defaults.DELIMITER));
+        } catch (IllegalArgumentException e) {
+            throw new Exception("Invalid namespaces: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Returns the prefixes of the element names of a parsed document, like {@link #getNamespaceContext(String, String)}
+     * but without reading the document again. The context is kept on the document, so later queries on the same
+     * document reuse it.
+     *
+     * @param doc the parsed, namespace aware document
+     * @return the Namespaces context of the document
+     */
+    public static NamespaceContext getNamespaceContext(Document doc) {
+        NamespaceContext context = (NamespaceContext) doc.getUserData(NAMESPACE_CONTEXT_KEY);
+        if (context == null) {
+            context = new SimpleNamespaceContext(collectElementNamespaces(doc));
+            doc.setUserData(NAMESPACE_CONTEXT_KEY, context, null);
         }
         return context;
     }
 
+    /**
+     * Drops the namespace context kept on a document by {@link #getNamespaceContext(Document)}, so the next call
+     * discovers the prefixes of the document again. Needed after an edit that may have added prefixes.
+     *
+     * @param doc the parsed document
+     */
+    public static void clearNamespaceContext(Document doc) {
+        doc.setUserData(NAMESPACE_CONTEXT_KEY, null, null);
+    }
+
+    // walks the nodes in document order, a prefix used by several elements keeps the namespace of the last one
+    private static Map<String, String> collectElementNamespaces(Document doc) {
+        final Map<String, String> namespaces = new HashMap<>();
+        final Node root = doc.getDocumentElement();
+        Node node = root;
+        while (node != null) {
+            if (node.getNodeType() == Node.ELEMENT_NODE && StringUtils.isNotEmpty(node.getPrefix())) {
+                namespaces.put(node.getPrefix(), node.getNamespaceURI());
+            }
+            if (node.hasChildNodes()) {
+                node = node.getFirstChild();
+                continue;
+            }
+            while (node != root && node.getNextSibling() == null) {
+                node = node.getParentNode();
+            }
+            node = node == root ? null : node.getNextSibling();
+        }
+        return namespaces;
+    }
+
     public static String createXmlDocumentFromUrl(CommonInputs commonInputs) throws ParserConfigurationException, SAXException, IOException {
         CSHttpClient scoreHttpClient = new CSHttpClient();
         HttpClientInputs httpClientInputs = new HttpClientInputs();
@@ -346,11 +434,29 @@ public class XmlUtils {
         httpClientInputs.setProxyUsername(commonInputs.getProxyUsername());
         httpClientInputs.setProxyPassword(commonInputs.getProxyPassword());
 
+        // the content is cached per user, a cached document is only reused after the server revalidated it
+        final UrlContentCache contentCache = UrlContentCache.getInstance();
+        final String cacheKey = commonInputs.getXmlDocument() + CACHE_KEY_SEPARATOR + commonInputs.getUsername();
+        final UrlContentCache.Content cached = contentCache.get(cacheKey);
+        if (cached != null) {
+            httpClientInputs.setHeaders(cached.getRevalidationHeaders());
+        }
+
         Map<String, String> requestResponse = scoreHttpClient.execute(httpClientInputs);
+        if (cached != null && NOT_MODIFIED_STATUS_CODE.equals(requestResponse.get(CSHttpClient.STATUS_CODE))) {
+            return new String(contentCache.notModified(cached).getBytes(), StandardCharsets.UTF_8);
+        }
         if (!OK_STATUS_CODE.equals(requestResponse.get(CSHttpClient.STATUS_CODE))) {
             throw new RuntimeException("Http request to specified URL: " + commonInputs.getXmlDocument() + " failed with status code: " + requestResponse.get(CSHttpClient.STATUS_CODE) + ". Request response is: " + requestResponse.get(Constants.Outputs.RETURN_RESULT));
         }
-        return requestResponse.get(Constants.Outputs.RETURN_RESULT);
+        final String xmlDocument = requestResponse.get(Constants.Outputs.RETURN_RESULT);
+        final String responseHeaders = requestResponse.get(CSHttpClient.RESPONSE_HEADERS);
+        if (xmlDocument != null) {
+            contentCache.put(cacheKey, UrlContentCache.getHeaderValue(responseHeaders, UrlContentCache.ETAG_HEADER),
+                    UrlContentCache.getHeaderValue(responseHeaders, UrlContentCache.LAST_MODIFIED_HEADER),
+                    xmlDocument.getBytes(StandardCharsets.UTF_8));
+        }
+        return xmlDocument;
     }
 
     public static void setFeatures(DocumentBuilderFactory reader, String features) throws ParserConfigurationException {
@@ -365,6 +471,15 @@ public class XmlUtils {
 
     }
 
+    public static void setFeatures(SAXParserFactory factory, String features) throws ParserConfigurationException, SAXException {
+        if (!StringUtils.isEmpty(features)) {
+            Map<String, Boolean> featuresMap = parseFeatures(features);
+            for (String key : featuresMap.keySet()) {
+                factory.setFeature(key, featuresMap.get(key));
+            }
+        }
+    }
+
     public static void setFeatures(SAXBuilder reader, String features) throws SAXException {
         if (!StringUtils.isEmpty(features)) {
             Map<String, Boolean> featuresMap = parseFeatures(features);
@@ -15,6 +15,11 @@
 
 package io.cloudslang.content.xml.actions;
 
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import io.cloudslang.content.xml.services.XslTemplatesCache;
+import io.cloudslang.content.xml.utils.UrlContentCache;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
 import org.junit.After;
@@ -22,9 +27,12 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.io.File;
+import java.io.IOException;
+import java.net.InetSocketAddress;
 import java.net.URI;
 import java.nio.charset.Charset;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static io.cloudslang.content.constants.OutputNames.RETURN_CODE;
 import static io.cloudslang.content.constants.OutputNames.RETURN_RESULT;
@@ -32,6 +40,7 @@ import static io.cloudslang.content.constants.ReturnCodes.FAILURE;
 import static io.cloudslang.content.constants.ReturnCodes.SUCCESS;
 import static junit.framework.Assert.assertEquals;
 import static junit.framework.Assert.assertNotNull;
+import static junit.framework.Assert.assertTrue;
 import static org.apache.commons.io.IOUtils.readLines;
 import static org.apache.commons.lang3.StringUtils.join;
 
@@ -193,4 +202,116 @@ public class ApplyXslTransformationTest {
         assertEquals(FAILURE, result.get(RETURN_CODE));
         assertEquals(result.get(RETURN_RESULT), "XML document structures must start and end within the same entity.");
     }
+
+    @Test
+    public void applyXslTransformationReusesCompiledInlineTemplate() {
+        final XslTemplatesCache cache = XslTemplatesCache.getInstance();
+        cache.clear();
+        Map<String, String> first = applyXslTransformation.applyXslTransformation(xml, xsl, "", "");
+        Map<String, String> second = applyXslTransformation.applyXslTransformation(xml, xsl, "", "");
+        assertEquals(SUCCESS, second.get(RETURN_CODE));
+        assertEquals(first.get(RETURN_RESULT), second.get(RETURN_RESULT));
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.evict(xsl));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void applyXslTransformationRecompilesChangedTemplateFile() throws Exception {
+        final XslTemplatesCache cache = XslTemplatesCache.getInstance();
+        cache.clear();
+        final File xslFile = File.createTempFile("template", ".xsl");
+        try {
+            FileUtils.writeStringToFile(xslFile, xsl, Charset.forName("UTF-8"));
+            cache.precompile(xslFile.getAbsolutePath(), "");
+            Map<String, String> result = applyXslTransformation.applyXslTransformation(xml, xslFile.getAbsolutePath(), "", "");
+            assertEquals(SUCCESS, result.get(RETURN_CODE));
+            assertEquals(1, cache.getHitCount());
+
+            FileUtils.writeStringToFile(xslFile, xsl.replace("<TITLE>Map</TITLE>", "<TITLE>Changed</TITLE>"), Charset.forName("UTF-8"));
+            assertTrue(xslFile.setLastModified(xslFile.lastModified() + 2000));
+            result = applyXslTransformation.applyXslTransformation(xml, xslFile.getAbsolutePath(), "", "");
+            assertEquals(SUCCESS, result.get(RETURN_CODE));
+            assertTrue(result.get(RETURN_RESULT).contains("Changed"));
+            assertEquals(2, cache.getMissCount());
+        } finally {
+            FileUtils.deleteQuietly(xslFile);
+            cache.clear();
+        }
+    }
+
+    @Test
+    public void applyXslTransformationRecompilesTemplateWithChangedInclude() throws Exception {
+        final XslTemplatesCache cache = XslTemplatesCache.getInstance();
+        cache.clear();
+        final File includedFile = File.createTempFile("included", ".xsl");
+        final File xslFile = File.createTempFile("template", ".xsl");
+        final String included = "<xsl:stylesheet version=\"1.0\" xmlns:xsl=\"http://www.w3.org/1999/XSL/Transform\">" +
+                "<xsl:template name=\"title\"><xsl:text>Map</xsl:text></xsl:template></xsl:stylesheet>";
+        try {
+            FileUtils.writeStringToFile(includedFile, included, Charset.forName("UTF-8"));
+            FileUtils.writeStringToFile(xslFile, "<xsl:stylesheet version=\"1.0\" xmlns:xsl=\"http://www.w3.org/1999/XSL/Transform\">" +
+                    "<xsl:include href=\"" + includedFile.toURI() + "\"/>" +
+                    "<xsl:template match=\"/\"><title><xsl:call-template name=\"title\"/></title></xsl:template></xsl:stylesheet>", Charset.forName("UTF-8"));
+            Map<String, String> result = applyXslTransformation.applyXslTransformation(xml, xslFile.getAbsolutePath(), "", "");
+            assertEquals(SUCCESS, result.get(RETURN_CODE));
+            assertTrue(result.get(RETURN_RESULT).contains("<title>Map</title>"));
+            result = applyXslTransformation.applyXslTransformation(xml, xslFile.getAbsolutePath(), "", "");
+            assertEquals(SUCCESS, result.get(RETURN_CODE));
+            assertEquals(1, cache.getHitCount());
+
+            FileUtils.writeStringToFile(includedFile, included.replace(">Map<", ">Changed<"), Charset.forName("UTF-8"));
+            assertTrue(includedFile.setLastModified(includedFile.lastModified() + 2000));
+            result = applyXslTransformation.applyXslTransformation(xml, xslFile.getAbsolutePath(), "", "");
+            assertEquals(SUCCESS, result.get(RETURN_CODE));
+            assertTrue(result.get(RETURN_RESULT).contains("<title>Changed</title>"));
+            assertEquals(2, cache.getMissCount());
+        } finally {
+            FileUtils.deleteQuietly(xslFile);
+            FileUtils.deleteQuietly(includedFile);
+            cache.clear();
+        }
+    }
+
+    @Test
+    public void applyXslTransformationRevalidatesUrlSources() throws Exception {
+        final XslTemplatesCache templatesCache = XslTemplatesCache.getInstance();
+        final UrlContentCache contentCache = UrlContentCache.getInstance();
+        templatesCache.clear();
+        contentCache.clear();
+        final AtomicInteger downloads = new AtomicInteger();
+        final HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                final String eTag = "\"" + exchange.getRequestURI().getPath() + "\"";
+                exchange.getResponseHeaders().add("ETag", eTag);
+                if (eTag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                    exchange.sendResponseHeaders(304, -1);
+                } else {
+                    final byte[] body = (exchange.getRequestURI().getPath().endsWith(".xsl") ? xsl : xml).getBytes("UTF-8");
+                    downloads.incrementAndGet();
+                    exchange.sendResponseHeaders(200, body.length);
+                    exchange.getResponseBody().write(body);
+                }
+                exchange.close();
+            }
+        });
+        server.start();
+        try {
+            final String baseUrl = "http://localhost:" + server.getAddress().getPort();
+            Map<String, String> first = applyXslTransformation.applyXslTransformation(baseUrl + "/doc.xml", baseUrl + "/template.xsl", "", "");
+            Map<String, String> second = applyXslTransformation.applyXslTransformation(baseUrl + "/doc.xml", baseUrl + "/template.xsl", "", "");
+            assertEquals(SUCCESS, first.get(RETURN_CODE));
+            assertEquals(first.get(RETURN_RESULT), second.get(RETURN_RESULT));
+            assertEquals(2, downloads.get());
+            assertEquals(2, contentCache.getHitCount());
+            assertEquals(1, templatesCache.getHitCount());
+        } finally {
+            server.stop(0);
+            templatesCache.clear();
+            contentCache.clear();
+        }
+    }
 }
@@ -15,9 +15,14 @@
 
 package io.cloudslang.content.xml.actions;
 
+import org.apache.commons.io.FileUtils;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
+import java.io.File;
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
 
 import static io.cloudslang.content.constants.OutputNames.RETURN_CODE;
@@ -33,6 +38,9 @@ import static org.junit.Assert.assertNotNull;
  * Created by ursan on 8/4/2016.
  */
 public class ConvertJsonToXmlTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
     private ConvertJsonToXml converter;
 
     @Before
@@ -98,6 +106,40 @@ public class ConvertJsonToXmlTest {
                 "<item><name2>value2</name2></item>");
     }
 
+    @Test
+    public void testConvertJsonObjectWithSeveralMembersWithoutRootTagNameToXmlElements() {
+        Map<String, String> result = converter.execute(
+                "{\"name1\":\"value1\",\"name2\":{\"name3\":\"value3\"},\"name4\":null}",
+                "false",
+                "false",
+                "",
+                "item",
+                "",
+                "",
+                "",
+                "",
+                ",");
+        assertEquals(SUCCESS, result.get(RETURN_CODE));
+        assertEquals("<name1>value1</name1>" + NEW_LINE + "<name2><name3>value3</name3></name2>", result.get(RETURN_RESULT));
+    }
+
+    @Test
+    public void testConvertJsonObjectWithSeveralMembersWithoutRootTagNameToXmlDocument() {
+        Map<String, String> result = converter.execute(
+                "{\"name1\":\"value1\",\"name2\":\"value2\"}",
+                "false",
+                "true",
+                "",
+                "item",
+                "",
+                "",
+                "",
+                "",
+                ",");
+        assertEquals(FAILURE, result.get(RETURN_CODE));
+        assertEquals("There must be only one root element", result.get(RETURN_RESULT));
+    }
+
     @Test
     public void testConvertJsonObjectWithoutRootTagNameToXmlDocument() {
         Map<String, String> result = converter.execute(
@@ -228,4 +270,96 @@ public class ConvertJsonToXmlTest {
         assertEquals(result.get(RETURN_CODE), FAILURE);
         assertEquals(result.get(RETURN_RESULT), "com.google.gson.stream.MalformedJsonException: Expected name at line 1 column 28 path $.items");
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testAttributesAfterChildElements() {
+        Map<String, String> result = converter.execute(
+                "{\"name\":\"value\",\"@id\":\"1\",\"child\":{\"a\":\"b\",\"@type\":\"x\"},\"@id\":\"2\"}",
+                "true",
+                "false",
+                "root",
+                "item",
+                "",
+                "",
+                "",
+                "",
+                ",");
+        assertEquals(SUCCESS, result.get(RETURN_CODE));
+        assertEquals("<root id=\"2\">" + NEW_LINE +
+                "  <name>value</name>" + NEW_LINE +
+                "  <child type=\"x\">" + NEW_LINE +
+                "    <a>b</a>" + NEW_LINE +
+                "  </child>" + NEW_LINE +
+                "</root>", result.get(RETURN_RESULT));
+    }
+
+    @Test
+    public void testConvertJsonFileToXmlFile() throws Exception {
+        final File jsonFile = folder.newFile("input.json");
+        final File xmlFile = folder.newFile("output.xml");
+        FileUtils.writeStringToFile(jsonFile, "[{\"name1\":\"value1\"},{\"name2\":\"value2\"}]", StandardCharsets.UTF_8);
+
+        Map<String, String> result = converter.execute(
+                "",
+                "false",
+                "true",
+                "items",
+                "item",
+                "",
+                "",
+                "",
+                "",
+                ",",
+                jsonFile.getAbsolutePath(),
+                xmlFile.getAbsolutePath());
+        assertEquals(SUCCESS, result.get(RETURN_CODE));
+        assertEquals("Result was written in the output file: " + xmlFile.getAbsolutePath(), result.get(RETURN_RESULT));
+        assertEquals("<?xml version=\"1.0\" encoding=\"UTF-8\"?>" + NEW_LINE +
+                        "<items><item><name1>value1</name1></item><item><name2>value2</name2></item></items>" + NEW_LINE,
+                FileUtils.readFileToString(xmlFile, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testFailedConversionKeepsOutputFile() throws Exception {
+        final File jsonFile = folder.newFile("input.json");
+        final File xmlFile = folder.newFile("output.xml");
+        FileUtils.writeStringToFile(jsonFile, "[{\"name1\":\"value1\"},{\"name2\":", StandardCharsets.UTF_8);
+        FileUtils.writeStringToFile(xmlFile, "<previous/>", StandardCharsets.UTF_8);
+
+        Map<String, String> result = converter.execute(
+                "",
+                "false",
+                "true",
+                "items",
+                "item",
+                "",
+                "",
+                "",
+                "",
+                ",",
+                jsonFile.getAbsolutePath(),
+                xmlFile.getAbsolutePath());
+        assertEquals(FAILURE, result.get(RETURN_CODE));
+        assertEquals("<previous/>", FileUtils.readFileToString(xmlFile, StandardCharsets.UTF_8));
+        assertEquals(2, folder.getRoot().list().length);
+    }
+
+    @Test
+    public void testJsonAndFilePathBothGiven() {
+        Map<String, String> result = converter.execute(
+                "{\"a\":1}",
+                "false",
+                "false",
+                "root",
+                "item",
+                "",
+                "",
+                "",
+                "",
+                ",",
+                "input.json",
+                "");
+        assertEquals(FAILURE, result.get(RETURN_CODE));
+        assertEquals("Supplied parameters: file path and json when only one is required", result.get(RETURN_RESULT));
+    }
+}
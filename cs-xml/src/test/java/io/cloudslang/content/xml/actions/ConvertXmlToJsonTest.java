@@ -16,9 +16,14 @@
 package io.cloudslang.content.xml.actions;
 
 import io.cloudslang.content.constants.ReturnCodes;
+import org.apache.commons.io.FileUtils;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
+import java.io.File;
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
 
 import static io.cloudslang.content.constants.BooleanValues.FALSE;
@@ -139,6 +144,9 @@ public class ConvertXmlToJsonTest {
             "    \"character\": \"here are some special characters!@#$%^*(\\\")_+:.,?/'\\\\|}{~`\"\n" +
             "  }\n" +
             "}";
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
     private ConvertXmlToJson convertXmlToJson;
 
     @Before
@@ -219,4 +227,48 @@ public class ConvertXmlToJsonTest {
         assertEquals(EMPTY, result.get(NAMESPACES_PREFIXES));
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testConvertXmlToJsonWithManyRepeatedElements() {
+        final StringBuilder xml = new StringBuilder("<list>");
+        final StringBuilder json = new StringBuilder("{\"item\":[");
+        for (int i = 0; i < 5000; i++) {
+            xml.append("<item>").append(i).append("</item><other").append(i).append("/>");
+            json.append(i == 0 ? "" : ",").append("{\"_text\":\"").append(i).append("\"}");
+        }
+        json.append("]");
+        for (int i = 0; i < 5000; i++) {
+            json.append(",\"other").append(i).append("\":\"\"");
+        }
+        xml.append("</list>");
+        json.append("}");
+
+        final Map<String, String> result = convertXmlToJson.execute(xml.toString(), EMPTY, FALSE, FALSE, FALSE, EMPTY);
+
+        assertEquals(SUCCESS, result.get(RETURN_CODE));
+        assertEquals(json.toString(), result.get(RETURN_RESULT));
+    }
+
+    @Test
+    public void testConvertXmlToJsonToOutputFile() throws Exception {
+        final File outputFile = folder.newFile("result.json");
+
+        final Map<String, String> result = convertXmlToJson.execute(XML, EMPTY, TRUE, TRUE, TRUE, EMPTY, outputFile.getAbsolutePath());
+
+        assertEquals(SUCCESS, result.get(RETURN_CODE));
+        assertEquals("Result was written in the output file: " + outputFile.getAbsolutePath(), result.get(RETURN_RESULT));
+        assertEquals(JSON, FileUtils.readFileToString(outputFile, StandardCharsets.UTF_8));
+        assertEquals("f,ui", result.get(NAMESPACES_PREFIXES));
+    }
+
+    @Test
+    public void testInvalidXmlKeepsOutputFile() throws Exception {
+        final File outputFile = folder.newFile("result.json");
+        FileUtils.writeStringToFile(outputFile, "{\"previous\":true}", StandardCharsets.UTF_8);
+
+        final Map<String, String> result = convertXmlToJson.execute(XML + "abc", EMPTY, TRUE, TRUE, TRUE, EMPTY, outputFile.getAbsolutePath());
+
+        assertEquals(ReturnCodes.FAILURE, result.get(RETURN_CODE));
+        assertEquals("{\"previous\":true}", FileUtils.readFileToString(outputFile, StandardCharsets.UTF_8));
+        assertEquals(1, folder.getRoot().list().length);
+    }
+}
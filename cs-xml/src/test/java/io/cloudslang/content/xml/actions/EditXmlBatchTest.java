@@ -0,0 +1,140 @@
+/*
+ * (c) Copyright 2017 EntIT Software LLC, a Micro Focus company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.cloudslang.content.xml.actions;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.charset.Charset;
+import java.util.Map;
+
+import static io.cloudslang.content.constants.OutputNames.EXCEPTION;
+import static io.cloudslang.content.constants.OutputNames.RETURN_CODE;
+import static io.cloudslang.content.constants.OutputNames.RETURN_RESULT;
+import static io.cloudslang.content.constants.ReturnCodes.FAILURE;
+import static io.cloudslang.content.constants.ReturnCodes.SUCCESS;
+import static org.apache.commons.io.IOUtils.readLines;
+import static org.apache.commons.lang3.StringUtils.EMPTY;
+import static org.apache.commons.lang3.StringUtils.join;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class EditXmlBatchTest {
+    private EditXmlBatch editXmlBatch;
+    private EditXml editXml;
+    private String xml;
+    private String filePath;
+
+    @Before
+    public void setUp() throws Exception {
+        editXmlBatch = new EditXmlBatch();
+        editXml = new EditXml();
+        xml = join(readLines(ClassLoader.getSystemResourceAsStream("editxmlres/xmlString.xml"), Charset.forName("UTF-8")), IOUtils.LINE_SEPARATOR);
+        filePath = getClass().getResource("/editxmlres/xmlFile.xml").getPath();
+    }
+
+    @Test
+    public void batchMatchesSequentialEdits() {
+        String operations = "[" +
+                "{\"action\": \"update\", \"xpath\": \"/Employees/Employee/age\", \"type\": \"text\", \"value\": \"40\"}," +
+                "{\"action\": \"delete\", \"xpath\": \"/Employees/Employee[@type='user']\", \"type\": \"elem\"}," +
+                "{\"action\": \"rename\", \"xpath\": \"/Employees/Employee/email\", \"type\": \"elem\", \"value\": \"mail\"}," +
+                "{\"action\": \"insert\", \"xpath1\": \"/Employees/Employee\", \"type\": \"attr\", \"name\": \"active\", \"value\": \"true\"}" +
+                "]";
+
+        Map<String, String> result = editXmlBatch.execute(xml, EMPTY, operations, EMPTY);
+
+        String expected = editXml.xPathReplaceNode(xml, EMPTY, "update", "/Employees/Employee/age", EMPTY, "40", "text", EMPTY, EMPTY).get(RETURN_RESULT);
+        expected = editXml.xPathReplaceNode(expected, EMPTY, "delete", "/Employees/Employee[@type='user']", EMPTY, EMPTY, "elem", EMPTY, EMPTY).get(RETURN_RESULT);
+        expected = editXml.xPathReplaceNode(expected, EMPTY, "rename", "/Employees/Employee/email", EMPTY, "mail", "elem", EMPTY, EMPTY).get(RETURN_RESULT);
+        expected = editXml.xPathReplaceNode(expected, EMPTY, "insert", "/Employees/Employee", EMPTY, "true", "attr", "active", EMPTY).get(RETURN_RESULT);
+        assertEquals(SUCCESS, result.get(RETURN_CODE));
+        assertEquals(expected, result.get(RETURN_RESULT));
+    }
+
+    @Test
+    public void batchResolvesPrefixesAddedByEarlierOperations() {
+        String operations = "[" +
+                "{\"action\": \"subnode\", \"xpath\": \"/Employees\", \"value\": \"<x:team xmlns:x='urn:team'>old</x:team>\"}," +
+                "{\"action\": \"update\", \"xpath\": \"/Employees/x:team\", \"type\": \"text\", \"value\": \"new\"}" +
+                "]";
+
+        Map<String, String> result = editXmlBatch.execute(xml, EMPTY, operations, EMPTY);
+
+        String expected = editXml.xPathReplaceNode(xml, EMPTY, "subnode", "/Employees", EMPTY, "<x:team xmlns:x='urn:team'>old</x:team>", EMPTY, EMPTY, EMPTY).get(RETURN_RESULT);
+        expected = editXml.xPathReplaceNode(expected, EMPTY, "update", "/Employees/x:team", EMPTY, "new", "text", EMPTY, EMPTY).get(RETURN_RESULT);
+        assertEquals(SUCCESS, result.get(RETURN_CODE));
+        assertEquals(expected, result.get(RETURN_RESULT));
+        assertTrue(result.get(RETURN_RESULT).contains(">new</x:team>"));
+    }
+
+    @Test
+    public void batchResolvesPrefixesAddedByAnUpdate() {
+        String operations = "[" +
+                "{\"action\": \"update\", \"xpath\": \"/Employees/Employee[@emplid='1111']/email\", \"type\": \"elem\", \"value\": \"<x:mail xmlns:x='urn:mail'>old</x:mail>\"}," +
+                "{\"action\": \"update\", \"xpath\": \"/Employees/Employee/email/x:mail\", \"type\": \"text\", \"value\": \"new\"}" +
+                "]";
+
+        Map<String, String> result = editXmlBatch.execute(xml, EMPTY, operations, EMPTY);
+
+        String expected = editXml.xPathReplaceNode(xml, EMPTY, "update", "/Employees/Employee[@emplid='1111']/email", EMPTY, "<x:mail xmlns:x='urn:mail'>old</x:mail>", "elem", EMPTY, EMPTY).get(RETURN_RESULT);
+        expected = editXml.xPathReplaceNode(expected, EMPTY, "update", "/Employees/Employee/email/x:mail", EMPTY, "new", "text", EMPTY, EMPTY).get(RETURN_RESULT);
+        assertEquals(SUCCESS, result.get(RETURN_CODE));
+        assertEquals(expected, result.get(RETURN_RESULT));
+        assertTrue(result.get(RETURN_RESULT).contains(">new</x:mail>"));
+    }
+
+    @Test
+    public void batchOnFile() {
+        String operations = "[{\"action\": \"delete\", \"xpath\": \"/Employees/Employee\", \"type\": \"attr\", \"name\": \"emplid\"}," +
+                "{\"action\": \"subnode\", \"xpath\": \"/Employees/Employee\", \"value\": \"<phone>none</phone>\"}]";
+
+        Map<String, String> result = editXmlBatch.execute(EMPTY, filePath, operations, EMPTY);
+
+        assertEquals(SUCCESS, result.get(RETURN_CODE));
+        assertTrue(!result.get(RETURN_RESULT).contains("emplid"));
+        assertTrue(result.get(RETURN_RESULT).contains("<phone>none</phone>"));
+    }
+
+    @Test
+    public void invalidOperationIsReportedBeforeEditing() {
+        String operations = "[{\"action\": \"update\", \"xpath\": \"/Employees/Employee/age\", \"type\": \"text\", \"value\": \"40\"}," +
+                "{\"action\": \"update\", \"xpath\": \"/Employees/Employee\", \"type\": \"attr\", \"value\": \"40\"}]";
+
+        Map<String, String> result = editXmlBatch.execute(xml, EMPTY, operations, EMPTY);
+
+        assertEquals(FAILURE, result.get(RETURN_CODE));
+        assertEquals("Operation 2 (update) is invalid: name input is required for type 'attr' ", result.get(RETURN_RESULT));
+    }
+
+    @Test
+    public void invalidAction() {
+        Map<String, String> result = editXmlBatch.execute(xml, EMPTY, "[{\"action\": \"replace\", \"xpath\": \"/Employees\", \"type\": \"elem\"}]", EMPTY);
+
+        assertEquals(FAILURE, result.get(RETURN_CODE));
+        assertTrue(result.get(RETURN_RESULT).startsWith("Operation 1 (replace) is invalid: Invalid action"));
+    }
+
+    @Test
+    public void operationsMustBeAnArray() {
+        Map<String, String> result = editXmlBatch.execute(xml, EMPTY, "{\"action\": \"delete\"}", EMPTY);
+
+        assertEquals(FAILURE, result.get(RETURN_CODE));
+        assertEquals("The operations input must be a non empty JSON array of operations.", result.get(EXCEPTION));
+    }
+}
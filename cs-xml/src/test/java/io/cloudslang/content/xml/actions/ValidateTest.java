@@ -16,6 +16,7 @@
 package io.cloudslang.content.xml.actions;
 
 import io.cloudslang.content.constants.ResponseNames;
+import io.cloudslang.content.xml.services.XsdSchemaCache;
 import io.cloudslang.content.xml.utils.Constants;
 import org.apache.commons.io.FileUtils;
 import org.junit.After;
@@ -113,4 +114,33 @@ public class ValidateTest {
                 "cvc-complex-type.4: Attribute 'someid' must appear on element 'root'.",
                 result.get(ERROR_MESSAGE));
     }
+
+    @Test
+    public void testWithValidXMLFileAndCachedXSDFile() throws Exception {
+        String xmlPath = new File(getClass().getResource("/xml/valid.xml").toURI()).getAbsolutePath();
+        String xsdPath = new File(getClass().getResource("/xml/test.xsd").toURI()).getAbsolutePath();
+        XsdSchemaCache.getInstance().clear();
+
+        for (int i = 0; i < 2; i++) {
+            Map<String, String> result = validate.execute(xmlPath, Constants.XML_PATH, xsdPath, Constants.XSD_PATH, EMPTY, EMPTY, EMPTY, EMPTY, EMPTY, EMPTY, EMPTY, EMPTY, EMPTY, EMPTY, EMPTY, EMPTY, FALSE);
+
+            assertEquals(SUCCESS, result.get(RETURN_CODE));
+            assertEquals(VALIDATION_SUCCESS, result.get(RETURN_RESULT));
+        }
+        assertEquals(1, XsdSchemaCache.getInstance().getMissCount());
+        assertEquals(1, XsdSchemaCache.getInstance().getHitCount());
+    }
+
+    @Test
+    public void testWithNonWellFormedXMLAndXSD() throws Exception {
+        URI resourceXSD = getClass().getResource("/xml/test.xsd").toURI();
+        String xsd = FileUtils.readFileToString(new File(resourceXSD));
+        xml = "<root someid=\"5\"><element1>First element</element1></roo>";
+
+        Map<String, String> result = validate.execute(xml, EMPTY, xsd, EMPTY, EMPTY, EMPTY, EMPTY, EMPTY, EMPTY, EMPTY, EMPTY, EMPTY, EMPTY, EMPTY, EMPTY, EMPTY, FALSE);
+
+        assertEquals(FAILURE, result.get(RETURN_CODE));
+        assertEquals(PARSING_ERROR + "The element type \"root\" must be terminated by the matching end-tag \"</root>\".",
+                result.get(ERROR_MESSAGE));
+    }
 }
@@ -31,6 +31,7 @@ import java.nio.charset.Charset;
 import java.util.Map;
 
 import static io.cloudslang.content.constants.BooleanValues.FALSE;
+import static io.cloudslang.content.constants.BooleanValues.TRUE;
 import static io.cloudslang.content.constants.OutputNames.RETURN_CODE;
 import static io.cloudslang.content.constants.OutputNames.RETURN_RESULT;
 import static io.cloudslang.content.constants.ReturnCodes.FAILURE;
@@ -173,4 +174,88 @@ public class XpathQueryTest {
         assertEquals(ResponseNames.FAILURE, result.get(RESULT_TEXT));
         assertEquals(FAILURE, result.get(RETURN_CODE));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testStreamingSelectValue() {
+        Map<String, String> result = select.execute(xml, EMPTY, "/root/element3/subelement", VALUE, null, FALSE, TRUE);
+
+        assertEquals("Sub3", result.get(SELECTED_VALUE));
+        assertEquals(SELECT_SUCCESS, result.get(RETURN_RESULT));
+    }
+
+    @Test
+    public void testStreamingSelectNode() {
+        Map<String, String> result = select.execute(xml, EMPTY, "/root/element3/subelement", NODE, null, FALSE, TRUE);
+
+        assertEquals("<subelement attr=\"toDelete\">Sub3</subelement>", result.get(SELECTED_VALUE));
+        assertEquals(SELECT_SUCCESS, result.get(RETURN_RESULT));
+    }
+
+    @Test
+    public void testStreamingSelectElementListMatchesDom() {
+        Map<String, String> domResult = select.execute(xml, EMPTY, "//subelement", NODE_LIST, ",", FALSE);
+        Map<String, String> streamingResult = select.execute(xml, EMPTY, "//subelement", NODE_LIST, ",", FALSE, TRUE);
+
+        assertEquals(domResult.get(SELECTED_VALUE), streamingResult.get(SELECTED_VALUE));
+        assertEquals(SELECT_SUCCESS, streamingResult.get(RETURN_RESULT));
+    }
+
+    @Test
+    public void testStreamingSelectAttributeList() {
+        Map<String, String> result = select.execute(xml, EMPTY, "//root/@*", NODE_LIST, ",", FALSE, TRUE);
+
+        assertEquals("someid=\"5\"", result.get(SELECTED_VALUE));
+    }
+
+    @Test
+    public void testStreamingSelectWithPredicates() {
+        String xPathQuery = "/root/*[2]/subelement[@attr='toDelete']/text()";
+
+        Map<String, String> result = select.execute(xml, EMPTY, xPathQuery, NODE_LIST, ",", FALSE, TRUE);
+
+        assertEquals("Sub2", result.get(SELECTED_VALUE));
+        assertEquals(select.execute(xml, EMPTY, xPathQuery, NODE_LIST, ",", FALSE).get(SELECTED_VALUE), result.get(SELECTED_VALUE));
+    }
+
+    @Test
+    public void testStreamingFindWithNameSpace() throws Exception {
+        URI resource = getClass().getResource("/xml/namespaceTest.xml").toURI();
+
+        Map<String, String> result = select.execute(new File(resource).getAbsolutePath(), XML_PATH, "//foo:element1", NODE, null, FALSE, TRUE);
+
+        assertEquals("<foo:element1 xmlns:foo=\"http://www.foo.org/\">First element</foo:element1>", result.get(SELECTED_VALUE));
+    }
+
+    @Test
+    public void testStreamingNotFoundValue() {
+        Map<String, String> result = select.execute(xml, EMPTY, "/root/element1/@id", VALUE, null, FALSE, TRUE);
+
+        assertEquals("No match found", result.get(SELECTED_VALUE));
+        assertEquals(SELECT_SUCCESS, result.get(RETURN_RESULT));
+    }
+
+    @Test
+    public void testStreamingUnsupportedExpression() {
+        Map<String, String> result = select.execute(xml, EMPTY, "count(//subelement)", VALUE, null, FALSE, TRUE);
+
+        assertEquals(FAILURE, result.get(RETURN_CODE));
+    }
+
+    @Test
+    public void testFindWithGivenNamespaces() throws Exception {
+        URI resource = getClass().getResource("/xml/namespaceTest.xml").toURI();
+
+        Map<String, String> result = select.execute(new File(resource).getAbsolutePath(), XML_PATH, "//bar:element1", VALUE,
+                null, FALSE, FALSE, "bar", "http://www.foo.org/");
+
+        assertEquals("First element", result.get(SELECTED_VALUE));
+        assertEquals(SELECT_SUCCESS, result.get(RETURN_RESULT));
+    }
+
+    @Test
+    public void testFindWithMismatchedNamespaces() {
+        Map<String, String> result = select.execute(xml, EMPTY, "/root", VALUE, null, FALSE, FALSE, "a,b", "http://www.foo.org/");
+
+        assertEquals(FAILURE, result.get(RETURN_CODE));
+    }
+}